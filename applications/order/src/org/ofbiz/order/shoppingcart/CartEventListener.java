@@ -30,6 +30,7 @@ import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
 import org.ofbiz.entity.transaction.TransactionUtil;
 import org.ofbiz.product.product.ProductSearchSession;
+import org.ofbiz.webapp.session.SessionState;
 import org.ofbiz.webapp.stats.VisitHandler;
 
 /**
@@ -55,7 +56,7 @@ public class CartEventListener implements HttpSessionListener {
     @Override
     public void sessionDestroyed(HttpSessionEvent event) {
         HttpSession session = event.getSession();
-        ShoppingCart cart = (ShoppingCart) session.getAttribute("shoppingCart");
+        ShoppingCart cart = (ShoppingCart) SessionState.getAttribute(session, "shoppingCart"); // SCIPIO: may be externalized
         if (cart == null) {
             Debug.logInfo("No cart to save, doing nothing.", module);
             return;
@@ -41,6 +41,7 @@ import org.ofbiz.base.util.UtilHttp;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilProperties;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
@@ -575,16 +576,19 @@ public final class CategoryWorker {
      * NOTE: is caching
      */
     public static boolean isCategoryChildOf(Delegator delegator, LocalDispatcher dispatcher, String parentProductCategoryId, String productCategoryId) {
-        try {
-            List<EntityCondition> rolllupConds = new ArrayList<>();
-            rolllupConds.add(EntityCondition.makeCondition("parentProductCategoryId", parentProductCategoryId));
-            rolllupConds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
-            Collection<GenericValue> rollups = EntityQuery.use(delegator).from("ProductCategoryRollup").where(rolllupConds).filterByDate().cache().queryList();
-            return !rollups.isEmpty();
-        } catch (GenericEntityException e) {
-            Debug.logWarning(e, module);
-        }
-        return false;
+        // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+        return RequestMemo.getCurrent("CategoryWorker.isCategoryChildOf", RequestMemo.key(delegator.getDelegatorName(), parentProductCategoryId, productCategoryId), () -> {
+            try {
+                List<EntityCondition> rolllupConds = new ArrayList<>();
+                rolllupConds.add(EntityCondition.makeCondition("parentProductCategoryId", parentProductCategoryId));
+                rolllupConds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
+                Collection<GenericValue> rollups = EntityQuery.use(delegator).from("ProductCategoryRollup").where(rolllupConds).filterByDate().cache().queryList();
+                return !rollups.isEmpty();
+            } catch (GenericEntityException e) {
+                Debug.logWarning(e, module);
+            }
+            return false;
+        });
     }
 
     /**
@@ -603,18 +607,21 @@ public final class CategoryWorker {
      * NOTE: is caching
      */
     public static boolean isCategoryTop(Delegator delegator, LocalDispatcher dispatcher, String productCategoryId) {
-        if (UtilValidate.isEmpty(productCategoryId)) {
-            return false;
-        }
-        try {
-            List<EntityCondition> rollupConds = new ArrayList<>();
-            rollupConds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
-            Collection<GenericValue> rollups = EntityQuery.use(delegator).from("ProductCategoryRollup").where(rollupConds).filterByDate().cache().queryList();
-            return rollups.isEmpty();
-        } catch (GenericEntityException e) {
-            Debug.logWarning(e, module);
-        }
-        return false; // can't tell, return false to play it safe
+        // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+        return RequestMemo.getCurrent("CategoryWorker.isCategoryTop", RequestMemo.key(delegator.getDelegatorName(), productCategoryId), () -> {
+            if (UtilValidate.isEmpty(productCategoryId)) {
+                return false;
+            }
+            try {
+                List<EntityCondition> rollupConds = new ArrayList<>();
+                rollupConds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
+                Collection<GenericValue> rollups = EntityQuery.use(delegator).from("ProductCategoryRollup").where(rollupConds).filterByDate().cache().queryList();
+                return rollups.isEmpty();
+            } catch (GenericEntityException e) {
+                Debug.logWarning(e, module);
+            }
+            return false; // can't tell, return false to play it safe
+        });
     }
 
     /**
@@ -633,20 +640,23 @@ public final class CategoryWorker {
      * NOTE: is caching
      */
     public static boolean isCategoryContainsProduct(Delegator delegator, LocalDispatcher dispatcher, String productCategoryId, String productId) {
-        if (UtilValidate.isEmpty(productCategoryId) || UtilValidate.isEmpty(productId)) {
-            return false;
-        }
-        try {
-            List<EntityCondition> conds = new ArrayList<>();
-            conds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
-            conds.add(EntityCondition.makeCondition("productId", productId));
-            List<GenericValue> productCategoryMembers = EntityQuery.use(delegator).select("productCategoryId").from("ProductCategoryMember")
-                    .where(conds).filterByDate().cache(true).queryList();
-            return !productCategoryMembers.isEmpty();
-        } catch (GenericEntityException e) {
-            Debug.logWarning(e, module);
-        }
-        return false; // can't tell, return false to play it safe
+        // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+        return RequestMemo.getCurrent("CategoryWorker.isCategoryContainsProduct", RequestMemo.key(delegator.getDelegatorName(), productCategoryId, productId), () -> {
+            if (UtilValidate.isEmpty(productCategoryId) || UtilValidate.isEmpty(productId)) {
+                return false;
+            }
+            try {
+                List<EntityCondition> conds = new ArrayList<>();
+                conds.add(EntityCondition.makeCondition("productCategoryId", productCategoryId));
+                conds.add(EntityCondition.makeCondition("productId", productId));
+                List<GenericValue> productCategoryMembers = EntityQuery.use(delegator).select("productCategoryId").from("ProductCategoryMember")
+                        .where(conds).filterByDate().cache(true).queryList();
+                return !productCategoryMembers.isEmpty();
+            } catch (GenericEntityException e) {
+                Debug.logWarning(e, module);
+            }
+            return false; // can't tell, return false to play it safe
+        });
     }
 
     /**
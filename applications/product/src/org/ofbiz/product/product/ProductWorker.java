@@ -37,6 +37,7 @@ import org.ofbiz.base.util.GeneralException;
 import org.ofbiz.base.util.UtilDateTime;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.common.geo.GeoWorker;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
@@ -811,6 +812,15 @@ public final class ProductWorker {
      * Added 2017-09-12.
      */
     public static GenericValue getParentProductAssoc(String productId, Delegator delegator, boolean useCache) { // SCIPIO: added useCache 2017-09-05
+        if (useCache) {
+            // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+            return RequestMemo.getCurrent("ProductWorker.getParentProductAssoc", RequestMemo.key(delegator.getDelegatorName(), productId),
+                    () -> findParentProductAssoc(productId, delegator, true));
+        }
+        return findParentProductAssoc(productId, delegator, false);
+    }
+
+    private static GenericValue findParentProductAssoc(String productId, Delegator delegator, boolean useCache) {
         if (productId == null) {
             Debug.logWarning("Bad product id", module);
         }
@@ -1836,6 +1846,15 @@ nextProd:
             //Debug.logWarning("Bad product id", module);
             return null;
         }
+        if (useCache) {
+            // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+            return RequestMemo.getCurrent("ProductWorker.getMainProductAssoc", RequestMemo.key(delegator.getDelegatorName(), productId),
+                    () -> findMainProductAssoc(delegator, productId, true));
+        }
+        return findMainProductAssoc(delegator, productId, false);
+    }
+
+    private static GenericValue findMainProductAssoc(Delegator delegator, String productId, boolean useCache) {
         try {
             List<EntityCondition> productAssocTypeIdCondList = UtilMisc.toList(
                     EntityCondition.makeCondition("productAssocTypeId", "PRODUCT_VARIANT"),
@@ -36,6 +36,7 @@ import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilHttp;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.common.geo.GeoWorker;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
@@ -110,7 +111,9 @@ public final class ProductStoreWorker {
     public static GenericValue getProductStore(ServletRequest request) {
         Delegator delegator = (Delegator) request.getAttribute("delegator");
         String productStoreId = ProductStoreWorker.getProductStoreId(request);
-        return ProductStoreWorker.getProductStore(productStoreId, delegator);
+        // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+        return RequestMemo.get(request, "ProductStoreWorker.getProductStore", productStoreId,
+                () -> ProductStoreWorker.getProductStore(productStoreId, delegator));
     }
 
     public static String getProductStoreId(ServletRequest request) {
@@ -849,7 +849,6 @@ public class WorkEffortServices {
                 // Process recurring work efforts
                 Set<GenericValue> exclusions = new HashSet<>();
                 Set<GenericValue> inclusions = new HashSet<>();
-                DateRange range = new DateRange(startStamp, endStamp);
                 Calendar cal = UtilDateTime.toCalendar(startStamp, timeZone, locale);
                 for (GenericValue workEffort : validWorkEfforts) {
                     if (UtilValidate.isNotEmpty(workEffort.getString("tempExprId"))) {
@@ -864,7 +863,7 @@ public class WorkEffortServices {
                         TemporalExpression tempExpr = TemporalExpressionWorker.getTemporalExpression(delegator, workEffort.getString("tempExprId"));
                         DateRange weRange = new DateRange(workEffort.getTimestamp("estimatedStartDate"), workEffort.getTimestamp("estimatedCompletionDate"));
 
-                        Set<Date> occurrences = tempExpr.getRange(range, cal);
+                        List<Date> occurrences = tempExpr.occurrencesBetween(cal, endStamp); // SCIPIO: was: getRange(range, cal)
                         for (Date occurrence : occurrences) {
                             for (DateRange periodRange : periodRanges) {
                                 if (periodRange.includesDate(occurrence)) {
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ofbiz.base.lang.ThreadSafe;
+
+/**
+ * SCIPIO: Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below {@link #SUB_BUCKET_COUNT} are counted exactly; larger values fall into one of
+ * {@link #SUB_BUCKET_COUNT} linear sub-buckets per power of two, so percentiles are reported with
+ * a relative error of at most 1/{@link #SUB_BUCKET_COUNT} (about 6%). Recording is a single
+ * atomic increment plus two striped adds, so it can be called on every service invocation.
+ * <p>
+ * The unit of the recorded values is up to the caller (services record microseconds).
+ * Values above {@link #MAX_VALUE} are clamped.
+ */
+@ThreadSafe
+public final class LatencyHistogram {
+
+    public static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** Highest power of two tracked; with microseconds this covers about 38 hours. */
+    public static final int MAX_EXPONENT = 36;
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + ((MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalValue.add(value);
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    /** Returns the number of recorded values. */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /** Returns the sum of the recorded values. */
+    public long getTotal() {
+        return totalValue.sum();
+    }
+
+    /** Returns the highest recorded value. */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /** Returns the mean of the recorded values, or 0 if none. */
+    public double getMean() {
+        long count = totalCount.sum();
+        return (count > 0) ? ((double) totalValue.sum() / count) : 0;
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), as the highest value equivalent to the
+     * bucket containing it, capped by the highest recorded value; returns 0 if no values were recorded.
+     * <p>
+     * The counts are read without locking, so under concurrent recording the result reflects
+     * an approximate snapshot.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        return getValueAtPercentile(snapshot, count, percentile);
+    }
+
+    /**
+     * Returns the values at the given percentiles (0-100) from a single pass over the counts.
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long[] values = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            values[i] = getValueAtPercentile(snapshot, count, percentiles[i]);
+        }
+        return values;
+    }
+
+    private long getValueAtPercentile(long[] snapshot, long count, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+        long target = Math.max(1, (long) Math.ceil((clamped / 100.0) * count));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /** Clears all recorded values. Values recorded concurrently with a reset may be partially kept. */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + (shift * SUB_BUCKET_COUNT) + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
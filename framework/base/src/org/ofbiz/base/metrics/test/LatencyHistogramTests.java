@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.metrics.test;
+
+import org.ofbiz.base.metrics.LatencyHistogram;
+import org.ofbiz.base.test.GenericTestCaseBase;
+
+public class LatencyHistogramTests extends GenericTestCaseBase {
+
+    public LatencyHistogramTests(String name) {
+        super(name);
+    }
+
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals("count", 0, histogram.getCount());
+        assertEquals("p50", 0, histogram.getValueAtPercentile(50));
+        assertEquals("mean", 0.0, histogram.getMean(), 0.0);
+    }
+
+    public void testExactSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals("count", 10, histogram.getCount());
+        assertEquals("total", 55, histogram.getTotal());
+        assertEquals("max", 10, histogram.getMax());
+        assertEquals("p50", 5, histogram.getValueAtPercentile(50));
+        assertEquals("p100", 10, histogram.getValueAtPercentile(100));
+    }
+
+    public void testPercentilePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        long[] values = histogram.getValuesAtPercentiles(50, 95, 99);
+        assertWithinPrecision("p50", 50000, values[0]);
+        assertWithinPrecision("p95", 95000, values[1]);
+        assertWithinPrecision("p99", 99000, values[2]);
+        assertEquals("max", 100000, histogram.getMax());
+    }
+
+    public void testClampAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals("count", 2, histogram.getCount());
+        assertEquals("max", LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals("p100", LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+        histogram.reset();
+        assertEquals("count after reset", 0, histogram.getCount());
+        assertEquals("max after reset", 0, histogram.getMax());
+    }
+
+    private static void assertWithinPrecision(String label, long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(label + " expected ~" + expected + " got " + actual, error <= 1.0 / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.ofbiz.base.util;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -108,6 +109,18 @@ public class UtilCodec {
          * Added 2018-06-11 (backported from Scipio's own ContentLangUtil.ContentSanitizer, which will be killed).
          */
         public String getLang();
+
+        /**
+         * SCIPIO: Writes the encoded string to the output (nothing for null); encoders override it to write the parts
+         * that need no encoding without copying them.
+         * Added 2026-10.
+         */
+        public default void encodeTo(Appendable out, String original) throws IOException {
+            String encoded = encode(original);
+            if (encoded != null) {
+                out.append(encoded);
+            }
+        }
     }
 
     public static interface SimpleDecoder {
@@ -116,12 +129,17 @@ public class UtilCodec {
 
     public static class HtmlEncoder implements SimpleEncoder {
         private static final char[] IMMUNE_HTML = {',', '.', '-', '_', ' '};
+        private static final boolean[] UNCHANGED_HTML = makeUnchangedTable(IMMUNE_HTML); // SCIPIO
         private HTMLEntityCodec htmlCodec = new HTMLEntityCodec();
         public String encode(String original) {
             if (original == null) {
                 return null;
             }
-            return htmlCodec.encode(IMMUNE_HTML, original);
+            return encodeWithCodec(htmlCodec, IMMUNE_HTML, UNCHANGED_HTML, original); // SCIPIO: 2026-10: unchanged strings as-is
+        }
+        @Override
+        public void encodeTo(Appendable out, String original) throws IOException { // SCIPIO
+            encodeWithCodec(out, htmlCodec, IMMUNE_HTML, UNCHANGED_HTML, original);
         }
         public String sanitize(String original) {
             if (original == null) {
@@ -200,12 +218,17 @@ public class UtilCodec {
 
     public static class XmlEncoder implements SimpleEncoder {
         private static final char[] IMMUNE_XML = {',', '.', '-', '_', ' '};
+        private static final boolean[] UNCHANGED_XML = makeUnchangedTable(IMMUNE_XML); // SCIPIO
         private XMLEntityCodec xmlCodec = new XMLEntityCodec();
         public String encode(String original) {
             if (original == null) {
                 return null;
             }
-            return xmlCodec.encode(IMMUNE_XML, original);
+            return encodeWithCodec(xmlCodec, IMMUNE_XML, UNCHANGED_XML, original); // SCIPIO: 2026-10: unchanged strings as-is
+        }
+        @Override
+        public void encodeTo(Appendable out, String original) throws IOException { // SCIPIO
+            encodeWithCodec(out, xmlCodec, IMMUNE_XML, UNCHANGED_XML, original);
         }
         public String sanitize(String original) {
             return encode(original);
@@ -254,7 +277,7 @@ public class UtilCodec {
 
     public static class StringEncoder implements SimpleEncoder {
         public String encode(String original) {
-            if (original != null) {
+            if (original != null && original.indexOf('"') >= 0) { // SCIPIO: 2026-10: unchanged strings as-is
                 original = original.replace("\"", "\\\"");
             }
             return original;
@@ -273,9 +296,14 @@ public class UtilCodec {
      */
     public static class CssIdEncoder implements SimpleEncoder {
         private static final char[] IMMUNE_CSS = {'-', '_'};
+        private static final boolean[] UNCHANGED_CSS = makeUnchangedTable(IMMUNE_CSS);
         private CSSCodec cssCodec = new CSSCodec();
         public String encode(String original) {
-            return (original != null) ? cssCodec.encode(IMMUNE_CSS, original) : null;
+            return (original != null) ? encodeWithCodec(cssCodec, IMMUNE_CSS, UNCHANGED_CSS, original) : null;
+        }
+        @Override
+        public void encodeTo(Appendable out, String original) throws IOException {
+            encodeWithCodec(out, cssCodec, IMMUNE_CSS, UNCHANGED_CSS, original);
         }
         @Override
         public String sanitize(String original) {
@@ -294,9 +322,14 @@ public class UtilCodec {
         // TODO: REVIEW: there many be many more characters safe to allow... these are mainly URL-related
         // TODO: REVIEW: should we really skip ampersand here? '&' - if we let it encode, it could prevent some html-related user misuse...
         private static final char[] IMMUNE_CSS = {',', '.', '-', '_', ' ', '?', ';', ':', '=', '/', '&', '%'};
+        private static final boolean[] UNCHANGED_CSS = makeUnchangedTable(IMMUNE_CSS);
         private CSSCodec cssCodec = new CSSCodec();
         public String encode(String original) {
-            return (original != null) ? cssCodec.encode(IMMUNE_CSS, original) : null;
+            return (original != null) ? encodeWithCodec(cssCodec, IMMUNE_CSS, UNCHANGED_CSS, original) : null;
+        }
+        @Override
+        public void encodeTo(Appendable out, String original) throws IOException {
+            encodeWithCodec(out, cssCodec, IMMUNE_CSS, UNCHANGED_CSS, original);
         }
         @Override
         public String sanitize(String original) {
@@ -352,6 +385,12 @@ public class UtilCodec {
             return original;
         }
         @Override
+        public void encodeTo(Appendable out, String original) throws IOException {
+            if (original != null) {
+                out.append(original);
+            }
+        }
+        @Override
         public String sanitize(String original) {
             return original;
         }
@@ -362,6 +401,69 @@ public class UtilCodec {
     }
 
 
+    /**
+     * SCIPIO: Returns the table of the ASCII characters that the ESAPI codecs output unchanged for the given immune
+     * characters: letters, digits and the immune characters.
+     * Added 2026-10.
+     */
+    private static boolean[] makeUnchangedTable(char[] immune) {
+        boolean[] table = new boolean[128];
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = true;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = true;
+            table[Character.toUpperCase(c)] = true;
+        }
+        for (char c : immune) {
+            if (c < 128) {
+                table[c] = true;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * SCIPIO: Returns the index of the first character the codec changes, or -1 if the string is output unchanged.
+     * Added 2026-10.
+     */
+    private static int indexOfChanged(String original, boolean[] unchanged) {
+        for (int i = 0; i < original.length(); i++) {
+            char c = original.charAt(i);
+            if (c >= 128 || !unchanged[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * SCIPIO: Encodes with the ESAPI codec, returning the original string itself if no character needs encoding,
+     * which is the case of most values (the codecs allocate a new string per character otherwise).
+     * Added 2026-10.
+     */
+    private static String encodeWithCodec(Codec codec, char[] immune, boolean[] unchanged, String original) {
+        return (indexOfChanged(original, unchanged) < 0) ? original : codec.encode(immune, original);
+    }
+
+    /**
+     * SCIPIO: Encodes with the ESAPI codec to the output, writing the part before the first character that needs
+     * encoding as-is; the codecs encode each character on its own, so the rest encodes the same alone.
+     * Added 2026-10.
+     */
+    private static void encodeWithCodec(Appendable out, Codec codec, char[] immune, boolean[] unchanged, String original) throws IOException {
+        if (original == null) {
+            return;
+        }
+        int index = indexOfChanged(original, unchanged);
+        if (index < 0) {
+            out.append(original);
+        } else {
+            out.append(original, 0, index);
+            out.append(codec.encode(immune, original.substring(index)));
+        }
+    }
+
     // ================== Begin General Functions ==================
 
     private static final Map<String, SimpleEncoder> encoderMap;
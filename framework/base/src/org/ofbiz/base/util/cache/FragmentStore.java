@@ -0,0 +1,538 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+
+/**
+ * SCIPIO: Store of cached output (rendered fragments, pages) kept outside the Java heap, so that large amounts of it
+ * do not weigh on the garbage collector.
+ * <p>
+ * Contents are stored as bytes (Strings as UTF-8) in fixed-size blocks of direct ByteBuffer slabs, allocated as
+ * needed up to <code>maxBytes</code>. When full, the least recently used fragments that are not being read are
+ * evicted; a fragment that does not fit even so is not stored, and nothing is evicted for it. Bytes are accounted exactly: {@link #getUsedBytes()} is the sum of the stored
+ * fragment lengths, {@link #getBlockBytes()} the space of their blocks.
+ * <p>
+ * Fragments are read through {@link #acquire(String)}, which pins the blocks until the returned {@link Fragment} is
+ * closed, so a fragment evicted or replaced while being written out stays intact. {@link Fragment#writeTo(WritableByteChannel)}
+ * writes the blocks to the channel without copying them to the heap.
+ * <p>
+ * Named stores are configured in cache.properties by <code>[name].maxBytes</code> (0, the default, disables the
+ * store), <code>[name].blockSize</code> and <code>[name].slabSize</code>; see {@link #getStore(String)}. Stores only
+ * hold the contents: expiry and the other entry data stay with the caller (usually in a UtilCache entry, with the
+ * same key), which must handle a missing fragment as a miss; {@link #removeWithCacheEntries} frees the fragments of
+ * the UtilCache entries as these go.
+ * <p>
+ * Added 2026-10.
+ */
+public final class FragmentStore {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+    public static final int DEFAULT_SLAB_SIZE = 1048576;
+
+    private static final ConcurrentMap<String, FragmentStore> storeMap = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final ByteBuffer[] slabs;
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+    private final int[] freeBlocks;
+    private int freeBlockCount = 0;
+    private int slabCount = 0;
+    private long usedBytes = 0;
+    private int usedBlocks = 0;
+    /** Blocks of the stored fragments not being read, which eviction can free. */
+    private int evictableBlocks = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private long rejectCount = 0;
+
+    /**
+     * Creates a store of up to maxBytes bytes (rounded down to whole slabs, at least one slab).
+     */
+    public FragmentStore(String name, long maxBytes, int blockSize, int slabSize) {
+        if (blockSize <= 0 || slabSize < blockSize) {
+            throw new IllegalArgumentException("Invalid block size [" + blockSize + "] or slab size [" + slabSize + "] for fragment store " + name);
+        }
+        this.name = name;
+        this.blockSize = blockSize;
+        this.blocksPerSlab = slabSize / blockSize;
+        long slabBytes = (long) blocksPerSlab * blockSize;
+        int maxSlabs = (int) Math.max(1, Math.min(maxBytes / slabBytes, Integer.MAX_VALUE / blocksPerSlab));
+        this.slabs = new ByteBuffer[maxSlabs];
+        this.freeBlocks = new int[maxSlabs * blocksPerSlab];
+    }
+
+    /**
+     * Returns the named store configured in cache.properties, or null if it is disabled (<code>[name].maxBytes</code>
+     * missing or 0).
+     */
+    public static FragmentStore getStore(String name) {
+        FragmentStore store = storeMap.get(name);
+        if (store != null) {
+            return store;
+        }
+        long maxBytes = UtilProperties.getPropertyAsLong("cache", name + ".maxBytes", 0);
+        if (maxBytes <= 0) {
+            return null;
+        }
+        int blockSize = UtilProperties.getPropertyAsInteger("cache", name + ".blockSize", DEFAULT_BLOCK_SIZE);
+        int slabSize = UtilProperties.getPropertyAsInteger("cache", name + ".slabSize", DEFAULT_SLAB_SIZE);
+        return storeMap.computeIfAbsent(name, n -> {
+            FragmentStore newStore = new FragmentStore(n, maxBytes, blockSize, slabSize);
+            Debug.logInfo("Created fragment store [" + n + "] of " + newStore.getCapacityBytes() + " bytes off-heap", module);
+            return newStore;
+        });
+    }
+
+    /**
+     * Stores the string as UTF-8, replacing any previous fragment of the key; returns false if it does not fit,
+     * in which case the previous fragment is removed anyway.
+     */
+    public boolean put(String key, String value) {
+        return put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stores the bytes, replacing any previous fragment of the key; returns false if they do not fit, in which case
+     * the previous fragment is removed anyway.
+     */
+    public boolean put(String key, byte[] bytes) {
+        return put(key, bytes, 0, bytes.length);
+    }
+
+    public boolean put(String key, byte[] bytes, int offset, int length) {
+        int blockCount = (length + blockSize - 1) / blockSize;
+        Slot slot;
+        synchronized (lock) {
+            Slot oldSlot = slots.remove(key);
+            if (oldSlot != null) {
+                unstore(oldSlot);
+            }
+            int[] blocks = allocateBlocks(blockCount);
+            if (blocks == null) {
+                rejectCount++;
+                if (Debug.verboseOn()) {
+                    Debug.logVerbose("Fragment store [" + name + "]: no room for " + length + " bytes of [" + key + "]", module);
+                }
+                return false;
+            }
+            usedBlocks += blockCount;
+            usedBytes += length;
+            slot = new Slot(blocks, length);
+        }
+        // The blocks are not reachable by others until the slot is added below
+        for (int i = 0; i < slot.blocks.length; i++) {
+            int pos = i * blockSize;
+            getBlockBuffer(slot.blocks[i], Math.min(blockSize, length - pos)).put(bytes, offset + pos, Math.min(blockSize, length - pos));
+        }
+        synchronized (lock) {
+            slot.stored = true;
+            evictableBlocks += slot.blocks.length;
+            Slot oldSlot = slots.put(key, slot);
+            if (oldSlot != null) {
+                unstore(oldSlot); // concurrent put of the same key
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the fragment of the key, pinned until closed (in a try-with-resources), or null if none.
+     */
+    public Fragment acquire(String key) {
+        synchronized (lock) {
+            Slot slot = slots.get(key);
+            if (slot == null) {
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            if (slot.refCount++ == 1) {
+                evictableBlocks -= slot.blocks.length;
+            }
+            return new Fragment(slot);
+        }
+    }
+
+    /**
+     * Appends the fragment of the key, decoded from UTF-8; returns false if none.
+     */
+    public boolean appendTo(String key, Appendable out) throws IOException {
+        try (Fragment fragment = acquire(key)) {
+            if (fragment == null) {
+                return false;
+            }
+            fragment.appendTo(out);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the fragment of the key decoded from UTF-8, or null if none.
+     */
+    public String getString(String key) {
+        try (Fragment fragment = acquire(key)) {
+            if (fragment == null) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder(fragment.getLength());
+            fragment.appendTo(sb);
+            return sb.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by StringBuilder
+        }
+    }
+
+    public boolean containsKey(String key) {
+        synchronized (lock) {
+            return slots.containsKey(key);
+        }
+    }
+
+    public boolean remove(String key) {
+        synchronized (lock) {
+            Slot slot = slots.remove(key);
+            if (slot == null) {
+                return false;
+            }
+            unstore(slot);
+            return true;
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            for (Slot slot : slots.values()) {
+                unstore(slot);
+            }
+            slots.clear();
+        }
+    }
+
+    /**
+     * Removes the fragment of each entry of the cache once the entry is gone from it: removed, replaced, expired,
+     * evicted or cleared. storeKeyOf returns the key of the fragment of an entry, or null if it has none.
+     */
+    public <K, V> void removeWithCacheEntries(UtilCache<K, V> cache, Function<? super V, String> storeKeyOf) {
+        cache.addListener(new CacheListener<K, V>() {
+            @Override
+            public void noteKeyRemoval(UtilCache<K, V> cache, K key, V oldValue) {
+                String storeKey = (oldValue != null) ? storeKeyOf.apply(oldValue) : null;
+                if (storeKey != null) {
+                    remove(storeKey);
+                }
+            }
+
+            @Override
+            public void noteKeyAddition(UtilCache<K, V> cache, K key, V newValue) {
+            }
+
+            @Override
+            public void noteKeyUpdate(UtilCache<K, V> cache, K key, V newValue, V oldValue) {
+                String storeKey = (oldValue != null) ? storeKeyOf.apply(oldValue) : null;
+                if (storeKey != null && (newValue == null || !storeKey.equals(storeKeyOf.apply(newValue)))) {
+                    remove(storeKey);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns null, without evicting anything, if not enough blocks can be freed by evicting the fragments not being read.
+     */
+    private int[] allocateBlocks(int blockCount) {
+        int unallocatedBlocks = (slabs.length - slabCount) * blocksPerSlab;
+        if ((long) freeBlockCount + unallocatedBlocks + evictableBlocks < blockCount) {
+            return null;
+        }
+        while (freeBlockCount < blockCount) {
+            if (slabCount < slabs.length) {
+                allocateSlab();
+            } else if (!evictEldest()) {
+                return null;
+            }
+        }
+        int[] blocks = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = freeBlocks[--freeBlockCount];
+        }
+        return blocks;
+    }
+
+    private void allocateSlab() {
+        int slabIndex = slabCount++;
+        slabs[slabIndex] = ByteBuffer.allocateDirect(blocksPerSlab * blockSize);
+        // Pushed in reverse so blocks are taken in slab order
+        for (int i = blocksPerSlab - 1; i >= 0; i--) {
+            freeBlocks[freeBlockCount++] = slabIndex * blocksPerSlab + i;
+        }
+    }
+
+    /** Evicts the least recently used fragment not being read; returns false if none. */
+    private boolean evictEldest() {
+        Iterator<Slot> it = slots.values().iterator();
+        while (it.hasNext()) {
+            Slot slot = it.next();
+            if (slot.refCount == 1) {
+                it.remove();
+                unstore(slot);
+                evictionCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Drops the reference of the store to a slot removed from the slots map. */
+    private void unstore(Slot slot) {
+        slot.stored = false;
+        if (slot.refCount == 1) {
+            evictableBlocks -= slot.blocks.length;
+        }
+        release(slot);
+    }
+
+    /** Drops a reference to the slot; frees its blocks once it is neither stored nor being read. */
+    private void release(Slot slot) {
+        if (--slot.refCount == 0) {
+            for (int block : slot.blocks) {
+                freeBlocks[freeBlockCount++] = block;
+            }
+            usedBlocks -= slot.blocks.length;
+            usedBytes -= slot.length;
+        } else if (slot.refCount == 1 && slot.stored) {
+            evictableBlocks += slot.blocks.length;
+        }
+    }
+
+    /** Returns a buffer positioned on the first length bytes of the block. */
+    private ByteBuffer getBlockBuffer(int block, int length) {
+        ByteBuffer buffer = slabs[block / blocksPerSlab].duplicate();
+        int pos = (block % blocksPerSlab) * blockSize;
+        buffer.limit(pos + length);
+        buffer.position(pos);
+        return buffer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return slots.size();
+        }
+    }
+
+    /** Returns the total length of the stored fragments, including those evicted but still being read. */
+    public long getUsedBytes() {
+        synchronized (lock) {
+            return usedBytes;
+        }
+    }
+
+    /** Returns the size of the blocks holding the fragments. */
+    public long getBlockBytes() {
+        synchronized (lock) {
+            return (long) usedBlocks * blockSize;
+        }
+    }
+
+    /** Returns the size of the slabs allocated so far. */
+    public long getAllocatedBytes() {
+        synchronized (lock) {
+            return (long) slabCount * blocksPerSlab * blockSize;
+        }
+    }
+
+    /** Returns the maximum size of the slabs. */
+    public long getCapacityBytes() {
+        return (long) slabs.length * blocksPerSlab * blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long getHitCount() {
+        synchronized (lock) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (lock) {
+            return missCount;
+        }
+    }
+
+    public long getEvictionCount() {
+        synchronized (lock) {
+            return evictionCount;
+        }
+    }
+
+    /** Returns the number of fragments not stored for lack of room. */
+    public long getRejectCount() {
+        synchronized (lock) {
+            return rejectCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return "FragmentStore[" + name + ": " + slots.size() + " fragments, " + usedBytes + " bytes used, "
+                    + ((long) usedBlocks * blockSize) + " in blocks, " + ((long) slabCount * blocksPerSlab * blockSize)
+                    + " allocated of " + getCapacityBytes() + "]";
+        }
+    }
+
+    /** The blocks of a stored fragment; refCount counts the store plus the open {@link Fragment}s. */
+    private static final class Slot {
+        private final int[] blocks;
+        private final int length;
+        private int refCount = 1; // guarded by store lock
+        private boolean stored = false; // in the slots map; guarded by store lock
+
+        Slot(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A stored fragment acquired for reading; its contents stay valid until closed.
+     */
+    public final class Fragment implements AutoCloseable {
+        private final Slot slot;
+        private boolean closed = false;
+
+        Fragment(Slot slot) {
+            this.slot = slot;
+        }
+
+        /** Returns the length in bytes. */
+        public int getLength() {
+            return slot.length;
+        }
+
+        /**
+         * Writes the bytes to the channel, straight from the off-heap blocks.
+         */
+        public void writeTo(WritableByteChannel channel) throws IOException {
+            checkOpen();
+            for (int i = 0; i < slot.blocks.length; i++) {
+                ByteBuffer buffer = getBlockBuffer(slot.blocks[i], Math.min(blockSize, slot.length - i * blockSize));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+
+        /**
+         * Writes the bytes to the stream, through its channel if it has one (e.g. {@link java.io.FileOutputStream}),
+         * otherwise through {@link Channels#newChannel(OutputStream)}.
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            writeTo((out instanceof WritableByteChannel) ? (WritableByteChannel) out : Channels.newChannel(out));
+        }
+
+        /**
+         * Appends the bytes decoded from UTF-8 (malformed input replaced).
+         */
+        public void appendTo(Appendable out) throws IOException {
+            checkOpen();
+            if (slot.length == 0) {
+                return;
+            }
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            // Heap buffers sized for one block plus the bytes of a character split across blocks
+            ByteBuffer in = ByteBuffer.allocate(Math.min(blockSize, slot.length) + 4);
+            CharBuffer chars = CharBuffer.allocate(Math.min(blockSize, slot.length) + 4);
+            for (int i = 0; i < slot.blocks.length; i++) {
+                in.put(getBlockBuffer(slot.blocks[i], Math.min(blockSize, slot.length - i * blockSize)));
+                in.flip();
+                while (decoder.decode(in, chars, i == slot.blocks.length - 1).isOverflow()) {
+                    appendChars(chars, out);
+                }
+                in.compact();
+            }
+            while (decoder.flush(chars).isOverflow()) {
+                appendChars(chars, out);
+            }
+            appendChars(chars, out);
+        }
+
+        private void appendChars(CharBuffer chars, Appendable out) throws IOException {
+            if (out instanceof Writer) {
+                ((Writer) out).write(chars.array(), 0, chars.position());
+            } else if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(chars.array(), 0, chars.position());
+            } else {
+                chars.flip();
+                out.append(chars);
+            }
+            chars.clear();
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Fragment of store [" + name + "] is closed");
+            }
+        }
+
+        /** Unpins the fragment; its blocks may then be reused. */
+        @Override
+        public void close() {
+            synchronized (lock) {
+                if (!closed) {
+                    closed = true;
+                    release(slot);
+                }
+            }
+        }
+    }
+}
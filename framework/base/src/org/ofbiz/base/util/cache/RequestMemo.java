@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.servlet.ServletRequest;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+
+/**
+ * SCIPIO: Request-scoped memo of lookup results, so that the same worker lookup done by several screens, templates
+ * and actions of one request is computed only once.
+ * <p>
+ * A memo is opened by ContextFilter for each request: it is kept in the <code>_SCP_REQUEST_MEMO_</code> request
+ * attribute, bound to the request thread (see {@link #current()}) and available to screens as
+ * <code>requestMemo</code>. Results are keyed by a region, usually the name of the lookup method, and a key made of
+ * its arguments ({@link #key(Object...)}); null results are memoized too.
+ * <p>
+ * Only lookups whose result may not change during the request belong here, typically those already served from the
+ * entity cache. Events and services may change data, so RequestHandler runs events, and screen, form and tree
+ * actions run services, with the memo suspended ({@link #suspend()}, {@link #callSuspended}), which also drops its
+ * values. Memoized values are shared by all callers, so must not be modified.
+ * <p>
+ * Hits and misses are counted by region for all requests ({@link #getStats()}) and, in verbose, logged per request.
+ * Disabled by <code>requestMemo.enable=false</code> in cache.properties.
+ * <p>
+ * Added 2026-10.
+ */
+public class RequestMemo {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    public static final String REQUEST_ATTR = "_SCP_REQUEST_MEMO_";
+
+    private static final boolean ENABLED = UtilProperties.getPropertyAsBoolean("cache", "requestMemo.enable", true);
+
+    private static final ThreadLocal<RequestMemo> currentMemo = new ThreadLocal<>();
+    private static final ConcurrentMap<String, RegionStats> stats = new ConcurrentHashMap<>();
+    private static final Object NULL_VALUE = new Object();
+
+    private final ConcurrentMap<Key, Object> values = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger suspendCount = new AtomicInteger();
+
+    protected RequestMemo() {
+    }
+
+    /**
+     * Opens the memo of the request and binds it to the current thread, or returns null if the request already has
+     * one (nested dispatch) or memos are disabled; a non-null memo must be passed to {@link #close(ServletRequest)}.
+     */
+    public static RequestMemo open(ServletRequest request) {
+        if (!ENABLED || request.getAttribute(REQUEST_ATTR) != null) {
+            return null;
+        }
+        RequestMemo memo = new RequestMemo();
+        request.setAttribute(REQUEST_ATTR, memo);
+        currentMemo.set(memo);
+        return memo;
+    }
+
+    /**
+     * Unbinds the memo from the current thread and drops its values.
+     */
+    public void close(ServletRequest request) {
+        currentMemo.remove();
+        request.removeAttribute(REQUEST_ATTR);
+        if (Debug.verboseOn()) {
+            Debug.logVerbose("Request memo: " + hits.sum() + " hits, " + misses.sum() + " misses, " + values.size() + " values", module);
+        }
+        values.clear();
+    }
+
+    /**
+     * Returns the memo bound to the current thread, or null outside requests.
+     */
+    public static RequestMemo current() {
+        return currentMemo.get();
+    }
+
+    /**
+     * Returns the memo of the request, or null if none.
+     */
+    public static RequestMemo from(ServletRequest request) {
+        return (request != null) ? (RequestMemo) request.getAttribute(REQUEST_ATTR) : null;
+    }
+
+    /**
+     * Returns the memo of the rendering context (its request), or the one of the current thread.
+     */
+    public static RequestMemo from(Map<String, ?> context) {
+        Object request = (context != null) ? context.get("request") : null;
+        RequestMemo memo = (request instanceof ServletRequest) ? from((ServletRequest) request) : null;
+        return (memo != null) ? memo : current();
+    }
+
+    /**
+     * Runs the supplier with the given memo bound to the current thread, for work the request hands to other threads.
+     */
+    public static <T> T callWith(RequestMemo memo, Supplier<T> supplier) {
+        RequestMemo prevMemo = currentMemo.get();
+        currentMemo.set(memo);
+        try {
+            return supplier.get();
+        } finally {
+            if (prevMemo != null) {
+                currentMemo.set(prevMemo);
+            } else {
+                currentMemo.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the memoized result of the lookup, computing it with the supplier the first time.
+     * <p>
+     * The supplier runs outside any lock and may itself use the memo; two threads of a request asking for the same
+     * key at once may both compute it. While the memo is suspended, the supplier is simply called.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String region, Object key, Supplier<T> supplier) {
+        if (suspendCount.get() > 0) {
+            return supplier.get();
+        }
+        Key memoKey = new Key(region, key);
+        Object value = values.get(memoKey);
+        RegionStats regionStats = getRegionStats(region);
+        if (value != null) {
+            hits.increment();
+            regionStats.hits.increment();
+        } else {
+            misses.increment();
+            regionStats.misses.increment();
+            value = supplier.get();
+            if (value == null) {
+                value = NULL_VALUE;
+            }
+            Object prevValue = values.putIfAbsent(memoKey, value);
+            if (prevValue != null) {
+                value = prevValue;
+            }
+        }
+        return (value != NULL_VALUE) ? (T) value : null;
+    }
+
+    /**
+     * Returns the memoized result of the lookup in the memo of the current thread, or computes it if there is none.
+     */
+    public static <T> T getCurrent(String region, Object key, Supplier<T> supplier) {
+        RequestMemo memo = currentMemo.get();
+        return (memo != null) ? memo.get(region, key, supplier) : supplier.get();
+    }
+
+    /**
+     * Returns the memoized result of the lookup in the memo of the request, or computes it if there is none.
+     */
+    public static <T> T get(ServletRequest request, String region, Object key, Supplier<T> supplier) {
+        RequestMemo memo = from(request);
+        return (memo != null) ? memo.get(region, key, supplier) : supplier.get();
+    }
+
+    /**
+     * Drops all values, once the data they were computed from may have changed.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * Stops serving and memoizing values, around code that may change data (events); must be paired with
+     * {@link #resume()}.
+     */
+    public void suspend() {
+        suspendCount.incrementAndGet();
+    }
+
+    /**
+     * Serves values again after {@link #suspend()}, starting from an empty memo.
+     */
+    public void resume() {
+        if (suspendCount.decrementAndGet() <= 0) {
+            values.clear();
+        }
+    }
+
+    /**
+     * Runs the call with the given memo, if any, suspended, for calls that may change data such as services run by
+     * screen actions; the memo is empty afterwards.
+     */
+    public static <T, E extends Exception> T callSuspended(RequestMemo memo, SuspendedCall<T, E> call) throws E {
+        if (memo == null) {
+            return call.call();
+        }
+        memo.suspend();
+        try {
+            return call.call();
+        } finally {
+            memo.resume();
+        }
+    }
+
+    /**
+     * Clears the memo of the request, if any.
+     */
+    public static void clear(ServletRequest request) {
+        RequestMemo memo = from(request);
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    /**
+     * Makes a key of several lookup arguments, compared by value.
+     */
+    public static Object key(Object... parts) {
+        return new CompositeKey(parts);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the hit and miss counts of all requests so far, by region.
+     */
+    public static Map<String, RegionStats> getStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(stats));
+    }
+
+    private static RegionStats getRegionStats(String region) {
+        RegionStats regionStats = stats.get(region);
+        if (regionStats == null) {
+            regionStats = stats.computeIfAbsent(region, k -> new RegionStats());
+        }
+        return regionStats;
+    }
+
+    @FunctionalInterface
+    public interface SuspendedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    public static class RegionStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "[hits=" + getHits() + ", misses=" + getMisses() + "]";
+        }
+    }
+
+    private static final class Key {
+        private final String region;
+        private final Object key;
+        private final int hashCode;
+
+        Key(String region, Object key) {
+            this.region = region;
+            this.key = key;
+            this.hashCode = 31 * region.hashCode() + Objects.hashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return region.equals(other.region) && Objects.equals(key, other.key);
+        }
+    }
+
+    private static final class CompositeKey {
+        private final Object[] parts;
+        private final int hashCode;
+
+        CompositeKey(Object[] parts) {
+            this.parts = parts;
+            this.hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (this == obj) || (obj instanceof CompositeKey && Arrays.equals(parts, ((CompositeKey) obj).parts));
+        }
+    }
+}
@@ -107,7 +107,7 @@ public class UtilCache<K, V> implements Serializable, EvictionListener<Object, C
     /** Specifies whether or not to use soft references for this cache, defaults to false */
     protected boolean useSoftReference = false;
 
-    /** The set of listeners to receive notifications when items are modified (either deliberately or because they were expired). */
+    /** The set of listeners to receive notifications when items are modified (either deliberately or because they were expired or evicted). */
     protected Set<CacheListener<K, V>> listeners = new CopyOnWriteArraySet<>();
 
     protected ConcurrentMap<Object, CacheLine<V>> memoryTable = null;
@@ -575,6 +575,7 @@ public class UtilCache<K, V> implements Serializable, EvictionListener<Object, C
             }
             this.memoryTable =new Builder<Object, CacheLine<V>>()
                     .maximumWeightedCapacity(newInMemory)
+                    .listener(this) // SCIPIO: 2026-10: was missing: evicted lines kept their expiry pulse and were not noted
                     .build();
         } else {
             this.memoryTable = new ConcurrentHashMap<>();
@@ -835,6 +836,11 @@ public class UtilCache<K, V> implements Serializable, EvictionListener<Object, C
     @Override
     public void onEviction(Object key, CacheLine<V> value) {
         ExecutionPool.removePulse(value);
+        // SCIPIO: 2026-10: listeners are told of LRU evictions too, as of expiries and removals
+        V oldValue = value.getValue();
+        if (oldValue != null) {
+            noteRemoval(toKey(key), oldValue);
+        }
     }
 
     /**
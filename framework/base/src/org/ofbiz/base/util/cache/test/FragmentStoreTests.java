@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.cache.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.cache.FragmentStore;
+import org.ofbiz.base.util.cache.UtilCache;
+
+public class FragmentStoreTests extends GenericTestCaseBase {
+
+    public FragmentStoreTests(String name) {
+        super(name);
+    }
+
+    public void testRoundTrip() throws Exception {
+        FragmentStore store = new FragmentStore("test", 64, 8, 32);
+        // multi-byte characters split across the 8-byte blocks
+        String value = "<p>\u00e9t\u00e9 \u20ac \ud83d\ude00 caf\u00e9</p>";
+        assertTrue("stored", store.put("a", value));
+        assertEquals("string", value, store.getString("a"));
+        StringWriter writer = new StringWriter();
+        assertTrue("appended", store.appendTo("a", writer));
+        assertEquals("writer", value, writer.toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FragmentStore.Fragment fragment = store.acquire("a")) {
+            fragment.writeTo(out);
+        }
+        assertTrue("bytes", Arrays.equals(value.getBytes(StandardCharsets.UTF_8), out.toByteArray()));
+        assertTrue("empty stored", store.put("empty", ""));
+        assertEquals("empty", "", store.getString("empty"));
+        assertNull("missing", store.getString("b"));
+        assertFalse("missing appended", store.appendTo("b", new StringBuilder()));
+    }
+
+    public void testAccounting() {
+        FragmentStore store = new FragmentStore("test", 64, 8, 32);
+        assertEquals("capacity", 64, store.getCapacityBytes());
+        store.put("a", "0123456789");
+        assertEquals("used", 10, store.getUsedBytes());
+        assertEquals("blocks", 16, store.getBlockBytes());
+        assertEquals("allocated", 32, store.getAllocatedBytes());
+        store.put("a", "012");
+        assertEquals("replaced used", 3, store.getUsedBytes());
+        assertEquals("replaced blocks", 8, store.getBlockBytes());
+        store.remove("a");
+        assertEquals("removed used", 0, store.getUsedBytes());
+        assertEquals("removed blocks", 0, store.getBlockBytes());
+    }
+
+    public void testLruEviction() {
+        FragmentStore store = new FragmentStore("test", 32, 8, 32);
+        store.put("a", "aaaaaaaaaaaa");
+        store.put("b", "bbbbbbbb");
+        store.put("c", "cccc");
+        assertEquals("a read", "aaaaaaaaaaaa", store.getString("a"));
+        assertTrue("d stored", store.put("d", "dddddddd"));
+        assertFalse("least recently used evicted", store.containsKey("b"));
+        assertTrue("recently read kept", store.containsKey("a"));
+        assertEquals("evictions", 1, store.getEvictionCount());
+        assertEquals("used", 24, store.getUsedBytes());
+        assertFalse("larger than store", store.put("e", "123456789012345678901234567890123"));
+        assertEquals("rejects", 1, store.getRejectCount());
+    }
+
+    public void testPinnedFragment() {
+        FragmentStore store = new FragmentStore("test", 16, 8, 16);
+        store.put("a", "aaaaaaaaaaaaaaaa");
+        try (FragmentStore.Fragment fragment = store.acquire("a")) {
+            assertFalse("no room while pinned", store.put("b", "b"));
+            assertTrue("pinned not evicted", store.containsKey("a"));
+            assertEquals("pinned bytes kept", 16, store.getUsedBytes());
+            store.remove("a");
+            StringBuilder sb = new StringBuilder();
+            fragment.appendTo(sb);
+            assertEquals("removed contents intact while pinned", "aaaaaaaaaaaaaaaa", sb.toString());
+            assertEquals("removed bytes kept while pinned", 16, store.getUsedBytes());
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        assertEquals("released", 0, store.getUsedBytes());
+        assertTrue("room after close", store.put("b", "b"));
+        try (FragmentStore.Fragment fragment = store.acquire("b")) {
+            assertTrue("fits in the free block", store.put("c", "cccccccc"));
+            assertTrue("fits by evicting the unpinned", store.put("d", "d"));
+            assertFalse("unpinned evicted", store.containsKey("c"));
+            assertTrue("pinned kept", store.containsKey("b"));
+        }
+    }
+
+    public void testNoEvictionWhenTooLarge() {
+        FragmentStore store = new FragmentStore("test", 32, 8, 32);
+        store.put("a", "aaaaaaaa");
+        store.put("b", "bbbbbbbb");
+        store.put("c", "cccc");
+        try (FragmentStore.Fragment fragment = store.acquire("a")) {
+            // 4 blocks needed: 1 free plus b and c evictable, a pinned
+            assertFalse("does not fit", store.put("d", "01234567890123456789012345"));
+            assertEquals("nothing evicted", 0, store.getEvictionCount());
+            assertTrue("b kept", store.containsKey("b"));
+            assertTrue("c kept", store.containsKey("c"));
+            assertEquals("rejects", 1, store.getRejectCount());
+            assertTrue("fits by evicting", store.put("d", "0123456789012345678901"));
+            assertEquals("evictions", 2, store.getEvictionCount());
+            assertTrue("pinned kept", store.containsKey("a"));
+        }
+        assertEquals("used", 30, store.getUsedBytes());
+    }
+
+    public void testRemoveWithCacheEntries() throws Exception {
+        FragmentStore store = new FragmentStore("test", 256, 8, 64);
+        UtilCache<String, String> cache = UtilCache.createUtilCache(getClass().getName() + "." + getName(), 0, 2, 0, false);
+        store.removeWithCacheEntries(cache, storeKey -> storeKey);
+        for (String storeKey : Arrays.asList("a1", "a2", "b1", "c1", "d1")) {
+            store.put(storeKey, storeKey);
+        }
+        cache.put("a", "a1");
+        cache.put("a", "a2");
+        assertFalse("replaced", store.containsKey("a1"));
+        cache.put("a", "a2");
+        assertTrue("put again", store.containsKey("a2"));
+        cache.remove("a");
+        assertFalse("removed", store.containsKey("a2"));
+        cache.put("b", "b1");
+        cache.put("c", "c1");
+        cache.put("d", "d1");
+        assertEquals("evicted", 2, cache.size());
+        assertFalse("evicted", store.containsKey("b1"));
+        cache.clear();
+        assertFalse("cleared", store.containsKey("c1"));
+        assertFalse("cleared", store.containsKey("d1"));
+        store.put("e1", "e1");
+        cache.put("e", "e1", 100);
+        Thread.sleep(600);
+        assertNull("expired", cache.get("e"));
+        assertFalse("expired", store.containsKey("e1"));
+        assertEquals("used", 0, store.getUsedBytes());
+    }
+}
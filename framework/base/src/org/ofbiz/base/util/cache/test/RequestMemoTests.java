@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.cache.test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletRequest;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.cache.RequestMemo;
+
+public class RequestMemoTests extends GenericTestCaseBase {
+
+    public RequestMemoTests(String name) {
+        super(name);
+    }
+
+    /** A request with attributes only. */
+    private static ServletRequest newRequest() {
+        Map<String, Object> attributes = new HashMap<>();
+        return (ServletRequest) Proxy.newProxyInstance(RequestMemoTests.class.getClassLoader(), new Class<?>[] { ServletRequest.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getAttribute": return attributes.get(args[0]);
+                    case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+                    case "removeAttribute": attributes.remove(args[0]); return null;
+                    default: return null;
+                    }
+                });
+    }
+
+    public void testOpenClose() {
+        ServletRequest request = newRequest();
+        RequestMemo memo = RequestMemo.open(request);
+        try {
+            assertNotNull("opened", memo);
+            assertSame("current", memo, RequestMemo.current());
+            assertSame("from request", memo, RequestMemo.from(request));
+            assertNull("nested dispatch", RequestMemo.open(request));
+        } finally {
+            memo.close(request);
+        }
+        assertNull("unbound", RequestMemo.current());
+        assertNull("attribute removed", RequestMemo.from(request));
+        AtomicInteger calls = new AtomicInteger();
+        RequestMemo.getCurrent("test", "a", calls::incrementAndGet);
+        RequestMemo.getCurrent("test", "a", calls::incrementAndGet);
+        assertEquals("no memo outside requests", 2, calls.get());
+    }
+
+    public void testGet() {
+        ServletRequest request = newRequest();
+        RequestMemo memo = RequestMemo.open(request);
+        try {
+            AtomicInteger calls = new AtomicInteger();
+            assertEquals("computed", Integer.valueOf(1), memo.get("test", "a", calls::incrementAndGet));
+            assertEquals("memoized", Integer.valueOf(1), memo.get("test", "a", calls::incrementAndGet));
+            assertEquals("other key", Integer.valueOf(2), memo.get("test", "b", calls::incrementAndGet));
+            assertEquals("other region", Integer.valueOf(3), memo.get("other", "a", calls::incrementAndGet));
+            assertEquals("composite key by value", Integer.valueOf(4), memo.get("test", RequestMemo.key("a", 1), calls::incrementAndGet));
+            assertEquals("composite key memoized", Integer.valueOf(4), memo.get("test", RequestMemo.key("a", 1), calls::incrementAndGet));
+            assertNull("null computed", memo.get("test", "null", () -> {
+                calls.incrementAndGet();
+                return null;
+            }));
+            assertNull("null memoized", memo.get("test", "null", () -> "value"));
+            assertEquals("calls", 5, calls.get());
+            assertEquals("hits", 3, memo.getHits());
+            assertEquals("misses", 5, memo.getMisses());
+            assertTrue("region stats", RequestMemo.getStats().get("test").getHits() >= 3);
+            memo.clear();
+            assertEquals("cleared", Integer.valueOf(6), memo.get("test", "a", calls::incrementAndGet));
+        } finally {
+            memo.close(request);
+        }
+    }
+
+    public void testSuspend() throws Exception {
+        ServletRequest request = newRequest();
+        RequestMemo memo = RequestMemo.open(request);
+        try {
+            memo.get("test", "a", () -> "before");
+            memo.suspend();
+            memo.suspend();
+            assertEquals("not served while suspended", "during", memo.get("test", "a", () -> "during"));
+            memo.resume();
+            assertEquals("still suspended", "nested", memo.get("test", "a", () -> "nested"));
+            memo.resume();
+            assertEquals("dropped on resume", "after", memo.get("test", "a", () -> "after"));
+            assertEquals("memoized again", "after", memo.get("test", "a", () -> "again"));
+
+            assertEquals("suspended call", "call", RequestMemo.callSuspended(memo, () -> memo.get("test", "a", () -> "call")));
+            assertEquals("dropped after call", "next", memo.get("test", "a", () -> "next"));
+            try {
+                RequestMemo.callSuspended(memo, () -> {
+                    throw new IllegalStateException("failed");
+                });
+                fail("exception not propagated");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            assertEquals("resumed after failure", "resumed", memo.get("test", "b", () -> "resumed"));
+            assertEquals("resumed after failure", "resumed", memo.get("test", "b", () -> "other"));
+            assertEquals("no memo", "none", RequestMemo.callSuspended(null, () -> "none"));
+        } finally {
+            memo.close(request);
+        }
+    }
+
+    public void testCallWith() throws Exception {
+        ServletRequest request = newRequest();
+        RequestMemo memo = RequestMemo.open(request);
+        try {
+            memo.get("test", "a", () -> "request");
+            String value = CompletableFuture.supplyAsync(() -> RequestMemo.callWith(memo,
+                    () -> RequestMemo.getCurrent("test", "a", () -> "worker"))).get();
+            assertEquals("memo bound on the worker thread", "request", value);
+            assertNull("worker thread unbound", CompletableFuture.supplyAsync(RequestMemo::current).get());
+        } finally {
+            memo.close(request);
+        }
+    }
+}
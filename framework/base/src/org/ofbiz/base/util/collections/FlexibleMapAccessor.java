@@ -32,6 +32,7 @@ import org.ofbiz.base.util.UtilObject;
 import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.cache.UtilCache;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
+import org.ofbiz.base.util.string.UelPath;
 import org.ofbiz.base.util.string.UelUtil;
 
 /**
@@ -51,12 +52,14 @@ public final class FlexibleMapAccessor<T> implements Serializable, IsEmpty {
     private final String bracketedOriginal;
     private final FlexibleStringExpander fse;
     private final boolean isAscending;
+    private final UelPath path; // SCIPIO: 2026-10: compiled get expression, null if not a plain property path
 
     private FlexibleMapAccessor(String name) {
         this.original = name;
         this.isEmpty = name.isEmpty();
         FlexibleStringExpander fse = null;
         String bracketedOriginal = null;
+        UelPath path = null;
         boolean isAscending = true;
         if (UtilValidate.isNotEmpty(name)) {
             if (name.charAt(0) == '-') {
@@ -69,12 +72,15 @@ public final class FlexibleMapAccessor<T> implements Serializable, IsEmpty {
             if (name.contains(FlexibleStringExpander.openBracket)) {
                 fse = FlexibleStringExpander.getInstance(name);
             } else {
-                bracketedOriginal = FlexibleStringExpander.openBracket.concat(UelUtil.prepareExpression(name).concat(FlexibleStringExpander.closeBracket));
+                String expression = UelUtil.prepareExpression(name);
+                bracketedOriginal = FlexibleStringExpander.openBracket.concat(expression.concat(FlexibleStringExpander.closeBracket));
+                path = UelPath.compile(expression);
             }
         }
         this.bracketedOriginal = bracketedOriginal;
         this.isAscending = isAscending;
         this.fse = fse;
+        this.path = path;
         if (Debug.verboseOn()) {
             Debug.logVerbose("FlexibleMapAccessor created, original = " + this.original, module);
         }
@@ -145,6 +151,10 @@ public final class FlexibleMapAccessor<T> implements Serializable, IsEmpty {
         }
         Object obj = null;
         try {
+            if (this.path != null) {
+                obj = this.path.getValue(base);
+                return (obj != UelPath.UNDEFINED) ? (T) obj : null;
+            }
             obj = UelUtil.evaluate(base, getExpression(base));
         } catch (PropertyNotFoundException e) {
             // PropertyNotFound exceptions are common, so log verbose.
@@ -49,6 +49,10 @@ import org.ofbiz.base.util.UtilGenerics;
  *     insert-firsts, but it is better because there is no removeFromBotton compared to push/pop; in any case,
  *     in practice ArrayList with small capacity is faster for insert-first than LinkedList anyway)
  * <li>optimization: using indexed loops for ArrayList (avoids iterator creation)
+ * <li>2026-10: optimization: {@link #push()} no longer allocates a map; the pushed layer is a shared empty marker
+ *     replaced by a real map on the first write to it (most pushed layers, e.g. of iterate-section rows, are read-only)
+ * <li>2026-10: optimization: lookups do a single map probe per layer, instead of containsKey then get; containsKey
+ *     is only called on null values
  * </ul>
  * <p>
  * Optimization notes: These were sorely needed because this class performs expensive multi-map lookups
@@ -71,6 +75,22 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
      */
     private static final int STACK_INITIAL_CAPACITY = 32;
 
+    /**
+     * SCIPIO: Marker of a layer pushed by {@link #push()} and not written yet; replaced by a HashMap on first write, and
+     * before the layers are shared with another stack (copy constructor), so writes stay visible to both.
+     * Compared by identity. Added 2026-10.
+     * <p>
+     * It is a plain HashMap rather than an unmodifiable wrapper so that lookups through the layers stay monomorphic
+     * (see MapStackBenchmark); it is never written, as every write path (getTopForWrite, remove, clear) checks for it
+     * and {@link #pop()} does not return it.
+     */
+    private static final Map<Object, Object> EMPTY_LAYER = new HashMap<>();
+
+    /**
+     * SCIPIO: Default value of lookups telling a missing key from a null value in one probe. Added 2026-10.
+     */
+    private static final Object ABSENT = new Object();
+
     public static final <K, V> MapContext<K, V> getMapContext() {
         return new MapContext<K, V>();
     }
@@ -115,6 +135,7 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
      * SCIPIO: Shallow copy constructor - copies the stackList.
      */
     protected MapContext(MapContext<K, V> source) {
+        source.allocateEmptyLayers(); // SCIPIO: 2026-10: layers are shared from now on
         stackList = new ArrayList<Map<K, V>>(source.stackList); // SCIPIO: switched to ArrayList
     }
 
@@ -136,10 +157,45 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
 
     /** Puts a new Map on the top of the stack */
     public void push() {
-        Map<K, V> newMap = new HashMap<K, V>();
+        // SCIPIO: 2026-10: the map is only created on first write (see getTopForWrite)
+        //Map<K, V> newMap = new HashMap<K, V>();
         // SCIPIO: reversed order
         //this.stackList.add(0,newMap);
-        this.stackList.add(newMap);
+        this.stackList.add(emptyLayer());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> emptyLayer() {
+        return (Map<K, V>) EMPTY_LAYER;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V absent() {
+        return (V) ABSENT;
+    }
+
+    /**
+     * SCIPIO: Returns the map on the top of the stack, creating it if it was pushed empty. Added 2026-10.
+     */
+    private Map<K, V> getTopForWrite() {
+        int topIndex = this.stackList.size() - 1;
+        Map<K, V> currentMap = this.stackList.get(topIndex);
+        if (currentMap == EMPTY_LAYER) {
+            currentMap = new HashMap<K, V>();
+            this.stackList.set(topIndex, currentMap);
+        }
+        return currentMap;
+    }
+
+    /**
+     * SCIPIO: Creates the maps of all layers pushed empty, before sharing them with another stack. Added 2026-10.
+     */
+    private void allocateEmptyLayers() {
+        for(int i = 0; i < this.stackList.size(); i++) {
+            if (this.stackList.get(i) == EMPTY_LAYER) {
+                this.stackList.set(i, new HashMap<K, V>());
+            }
+        }
     }
 
     /** Puts an existing Map on the top of the stack (top meaning will override lower layers on the stack) */
@@ -162,13 +218,18 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         this.stackList.add(0, existingMap);
     }
 
-    /** Remove and returns the Map from the top of the stack; if there is only one Map on the stack it returns null and does not remove it */
+    /**
+     * Remove and returns the Map from the top of the stack; if there is only one Map on the stack it returns null and does not remove it
+     * <p>
+     * SCIPIO: 2026-10: NOTE: A layer pushed by {@link #push()} and never written is returned as a new empty map.
+     */
     public Map<K, V> pop() {
         // always leave at least one Map in the List, ie never pop off the last Map
         if (this.stackList.size() > 1) {
             // SCIPIO: reversed order
             //return stackList.remove(0);
-            return stackList.remove(stackList.size() - 1);
+            Map<K, V> map = stackList.remove(stackList.size() - 1);
+            return (map != EMPTY_LAYER) ? map : new HashMap<K, V>(); // SCIPIO: 2026-10: never hand out the shared marker
         } else {
             return null;
         }
@@ -277,8 +338,13 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         for(int i = this.stackList.size() - 1; i >= 0; i--) {
             Map<K, V> curMap = this.stackList.get(i);
             // only return if the curMap contains the key, rather than checking for null; this allows a null at a lower level to override a value at a higher level
-            if (curMap.containsKey(key)) {
-                return curMap.get(key);
+            // SCIPIO: 2026-10: single probe per layer, including the layers not holding the key (getOrDefault)
+            //if (curMap.containsKey(key)) {
+            //    return curMap.get(key);
+            //}
+            V value = curMap.getOrDefault(key, absent());
+            if (value != ABSENT) {
+                return value;
             }
         }
         return null;
@@ -294,12 +360,15 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         for(int i = this.stackList.size() - 1; i >= 0; i--) {
             Map<K, V> curMap = this.stackList.get(i);
             // only return if the curMap contains the key, rather than checking for null; this allows a null at a lower level to override a value at a higher level
-            if (curMap.containsKey(name)) {
-                if (curMap instanceof LocalizedMap<?>) {
+            if (curMap instanceof LocalizedMap<?>) { // SCIPIO: 2026-10: single probe for plain maps
+                if (curMap.containsKey(name)) {
                     LocalizedMap<V> lmap = UtilGenerics.cast(curMap);
                     return lmap.get(name, locale);
-                } else {
-                    return curMap.get(name);
+                }
+            } else {
+                V value = curMap.getOrDefault(name, absent());
+                if (value != ABSENT) {
+                    return value;
                 }
             }
         }
@@ -323,7 +392,7 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         // all write operations are local: only put in the Map on the top of the stack
         // SCIPIO: reversed order
         //Map<K, V> currentMap = this.stackList.get(0);
-        Map<K, V> currentMap = this.stackList.get(this.stackList.size() - 1);
+        Map<K, V> currentMap = getTopForWrite(); // SCIPIO: 2026-10: getTopForWrite
         return currentMap.put(key, value);
     }
 
@@ -335,6 +404,9 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         // SCIPIO: reversed order
         //Map<K, V> currentMap = this.stackList.get(0);
         Map<K, V> currentMap = this.stackList.get(this.stackList.size() - 1);
+        if (currentMap == EMPTY_LAYER) { // SCIPIO: 2026-10
+            return null;
+        }
         return currentMap.remove(key);
     }
 
@@ -345,7 +417,7 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         // all write operations are local: only put in the Map on the top of the stack
         // SCIPIO: reversed order
         //Map<K, V> currentMap = this.stackList.get(0);
-        Map<K, V> currentMap = this.stackList.get(this.stackList.size() - 1);
+        Map<K, V> currentMap = getTopForWrite(); // SCIPIO: 2026-10: getTopForWrite
         currentMap.putAll(arg0);
     }
 
@@ -356,7 +428,10 @@ public class MapContext<K, V> implements Map<K, V>, LocalizedMap<V> {
         // all write operations are local: only clear the Map on the top of the stack
         // SCIPIO: reversed order
         //this.stackList.get(0).clear();
-        this.stackList.get(this.stackList.size() - 1).clear();
+        Map<K, V> currentMap = this.stackList.get(this.stackList.size() - 1);
+        if (currentMap != EMPTY_LAYER) { // SCIPIO: 2026-10
+            currentMap.clear();
+        }
     }
 
     /* (non-Javadoc)
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.collections.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.ofbiz.base.util.collections.MapStack;
+
+/**
+ * SCIPIO: Measures {@link MapStack} on the access pattern of screen rendering: a large base context, nested pushes
+ * (screens, sections, iterate-section rows) that are mostly only read, lookups resolved at various depths or missing,
+ * and a few writes. Run from the command line with the framework classes on the classpath, e.g.:
+ * <pre>
+ * java -cp ... org.ofbiz.base.util.collections.test.MapStackBenchmark [rounds]
+ * </pre>
+ * It prints the median time and, on HotSpot, the bytes allocated per render pass for {@link MapStack#push()} and, for
+ * comparison, for pushing a new HashMap each time (the behavior before 2026-10). It is not a unit test: timings depend
+ * on the machine.
+ * <p>
+ * Added 2026-10.
+ */
+public final class MapStackBenchmark {
+
+    private static final int BASE_KEYS = 200;
+    private static final int DEPTH = 8;
+    private static final int PASSES_PER_ROUND = 20000;
+
+    private static final String[] KEYS = new String[BASE_KEYS];
+    static {
+        for (int i = 0; i < BASE_KEYS; i++) {
+            KEYS[i] = "field" + i;
+        }
+    }
+
+    private MapStackBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 15;
+        MapStack<String> stack = newContext();
+        // first rounds warm up
+        for (int i = 0; i < 5; i++) {
+            run(stack, false);
+            run(stack, true);
+        }
+        report("push()", stack, false, rounds);
+        report("push(new HashMap())", stack, true, rounds);
+    }
+
+    private static MapStack<String> newContext() {
+        MapStack<String> stack = MapStack.create();
+        for (int i = 0; i < BASE_KEYS; i++) {
+            stack.put(KEYS[i], i);
+        }
+        return stack;
+    }
+
+    private static void report(String label, MapStack<String> stack, boolean eager, int rounds) {
+        long[] nanos = new long[rounds];
+        long[] bytes = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            run(stack, eager);
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocatedBytes() - startBytes;
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(bytes);
+        System.out.println(String.format("%-22s %8.1f ns/pass %8d bytes/pass", label, (double) nanos[rounds / 2] / PASSES_PER_ROUND,
+                (bytes[rounds / 2] >= 0) ? bytes[rounds / 2] / PASSES_PER_ROUND : -1));
+    }
+
+    /**
+     * One round of render passes: pushes DEPTH layers, reading at each, writing to every third, then pops them.
+     */
+    private static long run(MapStack<String> stack, boolean eager) {
+        long sum = 0;
+        for (int pass = 0; pass < PASSES_PER_ROUND; pass++) {
+            for (int depth = 0; depth < DEPTH; depth++) {
+                if (eager) {
+                    stack.push(new HashMap<String, Object>());
+                } else {
+                    stack.push();
+                }
+                if (depth % 3 == 0) {
+                    stack.put("row", depth);
+                }
+                for (int i = 0; i < 6; i++) {
+                    Object value = stack.get(KEYS[(pass + depth * 7 + i * 31) % BASE_KEYS]);
+                    sum += (value != null) ? 1 : 0;
+                }
+                sum += (stack.get("missing") == null) ? 1 : 0;
+                sum += (stack.get("row") != null) ? 1 : 0;
+            }
+            for (int depth = 0; depth < DEPTH; depth++) {
+                stack.pop();
+            }
+        }
+        return sum;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
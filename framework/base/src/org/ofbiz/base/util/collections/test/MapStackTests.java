@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.collections.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.collections.MapStack;
+
+public class MapStackTests extends GenericTestCaseBase {
+
+    public MapStackTests(String name) {
+        super(name);
+    }
+
+    public void testPushPop() {
+        MapStack<String> stack = MapStack.create();
+        stack.put("a", "1");
+        stack.push();
+        assertEquals("inherited", "1", stack.get("a"));
+        stack.put("a", "2");
+        stack.put("b", null);
+        assertEquals("overridden", "2", stack.get("a"));
+        assertTrue("null value", stack.containsKey("b"));
+        stack.pop();
+        assertEquals("restored", "1", stack.get("a"));
+        assertFalse("popped key", stack.containsKey("b"));
+    }
+
+    public void testNullOverridesLowerLayer() {
+        MapStack<String> stack = MapStack.create();
+        stack.put("a", "1");
+        stack.push();
+        stack.put("a", null);
+        assertNull("null at top", stack.get("a"));
+    }
+
+    public void testEmptyPushedLayer() {
+        MapStack<String> stack = MapStack.create();
+        stack.put("a", "1");
+        stack.push();
+        assertNull("remove from empty layer", stack.remove("a"));
+        stack.clear();
+        assertEquals("lower layer kept", "1", stack.get("a"));
+        Map<String, Object> popped = stack.pop();
+        assertTrue("empty popped layer", popped.isEmpty());
+        popped.put("b", "2");
+        assertEquals("popped layer is a map of its own", 1, popped.size());
+        assertEquals("size", 1, stack.size());
+        stack.push();
+        assertTrue("new layer empty", stack.pop().isEmpty());
+        MapStack<String> other = MapStack.create();
+        other.push();
+        assertFalse("pushed layers of other stacks unchanged", other.containsKey("b"));
+        assertTrue("pushed layers of other stacks empty", other.pop().isEmpty());
+    }
+
+    public void testStandAloneStackSharesLayers() {
+        MapStack<String> stack = MapStack.create();
+        stack.push();
+        MapStack<String> standAlone = stack.standAloneStack();
+        stack.put("a", "1");
+        assertEquals("write visible to copy", "1", standAlone.get("a"));
+        standAlone.put("b", "2");
+        assertEquals("write visible to source", "2", stack.get("b"));
+
+        MapStack<String> child = stack.standAloneChildStack();
+        child.put("c", "3");
+        assertFalse("child write not visible to parent", stack.containsKey("c"));
+        assertEquals("parent value visible to child", "1", child.get("a"));
+    }
+
+    public void testLowerEmptyLayerShared() {
+        MapStack<String> stack = MapStack.create();
+        stack.push();
+        MapStack<String> standAlone = stack.standAloneStack();
+        stack.push();
+        stack.pop();
+        stack.put("a", "1");
+        assertEquals("write visible to copy", "1", standAlone.get("a"));
+    }
+
+    public void testPushExistingMap() {
+        Map<String, Object> existing = new HashMap<>();
+        MapStack<String> stack = MapStack.create();
+        stack.push(existing);
+        stack.put("a", "1");
+        assertEquals("written to existing map", "1", existing.get("a"));
+        existing.put("b", "2");
+        assertEquals("external write visible", "2", stack.get("b"));
+    }
+
+    public void testContextSelfReference() {
+        MapStack<String> stack = MapStack.create();
+        assertSame("context", stack, stack.get("context"));
+    }
+}
@@ -484,23 +484,37 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
         timeZone = getTimeZone(timeZone, context);
         locale = getLocale(locale, context);
         Object obj = get(context, timeZone, locale);
-        StringBuilder buffer = new StringBuilder(this.hint);
+        // SCIPIO: 2026-10: Strings are returned as-is, without copying them through a buffer
+        if (obj == null) {
+            return "";
+        } else if (obj instanceof String) {
+            return (String) obj;
+        }
+        return toExpandedString(obj, timeZone, locale);
+    }
+
+    /**
+     * SCIPIO: Appends the result of this expression to the buffer, as {@link #expandString(Map, TimeZone, Locale)}
+     * with the resolved time zone and locale; lets {@link Elements} build their result in a single buffer.
+     * <p>
+     * Added 2026-10.
+     */
+    protected void appendTo(StringBuilder buffer, Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) {
+        Object obj = get(context, timeZone, locale);
+        if (obj instanceof String) {
+            buffer.append((String) obj);
+        } else if (obj != null) {
+            buffer.append(toExpandedString(obj, timeZone, locale));
+        }
+    }
+
+    private static String toExpandedString(Object obj, TimeZone timeZone, Locale locale) {
         try {
-            if (obj != null) {
-                if (obj instanceof String) {
-                    buffer.append(obj);
-                } else {
-                    buffer.append(ObjectType.simpleTypeConvert(obj, "String", null, timeZone, locale, true));
-                }
-            }
+            return String.valueOf(ObjectType.simpleTypeConvert(obj, "String", null, timeZone, locale, true));
         } catch (GeneralException | RuntimeException e) {
             Debug.log(e, module);
-            buffer.append(obj);
-        }
-        if (buffer.length() > this.hint) {
-            this.hint = buffer.length();
+            return String.valueOf(obj);
         }
-        return buffer.toString();
     }
 
     /** Evaluate this object's expression and return the result as an <code>Object</code>.
@@ -635,6 +649,11 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
             return new String(this.chars, this.offset, this.length);
         }
 
+        @Override
+        protected void appendTo(StringBuilder buffer, Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) { // SCIPIO: 2026-10
+            buffer.append(this.chars, this.offset, this.length);
+        }
+
         @Override
         public boolean isConstant() { // SCIPIO: Added 2018-09-19
             return true;
@@ -645,6 +664,7 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
     protected static class CurrElem extends ArrayOffsetString {
         protected final char[] valueStr;
         protected final FlexibleStringExpander codeExpr;
+        protected final UelPath valuePath; // SCIPIO: 2026-10: null if not a plain property path
 
         protected CurrElem(char[] chars, int offset, int length, int parseStart, int parseLength) {
             super(chars, offset, length);
@@ -653,13 +673,14 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
             int closeParen = parse.indexOf(")", currencyPos + 10);
             this.codeExpr = FlexibleStringExpander.getInstance(parse, chars, parseStart + currencyPos + 10, closeParen - currencyPos - 10, true);
             this.valueStr = openBracket.concat(parse.substring(0, currencyPos)).concat(closeBracket).toCharArray();
+            this.valuePath = UelPath.compile(parse.substring(0, currencyPos));
         }
 
         @Override
         protected Object get(Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) {
             try {
-                Object obj = UelUtil.evaluate(context, new String(this.valueStr));
-                if (obj != null) {
+                Object obj = (this.valuePath != null) ? this.valuePath.getValue(context) : UelUtil.evaluate(context, new String(this.valueStr));
+                if (obj != null && obj != UelPath.UNDEFINED) {
                     String currencyCode = this.codeExpr.expandString(context, timeZone, locale);
                     // SCIPIO: 2017-01-13: added BigDecimal instanceof check to avoid string overhead and potential loss of information
                     if (obj instanceof BigDecimal) {
@@ -681,17 +702,37 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
     /** A container object that contains expression fragments. */
     protected static class Elements extends ArrayOffsetString {
         protected final FlexibleStringExpander[] childElems;
+        protected final String constValue; // SCIPIO: 2026-10: result if all children are constants (escaped expressions)
 
         protected Elements(char[] chars, int offset, int length, FlexibleStringExpander[] childElems) {
             super(chars, offset, length);
             this.childElems = childElems;
+            StringBuilder constValue = new StringBuilder(length);
+            for (FlexibleStringExpander child : childElems) {
+                if (!child.isConstant()) {
+                    constValue = null;
+                    break;
+                }
+                child.appendTo(constValue, null, null, null);
+            }
+            this.constValue = (constValue != null) ? constValue.toString() : null;
+            if (length > this.hint) {
+                this.hint = length;
+            }
         }
 
         @Override
         protected Object get(Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) {
-            StringBuilder buffer = new StringBuilder();
+            if (this.constValue != null) {
+                return this.constValue;
+            }
+            // SCIPIO: 2026-10: Children append to a single buffer, sized after the previous results
+            StringBuilder buffer = new StringBuilder(this.hint);
             for (FlexibleStringExpander child : this.childElems) {
-                buffer.append(child.expandString(context, timeZone, locale));
+                child.appendTo(buffer, context, timeZone, locale);
+            }
+            if (buffer.length() > this.hint) {
+                this.hint = buffer.length();
             }
             return buffer.toString();
         }
@@ -749,12 +790,18 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
         protected Object get(Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) {
             StringBuilder expr = new StringBuilder(this.hint);
             for (FlexibleStringExpander child : this.childElems) {
-                expr.append(child.expandString(context, timeZone, locale));
+                child.appendTo(expr, context, timeZone, locale);
             }
             if (expr.length() == 0) {
                 return "";
             }
             try {
+                // SCIPIO: 2026-10: Plain property paths are evaluated without UEL
+                UelPath path = UelPath.compile(expr.toString());
+                if (path != null) {
+                    Object obj = path.getValue(context);
+                    return (obj != UelPath.UNDEFINED) ? obj : "";
+                }
                 return UelUtil.evaluate(context, openBracket.concat(expr.toString()).concat(closeBracket));
             } catch (PropertyNotFoundException e) {
                 if (Debug.verboseOn()) {
@@ -770,16 +817,29 @@ public abstract class FlexibleStringExpander implements Serializable, IsEmpty {
     /** An object that represents a simple, non-nested expression. */
     protected static class VarElem extends ArrayOffsetString {
         protected final char[] bracketedOriginal;
+        protected final UelPath path; // SCIPIO: 2026-10: null if not a plain property path
 
         protected VarElem(char[] chars, int offset, int length, int parseStart, int parseLength) {
             super(chars, offset, length);
-            this.bracketedOriginal = openBracket.concat(UelUtil.prepareExpression(new String(chars, parseStart, parseLength))).concat(closeBracket).toCharArray();
+            String expression = UelUtil.prepareExpression(new String(chars, parseStart, parseLength));
+            this.bracketedOriginal = openBracket.concat(expression).concat(closeBracket).toCharArray();
+            this.path = UelPath.compile(expression);
         }
 
         @Override
         protected Object get(Map<String, ? extends Object> context, TimeZone timeZone, Locale locale) {
             Object obj = null;
             try {
+                if (this.path != null) {
+                    obj = this.path.getValue(context);
+                    if (obj == UelPath.UNDEFINED) {
+                        if (Debug.verboseOn()) {
+                            Debug.logVerbose("Error evaluating expression " + this + ": identifier not found", module);
+                        }
+                        return null;
+                    }
+                    return obj;
+                }
                 obj = UelUtil.evaluate(context, new String(this.bracketedOriginal));
             } catch (PropertyNotFoundException e) {
                 if (Debug.verboseOn()) {
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.base.util.string;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilGenerics;
+import org.ofbiz.base.util.collections.LocalizedMap;
+
+/**
+ * SCIPIO: A UEL expression that is a plain property path (<code>a.b['c'][0]</code>), compiled to its steps so it can
+ * be evaluated without the UEL parser and resolver chain; used by {@link FlexibleStringExpander} and
+ * {@link org.ofbiz.base.util.collections.FlexibleMapAccessor} for their simple expressions.
+ * <p>
+ * Results are the same as {@link UelUtil#evaluate(Map, String)}: variables and Map properties are resolved through
+ * {@link UelUtil#resolveVariable(String, Map, Locale)} (LocalizedMap and <code>$type</code> suffixes), List and array
+ * elements by index (null if out of range), and a null step makes the result null. Steps on other objects (beans,
+ * DOM nodes, resource bundles) evaluate the whole expression through UEL. A root variable that is not defined gives
+ * {@link #UNDEFINED}, where UEL throws PropertyNotFoundException.
+ * <p>
+ * Added 2026-10.
+ */
+public final class UelPath {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    /** Result of a path whose root variable is not defined. */
+    public static final Object UNDEFINED = new Object();
+
+    private static final Set<String> reservedWords = new HashSet<>(Arrays.asList("and", "or", "not", "eq", "ne", "lt", "gt",
+            "le", "ge", "true", "false", "null", "empty", "div", "mod", "instanceof"));
+
+    private final String expression;
+    private final String root;
+    /** The property of each step after the root: String for names, Long for indexes, as UEL passes them to resolvers. */
+    private final Object[] properties;
+    /** True for the name steps that need UelUtil.resolveVariable on plain maps (<code>$type</code> suffix). */
+    private final boolean[] typedNames;
+
+    private UelPath(String expression, String root, Object[] properties, boolean[] typedNames) {
+        this.expression = expression;
+        this.root = root;
+        this.properties = properties;
+        this.typedNames = typedNames;
+    }
+
+    /**
+     * Compiles the expression (without <code>${}</code>, prepared by {@link UelUtil#prepareExpression(String)}),
+     * or returns null if it is not a plain property path.
+     */
+    public static UelPath compile(String expression) {
+        int length = expression.length();
+        int pos = scanIdentifier(expression, 0);
+        if (pos < 0) {
+            return null;
+        }
+        String root = expression.substring(0, pos);
+        List<Object> properties = new ArrayList<>();
+        while (pos < length) {
+            char c = expression.charAt(pos);
+            if (c == '.') {
+                int end = scanIdentifier(expression, pos + 1);
+                if (end < 0) {
+                    return null;
+                }
+                properties.add(expression.substring(pos + 1, end));
+                pos = end;
+            } else if (c == '[' && pos + 2 < length) {
+                char first = expression.charAt(pos + 1);
+                int end;
+                if (first == '\'' || first == '"') {
+                    end = expression.indexOf(first, pos + 2);
+                    if (end < 0 || end + 1 >= length || expression.charAt(end + 1) != ']'
+                            || expression.lastIndexOf('\\', end) > pos) { // no escapes
+                        return null;
+                    }
+                    properties.add(expression.substring(pos + 2, end));
+                    pos = end + 2;
+                } else {
+                    end = pos + 1;
+                    while (end < length && expression.charAt(end) >= '0' && expression.charAt(end) <= '9') {
+                        end++;
+                    }
+                    if (end == pos + 1 || end - pos - 1 > 9 || end >= length || expression.charAt(end) != ']') {
+                        return null;
+                    }
+                    properties.add(Long.valueOf(expression.substring(pos + 1, end)));
+                    pos = end + 1;
+                }
+            } else {
+                return null;
+            }
+        }
+        boolean[] typedNames = new boolean[properties.size()];
+        for (int i = 0; i < typedNames.length; i++) {
+            Object property = properties.get(i);
+            typedNames[i] = (property instanceof String) && ((String) property).indexOf('$') >= 0;
+        }
+        return new UelPath(expression, root, properties.toArray(), typedNames);
+    }
+
+    /** Returns the end of the identifier starting at pos, or -1 if none or a reserved word. */
+    private static int scanIdentifier(String expression, int pos) {
+        int length = expression.length();
+        if (pos >= length || !Character.isJavaIdentifierStart(expression.charAt(pos))) {
+            return -1;
+        }
+        int end = pos + 1;
+        while (end < length && Character.isJavaIdentifierPart(expression.charAt(end))) {
+            end++;
+        }
+        return reservedWords.contains(expression.substring(pos, end)) ? -1 : end;
+    }
+
+    /**
+     * Evaluates the path in the context; returns {@link #UNDEFINED} if the root variable is not defined. Exceptions
+     * are those of {@link UelUtil#evaluate(Map, String)}, for steps evaluated through UEL.
+     */
+    public Object getValue(Map<String, ? extends Object> context) {
+        Object value = UelUtil.resolveVariable(root, context, null);
+        if (value == null) {
+            return UNDEFINED;
+        }
+        for (int i = 0; i < properties.length; i++) {
+            Object property = properties[i];
+            if (value instanceof LocalizedMap) {
+                if (!(value instanceof Map)) {
+                    return evaluateUel(context);
+                }
+                value = UelUtil.resolveVariable(property.toString(), UtilGenerics.<Map<String, Object>>cast(value), getLocalizedMapLocale(context));
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                if (typedNames[i]) {
+                    value = UelUtil.resolveVariable((String) property, UtilGenerics.<Map<String, Object>>cast(map), null);
+                } else {
+                    value = map.get(property);
+                }
+            } else if (property instanceof Long && value instanceof List) {
+                List<?> list = (List<?>) value;
+                int index = ((Long) property).intValue();
+                value = (index < list.size()) ? list.get(index) : null;
+            } else if (property instanceof Long && value.getClass().isArray()) {
+                int index = ((Long) property).intValue();
+                value = (index < Array.getLength(value)) ? Array.get(value, index) : null;
+            } else {
+                return evaluateUel(context);
+            }
+            if (value == null) {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    private Object evaluateUel(Map<String, ? extends Object> context) {
+        return UelUtil.evaluate(context, FlexibleStringExpander.openBracket.concat(expression).concat(FlexibleStringExpander.closeBracket));
+    }
+
+    /** Returns the locale UEL uses for LocalizedMap properties (see UelUtil.ExtendedMapResolver). */
+    private static Locale getLocalizedMapLocale(Map<String, ? extends Object> context) {
+        Locale locale = null;
+        try {
+            locale = (Locale) UelUtil.resolveVariable(UelUtil.getLocalizedMapLocaleKey(), context, null);
+            if (locale == null) {
+                locale = (Locale) UelUtil.resolveVariable("locale", context, null);
+            }
+        } catch (ClassCastException e) {
+            Debug.logWarning("Exception thrown while getting LocalizedMap element, locale = " + locale + ", exception " + e, module);
+        }
+        return (locale != null) ? locale : Locale.getDefault();
+    }
+
+    /** Returns the expression (without <code>${}</code>). */
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -286,6 +286,7 @@ public class FlexibleStringExpanderTests extends TestCase {
         List<String> testList = new ArrayList<>();
         testList.add("World");
         testMap.put("testList", testList);
+        testMap.put("testArray", new String[] { "World" });
         fseTest("null FlexibleStringExpander, null map", null, null, null, null, "", null, true);
         fseTest("null FlexibleStringExpander", null, testMap, null, null, "", null, true);
         fseTest("null context", "Hello World!", null, null, null, "Hello World!", null, false);
@@ -324,12 +325,17 @@ public class FlexibleStringExpanderTests extends TestCase {
         fseTest("UEL integration: Map", "Hello ${testMap.var}!", testMap, "Hello World!", false);
         fseTest("UEL integration: blank", "Hello ${testMap.blank}World!", testMap, "Hello World!", false);
         fseTest("UEL integration: List", "Hello ${testList[0]}!", testMap, "Hello World!", false);
+        fseTest("UEL integration: Map bracket", "Hello ${testMap['var']}!", testMap, "Hello World!", false);
+        fseTest("UEL integration: List out of range", "Hello ${testList[5]}!", testMap, "Hello !", false);
+        fseTest("UEL integration: array", "Hello ${testArray[0]}!", testMap, "Hello World!", false);
+        fseTest("UEL integration: List property", "${testList.size}", testMap, null, null, "", null, false);
         fseTest("UEL integration: null", "${null}", testMap, null, null, "", null, false);
         fseTest("UEL integration: null dereference", "${nullVar.noProp}", testMap, null, null, "", null, false);
         fseTest("UEL integration: throw NPE", "${" + FlexibleStringExpanderTests.class.getName() + ".ThrowNPE.noProp}", testMap, null, null, "", null, false);
         fseTest("UEL integration: missing", "${noList[0]}", testMap, null, null, "", null, false);
         fseTest("Escaped expression", "This is an \\${escaped} expression", testMap, "This is an ${escaped} expression", false);
         fseTest("Escaped(bsh) expression", "This is an \\${bsh:escaped} expression", testMap, "This is an ${bsh:escaped} expression", false);
+        fseTest("Escaped expressions only", "\\${a}\\${b}", testMap, "${a}${b}", false);
         fseTest("Escaped(groovy) expression", "This is an \\${groovy:escaped} expression", testMap, "This is an ${groovy:escaped} expression", false);
 
         fseTest("nested UEL integration(return BigDecimal)", "${a${'moun'}t}", testMap, null, null, "1,234,567.89", testMap.get("amount"), false);
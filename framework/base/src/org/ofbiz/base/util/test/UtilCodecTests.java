@@ -41,6 +41,27 @@ public class UtilCodecTests  extends GenericTestCaseBase {
         encoderTest("html", UtilCodec.getEncoder("html"), "&lt;&gt;&#x27;&quot;", "<>'\"");
         assertNull("invalid encoder", UtilCodec.getEncoder("foobar"));
     }
+
+    private static void encodeToTest(String label, UtilCodec.SimpleEncoder encoder, String toEncode) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        encoder.encodeTo(sb, toEncode);
+        assertEquals(label + "(encodeTo)", encoder.encode(toEncode), sb.toString());
+    }
+
+    public void testUnchangedAndEncodeTo() throws Exception {
+        String plain = "Product 10-A_b, size 2.5";
+        assertSame("html unchanged", plain, UtilCodec.getEncoder("html").encode(plain));
+        assertSame("xml unchanged", plain, UtilCodec.getEncoder("xml").encode(plain));
+        assertSame("cssstr unchanged", plain, UtilCodec.getEncoder("cssstr").encode(plain));
+        assertSame("string unchanged", plain, UtilCodec.getEncoder("string").encode(plain));
+        for (String lang : new String[] { "html", "xml", "cssid", "cssstr", "jsstr", "string", "raw" }) {
+            UtilCodec.SimpleEncoder encoder = UtilCodec.getEncoder(lang);
+            encodeToTest(lang + ":plain", encoder, plain);
+            encodeToTest(lang + ":special", encoder, "a <b> & 'c' \"d\" \u00e9\u20ac\ud83d\ude00 e");
+            encodeToTest(lang + ":empty", encoder, "");
+            encodeToTest(lang + ":null", encoder, null);
+        }
+    }
     private static void checkStringForHtmlStrictNone_test(String label, String fixed, String input, String... wantedMessages) {
         List<String> gottenMessages = new ArrayList<String>();
         assertEquals(label, fixed, UtilCodec.checkStringForHtmlStrictNone(label, input, gottenMessages));
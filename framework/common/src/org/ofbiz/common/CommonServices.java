@@ -67,6 +67,7 @@ import org.ofbiz.service.DispatchContext;
 import org.ofbiz.service.GenericServiceException;
 import org.ofbiz.service.LocalDispatcher;
 import org.ofbiz.service.ModelService;
+import org.ofbiz.service.ServiceStats;
 import org.ofbiz.service.ServiceSynchronization;
 import org.ofbiz.service.ServiceUtil;
 import org.ofbiz.service.mail.MimeMessageWrapper;
@@ -567,6 +568,44 @@ public class CommonServices {
         return result;
     }
 
+    /**
+     * SCIPIO: Returns the per-service latency and outcome statistics recorded by the service dispatcher.
+     */
+    public static Map<String, Object> getServiceStats(DispatchContext dctx, Map<String, ?> context) {
+        String serviceNameFilter = (String) context.get("serviceName");
+        String orderBy = (String) context.get("orderBy");
+        List<Map<String, Object>> serviceStatsList = new ArrayList<>();
+        for (Map<String, Object> statsMap : ServiceStats.getAllAsMaps()) {
+            if (UtilValidate.isNotEmpty(serviceNameFilter) && !((String) statsMap.get("serviceName")).contains(serviceNameFilter)) {
+                continue;
+            }
+            serviceStatsList.add(statsMap);
+        }
+        if (UtilValidate.isEmpty(orderBy)) {
+            orderBy = "-p99Ms";
+        }
+        final boolean descending = orderBy.startsWith("-");
+        final String orderByField = descending ? orderBy.substring(1) : orderBy;
+        serviceStatsList.sort((first, second) -> {
+            @SuppressWarnings("unchecked")
+            Comparable<Object> firstValue = (Comparable<Object>) first.get(orderByField);
+            Object secondValue = second.get(orderByField);
+            int cmp = (firstValue == null) ? ((secondValue == null) ? 0 : -1) : ((secondValue == null) ? 1 : firstValue.compareTo(secondValue));
+            return descending ? -cmp : cmp;
+        });
+        Map<String, Object> result = ServiceUtil.returnSuccess();
+        result.put("serviceStatsList", serviceStatsList);
+        return result;
+    }
+
+    /**
+     * SCIPIO: Resets the per-service statistics recorded by the service dispatcher.
+     */
+    public static Map<String, Object> resetServiceStats(DispatchContext dctx, Map<String, ?> context) {
+        ServiceStats.resetAll();
+        return ServiceUtil.returnSuccess();
+    }
+
     public static Map<String, Object> resetMetric(DispatchContext dctx, Map<String, ?> context) {
         String originalName = (String) context.get("name");
         Locale locale = (Locale)context.get("locale");
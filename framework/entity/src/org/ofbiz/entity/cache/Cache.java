@@ -36,21 +36,25 @@ public class Cache {
     protected EntityObjectCache entityObjectCache;
 
     protected String delegatorName;
+    protected final EntityCacheVersions versions; // SCIPIO: 2026-10: change counters for derived caches
 
     public Cache(String delegatorName) {
         this.delegatorName = delegatorName;
+        this.versions = EntityCacheVersions.getInstance(delegatorName);
         entityCache = new EntityCache(delegatorName);
         entityObjectCache = new EntityObjectCache(delegatorName);
         entityListCache = new EntityListCache(delegatorName);
     }
 
     public void clear() {
+        versions.incrementAll();
         entityCache.clear();
         entityListCache.clear();
         entityObjectCache.clear();
     }
 
     public void remove(String entityName) {
+        versions.increment(entityName);
         entityCache.remove(entityName);
         entityListCache.remove(entityName);
     }
@@ -94,18 +98,21 @@ public class Cache {
     }
 
     public List<GenericValue> remove(String entityName, EntityCondition condition, List<String> orderBy) {
+        versions.increment(entityName);
         entityCache.remove(entityName, condition);
         entityObjectCache.remove(entityName, condition);
         return entityListCache.remove(entityName, condition, orderBy);
     }
 
     public void remove(String entityName, EntityCondition condition) {
+        versions.increment(entityName);
         entityCache.remove(entityName, condition);
         entityListCache.remove(entityName, condition);
         entityObjectCache.remove(entityName, condition);
     }
 
     public <T> T remove(String entityName, EntityCondition condition, String name) {
+        versions.increment(entityName);
         return UtilGenerics.<T>cast(entityObjectCache.remove(entityName, condition, name));
     }
 
@@ -113,6 +120,7 @@ public class Cache {
         if (Debug.verboseOn()) {
             Debug.logVerbose("Cache remove GenericEntity: " + entity, module);
         }
+        versions.increment(entity.getEntityName());
         GenericValue oldEntity = entityCache.remove(entity.getPrimaryKey());
         // Workaround because AbstractEntityConditionCache.storeHook doesn't work.
         entityListCache.remove(entity);
@@ -124,6 +132,7 @@ public class Cache {
         if (Debug.verboseOn()) {
             Debug.logVerbose("Cache remove GenericPK: " + pk, module);
         }
+        versions.increment(pk.getEntityName());
         GenericValue oldEntity = entityCache.remove(pk);
         // Workaround because AbstractEntityConditionCache.storeHook doesn't work.
         entityListCache.remove(pk);
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.entity.cache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SCIPIO: Change counters of the entities of a delegator, incremented each time the entity cache of
+ * an entity is cleared, which the delegator does on every create, store and remove of a cacheable entity
+ * (also when distributed from other servers).
+ * <p>
+ * Caches of data derived from entities (e.g. rendered pages) can keep the {@link #getVersion(Collection)} of
+ * the entities they depend on and treat their entry as stale when it changes, instead of registering listeners.
+ * Entities marked never-cache are not counted.
+ * <p>
+ * Added 2026-10.
+ */
+public final class EntityCacheVersions {
+
+    private static final ConcurrentMap<String, EntityCacheVersions> delegatorVersions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> entityVersions = new ConcurrentHashMap<>();
+    private final AtomicLong clearAllVersion = new AtomicLong();
+
+    private EntityCacheVersions() {
+    }
+
+    public static EntityCacheVersions getInstance(String delegatorName) {
+        EntityCacheVersions versions = delegatorVersions.get(delegatorName);
+        if (versions == null) {
+            versions = delegatorVersions.computeIfAbsent(delegatorName, k -> new EntityCacheVersions());
+        }
+        return versions;
+    }
+
+    /**
+     * Returns a number that changes whenever the cache of any of the given entities is cleared; it only increases.
+     */
+    public long getVersion(Collection<String> entityNames) {
+        long version = clearAllVersion.get();
+        for (String entityName : entityNames) {
+            AtomicLong entityVersion = entityVersions.get(entityName);
+            if (entityVersion != null) {
+                version += entityVersion.get();
+            }
+        }
+        return version;
+    }
+
+    void increment(String entityName) {
+        if (entityName == null) {
+            return;
+        }
+        AtomicLong entityVersion = entityVersions.get(entityName);
+        if (entityVersion == null) {
+            entityVersion = entityVersions.computeIfAbsent(entityName, k -> new AtomicLong());
+        }
+        entityVersion.incrementAndGet();
+    }
+
+    void incrementAll() {
+        clearAllVersion.incrementAndGet();
+    }
+}
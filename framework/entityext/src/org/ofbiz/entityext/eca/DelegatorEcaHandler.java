@@ -37,6 +37,8 @@ import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.eca.EntityEcaHandler;
 import org.ofbiz.entityext.EntityServiceFactory;
 import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.ServiceResultCache;
+import org.ofbiz.service.calendar.TemporalExpressionWorker;
 
 /**
  * EntityEcaUtil
@@ -89,6 +91,11 @@ public class DelegatorEcaHandler implements EntityEcaHandler<EntityEcaRule> {
     }
 
     public void evalRules(String currentOperation, Map<String, List<EntityEcaRule>> eventMap, String event, GenericEntity value, boolean isError) throws GenericEntityException {
+        // SCIPIO: evict service results and temporal expressions depending on this entity, independently of any EECA rules
+        if (EV_CACHE_CLEAR.equals(event)) {
+            ServiceResultCache.clearByEntity(value.getEntityName());
+            TemporalExpressionWorker.clearCacheByEntity(value.getEntityName());
+        }
         // if the eventMap is passed we save a HashMap lookup, but if not that's okay we'll just look it up now
         if (eventMap == null) eventMap = this.getEntityEventMap(value.getEntityName());
         if (UtilValidate.isEmpty(eventMap)) {
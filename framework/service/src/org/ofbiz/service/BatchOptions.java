@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service;
+
+/**
+ * SCIPIO: Options for {@link LocalDispatcher#runBatch(String, java.util.List, BatchOptions)}.
+ * <p>
+ * Setters return this instance for chaining, e.g.:
+ * <code>new BatchOptions().setCommitSize(200).setParallelism(4)</code>.
+ */
+public class BatchOptions {
+
+    public static final int DEFAULT_COMMIT_SIZE = 100;
+
+    private int commitSize = DEFAULT_COMMIT_SIZE;
+    private int parallelism = 1;
+    private int transactionTimeout = 0;
+    private boolean isolateFailures = true;
+    private boolean stopOnError = false;
+    private boolean makeValid = false;
+
+    public BatchOptions() {
+    }
+
+    /** Returns the number of calls grouped in one transaction. */
+    public int getCommitSize() {
+        return commitSize;
+    }
+
+    /** Sets the number of calls grouped in one transaction; values below 1 mean 1. Default: 100. */
+    public BatchOptions setCommitSize(int commitSize) {
+        this.commitSize = Math.max(1, commitSize);
+        return this;
+    }
+
+    /** Returns the number of worker threads processing transaction groups. */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of worker threads processing transaction groups; 1 (default) runs all calls in the
+     * calling thread. Only use a value above 1 for calls that are independent of each other.
+     */
+    public BatchOptions setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /** Returns the timeout of each group transaction in seconds; 0 for the default timeout. */
+    public int getTransactionTimeout() {
+        return transactionTimeout;
+    }
+
+    /** Sets the timeout of each group transaction in seconds; 0 (default) for the default timeout. */
+    public BatchOptions setTransactionTimeout(int transactionTimeout) {
+        this.transactionTimeout = transactionTimeout;
+        return this;
+    }
+
+    /** Returns true if a failing call is prevented from rolling back the other calls of its group. */
+    public boolean isIsolateFailures() {
+        return isolateFailures;
+    }
+
+    /**
+     * If true (default), when a call returns an error or throws, its group transaction is rolled back and
+     * the calls of the group are re-run one by one, each in its own transaction, so that only the failing
+     * calls are lost. If false, the whole group is rolled back and all its calls are reported as errors.
+     */
+    public BatchOptions setIsolateFailures(boolean isolateFailures) {
+        this.isolateFailures = isolateFailures;
+        return this;
+    }
+
+    /** Returns true if processing stops at the first group containing an error. */
+    public boolean isStopOnError() {
+        return stopOnError;
+    }
+
+    /**
+     * If true, no new group is started once a group contained an error; the calls that were not run get no result
+     * (null). Default: false.
+     */
+    public BatchOptions setStopOnError(boolean stopOnError) {
+        this.stopOnError = stopOnError;
+        return this;
+    }
+
+    /** Returns true if the contexts are filtered to the service IN parameters. */
+    public boolean isMakeValid() {
+        return makeValid;
+    }
+
+    /**
+     * If true, each context is filtered to the service IN parameters (like makeValidContext), the set of
+     * valid keys being computed once per distinct context key set. Default: false.
+     */
+    public BatchOptions setMakeValid(boolean makeValid) {
+        this.makeValid = makeValid;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "{commitSize=" + commitSize + ", parallelism=" + parallelism + ", transactionTimeout=" + transactionTimeout
+                + ", isolateFailures=" + isolateFailures + ", stopOnError=" + stopOnError + ", makeValid=" + makeValid + "}";
+    }
+}
@@ -19,6 +19,7 @@
 package org.ofbiz.service;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import javax.transaction.Transaction;
@@ -223,6 +224,19 @@ public abstract class GenericAbstractDispatcher implements LocalDispatcher {
         return dispatcher.getSecurity();
     }
 
+    /**
+     * SCIPIO: Runs the service once per context in transaction groups.
+     * @see org.ofbiz.service.LocalDispatcher#runBatch(String, List, BatchOptions)
+     */
+    @Override
+    public List<Map<String, Object>> runBatch(String serviceName, List<? extends Map<String, ? extends Object>> contexts, BatchOptions options) throws GenericServiceException {
+        ModelService service = ctx.getModelService(serviceName);
+        if (Debug.verboseOn()) {
+            Debug.logVerbose("[LocalDispatcher.runBatch] : running " + contexts.size() + " calls of service " + serviceName + " with options " + options, module);
+        }
+        return new ServiceBatchRunner(dispatcher, name, service, contexts, (options != null) ? options : new BatchOptions()).run();
+    }
+
     /**
      * @see org.ofbiz.service.LocalDispatcher#getName()
      */
@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.ofbiz.service;
 
+import java.util.List;
 import java.util.Map;
 
 import org.ofbiz.entity.Delegator;
@@ -107,6 +108,30 @@ public interface LocalDispatcher {
         return runSync(serviceName, context, -1, true);
     }
 
+    /**
+     * SCIPIO: Runs the service synchronously once per context, grouping the calls in transactions of
+     * {@link BatchOptions#getCommitSize()} calls and optionally spreading the groups over a worker pool.
+     * <p>
+     * The calls run outside of any transaction of the caller (which is suspended). A call returning an error
+     * or throwing does not abort the batch: by default its group is rolled back and re-run one call per
+     * transaction, so only the failing calls are lost (see {@link BatchOptions#setIsolateFailures(boolean)}).
+     * Exceptions thrown by a call are returned as error results.
+     * @param serviceName Name of the service to run.
+     * @param contexts The contexts, one per call.
+     * @param options The batch options.
+     * @return The results, in the order of the contexts; null for calls not run due to {@link BatchOptions#setStopOnError(boolean)}.
+     * @throws GenericServiceException if the service does not exist or the batch itself failed
+     */
+    List<Map<String, Object>> runBatch(String serviceName, List<? extends Map<String, ? extends Object>> contexts, BatchOptions options) throws GenericServiceException;
+
+    /**
+     * SCIPIO: Runs the service synchronously once per context, with default {@link BatchOptions}.
+     * @see #runBatch(String, List, BatchOptions)
+     */
+    default List<Map<String, Object>> runBatch(String serviceName, List<? extends Map<String, ? extends Object>> contexts) throws GenericServiceException {
+        return runBatch(serviceName, contexts, new BatchOptions());
+    }
+
     /**
      * Run the service synchronously and IGNORE the result.
      * @param serviceName Name of the service to run.
@@ -28,6 +28,7 @@ import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -38,6 +39,7 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.wsdl.Binding;
@@ -245,11 +247,23 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
     /** Flag to say if we have pulled in our addition parameters from our implemented service(s) */
     protected boolean inheritedParameters = false;
 
+    /**
+     * SCIPIO: Per-mode parameter shapes used by {@link #validate(Map, String, Locale)}, built on first use and
+     * reset whenever parameters are added or overridden.
+     */
+    private transient volatile Map<String, ParamShape> paramShapes;
+
     /**
      * Service metrics.
      */
     public Metrics metrics = null;
 
+    /**
+     * SCIPIO: Service result cache definition, or null if results are not cached.
+     * @see ServiceResultCache
+     */
+    public ModelServiceCache cache = null;
+
     /**
      * SCIPIO: Defines custom service properties, which can be interpreted by the system or custom
      * code as needed.
@@ -322,6 +336,7 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         this.internalGroup = model.internalGroup;
         this.hideResultInLog = model.hideResultInLog;
         this.metrics = model.metrics;
+        this.cache = model.cache; // SCIPIO
         List<ModelParam> modelParamList = model.getModelParamList();
         for (ModelParam param: modelParamList) {
             this.addParamClone(param);
@@ -481,6 +496,7 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         if (param != null) {
             contextInfo.put(param.name, param);
             contextParamList.add(param);
+            paramShapes = null; // SCIPIO: 2026-10: parameters changed
         }
     }
 
@@ -590,9 +606,6 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
      * @param locale the actual locale to use
      */
     public void validate(Map<String, Object> context, String mode, Locale locale) throws ServiceValidationException {
-        Map<String, String> requiredInfo = new HashMap<>();
-        Map<String, String> optionalInfo = new HashMap<>();
-
         if (Debug.verboseOn()) Debug.logVerbose("[ModelService.validate] : {" + this.name + "} : Validating context - " + context, module);
 
         // do not validate results with errors
@@ -604,15 +617,10 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         }
 
         // get the info values
-        for (ModelParam modelParam: this.contextParamList) {
-            if (IN_OUT_PARAM.equals(modelParam.mode) || mode.equals(modelParam.mode)) {
-                if (modelParam.optional) {
-                    optionalInfo.put(modelParam.name, modelParam.type);
-                } else {
-                    requiredInfo.put(modelParam.name, modelParam.type);
-                }
-            }
-        }
+        // SCIPIO: 2026-10: built once per mode instead of per call
+        ParamShape shape = getParamShape(mode);
+        Map<String, String> requiredInfo = shape.requiredInfo;
+        Map<String, String> optionalInfo = shape.optionalInfo;
 
         // get the test values
         Map<String, Object> requiredTest = new HashMap<>();
@@ -669,8 +677,17 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         }
 
         try {
-            validate(requiredInfo, requiredTest, true, this, mode, locale);
-            validate(optionalInfo, optionalTest, false, this, mode, locale);
+            // SCIPIO: 2026-10: the key checks (required present, no unknown keys) depend only on the key set,
+            // so they are skipped for a key set that already passed them; value and type checks still run per call
+            Set<String> keys = context.keySet();
+            if (shape.validKeySets.contains(keys)) {
+                validateTypes(requiredInfo, requiredTest, this, mode, locale);
+                validateTypes(optionalInfo, optionalTest, this, mode, locale);
+            } else {
+                validate(requiredInfo, requiredTest, true, this, mode, locale);
+                validate(optionalInfo, optionalTest, false, this, mode, locale);
+                shape.addValidKeySet(keys);
+            }
         } catch (ServiceValidationException e) {
             Debug.logError("[ModelService.validate] : {" + name + "} : (" + mode + ") Required test error: " + e.toString(), module);
             throw e;
@@ -772,6 +789,15 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         }
 
         // * Validate types next
+        validateTypes(info, test, model, mode, locale);
+    }
+
+    /**
+     * SCIPIO: Validates the value types of a map of name, objects against a map of name, object types, without
+     * checking for missing or unknown keys (split out of {@link #validate(Map, Map, boolean, ModelService, String, Locale)}).
+     */
+    private static void validateTypes(Map<String, String> info, Map<String, ? extends Object> test, ModelService model, String mode, Locale locale) throws ServiceValidationException {
+        Set<String> testSet = test.keySet();
         List<String> typeFailMsgs = new ArrayList<>(); // SCIPIO: switched to ArrayList
         for (String key: testSet) {
             ModelParam param = model.getParam(key);
@@ -822,6 +848,60 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
         }
     }
 
+    /**
+     * SCIPIO: Returns the required/optional parameter types for the given mode, built once from the parameter list.
+     */
+    private ParamShape getParamShape(String mode) {
+        Map<String, ParamShape> shapes = paramShapes;
+        if (shapes == null) {
+            shapes = new ConcurrentHashMap<>();
+            paramShapes = shapes;
+        }
+        ParamShape shape = shapes.get(mode);
+        if (shape == null) {
+            shape = new ParamShape(this.contextParamList, mode);
+            shapes.put(mode, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * SCIPIO: The parameter types of one validation mode, plus the context key sets already known to pass
+     * the required/unknown key checks for it.
+     * <p>
+     * Added 2026-10.
+     */
+    private static final class ParamShape {
+        private static final int MAX_KEY_SETS = 32;
+
+        final Map<String, String> requiredInfo;
+        final Map<String, String> optionalInfo;
+        final Set<Set<String>> validKeySets = ConcurrentHashMap.newKeySet();
+
+        ParamShape(List<ModelParam> params, String mode) {
+            Map<String, String> requiredInfo = new HashMap<>();
+            Map<String, String> optionalInfo = new HashMap<>();
+            for (ModelParam modelParam: params) {
+                if (IN_OUT_PARAM.equals(modelParam.mode) || mode.equals(modelParam.mode)) {
+                    if (modelParam.optional) {
+                        optionalInfo.put(modelParam.name, modelParam.type);
+                    } else {
+                        requiredInfo.put(modelParam.name, modelParam.type);
+                    }
+                }
+            }
+            this.requiredInfo = Collections.unmodifiableMap(requiredInfo);
+            this.optionalInfo = Collections.unmodifiableMap(optionalInfo);
+        }
+
+        void addValidKeySet(Set<String> keys) {
+            // bounded: callers that build contexts with many different key sets just keep the full checks
+            if (validKeySets.size() < MAX_KEY_SETS) {
+                validKeySets.add(Collections.unmodifiableSet(new HashSet<>(keys)));
+            }
+        }
+    }
+
     public static boolean typeValidate(ModelParam.ModelParamValidator vali, Object testValue) throws GeneralException {
         // find the validator class
         Class<?> validatorClass = null;
@@ -1390,6 +1470,7 @@ public class ModelService extends AbstractMap<String, Object> implements Seriali
 
             // set the flag so we don't do this again
             this.inheritedParameters = true;
+            this.paramShapes = null; // SCIPIO: 2026-10: overrides may have changed param types/modes in place
         }
     }
 
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.UtilXml;
+import org.w3c.dom.Element;
+
+/**
+ * SCIPIO: Service result cache definition, read from the service <code>cache</code> element.
+ * <p>
+ * Describes which IN parameters make up the cache key, how long results are kept and
+ * which entities the results depend on. Used by {@link ServiceResultCache}.
+ */
+@SuppressWarnings("serial")
+public class ModelServiceCache implements Serializable {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    /** Default expire time (milliseconds) when the expire-time attribute is omitted. */
+    public static final long DEFAULT_EXPIRE_TIME = 60000;
+
+    protected final String serviceName;
+    protected final List<String> keyParamNames;
+    protected final List<String> entityNames;
+    protected final long expireTime;
+    protected final int maxSize;
+    private transient volatile List<String> defaultKeyParamNames;
+
+    protected ModelServiceCache(String serviceName, List<String> keyParamNames, List<String> entityNames, long expireTime, int maxSize) {
+        this.serviceName = serviceName;
+        this.keyParamNames = keyParamNames;
+        this.entityNames = entityNames;
+        this.expireTime = expireTime;
+        this.maxSize = maxSize;
+    }
+
+    public static ModelServiceCache fromElement(Element cacheElement, String serviceName) {
+        List<String> keyParamNames = new ArrayList<>();
+        for (Element keyParamElement : UtilXml.childElementList(cacheElement, "key-param")) {
+            String name = UtilXml.checkEmpty(keyParamElement.getAttribute("name")).intern();
+            if (!name.isEmpty()) {
+                keyParamNames.add(name);
+            }
+        }
+        List<String> entityNames = new ArrayList<>();
+        for (Element entityElement : UtilXml.childElementList(cacheElement, "entity")) {
+            String name = UtilXml.checkEmpty(entityElement.getAttribute("name")).intern();
+            if (!name.isEmpty()) {
+                entityNames.add(name);
+            }
+        }
+        long expireTime = DEFAULT_EXPIRE_TIME;
+        String expireTimeStr = UtilXml.checkEmpty(cacheElement.getAttribute("expire-time"));
+        if (UtilValidate.isNotEmpty(expireTimeStr)) {
+            try {
+                expireTime = Long.parseLong(expireTimeStr);
+            } catch (NumberFormatException e) {
+                Debug.logWarning("Invalid cache expire-time [" + expireTimeStr + "] for service [" + serviceName
+                        + "]; using default (" + DEFAULT_EXPIRE_TIME + ")", module);
+            }
+        }
+        int maxSize = 0;
+        String maxSizeStr = UtilXml.checkEmpty(cacheElement.getAttribute("max-size"));
+        if (UtilValidate.isNotEmpty(maxSizeStr)) {
+            try {
+                maxSize = Integer.parseInt(maxSizeStr);
+            } catch (NumberFormatException e) {
+                Debug.logWarning("Invalid cache max-size [" + maxSizeStr + "] for service [" + serviceName
+                        + "]; using no limit", module);
+            }
+        }
+        return new ModelServiceCache(serviceName,
+                keyParamNames.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(keyParamNames),
+                entityNames.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(entityNames),
+                expireTime, maxSize);
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * Returns the names of the IN parameters that form the cache key.
+     * If empty, all IN parameters of the service except userLogin are used.
+     */
+    public List<String> getKeyParamNames() {
+        return keyParamNames;
+    }
+
+    /** Returns the names of the entities whose modification evicts the cached results. */
+    public List<String> getEntityNames() {
+        return entityNames;
+    }
+
+    /** Returns the expire time in milliseconds; 0 means results only expire through entity changes. */
+    public long getExpireTime() {
+        return expireTime;
+    }
+
+    /** Returns the maximum number of cached results; 0 means no limit. */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Builds the cache key for the given service call context.
+     * <p>
+     * The key is a list of the key parameter values, prefixed with the delegator name; values must
+     * implement equals/hashCode properly (strings, numbers, GenericValues, collections of those).
+     */
+    public List<Object> makeKey(String delegatorName, ModelService model, Map<String, ? extends Object> context) {
+        List<String> paramNames = keyParamNames;
+        if (paramNames.isEmpty()) {
+            paramNames = defaultKeyParamNames;
+            if (paramNames == null) {
+                List<String> inParamNames = new ArrayList<>(model.getInParamNames());
+                inParamNames.remove("userLogin");
+                paramNames = Collections.unmodifiableList(inParamNames);
+                defaultKeyParamNames = paramNames;
+            }
+        }
+        Object[] key = new Object[(paramNames.size() * 2) + 1];
+        key[0] = delegatorName;
+        int i = 1;
+        for (String paramName : paramNames) {
+            key[i++] = paramName;
+            key[i++] = (context != null) ? context.get(paramName) : null;
+        }
+        return Arrays.asList(key);
+    }
+
+    @Override
+    public String toString() {
+        return "{keyParams=" + keyParamNames + ", entities=" + entityNames + ", expireTime=" + expireTime + ", maxSize=" + maxSize + "}";
+    }
+}
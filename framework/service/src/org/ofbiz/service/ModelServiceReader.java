@@ -279,6 +279,11 @@ public class ModelServiceReader implements Serializable {
         if (metricsElement != null) {
             service.metrics = MetricsFactory.getInstance(metricsElement);
         }
+        // SCIPIO: Get result cache definition
+        Element cacheElement = UtilXml.firstChildElement(serviceElement, "cache");
+        if (cacheElement != null) {
+            service.cache = ModelServiceCache.fromElement(cacheElement, service.name);
+        }
 
         // SCIPIO
         String loc = service.definitionLocation;
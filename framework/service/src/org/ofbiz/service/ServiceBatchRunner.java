@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.transaction.Transaction;
+
+import org.ofbiz.base.concurrent.ExecutionPool;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.entity.transaction.GenericTransactionException;
+import org.ofbiz.entity.transaction.TransactionUtil;
+
+/**
+ * SCIPIO: Runs a list of calls to one service in transaction groups, for
+ * {@link LocalDispatcher#runBatch(String, List, BatchOptions)}.
+ * <p>
+ * The service model is looked up once; each group of {@link BatchOptions#getCommitSize()} calls shares
+ * one transaction, so the calls do not each begin and commit their own. Groups are processed by the calling
+ * thread or, if {@link BatchOptions#getParallelism()} is above 1, by that many workers of
+ * {@link ExecutionPool#GLOBAL_BATCH}, each group in its own transaction.
+ * <p>
+ * Per-call auth (including required permissions), value validation and SECAs still run as for runSync, since their
+ * outcome depends on each context; the parameter key checks are done once per context shape (key set), see
+ * {@link ModelService#validate(Map, String, java.util.Locale)}. Each call follows the transaction settings of the service: with the default
+ * <code>use-transaction="true"</code> it joins the group transaction, while a <code>require-new-transaction</code>
+ * service still runs each call in its own transaction.
+ */
+final class ServiceBatchRunner {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private final ServiceDispatcher dispatcher;
+    private final String localName;
+    private final ModelService model;
+    private final List<? extends Map<String, ? extends Object>> contexts;
+    private final BatchOptions options;
+    private final Map<String, Object>[] results;
+    private final AtomicInteger nextGroup = new AtomicInteger();
+    private final Map<Set<String>, Set<String>> validKeysByKeySet = new ConcurrentHashMap<>();
+    private volatile boolean stopped = false;
+
+    @SuppressWarnings("unchecked")
+    ServiceBatchRunner(ServiceDispatcher dispatcher, String localName, ModelService service, List<? extends Map<String, ? extends Object>> contexts, BatchOptions options) {
+        this.dispatcher = dispatcher;
+        this.localName = localName;
+        // The model itself (not a copy), so the calls get all of its checks: permissions, notifications, SECAs
+        this.model = service;
+        this.contexts = contexts;
+        this.options = options;
+        this.results = new Map[contexts.size()];
+    }
+
+    List<Map<String, Object>> run() throws GenericServiceException {
+        if (contexts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int groupCount = ((contexts.size() - 1) / options.getCommitSize()) + 1;
+        int workerCount = Math.min(options.getParallelism(), groupCount);
+        if (workerCount <= 1) {
+            runGroupsSuspended();
+        } else {
+            List<Future<Void>> futures = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(ExecutionPool.GLOBAL_BATCH.submit(() -> {
+                    runGroupsSuspended();
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GenericServiceException("Interrupted while waiting for batch of service [" + model.name + "]", e);
+                } catch (ExecutionException e) {
+                    Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                    if (cause instanceof GenericServiceException) {
+                        throw (GenericServiceException) cause;
+                    }
+                    throw new GenericServiceException("Error running batch of service [" + model.name + "]", cause);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void runGroupsSuspended() throws GenericServiceException {
+        Transaction parentTransaction = null;
+        try {
+            parentTransaction = TransactionUtil.suspend();
+            runGroups();
+        } catch (GenericTransactionException e) {
+            throw new GenericServiceException("Transaction error running batch of service [" + model.name + "]", e);
+        } finally {
+            if (parentTransaction != null) {
+                try {
+                    TransactionUtil.resume(parentTransaction);
+                } catch (GenericTransactionException e) {
+                    Debug.logError(e, "Could not resume transaction after batch of service [" + model.name + "]", module);
+                }
+            }
+        }
+    }
+
+    private void runGroups() throws GenericTransactionException {
+        int commitSize = options.getCommitSize();
+        int group;
+        while (!stopped && (group = nextGroup.getAndIncrement()) * (long) commitSize < contexts.size()) {
+            int from = group * commitSize;
+            int to = Math.min(from + commitSize, contexts.size());
+            boolean success = runGroup(from, to);
+            if (!success && options.isIsolateFailures()) {
+                success = true;
+                for (int i = from; i < to; i++) {
+                    success &= runCall(i);
+                }
+            }
+            if (!success && options.isStopOnError()) {
+                stopped = true;
+            }
+        }
+    }
+
+    /**
+     * Runs the calls from-to in one transaction; returns false if any call returned an error, threw or if the
+     * commit failed, in which case the transaction is rolled back.
+     */
+    private boolean runGroup(int from, int to) throws GenericTransactionException {
+        int timeout = (options.getTransactionTimeout() > 0) ? options.getTransactionTimeout() : model.transactionTimeout;
+        boolean beganTrans = TransactionUtil.begin(timeout);
+        int errorIndex = -1;
+        try {
+            for (int i = from; i < to; i++) {
+                if (!runCall(i)) {
+                    errorIndex = i;
+                    break;
+                }
+            }
+        } catch (Throwable t) {
+            // Errors (not caught by runCall) must not leave the group transaction open
+            rollbackQuietly(beganTrans, "Error in batch calls [" + from + "-" + (to - 1) + "] of service [" + model.name + "]", t);
+            throw t;
+        }
+        String errMsg = null;
+        if (errorIndex >= 0) {
+            TransactionUtil.rollback(beganTrans, "Error in batch call [" + errorIndex + "] of service [" + model.name + "]", null);
+            errMsg = "Rolled back because of error in batch call [" + errorIndex + "] of service [" + model.name + "]: "
+                    + ServiceUtil.getErrorMessage(results[errorIndex]);
+        } else {
+            try {
+                TransactionUtil.commit(beganTrans);
+                return true;
+            } catch (GenericTransactionException e) {
+                errMsg = "Could not commit batch calls [" + from + "-" + (to - 1) + "] of service [" + model.name + "]: " + e.getMessage();
+                Debug.logError(e, errMsg, module);
+            } catch (Throwable t) {
+                rollbackQuietly(beganTrans, "Could not commit batch calls [" + from + "-" + (to - 1) + "] of service [" + model.name + "]", t);
+                throw t;
+            }
+        }
+        if (!options.isIsolateFailures()) {
+            for (int i = from; i < to; i++) {
+                if (i != errorIndex) {
+                    results[i] = ServiceUtil.returnError(errMsg);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rolls back after an unexpected Throwable, which is rethrown by the caller; rollback errors are only logged.
+     */
+    private void rollbackQuietly(boolean beganTrans, String causeMessage, Throwable cause) {
+        try {
+            TransactionUtil.rollback(beganTrans, causeMessage, cause);
+        } catch (Throwable t) {
+            Debug.logError(t, "Could not roll back batch transaction of service [" + model.name + "]", module);
+        }
+    }
+
+    /**
+     * Runs call i, storing its result; returns false if it returned an error or threw.
+     */
+    private boolean runCall(int i) {
+        Map<String, Object> result;
+        try {
+            result = dispatcher.runSync(localName, model, getContext(i));
+        } catch (GenericServiceException | RuntimeException e) {
+            Debug.logError(e, "Error in batch call [" + i + "] of service [" + model.name + "]", module);
+            result = ServiceUtil.returnError(e.getMessage());
+        }
+        results[i] = result;
+        return !ServiceUtil.isError(result);
+    }
+
+    private Map<String, ? extends Object> getContext(int i) {
+        Map<String, ? extends Object> context = contexts.get(i);
+        if (!options.isMakeValid() || context == null) {
+            return context;
+        }
+        Set<String> validKeys = validKeysByKeySet.computeIfAbsent(new HashSet<>(context.keySet()), keySet -> {
+            Set<String> keys = new HashSet<>(keySet);
+            keys.retainAll(model.getInParamNames());
+            keys.addAll(ModelService.COMMON_INTERNAL_IN_FIELDS);
+            return keys;
+        });
+        Map<String, Object> validContext = new HashMap<>();
+        for (Map.Entry<String, ? extends Object> entry : context.entrySet()) {
+            if (validKeys.contains(entry.getKey())) {
+                validContext.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return validContext;
+    }
+}
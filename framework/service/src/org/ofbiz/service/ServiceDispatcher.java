@@ -273,6 +273,34 @@ public class ServiceDispatcher {
      * @throws GenericServiceException
      */
     public Map<String, Object> runSync(String localName, ModelService modelService, Map<String, ? extends Object> params, boolean validateOut) throws ServiceAuthException, ServiceValidationException, GenericServiceException {
+        // SCIPIO: record per-service latency, outcome and call depth
+        ServiceStats stats = ServiceStats.getOrCreate(modelService.name);
+        if (stats == null) {
+            return runSyncImpl(localName, modelService, params, validateOut);
+        }
+        long startNanos = stats.enter();
+        Map<String, Object> result = null;
+        Throwable error = null;
+        try {
+            result = runSyncImpl(localName, modelService, params, validateOut);
+            return result;
+        } catch (GenericServiceException | RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            stats.exit(startNanos, result, error);
+        }
+    }
+
+    private Map<String, Object> runSyncImpl(String localName, ModelService modelService, Map<String, ? extends Object> params, boolean validateOut) throws ServiceAuthException, ServiceValidationException, GenericServiceException {
+        // SCIPIO: serve read-only services declaring a cache element from the service result cache
+        List<Object> resultCacheKey = ServiceResultCache.makeKey((delegator != null) ? delegator.getDelegatorName() : null, modelService, params);
+        if (resultCacheKey != null) {
+            Map<String, Object> cachedResult = ServiceResultCache.get(modelService, resultCacheKey);
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+        }
         long serviceStartTime = System.currentTimeMillis();
         Map<String, Object> result = new HashMap<>();
         ServiceSemaphore lock = null;
@@ -495,10 +523,14 @@ public class ServiceDispatcher {
                 } while (needsLockRetry && lockRetriesRemaining > 0);
 
                 // create a new context with the results to pass to ECA services; necessary because caller may reuse this context
-                ecaContext = new HashMap<>();
-                ecaContext.putAll(context);
-                // copy all results: don't worry parameters that aren't allowed won't be passed to the ECA services
-                ecaContext.putAll(result);
+                // SCIPIO: only if the service has rules for one of the events using it
+                if (eventMap != null && (ServiceEcaUtil.hasServiceEventRules(eventMap, "out-validate") || ServiceEcaUtil.hasServiceEventRules(eventMap, "commit")
+                        || ServiceEcaUtil.hasServiceEventRules(eventMap, "global-commit-post-run") || ServiceEcaUtil.hasServiceEventRules(eventMap, "return"))) {
+                    ecaContext = new HashMap<>();
+                    ecaContext.putAll(context);
+                    // copy all results: don't worry parameters that aren't allowed won't be passed to the ECA services
+                    ecaContext.putAll(result);
+                }
 
                 // setup default OUT values
                 modelService.updateDefaultValues(context, ModelService.OUT_PARAM);
@@ -648,6 +680,9 @@ public class ServiceDispatcher {
         if (modelService.metrics != null) {
             modelService.metrics.recordServiceRate(1, timeToRun);
         }
+        if (resultCacheKey != null && !isError && !isFailure) { // SCIPIO
+            ServiceResultCache.put(modelService, resultCacheKey, result);
+        }
         return result;
     }
 
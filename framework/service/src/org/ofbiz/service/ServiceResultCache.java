@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.entity.GenericEntity;
+
+/**
+ * SCIPIO: Result cache for read-only services declaring a <code>cache</code> element.
+ * <p>
+ * Each cached service gets its own UtilCache region named <code>service.result.[serviceName]</code>,
+ * whose settings can be overridden in cache.properties like any other cache.
+ * Entries are evicted when any of the declared dependent entities is created, stored or removed
+ * through the delegator (see {@link #clearByEntity(String)}, called from the entity ECA handler);
+ * bulk operations (removeByCondition, storeByCondition) do not trigger entity ECAs,
+ * so the expire time must bound the staleness tolerated for those.
+ * <p>
+ * Cache hits bypass the whole service call, including SECAs, auth and validation, so the cache
+ * element should only be used on read-only services whose result is fully determined by
+ * the key parameters.
+ * <p>
+ * Results are copied when stored and on each hit, lists, maps, sets, entity values and dates included, so that a
+ * caller modifying its result does not change the cached one; other values must be immutable.
+ */
+public final class ServiceResultCache {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    public static final String CACHE_NAME_PREFIX = "service.result.";
+
+    private static final boolean enabled = UtilProperties.getPropertyAsBoolean("service", "service.resultCache.enable", true);
+
+    private static final Map<String, UtilCache<List<Object>, Map<String, Object>>> serviceCaches = new ConcurrentHashMap<>();
+    /** Maps entity names to the names of the cached services depending on them. */
+    private static final Map<String, Set<String>> entityServiceNames = new ConcurrentHashMap<>();
+
+    private ServiceResultCache() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cache key for the call if the service is cacheable, or null if the result cache
+     * does not apply to it.
+     */
+    public static List<Object> makeKey(String delegatorName, ModelService model, Map<String, ? extends Object> context) {
+        if (!enabled || model.cache == null) {
+            return null;
+        }
+        return model.cache.makeKey(delegatorName, model, context);
+    }
+
+    /**
+     * Returns a copy of the cached result for the key, or null if none (see {@link #copyResult(Map)}).
+     */
+    public static Map<String, Object> get(ModelService model, List<Object> key) {
+        UtilCache<List<Object>, Map<String, Object>> cache = serviceCaches.get(model.name);
+        if (cache == null) {
+            return null;
+        }
+        Map<String, Object> result = cache.get(key);
+        if (result == null) {
+            return null;
+        }
+        if (Debug.verboseOn()) {
+            Debug.logVerbose("Serving service [" + model.name + "] result from cache for key " + key, module);
+        }
+        return copyResult(result);
+    }
+
+    /**
+     * Stores a copy of the result for the key; error and failure results are never cached.
+     */
+    public static void put(ModelService model, List<Object> key, Map<String, Object> result) {
+        if (result == null || !ServiceUtil.isSuccess(result)) {
+            return;
+        }
+        getOrCreateCache(model).put(key, Collections.unmodifiableMap(copyResult(result)));
+    }
+
+    /**
+     * Returns a copy of the result whose lists, maps, sets, entity values and dates are copied too, at any depth.
+     */
+    public static Map<String, Object> copyResult(Map<String, Object> result) {
+        Map<String, Object> copy = new HashMap<>(result.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : result.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof GenericEntity) {
+            // before Map, which GenericEntity implements; clone keeps the GenericValue class
+            return ((GenericEntity) value).clone();
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+            return copy;
+        } else if (value instanceof List) {
+            return copyElements((List<?>) value, new ArrayList<>(((List<?>) value).size()));
+        } else if (value instanceof Set) {
+            return copyElements((Set<?>) value, new LinkedHashSet<>(((Set<?>) value).size() * 4 / 3 + 1));
+        } else if (value instanceof Date) {
+            return ((Date) value).clone(); // includes Timestamp
+        }
+        return value;
+    }
+
+    private static <C extends Collection<Object>> C copyElements(Collection<?> values, C copy) {
+        for (Object value : values) {
+            copy.add(copyValue(value));
+        }
+        return copy;
+    }
+
+    /**
+     * Clears the cached results of all services that declared a dependency on the given entity.
+     */
+    public static void clearByEntity(String entityName) {
+        Set<String> serviceNames = entityServiceNames.get(entityName);
+        if (serviceNames == null) {
+            return;
+        }
+        for (String serviceName : serviceNames) {
+            clear(serviceName);
+        }
+    }
+
+    /**
+     * Clears the cached results of the given service.
+     */
+    public static void clear(String serviceName) {
+        UtilCache<List<Object>, Map<String, Object>> cache = serviceCaches.get(serviceName);
+        if (cache != null) {
+            if (Debug.verboseOn()) {
+                Debug.logVerbose("Clearing service result cache for service [" + serviceName + "]", module);
+            }
+            cache.clear();
+        }
+    }
+
+    private static UtilCache<List<Object>, Map<String, Object>> getOrCreateCache(ModelService model) {
+        UtilCache<List<Object>, Map<String, Object>> cache = serviceCaches.get(model.name);
+        if (cache == null) {
+            cache = serviceCaches.computeIfAbsent(model.name, serviceName -> {
+                for (String entityName : model.cache.getEntityNames()) {
+                    entityServiceNames.computeIfAbsent(entityName, k -> ConcurrentHashMap.newKeySet()).add(serviceName);
+                }
+                return UtilCache.getOrCreateUtilCache(CACHE_NAME_PREFIX + serviceName, model.cache.getMaxSize(),
+                        model.cache.getMaxSize(), model.cache.getExpireTime(), false);
+            });
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ofbiz.base.lang.ThreadSafe;
+import org.ofbiz.base.metrics.LatencyHistogram;
+import org.ofbiz.base.util.UtilProperties;
+
+/**
+ * SCIPIO: Per-service runtime statistics for synchronous service calls: latency histogram,
+ * error/failure/exception counts, in-flight gauge and nested call depth.
+ * <p>
+ * Recorded by {@link ServiceDispatcher#runSync} for every service (including async services
+ * when the job runs them); all counters are lock-free. Can be disabled using
+ * <code>service.stats.enable</code> in service.properties.
+ */
+@ThreadSafe
+public final class ServiceStats {
+
+    private static final boolean enabled = UtilProperties.getPropertyAsBoolean("service", "service.stats.enable", true);
+
+    private static final Map<String, ServiceStats> statsMap = new ConcurrentHashMap<>();
+
+    /** Current service call depth of the thread; 1 for a top-level call. */
+    private static final ThreadLocal<int[]> callDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final String serviceName;
+    /** Latency in microseconds. */
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder exceptionCount = new LongAdder();
+    private final LongAdder nestedCount = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    private ServiceStats(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the stats for the service, creating them if needed, or null if stats are disabled.
+     */
+    public static ServiceStats getOrCreate(String serviceName) {
+        if (!enabled) {
+            return null;
+        }
+        ServiceStats stats = statsMap.get(serviceName);
+        if (stats == null) {
+            stats = statsMap.computeIfAbsent(serviceName, ServiceStats::new);
+        }
+        return stats;
+    }
+
+    /** Returns the stats for the service, or null if it was not called yet. */
+    public static ServiceStats get(String serviceName) {
+        return statsMap.get(serviceName);
+    }
+
+    /** Returns the stats of all services called since startup (or since last {@link #resetAll()}). */
+    public static Collection<ServiceStats> getAll() {
+        return Collections.unmodifiableCollection(statsMap.values());
+    }
+
+    /** Resets all stats. */
+    public static void resetAll() {
+        for (ServiceStats stats : statsMap.values()) {
+            stats.reset();
+        }
+    }
+
+    /** Returns the service call depth of the current thread; 0 if no service is running. */
+    public static int getCurrentDepth() {
+        return callDepth.get()[0];
+    }
+
+    /**
+     * Marks the start of a call; must be paired with {@link #exit(long, Map, Throwable)} in a finally block.
+     * @return the start time in nanoseconds
+     */
+    public long enter() {
+        inFlight.incrementAndGet();
+        int depth = ++callDepth.get()[0];
+        if (depth > 1) {
+            nestedCount.increment();
+        }
+        int max = maxDepth.get();
+        while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+            max = maxDepth.get();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a call started with {@link #enter()}; the result is used to count errors and failures,
+     * the exception (if non-null) to count exceptions.
+     */
+    public void exit(long startNanos, Map<String, ? extends Object> result, Throwable t) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        callDepth.get()[0]--;
+        inFlight.decrementAndGet();
+        if (t != null) {
+            exceptionCount.increment();
+        } else if (ServiceUtil.isError(result)) {
+            errorCount.increment();
+        } else if (ServiceUtil.isFailure(result)) {
+            failureCount.increment();
+        }
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getExceptionCount() {
+        return exceptionCount.sum();
+    }
+
+    /** Returns the number of calls made from within another service call. */
+    public long getNestedCount() {
+        return nestedCount.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** Returns the deepest service call depth at which this service was called. */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    public void reset() {
+        latency.reset();
+        errorCount.reset();
+        failureCount.reset();
+        exceptionCount.reset();
+        nestedCount.reset();
+        maxDepth.set(0);
+    }
+
+    /**
+     * Returns the stats as a map, with latencies in milliseconds: serviceName, count, errorCount, failureCount,
+     * exceptionCount, nestedCount, inFlight, maxDepth, meanMs, p50Ms, p95Ms, p99Ms, maxMs.
+     */
+    public Map<String, Object> toMap() {
+        long[] percentiles = latency.getValuesAtPercentiles(50, 95, 99);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("serviceName", serviceName);
+        map.put("count", getCount());
+        map.put("errorCount", getErrorCount());
+        map.put("failureCount", getFailureCount());
+        map.put("exceptionCount", getExceptionCount());
+        map.put("nestedCount", getNestedCount());
+        map.put("inFlight", getInFlight());
+        map.put("maxDepth", getMaxDepth());
+        map.put("meanMs", latency.getMean() / 1000.0);
+        map.put("p50Ms", percentiles[0] / 1000.0);
+        map.put("p95Ms", percentiles[1] / 1000.0);
+        map.put("p99Ms", percentiles[2] / 1000.0);
+        map.put("maxMs", latency.getMax() / 1000.0);
+        return map;
+    }
+
+    /** Returns {@link #toMap()} for all services. */
+    public static List<Map<String, Object>> getAllAsMaps() {
+        List<Map<String, Object>> list = new ArrayList<>(statsMap.size());
+        for (ServiceStats stats : statsMap.values()) {
+            list.add(stats.toMap());
+        }
+        return list;
+    }
+}
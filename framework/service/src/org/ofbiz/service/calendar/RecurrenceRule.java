@@ -18,6 +18,10 @@
  *******************************************************************************/
 package org.ofbiz.service.calendar;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
@@ -32,6 +36,7 @@ import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
 
 import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.GregorianCalendar;
 
 /**
  * Recurrence Rule Object
@@ -470,6 +475,37 @@ public class RecurrenceRule {
         // Build a Calendar object
         Calendar cal = Calendar.getInstance();
 
+        // SCIPIO: compute the interval directly instead of stepping from the start time one interval at a time
+        // (next() calls this once per candidate); the month and year forms give the same clamped days as the stepping
+        if (fromTime > startTime && getIntervalInt() > 0 && cal instanceof GregorianCalendar) {
+            long interval = getIntervalInt();
+            switch (getFrequency()) {
+            case SECONDLY:
+                return new Date(nextFixedFreq(startTime, fromTime, interval * 1000L));
+            case MINUTELY:
+                return new Date(nextFixedFreq(startTime, fromTime, interval * 60000L));
+            case HOURLY:
+                return new Date(nextFixedFreq(startTime, fromTime, interval * 3600000L));
+            default:
+                break;
+            }
+            ZoneId zone = RecurrenceUtil.getZoneId(cal);
+            if (RecurrenceUtil.canStepInClosedForm(startTime, zone)) { // otherwise the start time is in a daylight saving gap
+                switch (getFrequency()) {
+                case DAILY:
+                    return Date.from(nextDayFreq(startTime, fromTime, interval, zone).toInstant());
+                case WEEKLY:
+                    return Date.from(nextDayFreq(startTime, fromTime, interval * 7, zone).toInstant());
+                case MONTHLY:
+                    return new Date(nextMonthFreq(startTime, fromTime, interval, zone));
+                case YEARLY:
+                    return new Date(nextMonthFreq(startTime, fromTime, interval * 12, zone));
+                default:
+                    break;
+                }
+            }
+        }
+
         cal.setTime(new Date(startTime));
 
         long nextStartTime = startTime;
@@ -512,6 +548,31 @@ public class RecurrenceRule {
         return new Date(nextStartTime);
     }
 
+    // SCIPIO: Returns the first startTime + n * intervalMillis at or after fromTime
+    private static long nextFixedFreq(long startTime, long fromTime, long intervalMillis) {
+        long steps = (fromTime - startTime + intervalMillis - 1) / intervalMillis;
+        return startTime + (steps * intervalMillis);
+    }
+
+    // SCIPIO: Returns the first start + n * intervalDays at or after fromTime, keeping the local time of the start
+    private static ZonedDateTime nextDayFreq(long startTime, long fromTime, long intervalDays, ZoneId zone) {
+        ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(startTime), zone);
+        ZonedDateTime from = ZonedDateTime.ofInstant(Instant.ofEpochMilli(fromTime), zone);
+        long days = ChronoUnit.DAYS.between(start, from);
+        ZonedDateTime next = start.plusDays(days - (days % intervalDays));
+        while (next.toInstant().toEpochMilli() < fromTime) {
+            next = next.plusDays(intervalDays);
+        }
+        return next;
+    }
+
+    // SCIPIO: Returns the first Calendar.add month step from startTime at or after fromTime
+    private static long nextMonthFreq(long startTime, long fromTime, long intervalMonths, ZoneId zone) {
+        long steps = RecurrenceUtil.getMonthSteps(startTime, fromTime, intervalMonths, zone);
+        long next = RecurrenceUtil.addMonthSteps(startTime, intervalMonths, steps, zone);
+        return (next < fromTime) ? RecurrenceUtil.addMonthSteps(startTime, intervalMonths, steps + 1, zone) : next;
+    }
+
     // Checks to see if a date is valid by the byXXX rules
     private boolean validByRule(Date date) {
         // Build a Calendar object
@@ -20,10 +20,24 @@ package org.ofbiz.service.calendar;
 
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import org.ofbiz.base.util.Debug;
+
 import com.ibm.icu.util.Calendar;
 
 /**
@@ -31,6 +45,8 @@ import com.ibm.icu.util.Calendar;
  */
 public final class RecurrenceUtil {
 
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
     private RecurrenceUtil () {}
 
     /** Returns a Date object from a String. */
@@ -96,5 +112,132 @@ public final class RecurrenceUtil {
         return (new Date()).getTime();
     }
 
+    /**
+     * SCIPIO: Returns the java.time zone of an ICU calendar, for the same local time arithmetic.
+     */
+    static ZoneId getZoneId(Calendar cal) {
+        try {
+            return ZoneId.of(cal.getTimeZone().getID(), ZoneId.SHORT_IDS);
+        } catch (DateTimeException e) {
+            Debug.logWarning("Unknown time zone [" + cal.getTimeZone().getID() + "] for recurrence; using the system zone", module);
+            return ZoneId.systemDefault();
+        }
+    }
+
+    /**
+     * SCIPIO: Returns true if adding days, months or years to <code>startTime</code> in closed form on the local
+     * time-line (such as {@link #addMonthSteps}) gives the same times as stepping with {@link Calendar#add(int, int)}.
+     * <p>
+     * This is not the case if the start's local time of day falls in a daylight saving gap of the zone: a step
+     * that lands in the gap moves the time forward, and Calendar keeps the moved time for the steps after it.
+     */
+    static boolean canStepInClosedForm(long startTime, ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset()) {
+            return true;
+        }
+        LocalTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(startTime), zone).toLocalTime();
+        for (ZoneOffsetTransition transition : rules.getTransitions()) {
+            // steps only go forward from the start
+            if (transition.toEpochSecond() * 1000 > startTime && isInGap(transition, time)) {
+                return false;
+            }
+        }
+        for (ZoneOffsetTransitionRule rule : rules.getTransitionRules()) {
+            if (isInGap(rule.createTransition(2000), time)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInGap(ZoneOffsetTransition transition, LocalTime time) {
+        if (!transition.isGap()) {
+            return false;
+        }
+        LocalTime from = transition.getDateTimeBefore().toLocalTime();
+        LocalTime to = transition.getDateTimeAfter().toLocalTime();
+        if (from.isBefore(to)) {
+            return !time.isBefore(from) && time.isBefore(to);
+        }
+        return !time.isBefore(from) || time.isBefore(to); // gap over midnight
+    }
+
+    /**
+     * SCIPIO: Returns the time reached by adding <code>intervalMonths</code> to <code>startTime</code> <code>steps</code>
+     * times with {@link Calendar#add(int, int)}, in closed form. Only valid if {@link #canStepInClosedForm} is true.
+     * <p>
+     * Calendar.add clamps the day of month at each step (Jan 31 gives Feb 28, then Mar 28), so the day is the
+     * smallest of the start day and the lengths of the months stepped through. Years are 12 months.
+     */
+    static long addMonthSteps(long startTime, long intervalMonths, long steps, ZoneId zone) {
+        if (steps <= 0) {
+            return startTime;
+        }
+        LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(startTime), zone);
+        YearMonth startMonth = YearMonth.from(start);
+        YearMonth month = startMonth.plusMonths(steps * intervalMonths);
+        int day = Math.min(start.getDayOfMonth(), minMonthLength(startMonth, intervalMonths, steps));
+        // Calendar resolves a repeated wall time to the later offset, and a skipped one forward by the gap
+        return ZonedDateTime.ofLocal(month.atDay(day).atTime(start.toLocalTime()), zone, null)
+                .withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+    }
+
+    /**
+     * SCIPIO: Returns the number of steps of {@link #addMonthSteps} that gives the last time at or before
+     * <code>time</code>, or 0 if <code>time</code> is before the first step.
+     */
+    static long getMonthSteps(long startTime, long time, long intervalMonths, ZoneId zone) {
+        if (time <= startTime) {
+            return 0;
+        }
+        LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(startTime), zone);
+        LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone);
+        // The clamped day and offset changes put the exact step at most one away from the estimate
+        long steps = ChronoUnit.MONTHS.between(start, at) / intervalMonths;
+        while (steps > 0 && addMonthSteps(startTime, intervalMonths, steps, zone) > time) {
+            steps--;
+        }
+        while (addMonthSteps(startTime, intervalMonths, steps + 1, zone) <= time) {
+            steps++;
+        }
+        return steps;
+    }
+
+    // SCIPIO: Returns the smallest length of the months start + k * intervalMonths for k = 1..steps
+    private static int minMonthLength(YearMonth start, long intervalMonths, long steps) {
+        int min = 31;
+        long firstFebruaryStep = 0;
+        // The first 12 steps go through every month of the year the sequence will ever reach
+        for (long k = 1; k <= Math.min(steps, 12); k++) {
+            YearMonth month = start.plusMonths(k * intervalMonths);
+            min = Math.min(min, month.lengthOfMonth());
+            if (firstFebruaryStep == 0 && month.getMonth() == Month.FEBRUARY) {
+                firstFebruaryStep = k;
+            }
+        }
+        if (min == 29 && steps > 12) {
+            // Every February so far was in a leap year. Februaries recur every 12 / gcd(intervalMonths, 12) steps,
+            // and the leap years repeat every 400 years, so 400 Februaries cover all cases.
+            long period = 12 / gcd(intervalMonths, 12);
+            long k = firstFebruaryStep;
+            for (int i = 0; i < 400 && k <= steps; i++, k += period) {
+                if (!start.plusMonths(k * intervalMonths).isLeapYear()) {
+                    return 28;
+                }
+            }
+        }
+        return min;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
 }
 
@@ -19,7 +19,9 @@
 package org.ofbiz.service.calendar;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -126,6 +128,31 @@ public abstract class TemporalExpression implements Serializable, Comparable<Tem
         return set;
     }
 
+    /** SCIPIO: Returns the dates matching this expression from <code>start</code>
+     * up to and including <code>end</code>, in ascending order. Returns an
+     * empty List if no dates are found.
+     * <p>Unlike {@link #getRange}, matches are collected even if the first
+     * match found from <code>start</code> is not itself in a range, and the
+     * result is a List instead of a sorted Set.</p>
+     * @param start The starting date; its time zone and locale are used for evaluation
+     * @param end The ending date (inclusive)
+     * @return A List of matching <code>Date</code> objects
+     */
+    public List<Date> occurrencesBetween(Calendar start, Date end) {
+        List<Date> occurrences = new ArrayList<>();
+        long endTime = end.getTime();
+        Calendar next = first(start);
+        while (next != null && next.getTimeInMillis() <= endTime) {
+            long time = next.getTimeInMillis();
+            occurrences.add(next.getTime());
+            next = next(next);
+            if (next != null && next.getTimeInMillis() <= time) {
+                break;
+            }
+        }
+        return occurrences;
+    }
+
     /** Returns true if this expression includes the specified date.
      * @param cal A date to evaluate
      * @return true if this expression includes the date represented by
@@ -24,6 +24,7 @@ import java.util.TreeSet;
 
 import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.UtilCache;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
@@ -55,9 +56,15 @@ public final class TemporalExpressionWorker {
     private final static String EXCLUDE = "EXCLUDE";
     private final static String SUBSTITUTE = "SUBSTITUTE";
 
+    /** SCIPIO: Built expressions by delegator name and tempExprId; cleared when a TemporalExpression or
+     * TemporalExpressionAssoc value is created, stored or removed (see {@link #clearCacheByEntity(String)}). */
+    private static final UtilCache<String, TemporalExpression> expressionCache = UtilCache.createUtilCache("service.TemporalExpressions", 0, 0, false);
+
     private TemporalExpressionWorker () {}
 
     /** Get a <code>TemporalExpression</code> from persistent storage.
+     * <p>SCIPIO: The built expression is cached per <code>tempExprId</code>; expressions are immutable and
+     * can be shared between threads.</p>
      * @param delegator
      * @param tempExprId
      * @return A <code>TemporalExpression</code> instance based on <code>tempExprId</code>
@@ -67,6 +74,23 @@ public final class TemporalExpressionWorker {
         if (UtilValidate.isEmpty(tempExprId)) {
             throw new IllegalArgumentException("tempExprId argument cannot be empty");
         }
+        String cacheKey = delegator.getDelegatorName() + "::" + tempExprId; // SCIPIO
+        TemporalExpression result = expressionCache.get(cacheKey);
+        if (result == null) {
+            result = readTemporalExpression(delegator, tempExprId);
+            expressionCache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    /** SCIPIO: Clears the cached expressions if the entity is one they are built from; called on entity cache-clear events. */
+    public static void clearCacheByEntity(String entityName) {
+        if ("TemporalExpression".equals(entityName) || "TemporalExpressionAssoc".equals(entityName)) {
+            expressionCache.clear();
+        }
+    }
+
+    private static TemporalExpression readTemporalExpression(Delegator delegator, String tempExprId) throws GenericEntityException {
         GenericValue exprValue = EntityQuery.use(delegator).from("TemporalExpression").where("tempExprId", tempExprId).cache().queryOne();
         if (UtilValidate.isEmpty(exprValue)) {
             throw new IllegalArgumentException("tempExprId argument invalid - expression not found");
@@ -19,6 +19,7 @@
 package org.ofbiz.service.calendar;
 
 import java.io.Serializable;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
@@ -27,6 +28,7 @@ import java.util.TreeSet;
 import org.ofbiz.base.util.Debug;
 
 import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.GregorianCalendar;
 
 /** A collection of TemporalExpression classes.
  * <p>For the most part, these classes are immutable - with the exception
@@ -798,6 +800,17 @@ public class TemporalExpressions implements Serializable {
                 divisor = 60000;
             } else if (this.freqType == Calendar.SECOND) {
                 divisor = 1000;
+            } else if ((this.freqType == Calendar.MONTH || this.freqType == Calendar.YEAR) && skip instanceof GregorianCalendar) {
+                // SCIPIO: Months and years vary in length and ICU clamps the day at each step (Jan 31 gives Feb 28,
+                // then Mar 28), so skip to the last step at or before cal in closed form; first() steps on from there
+                long intervalMonths = (this.freqType == Calendar.YEAR) ? this.freqCount * 12L : this.freqCount;
+                ZoneId zone = RecurrenceUtil.getZoneId(skip);
+                if (!RecurrenceUtil.canStepInClosedForm(this.start.getTime(), zone)) {
+                    return skip;
+                }
+                long steps = RecurrenceUtil.getMonthSteps(this.start.getTime(), cal.getTimeInMillis(), intervalMonths, zone);
+                skip.setTimeInMillis(RecurrenceUtil.addMonthSteps(this.start.getTime(), intervalMonths, steps, zone));
+                return skip;
             } else {
                 return skip;
             }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service.calendar.test;
+
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.service.calendar.RecurrenceRule;
+import org.ofbiz.service.testtools.OFBizTestCase;
+
+import com.ibm.icu.util.Calendar;
+
+/**
+ * SCIPIO: Checks the closed-form next frequency of {@link RecurrenceRule} against stepping the start time one
+ * interval at a time with {@link Calendar#add(int, int)}, in the default time zone.
+ * <p>
+ * Added 2026-10.
+ */
+public class RecurrenceRuleTests extends OFBizTestCase {
+
+    public RecurrenceRuleTests(String name) {
+        super(name);
+    }
+
+    private RecurrenceRule makeRule(String frequency, long interval) throws Exception {
+        return new RecurrenceRule(delegator.makeValue("RecurrenceRule", UtilMisc.toMap("recurrenceRuleId", "TEST",
+                "frequency", frequency, "intervalNumber", interval, "countNumber", -1L)));
+    }
+
+    private static long makeTime(int year, int month, int day, int hour) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, hour, 15, 30);
+        return cal.getTimeInMillis();
+    }
+
+    private static long step(long startTime, long fromTime, int field, int interval) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(startTime);
+        while (cal.getTimeInMillis() < fromTime) {
+            cal.add(field, interval);
+        }
+        return cal.getTimeInMillis();
+    }
+
+    private void assertSteps(String frequency, int field, int[] intervals, long[] starts) throws Exception {
+        for (int interval : intervals) {
+            RecurrenceRule rule = makeRule(frequency, interval);
+            for (long start : starts) {
+                // from times spread over 40 years, including exact occurrences and the millisecond after them
+                long from = start + 1;
+                for (int i = 0; i < 200; i++) {
+                    long expected = step(start, from, field, interval);
+                    assertEquals(frequency + " interval " + interval + " from " + new java.util.Date(start) + " at " + new java.util.Date(from),
+                            expected, rule.next(start, from, 0));
+                    from = (i % 2 == 0) ? expected : expected + 1 + (i * 3600000L * 24 * 3);
+                }
+            }
+        }
+    }
+
+    public void testMonthly() throws Exception {
+        assertSteps("MONTHLY", Calendar.MONTH, new int[] { 1, 2, 3, 5, 7, 12, 48 }, new long[] {
+                makeTime(2024, Calendar.JANUARY, 31, 10), // day clamped to 29, then 28
+                makeTime(2023, Calendar.MARCH, 30, 0),
+                makeTime(2024, Calendar.FEBRUARY, 29, 23),
+                makeTime(2025, Calendar.AUGUST, 31, 12),
+                makeTime(2025, Calendar.JUNE, 15, 3)
+        });
+    }
+
+    public void testYearly() throws Exception {
+        assertSteps("YEARLY", Calendar.YEAR, new int[] { 1, 2, 4, 100 }, new long[] {
+                makeTime(2024, Calendar.FEBRUARY, 29, 10), // 28 from the first non-leap year on
+                makeTime(2096, Calendar.FEBRUARY, 29, 10), // every 4 years: leap until 2100
+                makeTime(2025, Calendar.DECEMBER, 31, 18)
+        });
+    }
+
+    public void testMonthEndKnownDays() throws Exception {
+        RecurrenceRule rule = makeRule("MONTHLY", 1);
+        long start = makeTime(2025, Calendar.JANUARY, 31, 10);
+        assertEquals("February", makeTime(2025, Calendar.FEBRUARY, 28, 10), rule.next(start, start + 1, 0));
+        assertEquals("March keeps the clamped day", makeTime(2025, Calendar.MARCH, 28, 10), rule.next(start, makeTime(2025, Calendar.MARCH, 1, 0), 0));
+        assertEquals("years later", makeTime(2035, Calendar.JULY, 28, 10), rule.next(start, makeTime(2035, Calendar.JULY, 2, 0), 0));
+
+        rule = makeRule("YEARLY", 4);
+        start = makeTime(2096, Calendar.FEBRUARY, 29, 10);
+        assertEquals("2100 is not a leap year", makeTime(2100, Calendar.FEBRUARY, 28, 10), rule.next(start, makeTime(2097, Calendar.JANUARY, 1, 0), 0));
+        assertEquals("stays clamped after 2100", makeTime(2104, Calendar.FEBRUARY, 28, 10), rule.next(start, makeTime(2101, Calendar.JANUARY, 1, 0), 0));
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service.calendar.test;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.service.calendar.TemporalExpression;
+import org.ofbiz.service.calendar.TemporalExpressions;
+
+import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.TimeZone;
+
+public class TemporalExpressionTests extends GenericTestCaseBase {
+
+    public TemporalExpressionTests(String name) {
+        super(name);
+    }
+
+    private static Calendar makeCal(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, day, 10, 0, 0);
+        return cal;
+    }
+
+    private static void assertDate(String label, Calendar expected, Calendar actual) {
+        assertEquals(label, expected.getTimeInMillis(), actual.getTimeInMillis());
+    }
+
+    public void testMonthlyFrequencyFromMonthEnd() {
+        // Months are stepped from the start, the day being clamped at each step
+        TemporalExpression expr = new TemporalExpressions.Frequency(makeCal(2025, Calendar.JANUARY, 31).getTime(), Calendar.MONTH, 1);
+        assertDate("first in February", makeCal(2025, Calendar.FEBRUARY, 28), expr.first(makeCal(2025, Calendar.FEBRUARY, 1)));
+        assertDate("first in March", makeCal(2025, Calendar.MARCH, 28), expr.first(makeCal(2025, Calendar.MARCH, 1)));
+        assertDate("next after March", makeCal(2025, Calendar.APRIL, 28), expr.next(makeCal(2025, Calendar.MARCH, 28)));
+        assertTrue("includes March 28", expr.includesDate(makeCal(2025, Calendar.MARCH, 28)));
+        assertFalse("excludes March 31", expr.includesDate(makeCal(2025, Calendar.MARCH, 31)));
+    }
+
+    public void testYearlyFrequencyFromLeapDay() {
+        TemporalExpression expr = new TemporalExpressions.Frequency(makeCal(2024, Calendar.FEBRUARY, 29).getTime(), Calendar.YEAR, 1);
+        assertDate("first in 2025", makeCal(2025, Calendar.FEBRUARY, 28), expr.first(makeCal(2025, Calendar.JANUARY, 1)));
+        assertDate("first after February 2026", makeCal(2027, Calendar.FEBRUARY, 28), expr.first(makeCal(2026, Calendar.MARCH, 1)));
+        assertDate("next leap year keeps clamped day", makeCal(2028, Calendar.FEBRUARY, 28), expr.next(makeCal(2027, Calendar.FEBRUARY, 28)));
+    }
+
+    public void testDailyFrequencySkip() {
+        TemporalExpression expr = new TemporalExpressions.Frequency(makeCal(2020, Calendar.JANUARY, 1).getTime(), Calendar.DAY_OF_MONTH, 3);
+        assertDate("on occurrence", makeCal(2025, Calendar.JANUARY, 1), expr.first(makeCal(2025, Calendar.JANUARY, 1)));
+        assertDate("after occurrence", makeCal(2025, Calendar.JANUARY, 4), expr.first(makeCal(2025, Calendar.JANUARY, 2)));
+    }
+}
@@ -52,6 +52,12 @@ public class ServiceEcaCondition implements java.io.Serializable {
     protected boolean isConstant = false;
     protected boolean isService = false;
 
+    /**
+     * SCIPIO: Comparison precompiled at load time for the common operator/type combinations, or null
+     * if the condition always goes through {@link ObjectType#doRealCompare}.
+     */
+    protected transient ComparePredicate comparePredicate = null;
+
     protected ServiceEcaCondition() {}
 
     public ServiceEcaCondition(Element condition, boolean isConstant, boolean isService) {
@@ -75,9 +81,52 @@ public class ServiceEcaCondition implements java.io.Serializable {
             this.compareType = condition.getAttribute("type");
             this.format = condition.getAttribute("format");
 
+            this.comparePredicate = compilePredicate(this.operator, this.compareType); // SCIPIO
         }
     }
 
+    /**
+     * SCIPIO: Precompiled comparison; returns null when the values are outside its fast path, in which case
+     * the generic {@link ObjectType#doRealCompare} is used.
+     */
+    @FunctionalInterface
+    protected interface ComparePredicate {
+        Boolean test(Object lhsValue, Object rhsValue);
+    }
+
+    /**
+     * SCIPIO: Returns a predicate giving the same result as {@link ObjectType#doRealCompare} for the operator and
+     * type, for the cases that need no type conversion: null left values for the null/empty operators, and
+     * String values (or nulls) for equals, not-equals, is-empty and is-not-empty with a String type.
+     */
+    protected static ComparePredicate compilePredicate(String operator, String compareType) {
+        boolean stringType = "String".equals(compareType) || "java.lang.String".equals(compareType) || "PlainString".equals(compareType);
+        if ("is-null".equals(operator)) {
+            return (lhs, rhs) -> (lhs == null) ? Boolean.TRUE : null;
+        } else if ("is-not-null".equals(operator)) {
+            return (lhs, rhs) -> (lhs == null) ? Boolean.FALSE : null;
+        } else if ("is-empty".equals(operator)) {
+            if (stringType) {
+                return (lhs, rhs) -> (lhs == null) ? Boolean.TRUE : (lhs instanceof String ? ((String) lhs).isEmpty() : null);
+            }
+            return (lhs, rhs) -> (lhs == null) ? Boolean.TRUE : null;
+        } else if ("is-not-empty".equals(operator)) {
+            if (stringType) {
+                return (lhs, rhs) -> (lhs == null) ? Boolean.FALSE : (lhs instanceof String ? !((String) lhs).isEmpty() : null);
+            }
+            return (lhs, rhs) -> (lhs == null) ? Boolean.FALSE : null;
+        } else if (stringType && "equals".equals(operator)) {
+            return (lhs, rhs) -> isStringOrNull(lhs) && isStringOrNull(rhs) ? (lhs == null ? rhs == null : lhs.equals(rhs)) : null;
+        } else if (stringType && "not-equals".equals(operator)) {
+            return (lhs, rhs) -> isStringOrNull(lhs) && isStringOrNull(rhs) ? (lhs == null ? rhs != null : !lhs.equals(rhs)) : null;
+        }
+        return null;
+    }
+
+    private static boolean isStringOrNull(Object value) {
+        return value == null || value instanceof String;
+    }
+
     public String getShortDisplayDescription(boolean moreDetail) {
         StringBuilder buf = new StringBuilder();
         if (isService) {
@@ -174,6 +223,14 @@ public class ServiceEcaCondition implements java.io.Serializable {
 
         if (Debug.verboseOn()) Debug.logVerbose("Comparing : " + lhsValue + " " + operator + " " + rhsValue, module);
 
+        // SCIPIO: use the precompiled comparison when it applies, avoiding type lookup and conversion
+        if (comparePredicate != null) {
+            Boolean cond = comparePredicate.test(lhsValue, rhsValue);
+            if (cond != null) {
+                return cond;
+            }
+        }
+
         // evaluate the condition & invoke the action(s)
         List<Object> messages = new ArrayList<>(); // SCIPIO: switched to ArrayList
         Boolean cond = ObjectType.doRealCompare(lhsValue, rhsValue, operator, compareType, format, messages, null, dctx.getClassLoader(), isConstant);
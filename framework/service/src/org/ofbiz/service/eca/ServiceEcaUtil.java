@@ -35,7 +35,6 @@ import org.ofbiz.base.config.GenericConfigException;
 import org.ofbiz.base.config.MainResourceHandler;
 import org.ofbiz.base.config.ResourceHandler;
 import org.ofbiz.base.util.Debug;
-import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.UtilXml;
 import org.ofbiz.service.DispatchContext;
 import org.ofbiz.service.GenericServiceException;
@@ -112,7 +111,7 @@ public final class ServiceEcaUtil {
         for (List<ServiceEcaRule> handlerRules: ExecutionPool.getAllFutures(futures)) {
             mergeEcaDefinitions(handlerRules, ecaCache);
         }
-        ServiceEcaUtil.ecaCache = ecaCache; // SCIPIO: Wrapper not necessary as long as HashMap not modified after assign to volatile: Collections.unmodifiableMap(ecaCache);
+        ServiceEcaUtil.ecaCache = makeEcaIndex(ecaCache); // SCIPIO: read-only index, not modified after assign to volatile
     }
 
     private static Callable<List<ServiceEcaRule>> createEcaLoaderCallable(final ResourceHandler handler) {
@@ -126,10 +125,39 @@ public final class ServiceEcaUtil {
     public static void addEcaDefinitions(ResourceHandler handler) {
         synchronized(ecaCacheLock) { // SCIPIO: write-lock, because this method is public
             List<ServiceEcaRule> handlerRules = getEcaDefinitions(handler);
-            Map<String, Map<String, List<ServiceEcaRule>>> ecaCache = new HashMap<>(ServiceEcaUtil.ecaCache); // SCIPIO: clone whole cache, for consistent view for reads
+            // SCIPIO: clone whole cache, for consistent view for reads; the event maps and rule lists of the index are read-only, so they are copied too
+            Map<String, Map<String, List<ServiceEcaRule>>> ecaCache = new HashMap<>();
+            for (Map.Entry<String, Map<String, List<ServiceEcaRule>>> serviceEntry : ServiceEcaUtil.ecaCache.entrySet()) {
+                Map<String, List<ServiceEcaRule>> eventMap = new HashMap<>();
+                for (Map.Entry<String, List<ServiceEcaRule>> eventEntry : serviceEntry.getValue().entrySet()) {
+                    eventMap.put(eventEntry.getKey(), new ArrayList<>(eventEntry.getValue()));
+                }
+                ecaCache.put(serviceEntry.getKey(), eventMap);
+            }
             mergeEcaDefinitions(handlerRules, ecaCache);
-            ServiceEcaUtil.ecaCache = ecaCache; // SCIPIO: Wrapper not necessary as long as HashMap not modified after assign to volatile: Collections.unmodifiableMap(ecaCache);
+            ServiceEcaUtil.ecaCache = makeEcaIndex(ecaCache); // SCIPIO: read-only index, not modified after assign to volatile
+        }
+    }
+
+    /**
+     * SCIPIO: Builds the read-only rule index from the merged rules: services and events without rules
+     * have no entry, so that {@link #getServiceEventMap} returns null for services without any rules and
+     * {@link #hasServiceEventRules} is a single lookup.
+     */
+    private static Map<String, Map<String, List<ServiceEcaRule>>> makeEcaIndex(Map<String, Map<String, List<ServiceEcaRule>>> ecaCache) {
+        Map<String, Map<String, List<ServiceEcaRule>>> ecaIndex = new HashMap<>();
+        for (Map.Entry<String, Map<String, List<ServiceEcaRule>>> serviceEntry : ecaCache.entrySet()) {
+            Map<String, List<ServiceEcaRule>> eventMap = new HashMap<>();
+            for (Map.Entry<String, List<ServiceEcaRule>> eventEntry : serviceEntry.getValue().entrySet()) {
+                if (!eventEntry.getValue().isEmpty()) {
+                    eventMap.put(eventEntry.getKey(), Collections.unmodifiableList(new ArrayList<>(eventEntry.getValue())));
+                }
+            }
+            if (!eventMap.isEmpty()) {
+                ecaIndex.put(serviceEntry.getKey(), Collections.unmodifiableMap(eventMap));
+            }
         }
+        return ecaIndex;
     }
 
     private static List<ServiceEcaRule> getEcaDefinitions(ResourceHandler handler) {
@@ -222,15 +250,23 @@ public final class ServiceEcaUtil {
         return null;
     }
 
+    /**
+     * SCIPIO: Returns true if the event map (from {@link #getServiceEventMap}) has rules for the event.
+     * The index contains no empty rule lists, so this is a single map lookup.
+     */
+    public static boolean hasServiceEventRules(Map<String, List<ServiceEcaRule>> eventMap, String event) {
+        return eventMap != null && eventMap.containsKey(event);
+    }
+
     public static void evalRules(String serviceName, Map<String, List<ServiceEcaRule>> eventMap, String event, DispatchContext dctx, Map<String, Object> context, Map<String, Object> result, boolean isError, boolean isFailure) throws GenericServiceException {
         // if the eventMap is passed we save a Map lookup, but if not that's okay we'll just look it up now
         if (eventMap == null) eventMap = getServiceEventMap(serviceName);
-        if (UtilValidate.isEmpty(eventMap)) {
+        if (eventMap == null) { // SCIPIO: the index contains no empty event maps or rule lists
             return;
         }
 
-        Collection<ServiceEcaRule> rules = eventMap.get(event);
-        if (UtilValidate.isEmpty(rules)) {
+        List<ServiceEcaRule> rules = eventMap.get(event);
+        if (rules == null) {
             return;
         }
 
@@ -18,14 +18,17 @@
  */
 package org.ofbiz.service.test;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
@@ -375,4 +378,56 @@ public class ServiceEngineTestServices {
 
         return ServiceUtil.returnSuccess();
     }
+
+    /**
+     * SCIPIO: Placeholder for the runBatch permission test; must never run without SERVICE_INVOKE_ANY.
+     */
+    public static Map<String, Object> testServiceBatchRequiredPermission(DispatchContext dctx, Map<String, ? extends Object> context) {
+        return ServiceUtil.returnSuccess();
+    }
+
+    /**
+     * SCIPIO: Echoes the message, returning an error for "error", and returns rowCount rows as an iterator, which
+     * throws an IllegalStateException after failAfter rows, if set, as a failing database cursor would.
+     */
+    public static Map<String, Object> testServiceJsonStream(DispatchContext dctx, Map<String, ? extends Object> context) {
+        String message = (String) context.get("message");
+        if ("error".equals(message)) {
+            return ServiceUtil.returnError("Test error");
+        }
+        Map<String, Object> result = ServiceUtil.returnSuccess();
+        result.put("echo", message);
+        Integer rowCount = (Integer) context.get("rowCount");
+        if (rowCount != null) {
+            Integer failAfter = (Integer) context.get("failAfter");
+            result.put("rows", new Iterator<Integer>() {
+                private int index = 0;
+                @Override
+                public boolean hasNext() {
+                    return index < rowCount;
+                }
+                @Override
+                public Integer next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (failAfter != null && index >= failAfter) {
+                        throw new IllegalStateException("Test iterator failure after " + failAfter + " rows");
+                    }
+                    return index++;
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * SCIPIO: Returns the value memoized in the request memo of the thread, or the given value if there is none or
+     * the memo is suspended.
+     */
+    public static Map<String, Object> testServiceRequestMemo(DispatchContext dctx, Map<String, ? extends Object> context) {
+        Map<String, Object> result = ServiceUtil.returnSuccess();
+        result.put("memoValue", RequestMemo.getCurrent("testServiceRequestMemo", "value", () -> (String) context.get("value")));
+        return result;
+    }
 }
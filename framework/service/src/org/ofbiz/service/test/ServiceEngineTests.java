@@ -18,10 +18,14 @@
  *******************************************************************************/
 package org.ofbiz.service.test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.service.BatchOptions;
 import org.ofbiz.service.ModelService;
+import org.ofbiz.service.ServiceUtil;
 import org.ofbiz.service.testtools.OFBizTestCase;
 
 public class ServiceEngineTests extends OFBizTestCase {
@@ -42,4 +46,16 @@ public class ServiceEngineTests extends OFBizTestCase {
         Map<String, Object> result = dispatcher.runSync("testScv", UtilMisc.toMap("message", "Unit Test"));
         assertEquals("Service result success", ModelService.RESPOND_SUCCESS, result.get(ModelService.RESPONSE_MESSAGE));
     }
+
+    public void testRunBatchRequiredPermissions() throws Exception {
+        List<Map<String, Object>> contexts = Arrays.asList(UtilMisc.toMap("message", "a"), UtilMisc.toMap("message", "b"));
+        for (BatchOptions options : Arrays.asList(new BatchOptions(), new BatchOptions().setIsolateFailures(false),
+                new BatchOptions().setCommitSize(1).setParallelism(2))) {
+            List<Map<String, Object>> results = dispatcher.runBatch("testServiceBatchRequiredPermission", contexts, options);
+            assertEquals("result count " + options, 2, results.size());
+            for (Map<String, Object> result : results) {
+                assertTrue("denied without permission " + options, ServiceUtil.isError(result));
+            }
+        }
+    }
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.service.test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilGenerics;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.service.ModelService;
+import org.ofbiz.service.ModelServiceCache;
+import org.ofbiz.service.ServiceResultCache;
+import org.ofbiz.service.ServiceUtil;
+
+public class ServiceResultCacheTests extends GenericTestCaseBase {
+
+    public ServiceResultCacheTests(String name) {
+        super(name);
+    }
+
+    private static ModelService makeModel(String serviceName) throws Exception {
+        ModelService model = new ModelService();
+        model.name = serviceName;
+        model.cache = ModelServiceCache.fromElement(UtilXml.readXmlDocument("<cache expire-time=\"60000\"/>", false).getDocumentElement(), serviceName);
+        return model;
+    }
+
+    public void testResultsCopied() throws Exception {
+        ModelService model = makeModel("testServiceResultCacheCopy");
+        List<Object> key = UtilMisc.toList("default", "id", "1");
+        List<String> list = new ArrayList<>(UtilMisc.toList("a"));
+        Map<String, Object> map = new HashMap<>(UtilMisc.toMap("nested", new ArrayList<>(UtilMisc.toList("x"))));
+        Timestamp date = new Timestamp(1000);
+        Map<String, Object> result = ServiceUtil.returnSuccess();
+        result.put("list", list);
+        result.put("map", map);
+        result.put("date", date);
+        ServiceResultCache.put(model, key, result);
+
+        list.add("b");
+        map.put("other", "y");
+        date.setTime(2000);
+        Map<String, Object> hit = ServiceResultCache.get(model, key);
+        assertEquals("stored list copied", UtilMisc.toList("a"), hit.get("list"));
+        assertEquals("stored map copied", 1, ((Map<?, ?>) hit.get("map")).size());
+        assertEquals("stored date copied", 1000, ((Timestamp) hit.get("date")).getTime());
+
+        UtilGenerics.<List<Object>>cast(hit.get("list")).add("c");
+        Map<String, Object> hitMap = UtilGenerics.cast(hit.get("map"));
+        UtilGenerics.<List<Object>>cast(hitMap.get("nested")).add("z");
+        hit.put("added", "v");
+        Map<String, Object> hit2 = ServiceResultCache.get(model, key);
+        assertEquals("hit list copied", UtilMisc.toList("a"), hit2.get("list"));
+        assertEquals("nested list copied", UtilMisc.toList("x"), UtilGenerics.<Map<String, Object>>cast(hit2.get("map")).get("nested"));
+        assertFalse("hit map copied", hit2.containsKey("added"));
+        ServiceResultCache.clear(model.name);
+        assertNull("cleared", ServiceResultCache.get(model, key));
+    }
+
+    public void testErrorNotCached() throws Exception {
+        ModelService model = makeModel("testServiceResultCacheError");
+        List<Object> key = UtilMisc.toList("default");
+        ServiceResultCache.put(model, key, ServiceUtil.returnError("failed"));
+        assertNull("error not cached", ServiceResultCache.get(model, key));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ilscipio.scipio.ce.webapp.filter;
 
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -136,6 +137,23 @@ public class UrlFilterHelper {
         // NOTE: outUrlWebappInfo may be null (consider optimization at best)
         FullWebappInfo outUrlWebappInfo = (FullWebappInfo) request.getAttribute(OUT_URL_WEBAPP);
 
+        if (webappInfo == null) {
+            try {
+                webappInfo = FullWebappInfo.fromRequestFilterSafe(request); // 2018-07-31
+            } catch(Exception e) {
+                Debug.logError("UrlFilterHelper: Error while fetching webapp info: " + e.toString(), module);
+            }
+        }
+        return checkTargetWebapp(outboundUrlStr, outUrlWebappInfo, webappInfo, request.getContextPath(), request::setAttribute);
+    }
+
+    /**
+     * Core of {@link #checkTargetWebapp(HttpServletRequest, HttpServletResponse, FullWebappInfo)}, independent
+     * from the servlet API: the attributes are passed to attrSetter, and contextPath is used if webappInfo is null.
+     * Used by compiled outbound rules (added 2026-10).
+     */
+    public static boolean checkTargetWebapp(String outboundUrlStr, FullWebappInfo outUrlWebappInfo, FullWebappInfo webappInfo,
+            String contextPath, BiConsumer<String, Object> attrSetter) {
         String webappPathPrefix = "";
         boolean wppInUrl = false;
         boolean sameContextPath = false;
@@ -144,12 +162,11 @@ public class UrlFilterHelper {
         String pathMatch = "";
 
         try {
-            if (webappInfo == null) {
-                webappInfo = FullWebappInfo.fromRequestFilterSafe(request); // 2018-07-31
+            if (webappInfo != null) {
+                OfbizUrlBuilder urlInfo = webappInfo.getOfbizUrlBuilder();
+                webappPathPrefix = urlInfo.getWebappPathPrefix();
+                wppInUrl = urlInfo.isWebappPathPrefixUrlBuild();
             }
-            OfbizUrlBuilder urlInfo = webappInfo.getOfbizUrlBuilder();
-            webappPathPrefix = urlInfo.getWebappPathPrefix();
-            wppInUrl = urlInfo.isWebappPathPrefixUrlBuild();
         } catch(Exception e) {
             Debug.logError("UrlFilterHelper: Error while fetching webapp info: " + e.toString(), module);
         }
@@ -164,7 +181,7 @@ public class UrlFilterHelper {
             // up, and have to anyway in order to extract the parts.
 
             String currentContextPath = webappPathPrefix
-                    + (webappInfo != null ? webappInfo.getContextPath() : request.getContextPath());
+                    + (webappInfo != null ? webappInfo.getContextPath() : contextPath);
 
             String urlPath = null;
             Matcher matcher = pathPat.matcher(outboundUrlStr);
@@ -207,17 +224,17 @@ public class UrlFilterHelper {
             }
         }
 
-        request.setAttribute("scpUrlOutSameCtx", sameContextPath ? "true" : "false");
-        request.setAttribute("urlFilter.outUrlWebapp.isSameContext", sameContextPath ? "true" : "false"); // legacy compatibility
+        attrSetter.accept("scpUrlOutSameCtx", sameContextPath ? "true" : "false");
+        attrSetter.accept("urlFilter.outUrlWebapp.isSameContext", sameContextPath ? "true" : "false"); // legacy compatibility
 
-        request.setAttribute("scpWebappPathPrefix", webappPathPrefix);
+        attrSetter.accept("scpWebappPathPrefix", webappPathPrefix);
         // scpWPPInUrl was ambiguous, scpWPPStrip is sufficient for now
-        //request.setAttribute("scpWPPInUrl", wppInUrl ? "true" : "false");
-        request.setAttribute("scpWPPFreeUrl", wppFreeUrl);
+        //attrSetter.accept("scpWPPInUrl", wppInUrl ? "true" : "false");
+        attrSetter.accept("scpWPPFreeUrl", wppFreeUrl);
         // high-level control attributes, so we can control the urlrewrite.xml behavior from here
         // and adjust for new features
-        request.setAttribute("scpWPPStrip", wppMatched ? "true" : "false");
-        request.setAttribute("scpWPPReadd", (webappPathPrefix.length() > 0) ? "true" : "false");
+        attrSetter.accept("scpWPPStrip", wppMatched ? "true" : "false");
+        attrSetter.accept("scpWPPReadd", (webappPathPrefix.length() > 0) ? "true" : "false");
 
         return sameContextPath;
     }
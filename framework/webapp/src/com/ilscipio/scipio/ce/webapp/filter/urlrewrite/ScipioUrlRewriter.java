@@ -9,7 +9,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.ofbiz.webapp.FullWebappInfo;
 
-import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.local.LocalUrlRewriter;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriter;
 import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.reqwrap.WrappedRequestUrlRewriter;
 
 public abstract class ScipioUrlRewriter {
@@ -20,7 +20,7 @@ public abstract class ScipioUrlRewriter {
     // many implications...
 
     private static final UrlRewriterFactory requestFactory = new WrappedRequestUrlRewriter.WrappedRequestFactory(); // TODO?: unhardcode in future
-    private static final UrlRewriterFactory contextFactory = new LocalUrlRewriter.LocalFactory(); // TODO?: unhardcode in future
+    private static final UrlRewriterFactory contextFactory = new CompiledUrlRewriter.CompiledFactory();
 
     protected ScipioUrlRewriter() {
     }
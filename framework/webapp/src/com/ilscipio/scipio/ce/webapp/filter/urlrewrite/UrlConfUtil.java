@@ -78,4 +78,15 @@ public abstract class UrlConfUtil {
         return (urlConfPath != null) ? getConfFromLocation(urlConfPath) : getConfFromWebapp(webappInfo);
     }
 
+    /**
+     * Returns the location of the urlrewrite conf, as used by {@link #getConfFromLocationOrWebapp}, or null
+     * if the webapp has none (added 2026-10).
+     */
+    public static String getConfLocation(String urlConfPath, ExtWebappInfo webappInfo) {
+        if (urlConfPath != null) {
+            return urlConfPath;
+        }
+        return (webappInfo.getUrlRewriteRealConfPath() != null) ? "file:" + webappInfo.getUrlRewriteRealConfPath() : null;
+    }
+
 }
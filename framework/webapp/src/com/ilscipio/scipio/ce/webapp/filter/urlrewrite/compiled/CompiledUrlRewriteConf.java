@@ -0,0 +1,417 @@
+package com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.ofbiz.base.location.FlexibleLocation;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import com.ilscipio.scipio.ce.webapp.filter.UrlFilterHelper;
+
+/**
+ * SCIPIO: The outbound-rules of a urlrewrite.xml file, compiled once for {@link CompiledUrlRewriter}.
+ * <p>
+ * Supports the subset of urlrewritefilter outbound-rule features used by the Scipio urlrewrite.xml files:
+ * regex <code>from</code> (with <code>casesensitive</code>), <code>to</code> (with <code>last</code>,
+ * <code>$N</code> group and <code>%{attribute:name}</code> references, or "-"), attribute conditions
+ * (equal/notequal operators, and/or <code>next</code>), request attribute <code>set</code> elements and
+ * <code>run</code> elements invoking the {@link UrlFilterHelper} outbound methods. The attributes read by
+ * conditions and references must be written by the rules themselves. Files using anything else are
+ * reported as not supported ({@link #isSupported()}), so that the caller can fall back to urlrewritefilter.
+ * <p>
+ * Added 2026-10.
+ */
+public class CompiledUrlRewriteConf {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final UtilCache<String, CompiledUrlRewriteConf> confCache = UtilCache.createUtilCache("scipio.urlrewrite.conf.compiled");
+
+    /** Attributes written by the native implementations of the {@link UrlFilterHelper} outbound methods. */
+    private static final Set<String> nativeRunAttributes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "scpCtrlServPath", "scpCtrlMapping", "scpUrlCtxPath", "scpUrlOutSameCtx", "urlFilter.outUrlWebapp.isSameContext",
+            "scpWebappPathPrefix", "scpWPPFreeUrl", "scpWPPStrip", "scpWPPReadd", "scpUrlReOut")));
+
+    /** Attributes set by {@link CompiledUrlRewriter} before running the rules. */
+    static final Set<String> initialAttributes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            UrlFilterHelper.URLREWRITE_CONF_WEBAPP, UrlFilterHelper.OUT_URL_WEBAPP)));
+
+    private static final Pattern attributeRefPat = Pattern.compile("%\\{attribute:([^}]*)\\}");
+
+    private final String location;
+    private final List<OutboundRule> outboundRules;
+    private final String unsupportedReason;
+
+    protected CompiledUrlRewriteConf(String location, Element rootElement) {
+        this.location = location;
+        List<OutboundRule> outboundRules = new ArrayList<>();
+        String unsupportedReason = null;
+        try {
+            Set<String> writtenAttributes = new HashSet<>(initialAttributes);
+            for (Element ruleElement : UtilXml.childElementList(rootElement, "outbound-rule")) {
+                if ("false".equals(ruleElement.getAttribute("enabled"))) {
+                    continue;
+                }
+                OutboundRule rule = new OutboundRule(ruleElement, writtenAttributes);
+                outboundRules.add(rule);
+            }
+        } catch (IllegalArgumentException e) {
+            outboundRules.clear();
+            unsupportedReason = e.getMessage();
+        }
+        this.outboundRules = Collections.unmodifiableList(outboundRules);
+        this.unsupportedReason = unsupportedReason;
+    }
+
+    /**
+     * Returns the compiled outbound-rules of the urlrewrite.xml file at the location, cached.
+     */
+    public static CompiledUrlRewriteConf getFromLocation(String location) throws IOException {
+        CompiledUrlRewriteConf conf = confCache.get(location);
+        if (conf != null) {
+            return conf;
+        }
+        URL confUrl = FlexibleLocation.resolveLocation(location);
+        if (confUrl == null) {
+            throw new IOException("Could not resolve urlrewrite conf path: " + location);
+        }
+        Document document;
+        try {
+            document = UtilXml.readXmlDocument(confUrl, false);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read urlrewrite conf " + location + ": " + e.getMessage(), e);
+        }
+        if (document == null) {
+            throw new IOException("Unable to find urlrewrite conf file at: " + location);
+        }
+        conf = new CompiledUrlRewriteConf(location, document.getDocumentElement());
+        if (conf.isSupported()) {
+            Debug.logInfo("urlrewrite: compiled " + conf.getOutboundRules().size() + " outbound-rules from " + location, module);
+        } else {
+            Debug.logInfo("urlrewrite: outbound-rules from " + location + " cannot be compiled (" + conf.getUnsupportedReason()
+                    + "); using urlrewritefilter for static render contexts", module);
+        }
+        confCache.put(location, conf);
+        return conf;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public boolean isSupported() {
+        return unsupportedReason == null;
+    }
+
+    /** Returns the reason the file cannot be compiled, or null if supported. */
+    public String getUnsupportedReason() {
+        return unsupportedReason;
+    }
+
+    public List<OutboundRule> getOutboundRules() {
+        return outboundRules;
+    }
+
+    private static String getElementText(Element element) {
+        String value = UtilXml.elementValue(element);
+        return (value != null) ? value.trim() : "";
+    }
+
+    private static void checkAttributeRead(String name, Set<String> writtenAttributes) {
+        if (!writtenAttributes.contains(name)) {
+            throw new IllegalArgumentException("reads request attribute '" + name + "' not set by the rules");
+        }
+    }
+
+    /** Native implementations of the supported run elements. */
+    public enum NativeRun {
+        SET_COMMON_ATTR_OUT,
+        CHECK_TARGET_WEBAPP,
+        DO_INTER_WEBAPP_URL_REWRITE;
+
+        static NativeRun fromElement(Element runElement) {
+            String className = runElement.getAttribute("class");
+            String methodName = runElement.getAttribute("method");
+            if (!UrlFilterHelper.class.getName().equals(className)) {
+                throw new IllegalArgumentException("run class " + className + " not supported");
+            }
+            if ("setCommonAttrOut".equals(methodName) || "verifySameWebappContext".equals(methodName)) {
+                return SET_COMMON_ATTR_OUT;
+            } else if ("checkTargetWebapp".equals(methodName)) {
+                return CHECK_TARGET_WEBAPP;
+            } else if ("doInterWebappUrlRewrite".equals(methodName)) {
+                return DO_INTER_WEBAPP_URL_REWRITE;
+            }
+            throw new IllegalArgumentException("run method " + className + "." + methodName + " not supported");
+        }
+    }
+
+    /**
+     * Replacement text with <code>$N</code> group and <code>%{attribute:name}</code> references, split at compile time.
+     */
+    public static class Template {
+        private final Object[] parts; // String literals, Integer groups, AttributeRef attributes
+
+        Template(String text, Set<String> writtenAttributes) {
+            if (text.indexOf('\\') >= 0 || text.contains("${")) {
+                throw new IllegalArgumentException("escapes and functions in '" + text + "' not supported");
+            }
+            List<Object> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c == '$' && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1))) {
+                    addLiteral(parts, literal);
+                    parts.add(text.charAt(i + 1) - '0');
+                    i += 2;
+                } else if (c == '%' && i + 1 < text.length() && (text.charAt(i + 1) == '{' || Character.isDigit(text.charAt(i + 1)))) {
+                    Matcher m = attributeRefPat.matcher(text);
+                    if (!m.find(i) || m.start() != i) {
+                        throw new IllegalArgumentException("reference in '" + text + "' not supported");
+                    }
+                    checkAttributeRead(m.group(1), writtenAttributes);
+                    addLiteral(parts, literal);
+                    parts.add(new AttributeRef(m.group(1)));
+                    i = m.end();
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            addLiteral(parts, literal);
+            this.parts = parts.toArray();
+        }
+
+        private static void addLiteral(List<Object> parts, StringBuilder literal) {
+            if (literal.length() > 0) {
+                parts.add(literal.toString());
+                literal.setLength(0);
+            }
+        }
+
+        void append(StringBuilder sb, Matcher matcher, CompiledUrlRewriter.RewriteState state) {
+            for (Object part : parts) {
+                if (part instanceof String) {
+                    sb.append((String) part);
+                } else if (part instanceof Integer) {
+                    int group = (Integer) part;
+                    if (group <= matcher.groupCount()) {
+                        String value = matcher.group(group);
+                        if (value != null) {
+                            sb.append(value);
+                        }
+                    }
+                } else {
+                    Object value = state.getAttribute(((AttributeRef) part).name);
+                    if (value != null) {
+                        sb.append(value);
+                    }
+                }
+            }
+        }
+
+        String expand(Matcher matcher, CompiledUrlRewriter.RewriteState state) {
+            StringBuilder sb = new StringBuilder();
+            append(sb, matcher, state);
+            return sb.toString();
+        }
+    }
+
+    private static class AttributeRef {
+        final String name;
+        AttributeRef(String name) {
+            this.name = name;
+        }
+    }
+
+    /** An attribute condition. */
+    public static class Condition {
+        final String name;
+        final Pattern pattern;
+        final boolean notEqual;
+        final boolean nextOr;
+
+        Condition(Element condElement, Set<String> writtenAttributes) {
+            String type = condElement.getAttribute("type");
+            if (!"attribute".equals(type)) {
+                throw new IllegalArgumentException("condition type '" + type + "' not supported");
+            }
+            this.name = condElement.getAttribute("name");
+            checkAttributeRead(name, writtenAttributes);
+            String operator = condElement.getAttribute("operator");
+            if (operator.isEmpty() || "equal".equals(operator)) {
+                this.notEqual = false;
+            } else if ("notequal".equals(operator)) {
+                this.notEqual = true;
+            } else {
+                throw new IllegalArgumentException("condition operator '" + operator + "' not supported");
+            }
+            String value = getElementText(condElement);
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("condition without value not supported");
+            }
+            this.pattern = Pattern.compile(value, "true".equals(condElement.getAttribute("casesensitive")) ? 0 : Pattern.CASE_INSENSITIVE);
+            this.nextOr = "or".equals(condElement.getAttribute("next"));
+        }
+
+        boolean matches(CompiledUrlRewriter.RewriteState state) {
+            Object value = state.getAttribute(name);
+            boolean found = pattern.matcher((value != null) ? value.toString() : "").find();
+            return notEqual ? !found : found;
+        }
+    }
+
+    /** A request attribute set element. */
+    public static class SetAttribute {
+        final String name;
+        final Template value;
+
+        SetAttribute(String name, Template value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    /** A compiled outbound-rule. */
+    public static class OutboundRule {
+        final Pattern from;
+        /** Literal text every match starts with, checked before running the regex; empty if none. */
+        final String fromPrefix;
+        final boolean caseSensitive;
+        final List<Condition> conditions = new ArrayList<>();
+        final List<SetAttribute> sets = new ArrayList<>();
+        final List<NativeRun> runs = new ArrayList<>();
+        /** The replacement, or null if the rule has no to element or its value is "-". */
+        final Template to;
+        final boolean last;
+
+        OutboundRule(Element ruleElement, Set<String> writtenAttributes) {
+            String matchType = ruleElement.getAttribute("match-type");
+            if (!matchType.isEmpty() && !"regex".equals(matchType)) {
+                throw new IllegalArgumentException("match-type '" + matchType + "' not supported");
+            }
+            if ("true".equals(ruleElement.getAttribute("encodefirst"))) {
+                throw new IllegalArgumentException("encodefirst not supported");
+            }
+            Element fromElement = UtilXml.firstChildElement(ruleElement, "from");
+            if (fromElement == null || getElementText(fromElement).isEmpty()) {
+                throw new IllegalArgumentException("outbound-rule without from not supported");
+            }
+            String fromRegex = getElementText(fromElement);
+            this.caseSensitive = "true".equals(fromElement.getAttribute("casesensitive"));
+            this.from = Pattern.compile(fromRegex, caseSensitive ? 0 : Pattern.CASE_INSENSITIVE);
+            this.fromPrefix = getLiteralPrefix(fromRegex);
+
+            Element toElement = null;
+            for (Element childElement : UtilXml.childElementList(ruleElement)) {
+                String childName = childElement.getTagName();
+                if ("condition".equals(childName)) {
+                    conditions.add(new Condition(childElement, writtenAttributes));
+                } else if ("set".equals(childName)) {
+                    String type = childElement.getAttribute("type");
+                    if (!type.isEmpty() && !"request".equals(type)) {
+                        throw new IllegalArgumentException("set type '" + type + "' not supported");
+                    }
+                    sets.add(new SetAttribute(childElement.getAttribute("name"), new Template(getElementText(childElement), writtenAttributes)));
+                    writtenAttributes.add(childElement.getAttribute("name"));
+                } else if ("run".equals(childName)) {
+                    runs.add(NativeRun.fromElement(childElement));
+                    writtenAttributes.addAll(nativeRunAttributes);
+                } else if ("to".equals(childName)) {
+                    toElement = childElement;
+                } else if (!"from".equals(childName) && !"name".equals(childName) && !"note".equals(childName)) {
+                    throw new IllegalArgumentException("outbound-rule element '" + childName + "' not supported");
+                }
+            }
+            // the to element is evaluated after the sets and runs, so it can read what they wrote
+            String toText = (toElement != null) ? getElementText(toElement) : "";
+            this.to = (toText.isEmpty() || "-".equals(toText)) ? null : new Template(toText, writtenAttributes);
+            this.last = (toElement != null) && "true".equals(toElement.getAttribute("last"));
+        }
+
+        /**
+         * Returns the literal text at the start of an anchored regex, e.g. "/control/" for "^/control/(.*)$", or ""
+         * if none or if the regex has a top-level alternation (<code>^/a|/b</code> also matches "/b...").
+         */
+        public static String getLiteralPrefix(String regex) {
+            if (!regex.startsWith("^") || hasTopLevelAlternation(regex)) {
+                return "";
+            }
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 1; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (Character.isLetterOrDigit(c) || c == '/' || c == '-' || c == '_' || c == ':' || c == '=' || c == '&') {
+                    prefix.append(c);
+                } else {
+                    // a quantifier makes the preceding character optional
+                    if ((c == '?' || c == '*' || c == '{') && prefix.length() > 0) {
+                        prefix.setLength(prefix.length() - 1);
+                    }
+                    break;
+                }
+            }
+            return prefix.toString();
+        }
+
+        /** Returns true if the regex has an unescaped '|' outside groups and character classes. */
+        private static boolean hasTopLevelAlternation(String regex) {
+            int depth = 0;
+            boolean inClass = false;
+            for (int i = 0; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (c == '\\') {
+                    if (regex.startsWith("Q", i + 1)) {
+                        // quoted section, up to \E
+                        int end = regex.indexOf("\\E", i + 2);
+                        if (end < 0) {
+                            return false;
+                        }
+                        i = end + 1;
+                    } else {
+                        i++;
+                    }
+                } else if (inClass) {
+                    if (c == ']') {
+                        inClass = false;
+                    }
+                } else if (c == '[') {
+                    inClass = true;
+                    // a ']' right after '[' or '[^' is a literal
+                    if (regex.startsWith("^", i + 1)) {
+                        i++;
+                    }
+                    if (regex.startsWith("]", i + 1)) {
+                        i++;
+                    }
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth <= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean hasFromPrefix(String url) {
+            return fromPrefix.isEmpty() || url.regionMatches(!caseSensitive, 0, fromPrefix, 0, fromPrefix.length());
+        }
+    }
+}
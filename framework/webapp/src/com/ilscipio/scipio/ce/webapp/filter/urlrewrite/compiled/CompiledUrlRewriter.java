@@ -0,0 +1,239 @@
+package com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.webapp.FullWebappInfo;
+
+import com.ilscipio.scipio.ce.webapp.filter.UrlFilterHelper;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.ScipioUrlRewriter;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.UrlConfUtil;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriteConf.Condition;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriteConf.NativeRun;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriteConf.OutboundRule;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriteConf.SetAttribute;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.local.LocalUrlRewriter;
+
+/**
+ * SCIPIO: URL rewriter that runs the outbound-rules of a {@link CompiledUrlRewriteConf} directly,
+ * without the emulated servlet API and urlrewritefilter of {@link LocalUrlRewriter}.
+ * <p>
+ * Results are memoized per instance, which lives as long as the render context caching it
+ * (see {@link ScipioUrlRewriter.Cache}), so a link repeated in an email or sitemap is rewritten once.
+ * Controlled by <code>webapp.url.rewrite.local.mode</code> and <code>webapp.url.rewrite.local.memoSize</code>
+ * in url.properties.
+ * <p>
+ * Added 2026-10.
+ */
+public class CompiledUrlRewriter extends ScipioUrlRewriter {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final boolean compiledMode = !"emulated".equals(UtilProperties.getPropertyValue("url", "webapp.url.rewrite.local.mode", "compiled"));
+    private static final int memoSize = UtilProperties.getPropertyAsInteger("url", "webapp.url.rewrite.local.memoSize", 1000);
+
+    private static final String OUT_URL_ATTR = "urlFilter.outUrlWebapp.outUrl";
+
+    /** Locations already reported as not compilable, to log the fallback only once. */
+    private static final Set<String> fallbackLocations = ConcurrentHashMap.newKeySet();
+
+    protected final CompiledUrlRewriteConf conf;
+    protected final FullWebappInfo webappInfo;
+    protected final Map<List<Object>, String> memo = new ConcurrentHashMap<>();
+
+    protected CompiledUrlRewriter(CompiledUrlRewriteConf conf, FullWebappInfo webappInfo) {
+        this.conf = conf;
+        this.webappInfo = webappInfo;
+    }
+
+    public CompiledUrlRewriteConf getConf() {
+        return conf;
+    }
+
+    public static class CompiledFactory implements ScipioUrlRewriter.UrlRewriterFactory {
+
+        private final LocalUrlRewriter.LocalFactory emulatedFactory = new LocalUrlRewriter.LocalFactory();
+
+        @Override
+        public ScipioUrlRewriter loadForRequest(FullWebappInfo webappInfo, String urlConfPath,
+                HttpServletRequest request, HttpServletResponse response) throws IOException {
+            return emulatedFactory.loadForRequest(webappInfo, urlConfPath, request, response);
+        }
+
+        @Override
+        public ScipioUrlRewriter loadForContext(FullWebappInfo webappInfo, String urlConfPath,
+                Map<String, Object> context) throws IOException {
+            if (compiledMode) {
+                String location = UrlConfUtil.getConfLocation(urlConfPath, webappInfo.getExtWebappInfo());
+                if (location != null) {
+                    CompiledUrlRewriteConf conf = CompiledUrlRewriteConf.getFromLocation(location);
+                    if (conf.isSupported()) {
+                        return new CompiledUrlRewriter(conf, webappInfo);
+                    }
+                    if (fallbackLocations.add(location) && Debug.verboseOn()) {
+                        Debug.logVerbose("urlrewrite: using emulated rewriter for " + location + ": " + conf.getUnsupportedReason(), module);
+                    }
+                }
+            }
+            return emulatedFactory.loadForContext(webappInfo, urlConfPath, context);
+        }
+    }
+
+    @Override
+    public String processOutboundUrl(String url, FullWebappInfo urlWebappInfo, Map<String, Object> context) {
+        return processOutboundUrl(url, urlWebappInfo, context, null, null);
+    }
+
+    @Override
+    public String processOutboundUrl(String url, FullWebappInfo urlWebappInfo, HttpServletRequest request, HttpServletResponse response) {
+        return processOutboundUrl(url, urlWebappInfo, null, request, response);
+    }
+
+    protected String processOutboundUrl(String url, FullWebappInfo urlWebappInfo, Map<String, Object> context,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (url == null) {
+            return null;
+        }
+        List<Object> memoKey = Arrays.asList(urlWebappInfo, url);
+        String result = memo.get(memoKey);
+        if (result != null) {
+            return result;
+        }
+        if (Debug.verboseOn()) {
+            Debug.logVerbose("urlrewrite: processing outbound url for " + url, module);
+        }
+        try {
+            result = new RewriteState(urlWebappInfo, context, request, response).run(url);
+        } catch (Exception e) {
+            Debug.logError(e, "Error encoding url '" + url + "' using compiled outbound-rules from " + conf.getLocation() + ": " + e.getMessage(), module);
+            return url;
+        }
+        if (memo.size() < memoSize) {
+            memo.put(memoKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * The request attributes of one outbound URL rewrite.
+     */
+    protected class RewriteState {
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final Map<String, Object> context;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        RewriteState(FullWebappInfo urlWebappInfo, Map<String, Object> context, HttpServletRequest request, HttpServletResponse response) {
+            this.context = context;
+            this.request = request;
+            this.response = response;
+            attributes.put(UrlFilterHelper.URLREWRITE_CONF_WEBAPP, webappInfo);
+            attributes.put(UrlFilterHelper.OUT_URL_WEBAPP, urlWebappInfo);
+        }
+
+        Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        String run(String url) {
+            for (OutboundRule rule : conf.getOutboundRules()) {
+                if (!rule.hasFromPrefix(url)) {
+                    continue;
+                }
+                Matcher matcher = rule.from.matcher(url);
+                if (!matcher.find() || !matchesConditions(rule.conditions)) {
+                    continue;
+                }
+                for (SetAttribute set : rule.sets) {
+                    attributes.put(set.name, set.value.expand(matcher, this));
+                }
+                for (NativeRun run : rule.runs) {
+                    run(run);
+                }
+                if (rule.to != null) {
+                    url = replaceAll(matcher, rule, url);
+                }
+                if (rule.last) {
+                    break;
+                }
+            }
+            return url;
+        }
+
+        /** Evaluates the conditions in order, each joined to the previous result by the previous condition's next (and/or). */
+        private boolean matchesConditions(List<Condition> conditions) {
+            boolean result = true;
+            boolean nextOr = false;
+            for (Condition condition : conditions) {
+                boolean matches = condition.matches(this);
+                result = nextOr ? (result || matches) : (result && matches);
+                nextOr = condition.nextOr;
+            }
+            return result;
+        }
+
+        /** Same as {@link Matcher#replaceAll(String)}, for a matcher positioned on its first match. */
+        private String replaceAll(Matcher matcher, OutboundRule rule, String url) {
+            StringBuilder sb = new StringBuilder();
+            int end = 0;
+            do {
+                sb.append(url, end, matcher.start());
+                rule.to.append(sb, matcher, this);
+                end = matcher.end();
+            } while (matcher.find());
+            sb.append(url, end, url.length());
+            return sb.toString();
+        }
+
+        private void run(NativeRun run) {
+            switch (run) {
+            case SET_COMMON_ATTR_OUT:
+                attributes.put("scpCtrlServPath", webappInfo.getControlServletPath());
+                attributes.put("scpCtrlMapping", webappInfo.getControlServletMapping());
+                checkTargetWebapp();
+                attributes.put("scpUrlCtxPath", webappInfo.getContextPath());
+                break;
+            case CHECK_TARGET_WEBAPP:
+                checkTargetWebapp();
+                break;
+            case DO_INTER_WEBAPP_URL_REWRITE:
+                doInterWebappUrlRewrite();
+                break;
+            }
+        }
+
+        private void checkTargetWebapp() {
+            UrlFilterHelper.checkTargetWebapp((String) attributes.get(OUT_URL_ATTR), (FullWebappInfo) attributes.get(UrlFilterHelper.OUT_URL_WEBAPP),
+                    webappInfo, webappInfo.getContextPath(), attributes::put);
+        }
+
+        private void doInterWebappUrlRewrite() {
+            String url = (String) attributes.get(OUT_URL_ATTR);
+            FullWebappInfo outUrlWebappInfo = (FullWebappInfo) attributes.get(UrlFilterHelper.OUT_URL_WEBAPP);
+            if (outUrlWebappInfo != null) {
+                try {
+                    if (context != null) {
+                        url = ScipioUrlRewriter.getForContext(outUrlWebappInfo, context, true).processOutboundUrl(url, outUrlWebappInfo, context);
+                    } else {
+                        url = ScipioUrlRewriter.getForRequest(outUrlWebappInfo, request, response, true).processOutboundUrl(url, outUrlWebappInfo, request, response);
+                    }
+                } catch (Exception e) {
+                    Debug.logError("doInterWebappUrlRewrite: Error URL-encoding (rewriting) link for webapp " + outUrlWebappInfo
+                            + ": " + e.toString(), module);
+                }
+            }
+            attributes.put("scpUrlReOut", url);
+        }
+    }
+}
@@ -164,6 +164,9 @@ public abstract class ContentRequestWorker {
             }
         }
 
+        // SCIPIO: 2026-10: content hash for immutable caching of theme assets (see StaticAssets)
+        requestUrl = StaticAssets.getVersionedUri(requestUrl);
+
         newURL.append(getUriPathToConcat(newURL.toString(), requestUrl, strict)); // SCIPIO: getUriPathToConcat
 
         return newURL.toString();
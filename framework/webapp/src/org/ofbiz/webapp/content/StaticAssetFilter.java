@@ -0,0 +1,166 @@
+package org.ofbiz.webapp.content;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.concurrent.ExecutionPool;
+import org.ofbiz.base.util.Debug;
+
+/**
+ * SCIPIO: Serves the fingerprinted links of {@link StaticAssets} (<code>?_v=hash</code>) with far-future
+ * <code>Cache-Control: immutable</code> headers, and their gzipped copy to clients that accept gzip, through
+ * the container's sendfile support when available. Other requests, including links whose hash no longer matches
+ * the file, are passed through to the default servlet unchanged.
+ * <p>
+ * Must be mapped before any filter setting Expires/Cache-Control headers (e.g. Tomcat's ExpiresFilter).
+ * Init-params:
+ * <ul>
+ * <li><code>preload</code>: if true, fingerprints and precompresses the webapp's assets in the background at startup.</li>
+ * </ul>
+ * <p>
+ * Added 2026-10.
+ */
+public class StaticAssetFilter implements Filter {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    // Tomcat sendfile request attributes (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    protected ServletContext servletContext;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        this.servletContext = config.getServletContext();
+        if ("true".equals(config.getInitParameter("preload")) && StaticAssets.isEnabled()) {
+            final String contextPath = servletContext.getContextPath();
+            final String realPath = servletContext.getRealPath("/");
+            if (realPath != null) {
+                ExecutionPool.GLOBAL_BATCH.submit(() -> {
+                    long startTime = System.currentTimeMillis();
+                    int count = StaticAssets.preload(contextPath, Paths.get(realPath));
+                    if (count > 0) {
+                        Debug.logInfo("Preloaded " + count + " static assets of " + contextPath + " in "
+                                + (System.currentTimeMillis() - startTime) + "ms", module);
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String queryString = httpRequest.getQueryString();
+        if (queryString == null || !queryString.startsWith(StaticAssets.VERSION_PARAM + "=")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String path = httpRequest.getContextPath() + httpRequest.getServletPath()
+                + ((httpRequest.getPathInfo() != null) ? httpRequest.getPathInfo() : "");
+        StaticAssets.Asset asset = StaticAssets.getAsset(path);
+        if (asset == null || !queryString.equals(StaticAssets.VERSION_PARAM + "=" + asset.getHash())) {
+            // stale or foreign hash: serve the current file with the usual headers
+            chain.doFilter(request, response);
+            return;
+        }
+
+        httpResponse.setHeader("Cache-Control", CACHE_CONTROL_IMMUTABLE);
+        Path gzipFile = asset.getGzipFile();
+        if (gzipFile == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        if (!acceptsGzip(httpRequest.getHeader("Accept-Encoding")) || !("GET".equals(httpRequest.getMethod()) || "HEAD".equals(httpRequest.getMethod()))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String etag = "\"" + asset.getHash() + "-gz\"";
+        httpResponse.setHeader("ETag", etag);
+        if (etag.equals(httpRequest.getHeader("If-None-Match"))) {
+            httpResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long length = Files.size(gzipFile);
+        String contentType = servletContext.getMimeType(asset.getFile().getFileName().toString());
+        if (contentType != null) {
+            httpResponse.setContentType(contentType);
+        }
+        httpResponse.setHeader("Content-Encoding", "gzip");
+        httpResponse.setDateHeader("Last-Modified", asset.getLastModified());
+        httpResponse.setContentLengthLong(length);
+        if ("HEAD".equals(httpRequest.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(httpRequest.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // the connector writes the file after the request, without copying it through the JVM heap
+            httpRequest.setAttribute(SENDFILE_FILENAME_ATTR, gzipFile.toAbsolutePath().toString());
+            httpRequest.setAttribute(SENDFILE_FILE_START_ATTR, 0L);
+            httpRequest.setAttribute(SENDFILE_FILE_END_ATTR, length);
+        } else {
+            Files.copy(gzipFile, httpResponse.getOutputStream());
+        }
+    }
+
+    /**
+     * Returns true if the Accept-Encoding header value accepts gzip: <code>gzip</code> (or <code>x-gzip</code>) is listed
+     * with a non-zero q-value, or is not listed and <code>*</code> is, with a non-zero q-value (RFC 7231 5.3.4).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("gzip".equals(name) || "x-gzip".equals(name)) {
+                gzipQuality = (gzipQuality != null) ? Math.max(gzipQuality, quality) : quality;
+            } else if ("*".equals(name)) {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
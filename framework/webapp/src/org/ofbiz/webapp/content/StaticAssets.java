@@ -0,0 +1,298 @@
+package org.ofbiz.webapp.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.ofbiz.base.component.ComponentConfig.WebappInfo;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.webapp.WebAppUtil;
+
+/**
+ * SCIPIO: Fingerprinted static assets of the theme webapps.
+ * <p>
+ * {@link #getVersionedUri(String)} appends a content hash (<code>?_v=hash</code>) to the links made by
+ * <code>@contentUrl</code> for files of the webapps listed in <code>content.url.asset.contextPaths</code>
+ * (url.properties), so that {@link StaticAssetFilter} can serve them with <code>Cache-Control: immutable</code>;
+ * when a file changes, so does its link. Text assets are also gzipped once per hash into
+ * <code>runtime/tmp/static-assets</code>, served in place of the file to clients that accept gzip.
+ * <p>
+ * Assets are looked up by path (context path included) and cached in the <code>webapp.static.asset</code> UtilCache;
+ * files changed at runtime are rehashed unless <code>content.url.asset.checkModified</code> is false.
+ * <p>
+ * Added 2026-10.
+ */
+public final class StaticAssets {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    /** The query parameter holding the content hash. */
+    public static final String VERSION_PARAM = "_v";
+
+    private static final boolean fingerprint = UtilProperties.getPropertyAsBoolean("url", "content.url.asset.fingerprint", false);
+    private static final List<String> contextPaths = getPropertyList("content.url.asset.contextPaths", "");
+    private static final Set<String> extensions = new HashSet<>(getPropertyList("content.url.asset.extensions",
+            "css,js,svg,png,jpg,jpeg,gif,webp,ico,woff,woff2,ttf,eot"));
+    private static final boolean checkModified = UtilProperties.getPropertyAsBoolean("url", "content.url.asset.checkModified", true);
+    private static final boolean precompress = UtilProperties.getPropertyAsBoolean("url", "content.url.asset.precompress", true);
+    private static final Set<String> precompressExtensions = new HashSet<>(getPropertyList("content.url.asset.precompress.extensions",
+            "css,js,svg,json,ttf,eot,ico"));
+    private static final long precompressMinSize = UtilProperties.getPropertyAsLong("url", "content.url.asset.precompress.minSize", 1024);
+
+    private static final Path precompressDir = Paths.get(System.getProperty("ofbiz.home", "."), "runtime", "tmp", "static-assets");
+
+    private static final UtilCache<String, Asset> assetCache = UtilCache.createUtilCache("webapp.static.asset");
+    /** Cached for paths that are not assets. */
+    private static final Asset NO_ASSET = new Asset(null, null, 0, 0, null);
+
+    private StaticAssets() {
+    }
+
+    private static List<String> getPropertyList(String name, String defaultValue) {
+        String value = UtilProperties.getPropertyValue("url", name, defaultValue);
+        List<String> list = new ArrayList<>();
+        for (String item : value.split(",")) {
+            item = item.trim();
+            if (!item.isEmpty()) {
+                list.add(item);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /** Returns true if links to the asset webapps are fingerprinted. */
+    public static boolean isEnabled() {
+        return fingerprint && !contextPaths.isEmpty();
+    }
+
+    /**
+     * Returns the path with the <code>_v</code> content hash parameter appended, or the path unchanged if it is not
+     * (the plain path of) a file of an asset webapp.
+     */
+    public static String getVersionedUri(String path) {
+        if (!isEnabled() || !isAssetPath(path) || path.indexOf('?') >= 0 || path.indexOf('#') >= 0 || path.indexOf('&') >= 0) {
+            return path;
+        }
+        Asset asset = getAsset(path);
+        return (asset != null) ? path + "?" + VERSION_PARAM + "=" + asset.getHash() : path;
+    }
+
+    /** Returns true if the path is under one of the asset webapps and has an asset extension. */
+    public static boolean isAssetPath(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/' || !extensions.contains(getExtension(path))) {
+            return false;
+        }
+        for (String contextPath : contextPaths) {
+            if (path.startsWith(contextPath) && path.length() > contextPath.length() && path.charAt(contextPath.length()) == '/') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the asset for the path (context path included, no query string), or null if it is not a file of
+     * an asset webapp.
+     */
+    public static Asset getAsset(String path) {
+        if (!isAssetPath(path)) {
+            return null;
+        }
+        Asset asset = assetCache.get(path);
+        if (asset != null && (!checkModified || asset == NO_ASSET || !asset.isModified())) {
+            return (asset != NO_ASSET) ? asset : null;
+        }
+        asset = loadAsset(path);
+        assetCache.put(path, (asset != null) ? asset : NO_ASSET);
+        return asset;
+    }
+
+    private static Asset loadAsset(String path) {
+        WebappInfo webappInfo;
+        try {
+            webappInfo = WebAppUtil.getWebappInfoFromPath(null, path, true);
+        } catch (Exception e) {
+            return null;
+        }
+        Path root = Paths.get(webappInfo.getLocation()).toAbsolutePath().normalize();
+        String relPath = path.substring(webappInfo.getContextRoot().length());
+        while (relPath.startsWith("/")) {
+            relPath = relPath.substring(1);
+        }
+        String upperRelPath = relPath.toUpperCase(Locale.ROOT);
+        if (relPath.isEmpty() || upperRelPath.startsWith("WEB-INF") || upperRelPath.startsWith("META-INF")) {
+            return null;
+        }
+        Path file = root.resolve(relPath).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            long length = Files.size(file);
+            String hash = getHash(file);
+            Path gzipFile = null;
+            String extension = getExtension(path);
+            if (precompress && precompressExtensions.contains(extension) && length >= precompressMinSize) {
+                gzipFile = getGzipFile(file, hash, extension, length);
+            }
+            return new Asset(file, hash, lastModified, length, gzipFile);
+        } catch (IOException e) {
+            Debug.logWarning("Could not read static asset " + file + ": " + e.toString(), module);
+            return null;
+        }
+    }
+
+    private static String getHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int len;
+            while ((len = in.read(buf)) > 0) {
+                digest.update(buf, 0, len);
+            }
+        }
+        byte[] bytes = digest.digest();
+        StringBuilder sb = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            sb.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the gzipped copy of the file, creating it if needed, or null if gzip does not make it smaller. The copy is
+     * named by the content hash, so it is shared by identical files and reused across restarts.
+     */
+    private static Path getGzipFile(Path file, String hash, String extension, long length) {
+        Path gzipFile = precompressDir.resolve(hash + "." + extension + ".gz");
+        try {
+            if (!Files.isRegularFile(gzipFile)) {
+                Files.createDirectories(precompressDir);
+                Path tmpFile = Files.createTempFile(precompressDir, hash, ".tmp");
+                try {
+                    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmpFile))) {
+                        Files.copy(file, out);
+                    }
+                    Files.move(tmpFile, gzipFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmpFile);
+                }
+            }
+            return (Files.size(gzipFile) < length) ? gzipFile : null;
+        } catch (IOException e) {
+            Debug.logWarning("Could not precompress static asset " + file + ": " + e.toString(), module);
+            return null;
+        }
+    }
+
+    private static String getExtension(String path) {
+        int dotIndex = path.lastIndexOf('.');
+        if (dotIndex < 0 || path.indexOf('/', dotIndex) >= 0) {
+            return "";
+        }
+        int endIndex = path.length();
+        for (int i = dotIndex + 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '?' || c == '#' || c == ';') {
+                endIndex = i;
+                break;
+            }
+        }
+        return path.substring(dotIndex + 1, endIndex).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fingerprints (and precompresses) all the assets under the given webapp directory, mounted at contextPath.
+     * Returns the number of assets.
+     */
+    public static int preload(String contextPath, Path webappDir) {
+        if (!isEnabled() || UtilValidate.isEmpty(contextPath) || !contextPaths.contains(contextPath)) {
+            return 0;
+        }
+        Path root = webappDir.toAbsolutePath().normalize();
+        int count = 0;
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String relPath = root.relativize(file).toString().replace('\\', '/');
+                if (Files.isRegularFile(file) && getAsset(contextPath + "/" + relPath) != null) {
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            Debug.logWarning("Could not preload static assets of " + contextPath + ": " + e.toString(), module);
+        }
+        return count;
+    }
+
+    /**
+     * A fingerprinted static file.
+     */
+    public static final class Asset {
+        private final Path file;
+        private final String hash;
+        private final long lastModified;
+        private final long length;
+        private final Path gzipFile;
+
+        Asset(Path file, String hash, long lastModified, long length, Path gzipFile) {
+            this.file = file;
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.gzipFile = gzipFile;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /** Returns the content hash, as used in the <code>_v</code> parameter. */
+        public String getHash() {
+            return hash;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        /** Returns the gzipped copy of the file, or null if none. */
+        public Path getGzipFile() {
+            return gzipFile;
+        }
+
+        boolean isModified() {
+            try {
+                return Files.getLastModifiedTime(file).toMillis() != lastModified || Files.size(file) != length;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+}
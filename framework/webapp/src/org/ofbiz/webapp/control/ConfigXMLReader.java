@@ -28,6 +28,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -343,6 +344,7 @@ public class ConfigXMLReader {
         protected final List<NameFilter<Boolean>> allowViewSaveViewNameFilters; // SCIPIO: added 2018-06-13
         protected final String defaultViewLastView; // SCIPIO: added 2018-10-26
         protected final Map<String, EventHandlerWrapperDef> eventHandlerWrapperMap; // SCIPIO: added 2018-11-23
+        private volatile RoutingTable routingTable; // SCIPIO: added 2026-10
 
         // SCIPIO: DEV NOTE:
         // If you add any members to this class, make sure to reflect it in ResolvedControllerConfig further below!
@@ -530,6 +532,23 @@ public class ConfigXMLReader {
             return this.url == null;
         }
 
+        /**
+         * SCIPIO: Returns the request routing table of this controller, built on first call from the
+         * merged request and view maps (includes resolved).
+         * <p>
+         * The table belongs to this config instance, so a controller reload (new instance in the controller cache)
+         * swaps in a new table as a whole. The table is also rebuilt when one of the included controllers,
+         * direct or nested, has been reloaded since it was built. Added 2026-10.
+         */
+        public RoutingTable getRoutingTable() throws WebAppConfigurationException {
+            RoutingTable table = this.routingTable;
+            if (table == null || !table.isCurrent()) {
+                table = new RoutingTable(this);
+                this.routingTable = table;
+            }
+            return table;
+        }
+
         // SCIPIO: all calls below modified for more complex include options (non-recursive include)
 
         public Map<String, Event> getAfterLoginEventList() throws WebAppConfigurationException {
@@ -1750,6 +1769,106 @@ public class ConfigXMLReader {
         }
     }
 
+    /**
+     * SCIPIO: Immutable request routing table of a controller, precomputed from its merged request and view maps,
+     * so that request dispatch does not re-resolve includes, the default request or the status code on every request.
+     * <p>
+     * Obtained through {@link ControllerConfig#getRoutingTable()}. Added 2026-10.
+     */
+    public static class RoutingTable {
+        private final ControllerConfig controllerConfig;
+        private final ControllerConfig.Include[] includes;
+        private final ControllerConfig[] includedConfigs;
+        private final Map<String, RequestMap> requestMapMap;
+        private final Map<String, ViewMap> viewMapMap;
+        private final String defaultRequest;
+        private final RequestMap defaultRequestMap;
+        private final Integer statusCodeNumber;
+
+        protected RoutingTable(ControllerConfig controllerConfig) throws WebAppConfigurationException {
+            this.controllerConfig = controllerConfig;
+            // record the included configs before reading the maps, so a reload in between makes the table stale
+            List<ControllerConfig.Include> includes = new ArrayList<>();
+            List<ControllerConfig> includedConfigs = new ArrayList<>();
+            collectIncludes(controllerConfig, includes, includedConfigs, Collections.newSetFromMap(new IdentityHashMap<>()));
+            this.includes = includes.toArray(new ControllerConfig.Include[includes.size()]);
+            this.includedConfigs = includedConfigs.toArray(new ControllerConfig[includedConfigs.size()]);
+            this.requestMapMap = Collections.unmodifiableMap(new HashMap<>(controllerConfig.getRequestMapMap()));
+            this.viewMapMap = Collections.unmodifiableMap(new HashMap<>(controllerConfig.getViewMapMap()));
+            this.defaultRequest = controllerConfig.getDefaultRequest();
+            this.defaultRequestMap = (defaultRequest != null) ? requestMapMap.get(defaultRequest) : null;
+            this.statusCodeNumber = controllerConfig.getStatusCodeNumber();
+        }
+
+        private static void collectIncludes(ControllerConfig controllerConfig, List<ControllerConfig.Include> includes,
+                List<ControllerConfig> includedConfigs, Set<ControllerConfig> visited) throws WebAppConfigurationException {
+            for (ControllerConfig.Include include : controllerConfig.includes) {
+                ControllerConfig includedConfig = ConfigXMLReader.getControllerConfig(include);
+                includes.add(include);
+                includedConfigs.add(includedConfig);
+                if (includedConfig != null && visited.add(includedConfig)) {
+                    collectIncludes(includedConfig, includes, includedConfigs, visited);
+                }
+            }
+        }
+
+        /**
+         * Returns true if every included controller is still the instance in the controller cache that the table
+         * was built from, that is, none was reloaded (one cache lookup per include).
+         */
+        public boolean isCurrent() throws WebAppConfigurationException {
+            for (int i = 0; i < includes.length; i++) {
+                if (ConfigXMLReader.getControllerConfig(includes[i]) != includedConfigs[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public ControllerConfig getControllerConfig() {
+            return controllerConfig;
+        }
+
+        /** Returns the merged request maps (read-only). */
+        public Map<String, RequestMap> getRequestMapMap() {
+            return requestMapMap;
+        }
+
+        /** Returns the merged view maps (read-only). */
+        public Map<String, ViewMap> getViewMapMap() {
+            return viewMapMap;
+        }
+
+        /** Returns the request map for the request URI (first path element), or null if none or uri is null. */
+        public RequestMap getRequestMap(String uri) {
+            return (uri != null) ? requestMapMap.get(uri) : null;
+        }
+
+        /** Returns the view map for the view name, or null if none or name is null. */
+        public ViewMap getViewMap(String name) {
+            return (name != null) ? viewMapMap.get(name) : null;
+        }
+
+        public String getDefaultRequest() {
+            return defaultRequest;
+        }
+
+        /** Returns the request map of the default-request, or null if none or not defined. */
+        public RequestMap getDefaultRequestMap() {
+            return defaultRequestMap;
+        }
+
+        /** Returns true if the default-request exists and allows direct requests. */
+        public boolean isDefaultRequestDirect() {
+            return (defaultRequestMap != null) && defaultRequestMap.securityDirectRequest;
+        }
+
+        /** Returns the controller status code for redirects, or null if not set. */
+        public Integer getStatusCodeNumber() {
+            return statusCodeNumber;
+        }
+    }
+
     public static class Event {
         public static final List<String> TRIGGERS = UtilMisc.unmodifiableArrayList(
                 "firstvisit", "preprocessor", "security-auth", "request", "after-login", "before-logout", "after-logout"); // SCIPIO
@@ -1766,6 +1885,7 @@ public class ConfigXMLReader {
         public final Metrics metrics; // = null;
         public final Boolean transaction; // = null; // SCIPIO: A generic transaction flag
         public final String abortTransaction; // = ""; // SCIPIO: Allow aborting transaction
+        public final int parallelRows; // = 1; // SCIPIO: 2026-10: service-multi worker count for independent rows
         protected final List<ValueExpr> synchronizedExprList; // SCIPIO
         protected final String scriptBody; // SCIPIO
         protected Object compiledScript; // SCIPIO: Optimization
@@ -1798,6 +1918,17 @@ public class ConfigXMLReader {
                 transaction = null;
             }
             this.abortTransaction = eventElement.getAttribute("abort-transaction");
+            String parallelRowsStr = eventElement.getAttribute("parallel-rows");
+            int parallelRows = 1;
+            if (!parallelRowsStr.isEmpty()) {
+                try {
+                    parallelRows = Math.max(1, Integer.parseInt(parallelRowsStr.trim()));
+                } catch (NumberFormatException e) {
+                    Debug.logWarning("Invalid parallel-rows (" + parallelRowsStr + ") for controller event '" + this.invoke
+                            + "'; running the rows sequentially", module);
+                }
+            }
+            this.parallelRows = parallelRows;
             
             List<ValueExpr> synchronizedExprList = null;
             List<? extends Element> synchronizeElementList = UtilXml.childElementList(eventElement, "synchronized");
@@ -1822,6 +1953,7 @@ public class ConfigXMLReader {
             this.abortTransaction = "";
             this.transaction = null;
             this.transactionTimeout = DEFAULT_TRANSACTION_TIMEOUT;
+            this.parallelRows = 1;
             this.metrics = null;
             this.synchronizedExprList = null;
             this.scriptBody = null;
@@ -1837,6 +1969,7 @@ public class ConfigXMLReader {
             this.abortTransaction = abortTransaction;
             // SCIPIO: Added missing inits
             this.transactionTimeout = DEFAULT_TRANSACTION_TIMEOUT;
+            this.parallelRows = 1;
             this.metrics = null;
             this.synchronizedExprList = null;
             this.scriptBody = null;
@@ -1872,6 +2005,10 @@ public class ConfigXMLReader {
             return abortTransaction;
         }
 
+        public int getParallelRows() { // SCIPIO
+            return parallelRows;
+        }
+
         public List<ValueExpr> getSynchronizeExprList() { // SCIPIO
             return synchronizedExprList;
         }
@@ -1921,6 +2058,7 @@ public class ConfigXMLReader {
         public final boolean securityDirectRequest; // = true;
         public final Map<String, RequestResponse> requestResponseMap; // = new HashMap<String, RequestResponse>();
         public final Metrics metrics; // = null
+        public final PageCache.Config cache; // SCIPIO: 2026-10: page cache, null if not cached
         public final OverrideMode overrideMode;
 
         // SCIPIO: Special definition-presence flags, needed by merge constructor to determine if should use the base or override settings
@@ -2025,6 +2163,7 @@ public class ConfigXMLReader {
             } else { // SCIPIO
                 this.metrics = null;
             }
+            this.cache = PageCache.Config.fromParentElement(requestMapElement); // SCIPIO
             this.overrideMode = OverrideMode.fromNameAlways(requestMapElement.getAttribute("override-mode"));
         }
 
@@ -2069,6 +2208,7 @@ public class ConfigXMLReader {
             requestResponseMap.putAll(overrideMap.requestResponseMap);
             this.requestResponseMap = requestResponseMap;
             this.metrics = (overrideMap.metrics != null) ? overrideMap.metrics : baseMap.metrics;
+            this.cache = (overrideMap.cache != null) ? overrideMap.cache : baseMap.cache;
 
             this.overrideMode = OverrideMode.DEFAULT; // This flag should not be transitive
         }
@@ -2127,6 +2267,10 @@ public class ConfigXMLReader {
             return metrics;
         }
 
+        public PageCache.Config getCache() {
+            return cache;
+        }
+
         public OverrideMode getOverrideMode() {
             return overrideMode;
         }
@@ -2538,6 +2682,7 @@ public class ConfigXMLReader {
         public final String strictTransportSecurity;
         public final String description;
         public final boolean noCache; // = false;
+        public final PageCache.Config cache; // SCIPIO: 2026-10: page cache, null if not cached
 
         public ViewMap(Element viewMapElement) {
             this.name = viewMapElement.getAttribute("name");
@@ -2554,6 +2699,7 @@ public class ConfigXMLReader {
                 page = this.name;
             }
             this.page = page;
+            this.cache = PageCache.Config.fromParentElement(viewMapElement); // SCIPIO
         }
 
         // SCIPIO: Added getters for languages that can't read public properties (2017-05-08)
@@ -2593,6 +2739,10 @@ public class ConfigXMLReader {
         public boolean isNoCache() {
             return noCache;
         }
+
+        public PageCache.Config getCache() {
+            return cache;
+        }
     }
 
     /**
@@ -49,6 +49,7 @@ import org.ofbiz.base.util.UtilHttp;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilObject;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.DelegatorFactory;
 import org.ofbiz.entity.GenericEntityException;
@@ -62,7 +63,9 @@ import org.ofbiz.service.LocalDispatcher;
 import org.ofbiz.service.ServiceContainer;
 import org.ofbiz.webapp.control.RequestAttrPolicy.RedirectAttrPolicy;
 import org.ofbiz.webapp.control.RequestAttrPolicy.RestoreAttrPolicyInvoker;
+import org.ofbiz.webapp.event.JSONStreamEventHandler;
 import org.ofbiz.webapp.event.RequestBodyMapHandlerFactory;
+import org.ofbiz.webapp.session.SessionState;
 import org.ofbiz.webapp.website.WebSiteWorker;
 
 /**
@@ -134,6 +137,27 @@ public class ContextFilter implements Filter {
      * @see javax.servlet.Filter#doFilter(javax.servlet.ServletRequest, javax.servlet.ServletResponse, javax.servlet.FilterChain)
      */
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        // SCIPIO: 2026-10: externalized session attributes; the wrapper writes them back at the end of the request
+        SessionState.RequestWrapper sessionStateRequest = SessionState.wrapRequest((HttpServletRequest) request);
+        if (sessionStateRequest != null) {
+            try {
+                doFilter(sessionStateRequest, response, chain);
+            } finally {
+                sessionStateRequest.release();
+            }
+            return;
+        }
+        // SCIPIO: 2026-10: memo of worker lookups for the request, bound to this thread until the request is done
+        RequestMemo requestMemo = RequestMemo.open(request);
+        if (requestMemo != null) {
+            try {
+                doFilter(request, response, chain);
+            } finally {
+                requestMemo.close(request);
+            }
+            return;
+        }
+
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
@@ -321,7 +345,9 @@ public class ContextFilter implements Filter {
             request.setCharacterEncoding(defaultCharacterEncoding);
         }
 
-        setAttributesFromRequestBody(request);
+        if (!isRequestBodyStreamed(httpRequest)) { // SCIPIO: 2026-10
+            setAttributesFromRequestBody(request);
+        }
 
         request.setAttribute("delegator", config.getServletContext().getAttribute("delegator"));
         request.setAttribute("dispatcher", config.getServletContext().getAttribute("dispatcher"));
@@ -436,6 +462,32 @@ public class ContextFilter implements Filter {
         }
     }
 
+    /**
+     * SCIPIO: Returns true if the request has a body that the event of its request-map reads itself as a stream
+     * ({@link JSONStreamEventHandler}), so it must not be read into request attributes.
+     * Added 2026-10.
+     */
+    protected boolean isRequestBodyStreamed(HttpServletRequest request) {
+        if (RequestBodyMapHandlerFactory.getRequestBodyMapHandler(request) == null) {
+            return false;
+        }
+        try {
+            RequestHandler requestHandler = RequestHandler.getRequestHandler(request);
+            if (requestHandler == null || request.getPathInfo() == null) {
+                return false;
+            }
+            ConfigXMLReader.ControllerConfig controllerConfig = requestHandler.getControllerConfig();
+            ConfigXMLReader.RequestMap requestMap = controllerConfig.getRequestMapMap().get(RequestHandler.getRequestUri(request.getPathInfo()));
+            if (requestMap == null || requestMap.event == null) {
+                return false;
+            }
+            return JSONStreamEventHandler.class.getName().equals(controllerConfig.getEventHandlerMap().get(requestMap.event.type));
+        } catch (Exception e) {
+            Debug.logWarning("Could not determine the event of request [" + request.getPathInfo() + "]: " + e.toString(), module);
+            return false;
+        }
+    }
+
     public static void setAttributesFromRequestBody(ServletRequest request) {
         // read the body (for JSON requests) and set the parameters as attributes:
         Map<String, Object> requestBodyMap = null;
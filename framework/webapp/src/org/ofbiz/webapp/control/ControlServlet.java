@@ -281,73 +281,7 @@ public class ControlServlet extends HttpServlet {
         // if (Debug.timingOn()) timer.timerString("[" + rname + "] Event done, rendering page: " + nextPage, module);
 
         if (errorPage != null) {
-            Debug.logError("An error occurred, going to the errorPage: " + errorPage, module);
-
-            RequestDispatcher rd = request.getRequestDispatcher(errorPage);
-
-            // use this request parameter to avoid infinite looping on errors in the error page...
-            if (request.getAttribute("_ERROR_OCCURRED_") == null && rd != null) {
-                // SCIPIO: 2017-05-15: special case for targeted rendering of error page
-                Object scpErrorRenderTargetExpr = RenderTargetUtil.getRawRenderTargetExpr(request, RenderTargetUtil.ERRORRENDERTARGETEXPR_REQPARAM);
-                if (scpErrorRenderTargetExpr != null) {
-                    RenderTargetUtil.setRawRenderTargetExpr(request, scpErrorRenderTargetExpr);
-                }
-
-                request.setAttribute("_ERROR_OCCURRED_", Boolean.TRUE);
-                Debug.logError("Including errorPage: " + errorPage, module);
-
-                // NOTE DEJ20070727 after having trouble with all of these, try to get the page out and as a last resort just send something back
-                try {
-                    rd.forward(request, response); // SCIPIO: Changed from include to forward so that the response can be handled appropriately
-                } catch (Throwable t) {
-                    Debug.logWarning("Error while trying to send error page using rd.forward (will try response.getOutputStream or response.getWriter): " + t.toString(), module);
-
-                    // SCIPIO: 2018-02-26: we must now HTML-encode the error here (at point-of-use) because no longer done above
-                    String causeMsg = RequestUtil.encodeErrorMessage(request, (String) request.getAttribute("_ERROR_MESSAGE_"));
-                    String errorMessage = "ERROR rendering error page [" + errorPage + "], but here is the error text: " + causeMsg;
-                    // SCIPIO: 2017-03-23: ONLY print out the error if we're in DEBUG mode
-                    if (UtilRender.getRenderExceptionMode(request) == UtilRender.RenderExceptionMode.DEBUG) {
-                        try {
-                            response.getWriter().print(errorMessage);
-                        } catch (Throwable t2) {
-                            try {
-                                int errorToSend = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
-                                Debug.logWarning("Error while trying to write error message using response.getOutputStream or response.getWriter: " + t.toString() + "; sending error code [" + errorToSend + "], and message [" + errorMessage + "]", module);
-                                response.sendError(errorToSend, errorMessage);
-                            } catch (Throwable t3) {
-                                // wow, still bad... just throw an IllegalStateException with the message and let the servlet container handle it
-                                throw new IllegalStateException(errorMessage);
-                            }
-                        }
-                    } else {
-                        // SCIPIO: NOTE: here all posted error messages to client must be completely generic, for security reasons.
-                        final String genericErrorMessage = RequestUtil.getGenericErrorMessage();
-                        try {
-                            response.getWriter().print(genericErrorMessage);
-                        } catch (Throwable t2) {
-                            try {
-                                int errorToSend = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
-                                Debug.logWarning("Error while trying to write error message using response.getOutputStream or response.getWriter: " + t.toString()
-                                    + "; sending error code [" + errorToSend + "], but NOT message [" + errorMessage + "] because we are in secure RETHROW mode", module);
-                                response.sendError(errorToSend, genericErrorMessage);
-                            } catch (Throwable t3) {
-                                // wow, still bad... just throw an IllegalStateException with the message and let the servlet container handle it
-                                throw new IllegalStateException(genericErrorMessage);
-                            }
-                        }
-                    }
-                }
-
-            } else {
-                if (rd == null) {
-                    Debug.logError("Could not get RequestDispatcher for errorPage: " + errorPage, module);
-                }
-
-                // SCIPIO: 2018-02-26: we must now HTML-encode the error here (at point-of-use) because no longer done above
-                String causeMsg = RequestUtil.encodeErrorMessage(request, (String) request.getAttribute("_ERROR_MESSAGE_"));
-                String errorMessage = "<html><body>ERROR in error page, (infinite loop or error page not found with name [" + errorPage + "]), but here is the text just in case it helps you: " + causeMsg + "</body></html>";
-                response.getWriter().print(errorMessage);
-            }
+            renderErrorPage(request, response, errorPage);
         }
 
         // sanity check: make sure we don't have any transactions in place
@@ -398,6 +332,89 @@ public class ControlServlet extends HttpServlet {
         super.destroy();
     }
 
+    /**
+     * Renders the error page after an error in the request handler, by forwarding to it, or writes the error text if that fails.
+     * <p>
+     * SCIPIO: 2026-10: Factored out of {@link #doGet}; does nothing but log the error if the response is already committed.
+     */
+    protected void renderErrorPage(HttpServletRequest request, HttpServletResponse response, String errorPage) throws IOException {
+        // SCIPIO: 2026-10: once output was sent (streaming screen render, or past the response buffer), the error page can
+        // no longer be forwarded to nor written in a meaningful way; the page is cut short instead
+        if (response.isCommitted()) {
+            Debug.logError("An error occurred after the response was committed; not rendering the errorPage: " + errorPage
+                    + "; error: " + request.getAttribute("_ERROR_MESSAGE_"), module);
+            return;
+        }
+
+        Debug.logError("An error occurred, going to the errorPage: " + errorPage, module);
+
+        RequestDispatcher rd = request.getRequestDispatcher(errorPage);
+
+        // use this request parameter to avoid infinite looping on errors in the error page...
+        if (request.getAttribute("_ERROR_OCCURRED_") == null && rd != null) {
+            // SCIPIO: 2017-05-15: special case for targeted rendering of error page
+            Object scpErrorRenderTargetExpr = RenderTargetUtil.getRawRenderTargetExpr(request, RenderTargetUtil.ERRORRENDERTARGETEXPR_REQPARAM);
+            if (scpErrorRenderTargetExpr != null) {
+                RenderTargetUtil.setRawRenderTargetExpr(request, scpErrorRenderTargetExpr);
+            }
+
+            request.setAttribute("_ERROR_OCCURRED_", Boolean.TRUE);
+            Debug.logError("Including errorPage: " + errorPage, module);
+
+            // NOTE DEJ20070727 after having trouble with all of these, try to get the page out and as a last resort just send something back
+            try {
+                rd.forward(request, response); // SCIPIO: Changed from include to forward so that the response can be handled appropriately
+            } catch (Throwable t) {
+                Debug.logWarning("Error while trying to send error page using rd.forward (will try response.getOutputStream or response.getWriter): " + t.toString(), module);
+
+                // SCIPIO: 2018-02-26: we must now HTML-encode the error here (at point-of-use) because no longer done above
+                String causeMsg = RequestUtil.encodeErrorMessage(request, (String) request.getAttribute("_ERROR_MESSAGE_"));
+                String errorMessage = "ERROR rendering error page [" + errorPage + "], but here is the error text: " + causeMsg;
+                // SCIPIO: 2017-03-23: ONLY print out the error if we're in DEBUG mode
+                if (UtilRender.getRenderExceptionMode(request) == UtilRender.RenderExceptionMode.DEBUG) {
+                    try {
+                        response.getWriter().print(errorMessage);
+                    } catch (Throwable t2) {
+                        try {
+                            int errorToSend = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                            Debug.logWarning("Error while trying to write error message using response.getOutputStream or response.getWriter: " + t.toString() + "; sending error code [" + errorToSend + "], and message [" + errorMessage + "]", module);
+                            response.sendError(errorToSend, errorMessage);
+                        } catch (Throwable t3) {
+                            // wow, still bad... just throw an IllegalStateException with the message and let the servlet container handle it
+                            throw new IllegalStateException(errorMessage);
+                        }
+                    }
+                } else {
+                    // SCIPIO: NOTE: here all posted error messages to client must be completely generic, for security reasons.
+                    final String genericErrorMessage = RequestUtil.getGenericErrorMessage();
+                    try {
+                        response.getWriter().print(genericErrorMessage);
+                    } catch (Throwable t2) {
+                        try {
+                            int errorToSend = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                            Debug.logWarning("Error while trying to write error message using response.getOutputStream or response.getWriter: " + t.toString()
+                                + "; sending error code [" + errorToSend + "], but NOT message [" + errorMessage + "] because we are in secure RETHROW mode", module);
+                            response.sendError(errorToSend, genericErrorMessage);
+                        } catch (Throwable t3) {
+                            // wow, still bad... just throw an IllegalStateException with the message and let the servlet container handle it
+                            throw new IllegalStateException(genericErrorMessage);
+                        }
+                    }
+                }
+            }
+
+        } else {
+            if (rd == null) {
+                Debug.logError("Could not get RequestDispatcher for errorPage: " + errorPage, module);
+            }
+
+            // SCIPIO: 2018-02-26: we must now HTML-encode the error here (at point-of-use) because no longer done above
+            String causeMsg = RequestUtil.encodeErrorMessage(request, (String) request.getAttribute("_ERROR_MESSAGE_"));
+            String errorMessage = "<html><body>ERROR in error page, (infinite loop or error page not found with name [" + errorPage + "]), but here is the text just in case it helps you: " + causeMsg + "</body></html>";
+            response.getWriter().print(errorMessage);
+        }
+    }
+
     protected RequestHandler getRequestHandler() {
         return RequestHandler.getRequestHandler(getServletContext());
     }
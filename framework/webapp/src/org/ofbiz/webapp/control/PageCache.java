@@ -0,0 +1,679 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.control;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilHttp;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.FragmentStore;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.cache.EntityCacheVersions;
+import org.ofbiz.webapp.website.WebSiteWorker;
+import org.w3c.dom.Element;
+
+/**
+ * SCIPIO: Full-page and fragment cache for anonymous GET requests, enabled per request-map or view-map
+ * by a <code>cache</code> element in controller.xml (see site-conf.xsd).
+ * <p>
+ * A cached request-map skips its event, the post-processor events and its view on a hit (the first-visit and
+ * pre-processor events still run); a cached view-map only skips its rendering. A request-map is only stored when
+ * its <code>success</code> response is a view and that view is rendered, so the output of an error response or of a
+ * chained request is never stored under its key.
+ * The key is made of the request or view, the scheme, the locale, currency and web site (unless disabled) and
+ * the listed request parameters. Requests are only served from and stored in the cache when the session has none of
+ * the <code>pageCache.skipSessionAttributes</code> (requestHandler.properties: logged-in or auto-login user, shopping
+ * cart, ...) nor of the element's <code>skip-session-attributes</code>, and only complete
+ * 200 responses without messages or session ids in URLs are stored. Each response carries an ETag so browsers can
+ * revalidate with If-None-Match.
+ * <p>
+ * Entries expire after <code>ttl</code> seconds, or as soon as the entity cache of one of the listed
+ * <code>entities</code> is cleared (see {@link EntityCacheVersions}), which also follows distributed cache clears.
+ * Entries are held in the <code>webapp.page.cache</code> UtilCache (cache.properties), and their content in the
+ * off-heap <code>webapp.page.store</code> {@link FragmentStore} if enabled, under a key unique to the entry so that
+ * concurrent stores of a page cannot mix up contents and entries; a page evicted from the store is a miss. Contents
+ * are removed from the store with their entries, however these go (see {@link FragmentStore#removeWithCacheEntries}).
+ * <p>
+ * Added 2026-10.
+ */
+public final class PageCache {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final String PENDING_ATTR = "_SCP_PAGE_CACHE_PENDING_";
+    /** Response headers not stored with the entry. */
+    private static final Set<String> excludedHeaders = new HashSet<>(Arrays.asList(
+            "set-cookie", "date", "content-length", "etag", "transfer-encoding", "connection"));
+
+    private static final boolean enabled = UtilProperties.getPropertyAsBoolean("requestHandler", "pageCache.enable", true);
+    private static final int maxEntrySize = UtilProperties.getPropertyAsInteger("requestHandler", "pageCache.maxEntrySize", 524288);
+    private static final List<String> skipSessionAttributes = Collections.unmodifiableList(Config.splitList(UtilProperties.getPropertyValue("requestHandler",
+            "pageCache.skipSessionAttributes", "userLogin,autoUserLogin,shoppingCart")));
+
+    private static final UtilCache<String, Entry> pageCache = UtilCache.createUtilCache("webapp.page.cache");
+    private static final FragmentStore pageStore = FragmentStore.getStore("webapp.page.store");
+    private static final AtomicLong storeSequence = new AtomicLong();
+
+    static {
+        if (pageStore != null) {
+            pageStore.removeWithCacheEntries(pageCache, entry -> entry.storeKey);
+        }
+    }
+
+    private PageCache() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes the cached response of the request-map if there is one; otherwise, if the request can be cached,
+     * marks it so the view of its success response is captured by {@link #startCapture}, unless
+     * {@link #checkResponse} drops the mark. Returns true if the response was written.
+     */
+    public static boolean serveRequest(HttpServletRequest request, HttpServletResponse response, ConfigXMLReader.RequestMap requestMap) {
+        Config config = requestMap.cache;
+        ConfigXMLReader.RequestResponse successResponse = requestMap.requestResponseMap.get("success");
+        if (!enabled || config == null || successResponse == null || !"view".equals(successResponse.type)
+                || !isCacheable(request, config)) {
+            return false;
+        }
+        String key = makeKey(request, "request:" + requestMap.uri, config);
+        if (writeEntry(request, response, key, config)) {
+            return true;
+        }
+        request.setAttribute(PENDING_ATTR, new Pending(key, config, successResponse));
+        return false;
+    }
+
+    /**
+     * Drops the capture marked by {@link #serveRequest} unless the response selected for the request is the success
+     * view response of the request-map, e.g. for an error response or a chained request.
+     */
+    public static void checkResponse(HttpServletRequest request, ConfigXMLReader.RequestResponse nextRequestResponse) {
+        Pending pending = (Pending) request.getAttribute(PENDING_ATTR);
+        if (pending != null && pending.response != nextRequestResponse) {
+            request.removeAttribute(PENDING_ATTR);
+        }
+    }
+
+    /**
+     * Writes the cached output of the view-map if there is one. Returns true if the response was written.
+     */
+    public static boolean serveView(HttpServletRequest request, HttpServletResponse response, String view, ConfigXMLReader.ViewMap viewMap) {
+        Config config = viewMap.cache;
+        if (!enabled || config == null || request.getAttribute(PENDING_ATTR) != null || !isCacheable(request, config)) {
+            return false;
+        }
+        return writeEntry(request, response, makeKey(request, "view:" + view, config), config);
+    }
+
+    /**
+     * Returns a capture to render the view into if its output (or that of the cached request-map rendering it)
+     * is to be stored, or null. The view must be rendered into {@link Capture#getResponse()} and then
+     * {@link Capture#store(HttpServletRequest)} called.
+     */
+    public static Capture startCapture(HttpServletRequest request, HttpServletResponse response, String view, ConfigXMLReader.ViewMap viewMap) {
+        if (!enabled) {
+            return null;
+        }
+        String key;
+        Config config;
+        Pending pending = (Pending) request.getAttribute(PENDING_ATTR);
+        if (pending != null) {
+            request.removeAttribute(PENDING_ATTR);
+        }
+        // not if the view was overridden, or is that of an error page
+        if (pending != null && view.equals(pending.response.value)) {
+            key = pending.key;
+            config = pending.config;
+        } else if (viewMap.cache != null && isCacheable(request, viewMap.cache)) {
+            key = makeKey(request, "view:" + view, viewMap.cache);
+            config = viewMap.cache;
+        } else {
+            return null;
+        }
+        long entityVersion = getEntityVersion(request, config);
+        String etag = "\"pc-" + Integer.toHexString(key.hashCode()) + "-" + Long.toHexString(System.currentTimeMillis()) + "\"";
+        response.setHeader("ETag", etag);
+        return new Capture(response, key, config, entityVersion, etag);
+    }
+
+    public static void clear() {
+        pageCache.clear();
+        if (pageStore != null) {
+            pageStore.clear();
+        }
+    }
+
+    private static boolean isCacheable(HttpServletRequest request, Config config) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return true;
+        }
+        for (String attrName : skipSessionAttributes) {
+            if (session.getAttribute(attrName) != null) {
+                return false;
+            }
+        }
+        for (String attrName : config.skipSessionAttributes) {
+            if (session.getAttribute(attrName) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String makeKey(HttpServletRequest request, String id, Config config) {
+        Delegator delegator = (Delegator) request.getAttribute("delegator");
+        StringBuilder sb = new StringBuilder(128);
+        sb.append((delegator != null) ? delegator.getDelegatorName() : "").append('|').append(request.getContextPath())
+                .append('|').append(id).append('|').append(request.isSecure() ? "https" : "http");
+        if (config.locale) {
+            sb.append("|l=").append(UtilHttp.getLocale(request));
+        }
+        if (config.currency) {
+            sb.append("|c=").append(UtilHttp.getCurrencyUom(request));
+        }
+        if (config.webSite) {
+            sb.append("|w=").append(WebSiteWorker.getWebSiteId(request));
+        }
+        if (config.allParams || !config.params.isEmpty()) {
+            Map<String, String[]> paramMap = new TreeMap<>(request.getParameterMap());
+            for (Map.Entry<String, String[]> param : paramMap.entrySet()) {
+                if (config.allParams || config.params.contains(param.getKey())) {
+                    sb.append('|').append(param.getKey()).append('=');
+                    String[] values = param.getValue();
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            sb.append(',');
+                        }
+                        sb.append(values[i]);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long getEntityVersion(HttpServletRequest request, Config config) {
+        if (config.entities.isEmpty()) {
+            return 0;
+        }
+        Delegator delegator = (Delegator) request.getAttribute("delegator");
+        return (delegator != null) ? EntityCacheVersions.getInstance(delegator.getDelegatorName()).getVersion(config.entities) : 0;
+    }
+
+    private static boolean writeEntry(HttpServletRequest request, HttpServletResponse response, String key, Config config) {
+        Entry entry = pageCache.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.entityVersion != getEntityVersion(request, config)) {
+            pageCache.remove(key);
+            return false;
+        }
+        try (FragmentStore.Fragment fragment = (entry.storeKey != null) ? pageStore.acquire(entry.storeKey) : null) {
+            if (entry.storeKey != null && fragment == null) {
+                // evicted from the page store
+                pageCache.remove(key);
+                return false;
+            }
+            return writeEntry(request, response, key, entry, fragment);
+        }
+    }
+
+    private static boolean writeEntry(HttpServletRequest request, HttpServletResponse response, String key, Entry entry,
+            FragmentStore.Fragment fragment) {
+        for (String[] header : entry.headers) {
+            if (response.containsHeader(header[0]) && !header[2].isEmpty()) {
+                response.addHeader(header[0], header[1]);
+            } else {
+                response.setHeader(header[0], header[1]);
+            }
+        }
+        response.setHeader("ETag", entry.etag);
+        if (entry.etag.equals(request.getHeader("If-None-Match"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        if (entry.contentType != null) {
+            response.setContentType(entry.contentType);
+        }
+        response.setContentLength((fragment != null) ? fragment.getLength() : entry.content.length);
+        if (Debug.verboseOn()) {
+            Debug.logVerbose("Serving cached page [" + key + "]", module);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        try {
+            if (fragment != null) {
+                fragment.writeTo(response.getOutputStream());
+            } else {
+                response.getOutputStream().write(entry.content);
+            }
+        } catch (IOException e) {
+            // client went away, same as RequestHandler flushBuffer (OFBIZ-254)
+            if (Debug.verboseOn()) {
+                Debug.logVerbose("Could not write cached page [" + key + "]: " + e.getMessage(), module);
+            }
+        } catch (IllegalStateException e) {
+            // getWriter already called (e.g. by an event); not served from the cache
+            Debug.logWarning("Could not write cached page [" + key + "]: " + e.getMessage(), module);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The <code>cache</code> element of a request-map or view-map.
+     */
+    public static final class Config {
+        private final long ttlMillis;
+        private final boolean allParams;
+        private final Set<String> params;
+        private final boolean locale;
+        private final boolean currency;
+        private final boolean webSite;
+        private final List<String> entities;
+        private final List<String> skipSessionAttributes;
+
+        public Config(Element cacheElement) {
+            this.ttlMillis = parseLong(cacheElement.getAttribute("ttl"), 300) * 1000;
+            String params = cacheElement.getAttribute("params");
+            this.allParams = "*".equals(params.trim());
+            this.params = this.allParams ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(splitList(params)));
+            this.locale = !"false".equals(cacheElement.getAttribute("locale"));
+            this.currency = !"false".equals(cacheElement.getAttribute("currency"));
+            this.webSite = !"false".equals(cacheElement.getAttribute("web-site"));
+            this.entities = Collections.unmodifiableList(splitList(cacheElement.getAttribute("entities")));
+            this.skipSessionAttributes = Collections.unmodifiableList(splitList(cacheElement.getAttribute("skip-session-attributes")));
+        }
+
+        /** Returns the config of the <code>cache</code> child element, or null if none. */
+        public static Config fromParentElement(Element parentElement) {
+            Element cacheElement = UtilXml.firstChildElement(parentElement, "cache");
+            return (cacheElement != null) ? new Config(cacheElement) : null;
+        }
+
+        private static long parseLong(String value, long defaultValue) {
+            if (UtilValidate.isEmpty(value)) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                Debug.logError("Invalid cache ttl [" + value + "] in controller; using " + defaultValue, module);
+                return defaultValue;
+            }
+        }
+
+        private static List<String> splitList(String value) {
+            List<String> list = new ArrayList<>();
+            if (value != null) {
+                for (String item : value.split(",")) {
+                    item = item.trim();
+                    if (!item.isEmpty()) {
+                        list.add(item);
+                    }
+                }
+            }
+            return list;
+        }
+
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        public List<String> getEntities() {
+            return entities;
+        }
+    }
+
+    private static final class Pending {
+        private final String key;
+        private final Config config;
+        /** the success response of the request-map */
+        private final ConfigXMLReader.RequestResponse response;
+
+        Pending(String key, Config config, ConfigXMLReader.RequestResponse response) {
+            this.key = key;
+            this.config = config;
+            this.response = response;
+        }
+    }
+
+    private static final class Entry {
+        /** null if held by the page store */
+        private final byte[] content;
+        /** key of the content in the page store, or null */
+        private final String storeKey;
+        private final String contentType;
+        /** name, value, and non-empty third element if the header is repeated */
+        private final List<String[]> headers;
+        private final String etag;
+        private final long entityVersion;
+
+        Entry(byte[] content, String storeKey, String contentType, List<String[]> headers, String etag, long entityVersion) {
+            this.content = content;
+            this.storeKey = storeKey;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.etag = etag;
+            this.entityVersion = entityVersion;
+        }
+    }
+
+    /**
+     * Copies the output of a view rendering, up to <code>pageCache.maxEntrySize</code> bytes, while it is written to
+     * the response.
+     */
+    public static final class Capture {
+        private final HttpServletResponse response;
+        private final String key;
+        private final Config config;
+        private final long entityVersion;
+        private final String etag;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private boolean overflow = false;
+        private final CaptureResponse captureResponse;
+
+        Capture(HttpServletResponse response, String key, Config config, long entityVersion, String etag) {
+            this.response = response;
+            this.key = key;
+            this.config = config;
+            this.entityVersion = entityVersion;
+            this.etag = etag;
+            this.captureResponse = new CaptureResponse(response);
+        }
+
+        public HttpServletResponse getResponse() {
+            return captureResponse;
+        }
+
+        /** Stores the captured output if the response is complete and still anonymous. */
+        public void store(HttpServletRequest request) {
+            try {
+                captureResponse.flushWriter();
+            } catch (IOException e) {
+                return;
+            }
+            if (overflow || captureResponse.failed || response.getStatus() != HttpServletResponse.SC_OK
+                    || request.getAttribute("_ERROR_MESSAGE_") != null || request.getAttribute("_ERROR_MESSAGE_LIST_") != null
+                    || request.getAttribute("_EVENT_MESSAGE_") != null || request.getAttribute("_EVENT_MESSAGE_LIST_") != null
+                    || !isCacheable(request, config)) {
+                return;
+            }
+            byte[] content = buffer.toByteArray();
+            if (indexOf(content, JSESSIONID) >= 0) {
+                if (Debug.verboseOn()) {
+                    Debug.logVerbose("Not caching page [" + key + "]: contains session id", module);
+                }
+                return;
+            }
+            List<String[]> headers = new ArrayList<>();
+            for (String name : new HashSet<>(response.getHeaderNames())) {
+                if (excludedHeaders.contains(name.toLowerCase(java.util.Locale.ENGLISH)) || "content-type".equalsIgnoreCase(name)) {
+                    continue;
+                }
+                boolean repeated = false;
+                for (String value : response.getHeaders(name)) {
+                    headers.add(new String[] { name, value, repeated ? "+" : "" });
+                    repeated = true;
+                }
+            }
+            String storeKey = null;
+            if (pageStore != null) {
+                storeKey = key + '#' + storeSequence.incrementAndGet();
+                if (pageStore.put(storeKey, content)) {
+                    content = null; // kept off-heap
+                } else {
+                    storeKey = null;
+                }
+            }
+            // The content of a replaced entry is removed from the store, but kept until closed by requests still writing it out
+            pageCache.put(key, new Entry(content, storeKey, response.getContentType(), headers, etag, entityVersion), config.ttlMillis);
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (overflow) {
+                return;
+            }
+            if (buffer.size() + len > maxEntrySize) {
+                overflow = true;
+                return;
+            }
+            buffer.write(b, off, len);
+        }
+
+        private static final byte[] JSESSIONID = ";jsessionid=".getBytes(StandardCharsets.US_ASCII);
+
+        private static int indexOf(byte[] content, byte[] pattern) {
+            outer:
+            for (int i = 0; i <= content.length - pattern.length; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (content[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        private final class CaptureResponse extends HttpServletResponseWrapper {
+            private ServletOutputStream outputStream;
+            private PrintWriter writer;
+            private boolean failed = false;
+
+            CaptureResponse(HttpServletResponse response) {
+                super(response);
+            }
+
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                if (writer != null) {
+                    throw new IllegalStateException("getWriter() has already been called for this response");
+                }
+                if (outputStream == null) {
+                    outputStream = new CaptureOutputStream(super.getOutputStream());
+                }
+                return outputStream;
+            }
+
+            @Override
+            public PrintWriter getWriter() throws IOException {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                if (writer == null) {
+                    Writer target = super.getWriter();
+                    String encoding = getCharacterEncoding();
+                    Charset charset;
+                    try {
+                        charset = Charset.forName((encoding != null) ? encoding : "ISO-8859-1");
+                    } catch (IllegalArgumentException e) {
+                        throw new UnsupportedEncodingException(encoding);
+                    }
+                    writer = new PrintWriter(new CaptureWriter(target, new OutputStreamWriter(new CaptureSink(), charset)));
+                }
+                return writer;
+            }
+
+            @Override
+            public void sendError(int sc) throws IOException {
+                failed = true;
+                super.sendError(sc);
+            }
+
+            @Override
+            public void sendError(int sc, String msg) throws IOException {
+                failed = true;
+                super.sendError(sc, msg);
+            }
+
+            @Override
+            public void sendRedirect(String location) throws IOException {
+                failed = true;
+                super.sendRedirect(location);
+            }
+
+            @Override
+            public void resetBuffer() {
+                failed = true;
+                super.resetBuffer();
+            }
+
+            @Override
+            public void reset() {
+                failed = true;
+                super.reset();
+            }
+
+            void flushWriter() throws IOException {
+                if (writer != null) {
+                    writer.flush();
+                    if (writer.checkError()) {
+                        failed = true;
+                    }
+                }
+            }
+        }
+
+        private final class CaptureOutputStream extends ServletOutputStream {
+            private final ServletOutputStream target;
+
+            CaptureOutputStream(ServletOutputStream target) {
+                this.target = target;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                target.write(b);
+                capture(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                target.write(b, off, len);
+                capture(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                target.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return target.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                target.setWriteListener(writeListener);
+            }
+        }
+
+        /** Receives the encoded characters of {@link CaptureWriter}. */
+        private final class CaptureSink extends java.io.OutputStream {
+            @Override
+            public void write(int b) {
+                capture(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                capture(b, off, len);
+            }
+        }
+
+        private final class CaptureWriter extends Writer {
+            private final Writer target;
+            private final Writer copy;
+
+            CaptureWriter(Writer target, Writer copy) {
+                this.target = target;
+                this.copy = copy;
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                target.write(cbuf, off, len);
+                if (!overflow) {
+                    copy.write(cbuf, off, len);
+                }
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+                target.write(str, off, len);
+                if (!overflow) {
+                    copy.write(str, off, len);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                copy.flush();
+                target.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                copy.flush();
+                target.close();
+            }
+        }
+    }
+}
@@ -54,6 +54,7 @@ import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilObject;
 import org.ofbiz.base.util.UtilProperties;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
@@ -236,14 +237,17 @@ public class RequestHandler {
                     + this.controllerConfigURL + ")");
         }
 
+        // SCIPIO: 2026-10: request maps, default request and status code are read from the precomputed routing table
+        ConfigXMLReader.RoutingTable routes = null;
         Map<String, ConfigXMLReader.RequestMap> requestMapMap = null;
         // SCIPIO: Use pre-parsed number
         //String statusCodeString = null;
         Integer statusCode = null;
         try {
-            requestMapMap = controllerConfig.getRequestMapMap();
+            routes = controllerConfig.getRoutingTable();
+            requestMapMap = routes.getRequestMapMap();
             //statusCodeString = controllerConfig.getStatusCode();
-            statusCode = controllerConfig.getStatusCodeNumber();
+            statusCode = routes.getStatusCodeNumber();
         } catch (WebAppConfigurationException e) {
             Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
             throw new RequestHandlerException(e);
@@ -280,32 +284,13 @@ public class RequestHandler {
         }
         // check for default request
         if (requestMap == null) {
-            String defaultRequest;
-            try {
-                defaultRequest = controllerConfig.getDefaultRequest();
-            } catch (WebAppConfigurationException e) {
-                Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
-                throw new RequestHandlerException(e);
-            }
-            if (defaultRequest != null) { // required! to avoid a null pointer exception and generate a requesthandler exception if default request not found.
-                requestMap = requestMapMap.get(defaultRequest);
-            }
+            requestMap = routes.getDefaultRequestMap(); // SCIPIO: null if no default request
         }
 
         // check for override view
         if (overrideViewUri != null) {
-            ConfigXMLReader.ViewMap viewMap;
-            try {
-                viewMap = getControllerConfig().getViewMapMap().get(overrideViewUri);
-                if (viewMap == null) {
-                    String defaultRequest = controllerConfig.getDefaultRequest();
-                    if (defaultRequest != null) { // required! to avoid a null pointer exception and generate a requesthandler exception if default request not found.
-                        requestMap = requestMapMap.get(defaultRequest);
-                    }
-                }
-            } catch (WebAppConfigurationException e) {
-                Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
-                throw new RequestHandlerException(e);
+            if (routes.getViewMap(overrideViewUri) == null && routes.getDefaultRequest() != null) {
+                requestMap = routes.getDefaultRequestMap();
             }
         }
 
@@ -355,18 +340,11 @@ public class RequestHandler {
             // Check to make sure we are allowed to access this request directly. (Also checks if this request is defined.)
             // If the request cannot be called, or is not defined, check and see if there is a default-request we can process
             if (!requestMap.securityDirectRequest) {
-                String defaultRequest;
-                try {
-                    defaultRequest = controllerConfig.getDefaultRequest();
-                } catch (WebAppConfigurationException e) {
-                    Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
-                    throw new RequestHandlerException(e);
-                }
-                if (defaultRequest == null || !requestMapMap.get(defaultRequest).securityDirectRequest) {
+                if (!routes.isDefaultRequestDirect()) {
                     // use the same message as if it was missing for security reasons, ie so can't tell if it is missing or direct request is not allowed
                     throw new RequestHandlerException(requestMissingErrorMessage);
                 } else {
-                    requestMap = requestMapMap.get(defaultRequest);
+                    requestMap = routes.getDefaultRequestMap();
                 }
             }
             // Check if we SHOULD be secure and are not. (SCIPIO: 2017-11-18: factored out dispersed secure checks)
@@ -589,6 +567,12 @@ public class RequestHandler {
             request.getSession().removeAttribute("_PREVIOUS_PARAM_MAP_FORM_");
         }
 
+        // SCIPIO: 2026-10: serve anonymous requests from the page cache, skipping event and view (see PageCache)
+        if (chain == null && eventReturn == null && requestMap.cache != null && !viewAsJson
+                && PageCache.serveRequest(request, response, requestMap)) {
+            return;
+        }
+
         // now we can start looking for the next request response to use
         ConfigXMLReader.RequestResponse nextRequestResponse = null;
 
@@ -732,6 +716,11 @@ public class RequestHandler {
             throw new RequestHandlerException("Illegal response; handler could not process request [" + requestMap.uri + "] and event return [" + eventReturn + "].");
         }
 
+        // SCIPIO: 2026-10: only the success view of a cached request-map is stored (see PageCache)
+        if (requestMap.cache != null) {
+            PageCache.checkResponse(request, nextRequestResponse);
+        }
+
         // SCIPIO: Parse value
         String nextRequestResponseValue = parseResponseValue(request, response, nextRequestResponse, requestMap);
         // SCIPIO: Determine if should prevent view-saving operations
@@ -1050,8 +1039,20 @@ public class RequestHandler {
     public String runEvent(HttpServletRequest request, HttpServletResponse response,
             ConfigXMLReader.Event event, ConfigXMLReader.RequestMap requestMap, String trigger) throws EventHandlerException {
 
-        // SCIPIO: 2018-11-19: implement synchronize
-        String eventReturn = runEventImpl(request, response, event.getSynchronizeExprList(), 0, event, requestMap, trigger);
+        // SCIPIO: 2026-10: events may change the data memoized lookups come from, so run them without the request memo
+        RequestMemo requestMemo = RequestMemo.from(request);
+        if (requestMemo != null) {
+            requestMemo.suspend();
+        }
+        String eventReturn;
+        try {
+            // SCIPIO: 2018-11-19: implement synchronize
+            eventReturn = runEventImpl(request, response, event.getSynchronizeExprList(), 0, event, requestMap, trigger);
+        } finally {
+            if (requestMemo != null) {
+                requestMemo.resume();
+            }
+        }
         if (Debug.verboseOn() || (Debug.infoOn() && "request".equals(trigger))) Debug.logInfo("Ran Event [" + event.type + ":" + event.path + "#" + event.invoke + "] from [" + trigger + "], result is [" + eventReturn + "]", module);
         return eventReturn;
     }
@@ -1162,35 +1163,63 @@ public class RequestHandler {
     }
 
     public static String getRequestUri(String path) {
-        List<String> pathInfo = StringUtil.split(path, "/");
-        if (UtilValidate.isEmpty(pathInfo)) {
+        // SCIPIO: 2026-10: scan the path instead of splitting it into a list (called several times per request)
+        //List<String> pathInfo = StringUtil.split(path, "/");
+        int start = skipPathSeps(path, 0);
+        if (start < 0) {
             Debug.logWarning("Got nothing when splitting URI: " + path, module);
             return null;
         }
-        if (pathInfo.get(0).indexOf('?') > -1) {
-            return pathInfo.get(0).substring(0, pathInfo.get(0).indexOf('?'));
-        } else {
-            return pathInfo.get(0);
-        }
+        int end = getPathItemEnd(path, start);
+        int queryIndex = path.indexOf('?', start);
+        return path.substring(start, (queryIndex >= 0 && queryIndex < end) ? queryIndex : end);
     }
 
     public static String getOverrideViewUri(String path) {
-        List<String> pathItemList = StringUtil.split(path, "/");
-        if (pathItemList == null) {
+        // SCIPIO: 2026-10: scan the path instead of splitting it into a list
+        //List<String> pathItemList = StringUtil.split(path, "/");
+        int start = skipPathSeps(path, 0);
+        if (start < 0) {
             return null;
         }
-        pathItemList = pathItemList.subList(1, pathItemList.size());
-
-        String nextPage = null;
-        for (String pathItem: pathItemList) {
-            if (pathItem.indexOf('~') != 0) {
-                if (pathItem.indexOf('?') > -1) {
-                    pathItem = pathItem.substring(0, pathItem.indexOf('?'));
+        StringBuilder nextPage = null;
+        // skip the request uri (first item)
+        start = skipPathSeps(path, getPathItemEnd(path, start));
+        while (start >= 0) {
+            int end = getPathItemEnd(path, start);
+            if (path.charAt(start) != '~') {
+                int queryIndex = path.indexOf('?', start);
+                int itemEnd = (queryIndex >= 0 && queryIndex < end) ? queryIndex : end;
+                if (nextPage == null) {
+                    nextPage = new StringBuilder(path.length());
+                } else {
+                    nextPage.append('/');
                 }
-                nextPage = (nextPage == null ? pathItem : nextPage + "/" + pathItem);
+                nextPage.append(path, start, itemEnd);
             }
+            start = skipPathSeps(path, end);
         }
-        return nextPage;
+        return (nextPage != null) ? nextPage.toString() : null;
+    }
+
+    /** SCIPIO: Returns the index of the first non-slash char at or after index, or -1 if none (or path null). */
+    private static int skipPathSeps(String path, int index) {
+        if (path == null) {
+            return -1;
+        }
+        while (index < path.length()) {
+            if (path.charAt(index) != '/') {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /** SCIPIO: Returns the index of the slash ending the path item starting at start, or the path length. */
+    private static int getPathItemEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return (end >= 0) ? end : path.length();
     }
 
     /**
@@ -1341,7 +1370,7 @@ public class RequestHandler {
 
         ConfigXMLReader.ViewMap viewMap = null;
         try {
-            viewMap = (view == null ? null : getControllerConfig().getViewMapMap().get(view));
+            viewMap = (view == null ? null : getControllerConfig().getRoutingTable().getViewMap(view)); // SCIPIO: routing table
         } catch (WebAppConfigurationException e) {
             Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
             throw new RequestHandlerException(e);
@@ -1469,8 +1498,14 @@ public class RequestHandler {
             ViewHandler vh = viewFactory.getViewHandler(viewMap.type);
             if (viewAsJson) {
                 invokeViewHandlerAsJson(vh, viewAsJsonConfig, view, nextPage, viewMap.info, contentType, charset, req, resp);
-            } else {
-                vh.render(view, nextPage, viewMap.info, contentType, charset, req, resp);
+            } else if (!PageCache.serveView(req, resp, view, viewMap)) { // SCIPIO: 2026-10: page cache
+                PageCache.Capture pageCapture = PageCache.startCapture(req, resp, view, viewMap);
+                if (pageCapture != null) {
+                    vh.render(view, nextPage, viewMap.info, contentType, charset, req, pageCapture.getResponse());
+                    pageCapture.store(req);
+                } else {
+                    vh.render(view, nextPage, viewMap.info, contentType, charset, req, resp);
+                }
             }
         } catch (ViewHandlerException e) {
             Throwable throwable = e.getNested() != null ? e.getNested() : e;
@@ -1973,7 +2008,7 @@ public class RequestHandler {
             if (requestUri != null) {
                 if (interWebapp) {
                     try {
-                        requestMap = targetWebappInfo.getControllerConfig().getRequestMapMap().get(requestUri);
+                        requestMap = targetWebappInfo.getControllerConfig().getRoutingTable().getRequestMap(requestUri); // SCIPIO: routing table
                     } catch (Exception e) {
                         Debug.logError("makeLink: Error parsing controller.xml file for webapp "
                                 + targetWebappInfo + ": " + e.toString() + getMakeLinkLogSuffix(), module);
@@ -1982,7 +2017,7 @@ public class RequestHandler {
                 } else {
                     try {
                         // SCIPIO: stock case
-                        requestMap = currentWebappInfo.getControllerConfig().getRequestMapMap().get(requestUri);
+                        requestMap = currentWebappInfo.getControllerConfig().getRoutingTable().getRequestMap(requestUri); // SCIPIO: routing table
                     } catch (Exception e) {
                         Debug.logError("makeLink: Error parsing controller.xml file for webapp "
                                 + currentWebappInfo + ": " + e.toString() + getMakeLinkLogSuffix(), module);
@@ -2212,7 +2247,7 @@ public class RequestHandler {
 
             if (requestUri != null) {
                 try {
-                    requestMap = targetWebappInfo.getControllerConfig().getRequestMapMap().get(requestUri);
+                    requestMap = targetWebappInfo.getControllerConfig().getRoutingTable().getRequestMap(requestUri); // SCIPIO: routing table
                 } catch (Exception e) {
                     // If we can't read the controller.xml file, then there is no point in continuing.
                     Debug.logError("makeLink: Error while parsing controller.xml file for webapp "
@@ -2765,7 +2800,7 @@ public class RequestHandler {
                 if (controllerConfig == null) {
                     return false;
                 }
-                requestMap = controllerConfig.getRequestMapMap().get(uriString);
+                requestMap = controllerConfig.getRoutingTable().getRequestMap(uriString); // SCIPIO: routing table
             } catch (WebAppConfigurationException e) {
                 Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
             }
@@ -2790,7 +2825,7 @@ public class RequestHandler {
                 if (controllerConfig == null) {
                     return false;
                 }
-                requestMap = controllerConfig.getRequestMapMap().get(uriString);
+                requestMap = controllerConfig.getRoutingTable().getRequestMap(uriString); // SCIPIO: routing table
             } catch (WebAppConfigurationException e) {
                 Debug.logError(e, "Exception thrown while parsing controller.xml file: ", module);
             }
@@ -2849,7 +2884,7 @@ public class RequestHandler {
      */
     public boolean controllerHasRequestUriDirect(String uri) {
         try {
-            ConfigXMLReader.RequestMap requestMap = getControllerConfig().getRequestMapMap().get(uri);
+            ConfigXMLReader.RequestMap requestMap = getControllerConfig().getRoutingTable().getRequestMap(uri); // SCIPIO: routing table
 
             if (requestMap != null && requestMap.securityDirectRequest) {
                 return true;
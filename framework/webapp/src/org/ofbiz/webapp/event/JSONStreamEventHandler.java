@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.event;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilHttp;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.GenericEntityException;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.util.EntityListIterator;
+import org.ofbiz.entity.util.EntityUtilProperties;
+import org.ofbiz.service.DispatchContext;
+import org.ofbiz.service.GenericServiceException;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ModelService;
+import org.ofbiz.service.ServiceUtil;
+import org.ofbiz.webapp.control.ConfigXMLReader.Event;
+import org.ofbiz.webapp.control.ConfigXMLReader.RequestMap;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * SCIPIO: Event handler running a service on a JSON request body and writing its results as JSON, both streamed, for
+ * large API payloads (bulk imports, exports); registered as <code>service-json-stream</code> in handlers-controller.xml.
+ * <p>
+ * The body (<code>application/json</code>) is parsed incrementally:
+ * <ul>
+ * <li>an object is one call: each field is read into the service context as it comes;</li>
+ * <li>an array is a stream of records: the service is run once per element object, each in its own transaction as
+ * for any runSync, and each result is written out before the next record is read, so memory use does not depend on
+ * the number of records.</li>
+ * </ul>
+ * URL parameters are added to the context of every call, and userLogin, locale and timeZone as for
+ * {@link ServiceEventHandler}. The response is written with a streaming generator straight to the response output
+ * stream: an object of the non-internal results (<code>responseMessage</code> and messages included) for one call,
+ * or an array of those for records. Result values that are iterators, including <code>EntityListIterator</code>s
+ * (closed when done), are written element by element.
+ * <p>
+ * The event writes the response itself, so the request-map response should be of type <code>none</code>; it returns
+ * "error" if the call, or any record, failed. If the stream fails midway (e.g. an invalid record or a failing
+ * iterator) after the response is committed, the output is left truncated, i.e. invalid JSON, so that clients cannot
+ * mistake it for a complete result; before that, the buffered output is discarded and the status set to 400 (invalid
+ * JSON) or 500. Such failures are logged and never escape the event. {@link org.ofbiz.webapp.control.ContextFilter} does not read the body of
+ * requests to these events.
+ * <p>
+ * Added 2026-10.
+ */
+public class JSONStreamEventHandler implements EventHandler {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final ObjectMapper mapper = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    @Override
+    public void init(ServletContext context) throws EventHandlerException {
+    }
+
+    @Override
+    public String invoke(Event event, RequestMap requestMap, HttpServletRequest request, HttpServletResponse response) throws EventHandlerException {
+        LocalDispatcher dispatcher = (LocalDispatcher) request.getAttribute("dispatcher");
+        if (dispatcher == null) {
+            throw new EventHandlerException("The local service dispatcher is null");
+        }
+        DispatchContext dctx = dispatcher.getDispatchContext();
+        String serviceName = event.invoke;
+        if (UtilValidate.isEmpty(serviceName)) {
+            throw new EventHandlerException("Service name (eventMethod) cannot be null");
+        }
+        ModelService model;
+        try {
+            model = dctx.getModelService(serviceName);
+        } catch (GenericServiceException e) {
+            throw new EventHandlerException("Problems getting the service model", e);
+        }
+
+        HttpSession session = request.getSession();
+        CallContext callContext = new CallContext(dispatcher, model, (GenericValue) session.getAttribute("userLogin"),
+                UtilHttp.getLocale(request), UtilHttp.getTimeZone(request));
+        Set<String> urlOnlyParameterNames = UtilHttp.getUrlOnlyParameterMap(request).keySet();
+        for (String name : urlOnlyParameterNames) {
+            ServiceEventHandler.checkSecureParameter(requestMap, urlOnlyParameterNames, name, session, serviceName, dctx.getDelegator());
+            String[] values = request.getParameterValues(name);
+            if (values != null && values.length > 0) {
+                callContext.commonParams.put(name, (values.length > 1) ? Arrays.asList(values) : values[0]);
+            }
+        }
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        try (InputStream in = request.getInputStream()) {
+            OutputStream out = response.getOutputStream();
+            if ("GET".equalsIgnoreCase(request.getMethod())) {
+                // same as CommonEvents json responses (OFBIZ-5409)
+                Delegator delegator = (Delegator) request.getAttribute("delegator");
+                out.write(EntityUtilProperties.getPropertyValue("general", "http.json.xssi.prefix", delegator).getBytes("UTF-8"));
+            }
+            try (JsonParser parser = mapper.getFactory().createParser(in);
+                    JsonGenerator generator = createGenerator(out)) {
+                JsonToken token = parser.nextToken();
+                boolean success;
+                if (token == JsonToken.START_ARRAY) {
+                    success = runRecords(parser, generator, callContext);
+                } else if (token == null || token == JsonToken.START_OBJECT) {
+                    // no body (e.g. GET): URL parameters only
+                    Map<String, Object> context = (token != null) ? readObject(parser) : new HashMap<>();
+                    success = writeResult(generator, runService(callContext, context));
+                } else {
+                    response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                    request.setAttribute("_ERROR_MESSAGE_", "The request body must be a JSON object or array");
+                    return "error";
+                }
+                return success ? "success" : "error";
+            }
+        } catch (JsonProcessingException e) {
+            Debug.logWarning("Invalid JSON body for service [" + serviceName + "]: " + e.getMessage(), module);
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            }
+            request.setAttribute("_ERROR_MESSAGE_", "Invalid JSON: " + e.getOriginalMessage());
+            return "error";
+        } catch (IOException e) {
+            // typically the client went away (OFBIZ-254)
+            Debug.logWarning("Could not stream JSON for service [" + serviceName + "]: " + e.toString(), module);
+            return "error";
+        } catch (RuntimeException e) {
+            // e.g. a result iterator whose cursor failed; past the commit there is nothing left to report it with
+            Debug.logError(e, "Could not stream JSON for service [" + serviceName + "]", module);
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+            request.setAttribute("_ERROR_MESSAGE_", e.toString());
+            return "error";
+        }
+    }
+
+    /**
+     * Creates the response generator. Open arrays and objects are not closed when the generator is closed, so the
+     * output of a stream that failed midway is not valid JSON.
+     */
+    protected JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return mapper.getFactory().createGenerator(out, JsonEncoding.UTF8).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    /**
+     * Runs the service for each object of the array the parser is on, writing the results as an array.
+     */
+    protected boolean runRecords(JsonParser parser, JsonGenerator generator, CallContext callContext) throws IOException {
+        boolean success = true;
+        int recordIndex = 0;
+        generator.writeStartArray();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Record " + recordIndex + " is not a JSON object");
+            }
+            Map<String, Object> result = runService(callContext, readObject(parser));
+            success &= writeResult(generator, result);
+            recordIndex++;
+            if ((recordIndex % 100) == 0) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+        return success;
+    }
+
+    /**
+     * Reads the fields of the object the parser is on, one value at a time.
+     */
+    protected Map<String, Object> readObject(JsonParser parser) throws IOException {
+        Map<String, Object> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            fields.put(name, mapper.readValue(parser, Object.class));
+        }
+        return fields;
+    }
+
+    protected Map<String, Object> runService(CallContext callContext, Map<String, Object> fields) {
+        ModelService model = callContext.model;
+        Map<String, Object> context = new HashMap<>(callContext.commonParams);
+        context.putAll(fields);
+        context.remove("userLogin");
+        context.remove("login.username");
+        context.remove("login.password");
+        List<Object> errorMessages = new LinkedList<>();
+        context = model.makeValid(context, ModelService.IN_PARAM, true, errorMessages, callContext.timeZone, callContext.locale);
+        if (!errorMessages.isEmpty()) {
+            return ServiceUtil.returnError(errorMessages.toString());
+        }
+        if (callContext.userLogin != null) {
+            context.put("userLogin", callContext.userLogin);
+        }
+        context.put("locale", callContext.locale);
+        if (callContext.timeZone != null) {
+            context.put("timeZone", callContext.timeZone);
+        }
+        try {
+            return callContext.dispatcher.runSync(model.name, context);
+        } catch (GenericServiceException e) {
+            Debug.logError(e, "Service invocation error", module);
+            return ServiceUtil.returnError(e.getNonNestedMessage());
+        }
+    }
+
+    /**
+     * Writes the result as an object, streaming iterator values; returns false if the result is an error.
+     */
+    protected boolean writeResult(JsonGenerator generator, Map<String, Object> result) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> entry : result.entrySet()) {
+            String name = entry.getKey();
+            if (name == null || ModelService.COMMON_INTERNAL_IN_FIELDS.contains(name)) {
+                continue;
+            }
+            generator.writeFieldName(name);
+            writeValue(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+        return !ServiceUtil.isError(result) && !ServiceUtil.isFailure(result);
+    }
+
+    protected void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value instanceof EntityListIterator) {
+            try (EntityListIterator eli = (EntityListIterator) value) {
+                generator.writeStartArray();
+                GenericValue element;
+                while ((element = eli.next()) != null) {
+                    mapper.writeValue(generator, element);
+                }
+                generator.writeEndArray();
+            } catch (GenericEntityException e) {
+                throw new IOException(e);
+            }
+        } else if (value instanceof Iterator) {
+            generator.writeStartArray();
+            Iterator<?> it = (Iterator<?>) value;
+            while (it.hasNext()) {
+                mapper.writeValue(generator, it.next());
+            }
+            generator.writeEndArray();
+        } else {
+            mapper.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * What every call of the request shares.
+     */
+    protected static class CallContext {
+        protected final LocalDispatcher dispatcher;
+        protected final ModelService model;
+        protected final GenericValue userLogin;
+        protected final Locale locale;
+        protected final TimeZone timeZone;
+        protected final Map<String, Object> commonParams = new HashMap<>();
+
+        protected CallContext(LocalDispatcher dispatcher, ModelService model, GenericValue userLogin, Locale locale, TimeZone timeZone) {
+            this.dispatcher = dispatcher;
+            this.model = model;
+            this.userLogin = userLogin;
+            this.locale = locale;
+            this.timeZone = timeZone;
+        }
+    }
+}
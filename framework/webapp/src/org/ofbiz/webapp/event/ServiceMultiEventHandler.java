@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.ofbiz.webapp.event;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -40,6 +41,7 @@ import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.entity.GenericValue;
 import org.ofbiz.entity.transaction.GenericTransactionException;
 import org.ofbiz.entity.transaction.TransactionUtil;
+import org.ofbiz.service.BatchOptions;
 import org.ofbiz.service.DispatchContext;
 import org.ofbiz.service.GenericServiceException;
 import org.ofbiz.service.LocalDispatcher;
@@ -175,6 +177,16 @@ public class ServiceMultiEventHandler implements EventHandler {
             throw new EventHandlerException(e);
         }
 
+        // SCIPIO: 2026-10: rows declared independent (parallel-rows) are run after the loop in partitions of their own transaction
+        int parallelRows = Math.min(event.parallelRows, rowCount);
+        List<Integer> parallelRowIndexes = null;
+        List<Map<String, Object>> parallelContexts = null;
+        if (parallelRows > 1) {
+            eventGlobalTransaction = false;
+            parallelRowIndexes = new ArrayList<>(rowCount);
+            parallelContexts = new ArrayList<>(rowCount);
+        }
+
         Set<String> urlOnlyParameterNames = UtilHttp.getUrlOnlyParameterMap(request).keySet();
 
         // big try/finally to make sure commit or rollback are run
@@ -314,6 +326,12 @@ public class ServiceMultiEventHandler implements EventHandler {
 
                 // Debug.logInfo("ready to call " + serviceName + " with context " + serviceContext, module);
 
+                if (parallelContexts != null) { // SCIPIO
+                    parallelRowIndexes.add(i);
+                    parallelContexts.add(serviceContext);
+                    continue;
+                }
+
                 // invoke the service
                 Map<String, Object> result = null;
                 try {
@@ -349,41 +367,14 @@ public class ServiceMultiEventHandler implements EventHandler {
                     if (UtilValidate.isNotEmpty(errorMessage)) {
                         errorMessages.add(errorMessage);
                     }
-
-                    // get the success messages
-                    if (UtilValidate.isNotEmpty(result.get(ModelService.SUCCESS_MESSAGE))) {
-                        String newSuccessMessage = (String)result.get(ModelService.SUCCESS_MESSAGE);
-                        if (!successMessages.contains(newSuccessMessage)) {
-                            successMessages.add(newSuccessMessage);
-                        }
-                    }
-                    if (UtilValidate.isNotEmpty(result.get(ModelService.SUCCESS_MESSAGE_LIST))) {
-                        List<String> newSuccessMessages = UtilGenerics.<String>checkList(result.get(ModelService.SUCCESS_MESSAGE_LIST));
-                        for (int j = 0; j < newSuccessMessages.size(); j++) {
-                            String newSuccessMessage = newSuccessMessages.get(j);
-                            if (!successMessages.contains(newSuccessMessage)) {
-                                successMessages.add(newSuccessMessage);
-                            }
-                        }
-                    }
-                }
-                // set the results in the request
-                if ((result != null) && (result.entrySet() != null)) {
-                    for (Map.Entry<String, Object> rme: result.entrySet()) {
-                        String resultKey = rme.getKey();
-                        Object resultValue = rme.getValue();
-
-                        // SCIPIO: This is ridiculous
-                        //if (resultKey != null && !ModelService.RESPONSE_MESSAGE.equals(resultKey) && !ModelService.ERROR_MESSAGE.equals(resultKey) &&
-                        //        !ModelService.ERROR_MESSAGE_LIST.equals(resultKey) && !ModelService.ERROR_MESSAGE_MAP.equals(resultKey) &&
-                        //        !ModelService.SUCCESS_MESSAGE.equals(resultKey) && !ModelService.SUCCESS_MESSAGE_LIST.equals(resultKey)) {
-                        if (resultKey != null && !ModelService.SYS_RESPONSE_FIELDS_SET.contains(resultKey)) {
-                            //set the result to request w/ and w/o a suffix to handle both cases: to have the result in each iteration and to prevent its overriding
-                            request.setAttribute(resultKey + curSuffix, resultValue);
-                            request.setAttribute(resultKey, resultValue);
-                        }
-                    }
                 }
+                processRowResult(result, curSuffix, request, successMessages); // SCIPIO: 2026-10: factored out
+            }
+
+            // SCIPIO: 2026-10: run the independent rows
+            if (UtilValidate.isNotEmpty(parallelContexts)) {
+                invokeParallelRows(dispatcher, modelService, serviceName, parallelRows, parallelRowIndexes, parallelContexts,
+                        event, requestMap, request, response, messagePrefixStr, messageSuffixStr, errorMessages, successMessages);
             }
         } finally {
             if (errorMessages.size() > 0) {
@@ -423,6 +414,80 @@ public class ServiceMultiEventHandler implements EventHandler {
         return returnString;
     }
 
+    /**
+     * Runs the rows of a parallel-rows event in <code>parallelRows</code> partitions, each in its own transaction,
+     * and collects their error and success messages as the sequential loop does.
+     * SCIPIO: Added 2026-10.
+     */
+    protected void invokeParallelRows(LocalDispatcher dispatcher, ModelService modelService, String serviceName, int parallelRows,
+            List<Integer> rowIndexes, List<Map<String, Object>> serviceContexts, Event event, RequestMap requestMap,
+            HttpServletRequest request, HttpServletResponse response, String messagePrefixStr, String messageSuffixStr,
+            List<Object> errorMessages, List<String> successMessages) {
+        int partitionSize = ((serviceContexts.size() - 1) / parallelRows) + 1;
+        BatchOptions batchOptions = new BatchOptions().setCommitSize(partitionSize).setParallelism(parallelRows)
+                .setTransactionTimeout(modelService.transactionTimeout * partitionSize);
+        List<Map<String, Object>> results;
+        try {
+            results = invokeServiceBatch(dispatcher, modelService, serviceName, serviceContexts, batchOptions,
+                    event, requestMap, request, response);
+        } catch (GenericServiceException e) {
+            Debug.logError(e, "Service invocation error", module);
+            errorMessages.add(messagePrefixStr + "Service invocation error: " + e.getNonNestedMessage() + messageSuffixStr);
+            return;
+        }
+        for (int k = 0; k < rowIndexes.size(); k++) {
+            Map<String, Object> result = results.get(k);
+            // check for an error message, as the sequential loop
+            String errorMessage = ServiceUtil.makeErrorMessage(result, messagePrefixStr, messageSuffixStr, "", "");
+            if (UtilValidate.isNotEmpty(errorMessage)) {
+                errorMessages.add(errorMessage);
+            }
+            processRowResult(result, UtilHttp.getMultiRowDelimiter() + rowIndexes.get(k), request, successMessages);
+        }
+    }
+
+    /**
+     * Collects the success messages of a row's service result and sets its other results as request attributes,
+     * with and without the row suffix.
+     * SCIPIO: Refactored 2026-10 from {@link #invoke(Event, RequestMap, HttpServletRequest, HttpServletResponse)}.
+     */
+    protected void processRowResult(Map<String, Object> result, String curSuffix, HttpServletRequest request, List<String> successMessages) {
+        if (result == null) {
+            return;
+        }
+        // get the success messages
+        if (UtilValidate.isNotEmpty(result.get(ModelService.SUCCESS_MESSAGE))) {
+            String newSuccessMessage = (String)result.get(ModelService.SUCCESS_MESSAGE);
+            if (!successMessages.contains(newSuccessMessage)) {
+                successMessages.add(newSuccessMessage);
+            }
+        }
+        if (UtilValidate.isNotEmpty(result.get(ModelService.SUCCESS_MESSAGE_LIST))) {
+            List<String> newSuccessMessages = UtilGenerics.<String>checkList(result.get(ModelService.SUCCESS_MESSAGE_LIST));
+            for (int j = 0; j < newSuccessMessages.size(); j++) {
+                String newSuccessMessage = newSuccessMessages.get(j);
+                if (!successMessages.contains(newSuccessMessage)) {
+                    successMessages.add(newSuccessMessage);
+                }
+            }
+        }
+        // set the results in the request
+        for (Map.Entry<String, Object> rme: result.entrySet()) {
+            String resultKey = rme.getKey();
+            Object resultValue = rme.getValue();
+
+            // SCIPIO: This is ridiculous
+            //if (resultKey != null && !ModelService.RESPONSE_MESSAGE.equals(resultKey) && !ModelService.ERROR_MESSAGE.equals(resultKey) &&
+            //        !ModelService.ERROR_MESSAGE_LIST.equals(resultKey) && !ModelService.ERROR_MESSAGE_MAP.equals(resultKey) &&
+            //        !ModelService.SUCCESS_MESSAGE.equals(resultKey) && !ModelService.SUCCESS_MESSAGE_LIST.equals(resultKey)) {
+            if (resultKey != null && !ModelService.SYS_RESPONSE_FIELDS_SET.contains(resultKey)) {
+                //set the result to request w/ and w/o a suffix to handle both cases: to have the result in each iteration and to prevent its overriding
+                request.setAttribute(resultKey + curSuffix, resultValue);
+                request.setAttribute(resultKey, resultValue);
+            }
+        }
+    }
+
     /**
      * SCIPIO: Core service invocation, overridable.
      * Refactored from {@link #invoke(Event, RequestMap, HttpServletRequest, HttpServletResponse)}.
@@ -432,4 +497,15 @@ public class ServiceMultiEventHandler implements EventHandler {
             Event event, RequestMap requestMap, HttpServletRequest request, HttpServletResponse response) throws ServiceAuthException, ServiceValidationException, GenericServiceException {
         return dispatcher.runSync(serviceName, serviceContext);
     }
+
+    /**
+     * SCIPIO: Service invocation for the rows of a parallel-rows event, overridable; the results must be in the order
+     * of the contexts. Each row runs in a worker thread, without access to the request.
+     * Added 2026-10.
+     */
+    protected List<Map<String, Object>> invokeServiceBatch(LocalDispatcher dispatcher, ModelService modelService, String serviceName,
+            List<Map<String, Object>> serviceContexts, BatchOptions batchOptions, Event event, RequestMap requestMap,
+            HttpServletRequest request, HttpServletResponse response) throws GenericServiceException {
+        return dispatcher.runBatch(serviceName, serviceContexts, batchOptions);
+    }
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.session;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+
+/**
+ * SCIPIO: Keeps the serialized session attributes in files, one directory per state under
+ * <code>session.state.file.dir</code> (requestHandler.properties), by default <code>runtime/sessionstate</code>.
+ * <p>
+ * With a directory shared by the servers of a cluster, the attributes follow sessions replicated or failed over
+ * to another server, and survive restarts with persistent sessions.
+ * <p>
+ * Added 2026-10.
+ */
+public class FileSessionStateStore implements SessionStateStore {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private final Path dir;
+
+    public FileSessionStateStore() {
+        String dirName = UtilProperties.getPropertyValue("requestHandler", "session.state.file.dir", "runtime/sessionstate");
+        Path dir = Paths.get(dirName);
+        if (!dir.isAbsolute()) {
+            dir = Paths.get(System.getProperty("ofbiz.home", "."), dirName);
+        }
+        this.dir = dir;
+    }
+
+    @Override
+    public byte[] load(String stateId, String name) {
+        try {
+            return Files.readAllBytes(getFile(stateId, name));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            Debug.logError("Could not read session state [" + stateId + "/" + name + "]: " + e.toString(), module);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(String stateId, String name, byte[] data) {
+        Path file = getFile(stateId, name);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmpFile = Files.createTempFile(file.getParent(), "state", ".tmp");
+            try {
+                Files.write(tmpFile, data);
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException e) {
+            Debug.logError("Could not write session state [" + stateId + "/" + name + "]: " + e.toString(), module);
+        }
+    }
+
+    @Override
+    public void remove(String stateId, String name) {
+        try {
+            Files.deleteIfExists(getFile(stateId, name));
+        } catch (IOException e) {
+            Debug.logWarning("Could not remove session state [" + stateId + "/" + name + "]: " + e.toString(), module);
+        }
+    }
+
+    @Override
+    public void removeAll(String stateId) {
+        Path stateDir = dir.resolve(stateId);
+        if (!Files.isDirectory(stateDir)) {
+            return;
+        }
+        try {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(stateDir)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(stateDir);
+        } catch (IOException e) {
+            Debug.logWarning("Could not remove session state [" + stateId + "]: " + e.toString(), module);
+        }
+    }
+
+    private Path getFile(String stateId, String name) {
+        try {
+            // state ids are generated; attribute names are encoded so they cannot leave the directory
+            return dir.resolve(stateId).resolve(URLEncoder.encode(name, "UTF-8").replace("*", "%2A") + ".ser");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
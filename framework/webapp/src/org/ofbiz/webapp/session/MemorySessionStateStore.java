@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SCIPIO: Keeps the serialized session attributes on the heap of this server.
+ * <p>
+ * Between requests, sessions only hold their attributes in compressed serialized form; the data does not survive
+ * a restart nor follow a session to another server (see {@link FileSessionStateStore}).
+ * <p>
+ * Added 2026-10.
+ */
+public class MemorySessionStateStore implements SessionStateStore {
+
+    private final ConcurrentMap<String, Map<String, byte[]>> states = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] load(String stateId, String name) {
+        Map<String, byte[]> state = states.get(stateId);
+        return (state != null) ? state.get(name) : null;
+    }
+
+    @Override
+    public void save(String stateId, String name, byte[] data) {
+        states.computeIfAbsent(stateId, k -> new ConcurrentHashMap<>()).put(name, data);
+    }
+
+    @Override
+    public void remove(String stateId, String name) {
+        Map<String, byte[]> state = states.get(stateId);
+        if (state != null) {
+            state.remove(name);
+        }
+    }
+
+    @Override
+    public void removeAll(String stateId) {
+        states.remove(stateId);
+    }
+}
@@ -0,0 +1,582 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.ObjectInputStream;
+import org.ofbiz.base.util.UtilProperties;
+
+/**
+ * SCIPIO: Externalized session attributes.
+ * <p>
+ * The session attributes listed in <code>session.state.attributes</code> (requestHandler.properties), such as the
+ * shopping cart, are not kept in the container session; it only holds a small placeholder for each, so that session
+ * persistence and replication stay cheap. Their values are kept compressed and serialized in a
+ * {@link SessionStateStore} and only deserialized when a request first reads them; at the end of the last concurrent
+ * request of the session, the attributes that were read or set are serialized again and written back to the store
+ * if they changed. Concurrent requests of a session share the same deserialized values.
+ * <p>
+ * Requests are wrapped by {@link org.ofbiz.webapp.control.ContextFilter} (see {@link #wrapRequest}), so the
+ * attributes must be read through <code>request.getSession()</code>; code that only has the container session, such
+ * as session listeners, must use {@link #getAttribute(HttpSession, String)}.
+ * <p>
+ * Added 2026-10.
+ */
+public final class SessionState {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final String WRAPPED_ATTR = "_SCP_SESSION_STATE_WRAPPED_";
+    /** Session attribute holding the {@link StateId}. */
+    public static final String STATE_ID_ATTR = "_SCP_SESSION_STATE_ID_";
+
+    private static final boolean enabled = UtilProperties.getPropertyAsBoolean("requestHandler", "session.state.enable", false);
+    private static final Set<String> attributeNames = readAttributeNames();
+    private static final SessionStateStore store = enabled ? createStore() : null;
+
+    /** The deserialized values of the sessions that have requests in progress, by state id. */
+    private static final ConcurrentMap<String, LiveState> liveStates = new ConcurrentHashMap<>();
+
+    private SessionState() {
+    }
+
+    private static Set<String> readAttributeNames() {
+        Set<String> names = new HashSet<>();
+        for (String name : UtilProperties.getPropertyValue("requestHandler", "session.state.attributes", "").split(",")) {
+            name = name.trim();
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static SessionStateStore createStore() {
+        String storeName = UtilProperties.getPropertyValue("requestHandler", "session.state.store", "memory");
+        if ("memory".equals(storeName)) {
+            return new MemorySessionStateStore();
+        } else if ("file".equals(storeName)) {
+            return new FileSessionStateStore();
+        }
+        try {
+            return (SessionStateStore) Class.forName(storeName, true, Thread.currentThread().getContextClassLoader()).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            Debug.logError(e, "Could not create session state store [" + storeName + "]; using memory store", module);
+            return new MemorySessionStateStore();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled && !attributeNames.isEmpty();
+    }
+
+    public static boolean isExternalized(String name) {
+        return attributeNames.contains(name);
+    }
+
+    /**
+     * Returns a wrapper of the request whose sessions externalize the configured attributes, or null if the
+     * feature is disabled or the request is already wrapped (e.g. forwarded). {@link RequestWrapper#release()}
+     * must be called at the end of the request.
+     */
+    public static RequestWrapper wrapRequest(HttpServletRequest request) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return wrapRequest(request, store, attributeNames);
+    }
+
+    /**
+     * Returns a wrapper of the request externalizing the given attributes to the given store, regardless of
+     * <code>session.state.enable</code>, or null if the request is already wrapped.
+     */
+    public static RequestWrapper wrapRequest(HttpServletRequest request, SessionStateStore store, Set<String> attributeNames) {
+        if (request.getAttribute(WRAPPED_ATTR) != null) {
+            return null;
+        }
+        RequestWrapper wrapper = new RequestWrapper(request, store, attributeNames);
+        request.setAttribute(WRAPPED_ATTR, Boolean.TRUE);
+        return wrapper;
+    }
+
+    /**
+     * Returns the attribute of the container session, reading externalized attributes from the store; for code
+     * outside requests, such as session listeners. Values read this way are not written back.
+     */
+    public static Object getAttribute(HttpSession session, String name) {
+        Object value = session.getAttribute(name);
+        if (!(value instanceof Ref)) {
+            return value;
+        }
+        StateId stateId = (StateId) session.getAttribute(STATE_ID_ATTR);
+        if (stateId == null) {
+            return null;
+        }
+        LiveState live = liveStates.get(stateId.id);
+        if (live != null) {
+            Object liveValue = live.values.get(name);
+            if (liveValue != null) {
+                return liveValue;
+            }
+        }
+        SessionStateStore store = stateId.getStore();
+        byte[] data = (store != null) ? store.load(stateId.id, name) : null;
+        return (data != null) ? deserialize(data, stateId.id, name) : null;
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream oos = new ObjectOutputStream(new DeflaterOutputStream(bos, deflater, 4096))) {
+            oos.writeObject(value);
+        } finally {
+            deflater.end();
+        }
+        return bos.toByteArray();
+    }
+
+    private static Object deserialize(byte[] data, String stateId, String name) {
+        try (ObjectInputStream ois = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(data)),
+                Thread.currentThread().getContextClassLoader())) {
+            return ois.readObject();
+        } catch (ClassNotFoundException | IOException e) {
+            Debug.logError(e, "Could not read session state [" + stateId + "/" + name + "]", module);
+            return null;
+        }
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (((long) data.length) << 32) ^ crc.getValue();
+    }
+
+    /**
+     * Placeholder kept in the container session for an externalized attribute.
+     */
+    public static final class Ref implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static final Ref INSTANCE = new Ref();
+
+        private Ref() {
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+
+        @Override
+        public String toString() {
+            return "[externalized]";
+        }
+    }
+
+    /**
+     * The id of the externalized state of a session; removes the state from the store when the session ends,
+     * which the container does after notifying the session listeners.
+     */
+    public static final class StateId implements Serializable, HttpSessionBindingListener {
+        private static final long serialVersionUID = 1L;
+        private final String id;
+        /** The store, if not the configured one; not kept when the session is persisted. */
+        private final transient SessionStateStore store;
+
+        StateId(String id, SessionStateStore store) {
+            this.id = id;
+            this.store = (store != SessionState.store) ? store : null;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        SessionStateStore getStore() {
+            return (store != null) ? store : SessionState.store;
+        }
+
+        @Override
+        public void valueBound(HttpSessionBindingEvent event) {
+        }
+
+        @Override
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            // requests still using the state must not write it back after it is removed
+            LiveState live = liveStates.get(id);
+            if (live != null) {
+                live.discard();
+            }
+            SessionStateStore store = getStore();
+            if (store != null) {
+                store.removeAll(id);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * The deserialized values of a session, shared by its concurrent requests.
+     */
+    private static final class LiveState {
+        private final String stateId;
+        private final SessionStateStore store;
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+        /** Checksums of the stored data of the values, to skip writing back unchanged values; absent if modified. */
+        private final Map<String, Long> checksums = new HashMap<>();
+        private int users = 0; // guarded by this
+        private boolean closed = false; // guarded by this
+        /** Set when the session ended (e.g. invalidated on logout), as its stored state was removed. */
+        private boolean discarded = false; // guarded by this
+
+        LiveState(String stateId, SessionStateStore store) {
+            this.stateId = stateId;
+            this.store = store;
+        }
+
+        static LiveState acquire(String stateId, SessionStateStore store) {
+            while (true) {
+                LiveState live = liveStates.computeIfAbsent(stateId, k -> new LiveState(k, store));
+                synchronized (live) {
+                    if (!live.closed) {
+                        live.users++;
+                        return live;
+                    }
+                }
+                // released concurrently; retry with a new one
+                liveStates.remove(stateId, live);
+            }
+        }
+
+        void release() {
+            synchronized (this) {
+                if (--users > 0) {
+                    return;
+                }
+                closed = true;
+                if (!discarded) {
+                    writeBack();
+                }
+            }
+            liveStates.remove(stateId, this);
+        }
+
+        /** Marks the state so it is not written back; waits for a write-back in progress. */
+        synchronized void discard() {
+            discarded = true;
+        }
+
+        synchronized Object load(String name) {
+            Object value = values.get(name);
+            if (value == null) {
+                byte[] data = store.load(stateId, name);
+                if (data != null) {
+                    value = deserialize(data, stateId, name);
+                    if (value != null) {
+                        values.put(name, value);
+                        checksums.put(name, checksum(data));
+                    }
+                }
+            }
+            return value;
+        }
+
+        synchronized void set(String name, Object value) {
+            values.put(name, value);
+            checksums.remove(name);
+        }
+
+        synchronized void remove(String name) {
+            values.remove(name);
+            checksums.remove(name);
+            if (!discarded) {
+                store.remove(stateId, name);
+            }
+        }
+
+        private void writeBack() {
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                String name = entry.getKey();
+                byte[] data;
+                try {
+                    data = serialize(entry.getValue());
+                } catch (IOException e) {
+                    Debug.logError(e, "Could not serialize session attribute [" + name + "]; it will be lost", module);
+                    continue;
+                }
+                Long oldChecksum = checksums.get(name);
+                if (oldChecksum == null || oldChecksum != checksum(data)) {
+                    store.save(stateId, name, data);
+                }
+            }
+        }
+    }
+
+    /**
+     * Request wrapper returning {@link SessionWrapper}s.
+     */
+    public static final class RequestWrapper extends HttpServletRequestWrapper {
+        private final SessionStateStore store;
+        private final Set<String> attributeNames;
+        private SessionWrapper sessionWrapper;
+        private final Map<String, LiveState> acquired = new HashMap<>();
+
+        RequestWrapper(HttpServletRequest request, SessionStateStore store, Set<String> attributeNames) {
+            super(request);
+            this.store = store;
+            this.attributeNames = attributeNames;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            HttpSession session = super.getSession(create);
+            if (session == null) {
+                return null;
+            }
+            SessionWrapper sessionWrapper = this.sessionWrapper;
+            if (sessionWrapper == null || !sessionWrapper.isWrapping(session)) {
+                sessionWrapper = new SessionWrapper(session, this);
+                this.sessionWrapper = sessionWrapper;
+            }
+            return sessionWrapper;
+        }
+
+        LiveState getLiveState(HttpSession session, boolean create) {
+            StateId stateId = (StateId) session.getAttribute(STATE_ID_ATTR);
+            if (stateId == null) {
+                if (!create) {
+                    return null;
+                }
+                stateId = new StateId(UUID.randomUUID().toString(), store);
+                session.setAttribute(STATE_ID_ATTR, stateId);
+            }
+            LiveState live = acquired.get(stateId.id);
+            if (live == null) {
+                live = LiveState.acquire(stateId.id, store);
+                acquired.put(stateId.id, live);
+            }
+            return live;
+        }
+
+        /**
+         * Writes back the values read or set by the request, once no other request of the session uses them.
+         * The state of a session that ended meanwhile (e.g. invalidated on logout) is discarded, not written back.
+         */
+        public void release() {
+            for (LiveState live : acquired.values()) {
+                try {
+                    live.release();
+                } catch (RuntimeException e) {
+                    Debug.logError(e, "Could not write back session state [" + live.stateId + "]", module);
+                }
+            }
+            acquired.clear();
+        }
+
+        boolean isExternalized(String name) {
+            return attributeNames.contains(name);
+        }
+    }
+
+    /**
+     * Session wrapper resolving the externalized attributes.
+     */
+    @SuppressWarnings("deprecation")
+    public static final class SessionWrapper implements HttpSession {
+        private final HttpSession session;
+        private final RequestWrapper request;
+
+        SessionWrapper(HttpSession session, RequestWrapper request) {
+            this.session = session;
+            this.request = request;
+        }
+
+        boolean isWrapping(HttpSession session) {
+            return this.session == session; // the container returns the same facade for the session
+        }
+
+        /** Returns the container session. */
+        public HttpSession getSession() {
+            return session;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            Object value = session.getAttribute(name);
+            if (!(value instanceof Ref)) {
+                return value;
+            }
+            LiveState live = request.getLiveState(session, false);
+            value = (live != null) ? live.load(name) : null;
+            if (value == null) {
+                // lost, e.g. memory store after restart or failover
+                session.removeAttribute(name);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            if (!request.isExternalized(name) || !(value instanceof Serializable)) {
+                session.setAttribute(name, value);
+                return;
+            }
+            request.getLiveState(session, true).set(name, value);
+            if (!(session.getAttribute(name) instanceof Ref)) {
+                session.setAttribute(name, Ref.INSTANCE);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            if (request.isExternalized(name) && session.getAttribute(name) instanceof Ref) {
+                LiveState live = request.getLiveState(session, false);
+                if (live != null) {
+                    live.remove(name);
+                }
+            }
+            session.removeAttribute(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return session.getAttributeNames();
+        }
+
+        @Override
+        public long getCreationTime() {
+            return session.getCreationTime();
+        }
+
+        @Override
+        public String getId() {
+            return session.getId();
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            return session.getLastAccessedTime();
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return session.getServletContext();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(int interval) {
+            session.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public int getMaxInactiveInterval() {
+            return session.getMaxInactiveInterval();
+        }
+
+        @Override
+        public javax.servlet.http.HttpSessionContext getSessionContext() {
+            return session.getSessionContext();
+        }
+
+        @Override
+        public Object getValue(String name) {
+            return getAttribute(name);
+        }
+
+        @Override
+        public String[] getValueNames() {
+            return session.getValueNames();
+        }
+
+        @Override
+        public void putValue(String name, Object value) {
+            setAttribute(name, value);
+        }
+
+        @Override
+        public void removeValue(String name) {
+            removeAttribute(name);
+        }
+
+        @Override
+        public void invalidate() {
+            session.invalidate();
+        }
+
+        @Override
+        public boolean isNew() {
+            return session.isNew();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof SessionWrapper) {
+                return session.equals(((SessionWrapper) obj).session);
+            }
+            return session.equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return session.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return session.toString();
+        }
+    }
+}
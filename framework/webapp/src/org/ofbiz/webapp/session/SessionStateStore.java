@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.session;
+
+/**
+ * SCIPIO: Storage for the serialized session attributes externalized by {@link SessionState}.
+ * <p>
+ * Data is stored by state id, a random id kept in the session that, unlike the session id, does not
+ * change on login; implementations must be thread-safe. Selected by <code>session.state.store</code>
+ * in requestHandler.properties: <code>memory</code> (default), <code>file</code> or an implementation class name
+ * with a public no-argument constructor.
+ * <p>
+ * Added 2026-10.
+ */
+public interface SessionStateStore {
+
+    /** Returns the data of the attribute, or null if none. */
+    byte[] load(String stateId, String name);
+
+    void save(String stateId, String name, byte[] data);
+
+    void remove(String stateId, String name);
+
+    /** Removes all the attributes of the state, when its session ends. */
+    void removeAll(String stateId);
+}
@@ -18,14 +18,29 @@
  *******************************************************************************/
 package org.ofbiz.webapp.stats;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.ofbiz.base.metrics.LatencyHistogram;
 import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilHttp;
 import org.ofbiz.base.util.UtilProperties;
@@ -44,6 +59,10 @@ import com.ibm.icu.util.Calendar;
  * <p>Counts server hits and tracks statistics for request, events and views
  * <p>Handles total stats since the server started and binned
  *  stats according to settings in the serverstats.properties file.
+ * <p>SCIPIO: 2026-10: Hits are counted without locking: counters are {@link LongAdder}s, min/max are
+ * compare-and-set, response time percentiles come from a {@link LatencyHistogram} per bin, and the
+ * binned history of each id is a fixed-size {@link History} ring advanced by compare-and-set.
+ * See {@link #toMap()} and {@link #getStatsAsMap(int)} for export.
  */
 public class ServerHitBin {
     // Debug module name
@@ -56,13 +75,28 @@ public class ServerHitBin {
     public static final int SERVICE = 5;
 
     private static final String[] typeIds = {"", "REQUEST", "EVENT", "VIEW", "ENTITY", "SERVICE"};
+    private static final String[] enablePropertyNames = {"", "stats.enable.REQUEST", "stats.enable.EVENT", "stats.enable.VIEW", "stats.enable.ENTITY", "stats.enable.SERVICE"};
+    private static final String[] persistBinPropertyNames = {"", "stats.persist.REQUEST.bin", "stats.persist.EVENT.bin", "stats.persist.VIEW.bin", "stats.persist.ENTITY.bin", "stats.persist.SERVICE.bin"};
 
-    // these Maps contain Lists of ServerHitBin objects by id, the most recent is first in the list
-    public static final ConcurrentMap<String, Deque<ServerHitBin>> requestHistory = new ConcurrentHashMap<String, Deque<ServerHitBin>>();
-    public static final ConcurrentMap<String, Deque<ServerHitBin>> eventHistory = new ConcurrentHashMap<String, Deque<ServerHitBin>>();
-    public static final ConcurrentMap<String, Deque<ServerHitBin>> viewHistory = new ConcurrentHashMap<String, Deque<ServerHitBin>>();
-    public static final ConcurrentMap<String, Deque<ServerHitBin>> entityHistory = new ConcurrentHashMap<String, Deque<ServerHitBin>>();
-    public static final ConcurrentMap<String, Deque<ServerHitBin>> serviceHistory = new ConcurrentHashMap<String, Deque<ServerHitBin>>();
+    private static final int historySize = Math.max(1, UtilProperties.getPropertyAsInteger("serverstats", "stats.bin.history.size", 96));
+
+    /** Percentiles reported by {@link #getTimePercentiles()}. */
+    private static final double[] percentiles = {50, 95, 99};
+
+    // SCIPIO: these Maps contain the bin History by id
+    private static final ConcurrentMap<String, History> requestHistories = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, History> eventHistories = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, History> viewHistories = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, History> entityHistories = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, History> serviceHistories = new ConcurrentHashMap<>();
+
+    // these Maps contain Lists of ServerHitBin objects by id, the most recent is first
+    // SCIPIO: 2026-10: read-only views of the History maps above; each get returns a snapshot Deque (see getHistory)
+    public static final ConcurrentMap<String, Deque<ServerHitBin>> requestHistory = new HistoryDequeView(requestHistories);
+    public static final ConcurrentMap<String, Deque<ServerHitBin>> eventHistory = new HistoryDequeView(eventHistories);
+    public static final ConcurrentMap<String, Deque<ServerHitBin>> viewHistory = new HistoryDequeView(viewHistories);
+    public static final ConcurrentMap<String, Deque<ServerHitBin>> entityHistory = new HistoryDequeView(entityHistories);
+    public static final ConcurrentMap<String, Deque<ServerHitBin>> serviceHistory = new HistoryDequeView(serviceHistories);
 
     // these Maps contain ServerHitBin objects by id
     public static final ConcurrentMap<String, ServerHitBin> requestSinceStarted = new ConcurrentHashMap<String, ServerHitBin>();
@@ -71,6 +105,12 @@ public class ServerHitBin {
     public static final ConcurrentMap<String, ServerHitBin> entitySinceStarted = new ConcurrentHashMap<String, ServerHitBin>();
     public static final ConcurrentMap<String, ServerHitBin> serviceSinceStarted = new ConcurrentHashMap<String, ServerHitBin>();
 
+    // SCIPIO: the maps above indexed by type
+    private static final List<ConcurrentMap<String, History>> historyByType = Arrays.asList(null,
+            requestHistories, eventHistories, viewHistories, entityHistories, serviceHistories);
+    private static final List<ConcurrentMap<String, ServerHitBin>> sinceStartedByType = Arrays.asList(null,
+            requestSinceStarted, eventSinceStarted, viewSinceStarted, entitySinceStarted, serviceSinceStarted);
+
     public static void countRequest(String id, HttpServletRequest request, long startTime, long runningTime, GenericValue userLogin) {
         countHit(id, REQUEST, request, startTime, runningTime, userLogin);
     }
@@ -93,7 +133,7 @@ public class ServerHitBin {
 
     private static void countHit(String id, int type, HttpServletRequest request, long startTime, long runningTime, GenericValue userLogin) {
         // only count hits if enabled, if not specified defaults to false
-        if (!"true".equals(UtilProperties.getPropertyValue("serverstats", "stats.enable." + typeIds[type]))) return;
+        if (!"true".equals(UtilProperties.getPropertyValue("serverstats", enablePropertyNames[type]))) return;
         countHit(id, type, request, startTime, runningTime, userLogin, true);
     }
 
@@ -134,7 +174,7 @@ public class ServerHitBin {
         return cal.getTime().getTime();
     }
 
-    private static void countHit(String baseId, int type, HttpServletRequest request, long startTime, long runningTime, GenericValue userLogin, boolean isOriginal) {
+    private static Delegator getHitDelegator(HttpServletRequest request) {
         Delegator delegator = (Delegator) request.getAttribute("delegator");
         if (delegator == null) {
             String delegatorName = (String) request.getSession().getAttribute("delegatorName");
@@ -143,105 +183,21 @@ public class ServerHitBin {
         if (delegator == null) {
             throw new IllegalArgumentException("In countHit could not find a delegator or delegatorName to work from");
         }
+        return delegator;
+    }
 
+    private static void countHit(String baseId, int type, HttpServletRequest request, long startTime, long runningTime, GenericValue userLogin, boolean isOriginal) {
+        Delegator delegator = getHitDelegator(request);
         String id = makeIdTenantAware(baseId, delegator);
 
-        ServerHitBin bin = null;
-        Deque<ServerHitBin> binList = null;
-
-        switch (type) {
-        case REQUEST:
-            binList = requestHistory.get(id);
-            break;
-
-        case EVENT:
-            binList = eventHistory.get(id);
-            break;
-
-        case VIEW:
-            binList = viewHistory.get(id);
-            break;
-
-        case ENTITY:
-            binList = entityHistory.get(id);
-            break;
-
-        case SERVICE:
-            binList = serviceHistory.get(id);
-            break;
+        ConcurrentMap<String, History> historyMap = historyByType.get(type);
+        History history = historyMap.get(id);
+        if (history == null) {
+            history = historyMap.computeIfAbsent(id, k -> new History(new ServerHitBin(k, type, true, delegator)));
         }
 
-        if (binList == null) {
-            binList = new ConcurrentLinkedDeque<ServerHitBin>();
-            Deque<ServerHitBin> listFromMap = null;
-            switch (type) {
-            case REQUEST:
-                listFromMap = requestHistory.putIfAbsent(id, binList);
-                break;
-
-            case EVENT:
-                listFromMap = eventHistory.putIfAbsent(id, binList);
-                break;
-
-            case VIEW:
-                listFromMap = viewHistory.putIfAbsent(id, binList);
-                break;
-
-            case ENTITY:
-                listFromMap = entityHistory.putIfAbsent(id, binList);
-                break;
-
-            case SERVICE:
-                listFromMap = serviceHistory.putIfAbsent(id, binList);
-                break;
-            }
-            binList = listFromMap != null ? listFromMap : binList;
-        }
-
-        do {
-            bin = binList.peek();
-            if (bin == null) {
-                binList.addFirst(new ServerHitBin(id, type, true, delegator));
-            }
-        } while (bin == null);
-
-        long toTime = startTime + runningTime;
-        // advance the bin
-        // first check to see if the bin has expired, if so save and recycle it
-        while (bin.limitLength && toTime > bin.endTime) {
-            // the first in the list will be this object, remove and copy it,
-            // put the copy at the first of the list, then put this object back on
-            if (bin.getNumberHits() > 0) {
-                // persist each bin when time ends if option turned on
-                if (EntityUtilProperties.propertyValueEqualsIgnoreCase("serverstats", "stats.persist." + ServerHitBin.typeIds[type] + ".bin", "true", delegator)) {
-                    GenericValue serverHitBin = delegator.makeValue("ServerHitBin");
-                    serverHitBin.set("contentId", bin.id);
-                    serverHitBin.set("hitTypeId", ServerHitBin.typeIds[bin.type]);
-                    serverHitBin.set("binStartDateTime", new java.sql.Timestamp(bin.startTime));
-                    serverHitBin.set("binEndDateTime", new java.sql.Timestamp(bin.endTime));
-                    serverHitBin.set("numberHits", bin.getNumberHits());
-                    serverHitBin.set("totalTimeMillis", bin.getTotalRunningTime());
-                    serverHitBin.set("minTimeMillis", bin.getMinTime());
-                    serverHitBin.set("maxTimeMillis", bin.getMaxTime());
-                    // get localhost ip address and hostname to store
-                    if (VisitHandler.address != null) {
-                        serverHitBin.set("serverIpAddress", VisitHandler.address.getHostAddress());
-                        serverHitBin.set("serverHostName", VisitHandler.address.getHostName());
-                    }
-                    try {
-                        delegator.createSetNextSeqId(serverHitBin);
-                    } catch (GenericEntityException e) {
-                        Debug.logError(e, "Could not save ServerHitBin:", module);
-                    }
-                }
-            } else {
-                binList.pollFirst();
-            }
-            bin = new ServerHitBin(bin, bin.endTime + 1);
-            binList.addFirst(bin);
-        }
-
-        bin.addHit(runningTime);
+        // advance the bin; the expired bin is saved by the thread that replaces it
+        ServerHitBin bin = history.countHit(startTime, runningTime);
         if (isOriginal) {
             try {
                 bin.saveHit(request, startTime, runningTime, userLogin);
@@ -269,57 +225,247 @@ public class ServerHitBin {
     }
 
     private static void countHitSinceStart(String id, int type, long runningTime, Delegator delegator) {
-        ServerHitBin bin = null;
+        ConcurrentMap<String, ServerHitBin> sinceStartedMap = sinceStartedByType.get(type);
+        ServerHitBin bin = sinceStartedMap.get(id);
+        if (bin == null) {
+            bin = sinceStartedMap.computeIfAbsent(id, k -> new ServerHitBin(k, type, false, delegator));
+        }
+        bin.addHit(runningTime);
+    }
+
+    /**
+     * SCIPIO: Returns the since-started stats of the given type as maps sorted by id, see {@link #toMap()}.
+     * Added 2026-10.
+     */
+    public static List<Map<String, Object>> getStatsAsMap(int type) {
+        ConcurrentMap<String, ServerHitBin> sinceStartedMap = sinceStartedByType.get(type);
+        List<Map<String, Object>> statsList = new ArrayList<>();
+        for (String id : new TreeSet<>(sinceStartedMap.keySet())) {
+            ServerHitBin bin = sinceStartedMap.get(id);
+            if (bin != null) {
+                statsList.add(bin.toMap());
+            }
+        }
+        return statsList;
+    }
+
+    /**
+     * SCIPIO: Returns the since-started stats of all types as maps, by lowercase type name (request, event, ...).
+     * Added 2026-10.
+     */
+    public static Map<String, Object> getStatsAsMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (int type = REQUEST; type <= SERVICE; type++) {
+            stats.put(typeIds[type].toLowerCase(), getStatsAsMap(type));
+        }
+        return stats;
+    }
 
-        switch (type) {
-        case REQUEST:
-            bin = requestSinceStarted.get(id);
-            break;
+    /**
+     * SCIPIO: Returns the binned history of the given type and id, or null if none.
+     * Added 2026-10.
+     */
+    public static History getHistory(int type, String id) {
+        return historyByType.get(type).get(id);
+    }
 
-        case EVENT:
-            bin = eventSinceStarted.get(id);
-            break;
+    /**
+     * SCIPIO: Returns the binned history of the given type and id as maps, most recent first, or null if none.
+     * Added 2026-10.
+     */
+    public static List<Map<String, Object>> getHistoryAsMap(int type, String id) {
+        History history = getHistory(type, id);
+        if (history == null) {
+            return null;
+        }
+        List<Map<String, Object>> binList = new ArrayList<>();
+        for (ServerHitBin bin : history) {
+            binList.add(bin.toMap());
+        }
+        return binList;
+    }
 
-        case VIEW:
-            bin = viewSinceStarted.get(id);
-            break;
+    /**
+     * SCIPIO: Lock-free binned history of one id: the current bin and a ring of the last
+     * <code>stats.bin.history.size</code> completed bins that had hits. Iterates from the most recent bin.
+     * Added 2026-10 (replaces Deque).
+     */
+    public static final class History implements Iterable<ServerHitBin> {
+        private final AtomicReference<ServerHitBin> current;
+        private final AtomicReferenceArray<ServerHitBin> completed = new AtomicReferenceArray<>(historySize);
+        private final AtomicLong completedCount = new AtomicLong();
 
-        case ENTITY:
-            bin = entitySinceStarted.get(id);
-            break;
+        History(ServerHitBin bin) {
+            this.current = new AtomicReference<>(bin);
+        }
 
-        case SERVICE:
-            bin = serviceSinceStarted.get(id);
-            break;
+        /** Creates a history that is not registered in the history maps, starting with a bin covering the current time. */
+        public History(String id, int type, Delegator delegator) {
+            this(new ServerHitBin(id, type, true, delegator));
         }
 
-        if (bin == null) {
-            bin = new ServerHitBin(id, type, false, delegator);
-            ServerHitBin binFromMap = null;
-            switch (type) {
-            case REQUEST:
-                binFromMap = requestSinceStarted.putIfAbsent(id, bin);
-                break;
-
-            case EVENT:
-                binFromMap = eventSinceStarted.putIfAbsent(id, bin);
-                break;
-
-            case VIEW:
-                binFromMap = viewSinceStarted.putIfAbsent(id, bin);
-                break;
-
-            case ENTITY:
-                binFromMap = entitySinceStarted.putIfAbsent(id, bin);
-                break;
-
-            case SERVICE:
-                binFromMap = serviceSinceStarted.putIfAbsent(id, bin);
-                break;
+        /** Returns the size of the ring of completed bins (<code>stats.bin.history.size</code>). */
+        public static int getHistorySize() {
+            return historySize;
+        }
+
+        /** Returns the current bin. */
+        public ServerHitBin peek() {
+            return current.get();
+        }
+
+        /** Returns the bins, most recent first. */
+        public List<ServerHitBin> getBins() {
+            long count = completedCount.get();
+            int size = (int) Math.min(count, historySize);
+            List<ServerHitBin> bins = new ArrayList<>(size + 1);
+            bins.add(current.get());
+            for (long i = count - 1; i >= count - size; i--) {
+                ServerHitBin bin = completed.get((int) (i % historySize));
+                if (bin != null) {
+                    bins.add(bin);
+                }
             }
-            bin = binFromMap != null ? binFromMap : bin;
+            return bins;
+        }
+
+        @Override
+        public Iterator<ServerHitBin> iterator() {
+            return getBins().iterator();
+        }
+
+        /** Returns the bins in a new Deque, most recent first, as the history maps held before 2026-10. */
+        public Deque<ServerHitBin> toDeque() {
+            return new ArrayDeque<>(getBins());
+        }
+
+        /** Counts a hit ending at startTime + runningTime in the bin covering that time and returns the bin. */
+        public ServerHitBin countHit(long startTime, long runningTime) {
+            ServerHitBin bin = advance(startTime + runningTime);
+            bin.addHit(runningTime);
+            return bin;
+        }
+
+        /**
+         * Returns the bin covering toTime, first replacing the current bin if it ended before toTime. Only the thread
+         * whose compare-and-set replaces an expired bin completes (keeps and persists) it.
+         */
+        ServerHitBin advance(long toTime) {
+            ServerHitBin bin = current.get();
+            while (bin.limitLength && toTime > bin.endTime) {
+                // skip the bins without hits in between, to start the new bin at the one covering toTime
+                long startTime = bin.endTime + 1 + ((toTime - bin.endTime - 1) / bin.binLength) * bin.binLength;
+                ServerHitBin next = new ServerHitBin(bin, startTime);
+                if (current.compareAndSet(bin, next)) {
+                    complete(bin);
+                    bin = next;
+                } else {
+                    bin = current.get();
+                }
+            }
+            return bin;
+        }
+
+        private void complete(ServerHitBin bin) {
+            if (bin.getNumberHits() <= 0) {
+                return;
+            }
+            bin.summarize();
+            completed.set((int) (completedCount.getAndIncrement() % historySize), bin);
+            bin.persistBin();
+        }
+    }
+
+    /**
+     * SCIPIO: Read-only view of a History map with the former <code>ConcurrentMap&lt;String, Deque&lt;ServerHitBin&gt;&gt;</code>
+     * type of the public history fields; values are {@link History#toDeque()} snapshots. Removing and clearing
+     * are passed to the History map. Added 2026-10.
+     */
+    private static final class HistoryDequeView extends AbstractMap<String, Deque<ServerHitBin>> implements ConcurrentMap<String, Deque<ServerHitBin>> {
+        private final ConcurrentMap<String, History> histories;
+
+        HistoryDequeView(ConcurrentMap<String, History> histories) {
+            this.histories = histories;
+        }
+
+        @Override
+        public Deque<ServerHitBin> get(Object key) {
+            History history = histories.get(key);
+            return (history != null) ? history.toDeque() : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return histories.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return histories.size();
+        }
+
+        @Override
+        public Deque<ServerHitBin> remove(Object key) {
+            History history = histories.remove(key);
+            return (history != null) ? history.toDeque() : null;
+        }
+
+        @Override
+        public void clear() {
+            histories.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Deque<ServerHitBin>>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Deque<ServerHitBin>>>() {
+                @Override
+                public Iterator<Map.Entry<String, Deque<ServerHitBin>>> iterator() {
+                    Iterator<Map.Entry<String, History>> it = histories.entrySet().iterator();
+                    return new Iterator<Map.Entry<String, Deque<ServerHitBin>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Deque<ServerHitBin>> next() {
+                            Map.Entry<String, History> entry = it.next();
+                            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().toDeque());
+                        }
+
+                        @Override
+                        public void remove() {
+                            it.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return histories.size();
+                }
+            };
+        }
+
+        @Override
+        public Deque<ServerHitBin> putIfAbsent(String key, Deque<ServerHitBin> value) {
+            throw new UnsupportedOperationException("Bin history is read-only");
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw new UnsupportedOperationException("Bin history is read-only");
+        }
+
+        @Override
+        public boolean replace(String key, Deque<ServerHitBin> oldValue, Deque<ServerHitBin> newValue) {
+            throw new UnsupportedOperationException("Bin history is read-only");
+        }
+
+        @Override
+        public Deque<ServerHitBin> replace(String key, Deque<ServerHitBin> value) {
+            throw new UnsupportedOperationException("Bin history is read-only");
         }
-        bin.addHit(runningTime);
     }
 
     private final Delegator delegator;
@@ -330,10 +476,13 @@ public class ServerHitBin {
     private final long startTime;
     private final long endTime;
 
-    private long numberHits;
-    private long totalRunningTime;
-    private long minTime;
-    private long maxTime;
+    private final LongAdder numberHits = new LongAdder();
+    private final LongAdder totalRunningTime = new LongAdder();
+    private final AtomicLong minTime = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxTime = new AtomicLong(0);
+    /** Response times, until the bin is completed and summarized into timePercentiles. */
+    private volatile LatencyHistogram histogram = new LatencyHistogram();
+    private volatile long[] timePercentiles;
 
     private ServerHitBin(String id, int type, boolean limitLength, Delegator delegator) {
         this.id = id;
@@ -348,10 +497,6 @@ public class ServerHitBin {
         } else {
             this.endTime = 0;
         }
-        this.numberHits = 0;
-        this.totalRunningTime = 0;
-        this.minTime = Long.MAX_VALUE;
-        this.maxTime = 0;
     }
 
     private ServerHitBin(ServerHitBin oldBin, long startTime) {
@@ -368,10 +513,6 @@ public class ServerHitBin {
         } else {
             this.endTime = 0;
         }
-        this.numberHits = 0;
-        this.totalRunningTime = 0;
-        this.minTime = Long.MAX_VALUE;
-        this.maxTime = 0;
     }
 
     public Delegator getDelegator() {
@@ -417,20 +558,20 @@ public class ServerHitBin {
         return (this.getBinLength()) / 60000.0;
     }
 
-    public synchronized long getNumberHits() {
-        return this.numberHits;
+    public long getNumberHits() {
+        return this.numberHits.sum();
     }
 
-    public synchronized long getMinTime() {
-        return this.minTime;
+    public long getMinTime() {
+        return this.minTime.get();
     }
 
-    public synchronized long getMaxTime() {
-        return this.maxTime;
+    public long getMaxTime() {
+        return this.maxTime.get();
     }
 
-    public synchronized long getTotalRunningTime() {
-        return this.totalRunningTime;
+    public long getTotalRunningTime() {
+        return this.totalRunningTime.sum();
     }
 
     public double getMinTimeSeconds() {
@@ -441,7 +582,7 @@ public class ServerHitBin {
         return (this.getMaxTime()) / 1000.0;
     }
 
-    public synchronized double getAvgTime() {
+    public double getAvgTime() {
         return ((double) this.getTotalRunningTime()) / ((double) this.getNumberHits());
     }
 
@@ -454,13 +595,94 @@ public class ServerHitBin {
         return this.getNumberHits() / this.getBinLengthMinutes();
     }
 
-    private synchronized void addHit(long runningTime) {
-        this.numberHits++;
-        this.totalRunningTime += runningTime;
-        if (runningTime < this.minTime)
-            this.minTime = runningTime;
-        if (runningTime > this.maxTime)
-            this.maxTime = runningTime;
+    /**
+     * SCIPIO: Returns the 50th, 95th and 99th percentile response times in milliseconds, within the
+     * {@link LatencyHistogram} precision (about 6%). Added 2026-10.
+     */
+    public long[] getTimePercentiles() {
+        LatencyHistogram histogram = this.histogram;
+        if (histogram != null) {
+            return histogram.getValuesAtPercentiles(percentiles);
+        }
+        long[] timePercentiles = this.timePercentiles;
+        return (timePercentiles != null) ? timePercentiles.clone() : new long[percentiles.length];
+    }
+
+    /**
+     * SCIPIO: Returns the stats of this bin as a map of JSON-compatible values; times are in milliseconds.
+     * Added 2026-10.
+     */
+    public Map<String, Object> toMap() {
+        long numberHits = getNumberHits();
+        long[] timePercentiles = getTimePercentiles();
+        double binLengthMinutes = getBinLengthMinutes();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", getId());
+        map.put("type", typeIds[getType()]);
+        map.put("startTime", getStartTime());
+        map.put("endTime", getEndTime());
+        map.put("numberHits", numberHits);
+        map.put("totalTime", getTotalRunningTime());
+        map.put("minTime", (numberHits > 0) ? getMinTime() : 0);
+        map.put("avgTime", (numberHits > 0) ? getAvgTime() : 0);
+        map.put("maxTime", getMaxTime());
+        map.put("p50Time", timePercentiles[0]);
+        map.put("p95Time", timePercentiles[1]);
+        map.put("p99Time", timePercentiles[2]);
+        map.put("hitsPerMinute", (binLengthMinutes > 0) ? numberHits / binLengthMinutes : 0);
+        return map;
+    }
+
+    private void addHit(long runningTime) {
+        this.numberHits.increment();
+        this.totalRunningTime.add(runningTime);
+        long min = this.minTime.get();
+        while (runningTime < min && !this.minTime.compareAndSet(min, runningTime)) {
+            min = this.minTime.get();
+        }
+        long max = this.maxTime.get();
+        while (runningTime > max && !this.maxTime.compareAndSet(max, runningTime)) {
+            max = this.maxTime.get();
+        }
+        LatencyHistogram histogram = this.histogram;
+        if (histogram != null) {
+            histogram.record(runningTime);
+        }
+    }
+
+    /** Replaces the histogram by its percentiles, once the bin is completed, to keep the history small. */
+    private void summarize() {
+        LatencyHistogram histogram = this.histogram;
+        if (histogram != null) {
+            this.timePercentiles = histogram.getValuesAtPercentiles(percentiles);
+            this.histogram = null;
+        }
+    }
+
+    private void persistBin() {
+        // persist each bin when time ends if option turned on
+        if (EntityUtilProperties.propertyValueEqualsIgnoreCase("serverstats", persistBinPropertyNames[type], "true", delegator)) {
+            GenericValue serverHitBin = delegator.makeValue("ServerHitBin");
+            serverHitBin.set("contentId", this.id);
+            serverHitBin.set("hitTypeId", ServerHitBin.typeIds[this.type]);
+            serverHitBin.set("binStartDateTime", new java.sql.Timestamp(this.startTime));
+            serverHitBin.set("binEndDateTime", new java.sql.Timestamp(this.endTime));
+            serverHitBin.set("numberHits", this.getNumberHits());
+            serverHitBin.set("totalTimeMillis", this.getTotalRunningTime());
+            serverHitBin.set("minTimeMillis", this.getMinTime());
+            serverHitBin.set("maxTimeMillis", this.getMaxTime());
+            // get localhost ip address and hostname to store
+            if (VisitHandler.address != null) {
+                serverHitBin.set("serverIpAddress", VisitHandler.address.getHostAddress());
+                serverHitBin.set("serverHostName", VisitHandler.address.getHostName());
+            }
+            try {
+                //delegator.createSetNextSeqId(serverHitBin);
+                VisitHandler.createSetNextSeqId(delegator, serverHitBin); // SCIPIO: 2026-10: may be queued
+            } catch (GenericEntityException e) {
+                Debug.logError(e, "Could not save ServerHitBin:", module);
+            }
+        }
     }
 
     private void saveHit(HttpServletRequest request, long startTime, long runningTime, GenericValue userLogin) throws GenericEntityException {
@@ -483,6 +705,11 @@ public class ServerHitBin {
                 return;
             }
 
+            // SCIPIO: 2026-10: untracked sessions (spiders) have no visit on purpose
+            if (VisitHandler.isUntracked(request.getSession())) {
+                return;
+            }
+
             GenericValue visit = VisitHandler.getVisit(request.getSession());
             if (visit == null) {
                 // no visit info stored, so don't store the ServerHit
@@ -490,14 +717,17 @@ public class ServerHitBin {
                 return;
             }
             String visitId = visit.getString("visitId");
-            visit = EntityQuery.use(delegator).from("Visit").where("visitId", visitId).queryOne();
-            if (visit == null) {
-                // GenericValue stored in client session does not exist in database.
-                Debug.logInfo("The Visit GenericValue stored in the client session does not exist in the database, not storing server hit.", module);
-                return;
-            }
+            // SCIPIO: 2026-10: when writing asynchronously the Visit may still be queued (ahead of this hit), so it is not checked
+            if (!VisitWriter.isAsync()) {
+                visit = EntityQuery.use(delegator).from("Visit").where("visitId", visitId).queryOne();
+                if (visit == null) {
+                    // GenericValue stored in client session does not exist in database.
+                    Debug.logInfo("The Visit GenericValue stored in the client session does not exist in the database, not storing server hit.", module);
+                    return;
+                }
 
-            Debug.logInfo("Visit delegatorName=" + visit.getDelegator().getDelegatorName() + ", ServerHitBin delegatorName=" + this.delegator.getDelegatorName(), module);
+                Debug.logInfo("Visit delegatorName=" + visit.getDelegator().getDelegatorName() + ", ServerHitBin delegatorName=" + this.delegator.getDelegatorName(), module);
+            }
 
             GenericValue serverHit = delegator.makeValue("ServerHit");
 
@@ -549,7 +779,10 @@ public class ServerHitBin {
             // So prevent entity engine from logging errors; it throws GenericEntityException anyway.
             // TODO?: in future this should be optimized/replaced using Delegator/GenericValue/SqlProcessor logging options. 
             //serverHit.create();
-            if (Debug.verboseOn()) {
+            if (VisitWriter.isAsync()) {
+                // SCIPIO: 2026-10: queued; the writer uses create-or-update, so equal startTimes overwrite instead of failing
+                VisitWriter.write(serverHit);
+            } else if (Debug.verboseOn()) {
                 serverHit.create();
             } else {
                 try {
@@ -48,6 +48,14 @@ public class VisitHandler {
 
     public static final String visitorCookieName = "Scipio.Visitor";
 
+    /**
+     * SCIPIO: Session attribute set to Boolean.TRUE for sessions that are not tracked (no Visit, Visitor or ServerHit
+     * records), currently requests from spiders when <code>stats.untracked.spiders</code> is enabled. Added 2026-10.
+     */
+    public static final String UNTRACKED_ATTR = "_SCP_VISIT_UNTRACKED_";
+
+    private static final boolean untrackSpiders = UtilProperties.getPropertyAsBoolean("serverstats", "stats.untracked.spiders", true); // SCIPIO
+
     protected static final InetAddress address;
     static {
         InetAddress tmpAddress = null;
@@ -70,7 +78,12 @@ public class VisitHandler {
                 visitor.set("partyId", userLogin.get("partyId"));
             }
             try {
-                visitor.store();
+                // SCIPIO: 2026-10: may be queued, in which case it must be written through the same queue as the create
+                if (VisitWriter.isAsync()) {
+                    VisitWriter.store(visitor);
+                } else {
+                    visitor.store();
+                }
             } catch (GenericEntityException e) {
                 Debug.logError(e, "Could not update visitor: ", module);
             }
@@ -90,7 +103,12 @@ public class VisitHandler {
             }
 
             try {
-                visit.store();
+                // SCIPIO: 2026-10: may be queued, in which case it must be written through the same queue as the create
+                if (VisitWriter.isAsync()) {
+                    VisitWriter.store(visit);
+                } else {
+                    visit.store();
+                }
             } catch (GenericEntityException e) {
                 Debug.logError(e, "Could not update visit: ", module);
             }
@@ -106,8 +124,19 @@ public class VisitHandler {
         }
     }
 
+    /**
+     * SCIPIO: Returns true if the session is not tracked: no Visit, Visitor or ServerHit records are created for it.
+     * Added 2026-10.
+     */
+    public static boolean isUntracked(HttpSession session) {
+        return Boolean.TRUE.equals(session.getAttribute(UNTRACKED_ATTR));
+    }
+
     /** Get the visit from the session, or create if missing */
     public static GenericValue getVisit(HttpSession session) {
+        if (isUntracked(session)) { // SCIPIO
+            return null;
+        }
         // this defaults to true: ie if anything but "false" it will be true
         if (!UtilProperties.propertyValueEqualsIgnoreCase("serverstats", "stats.persist.visit", "false")) {
             GenericValue visit = (GenericValue) session.getAttribute("visit");
@@ -168,15 +197,20 @@ public class VisitHandler {
                                 String visitorId = visitor.getString("visitorId");
 
                                 // sometimes these values get stale, so check it before we use it
-                                try {
-                                    GenericValue checkVisitor = EntityQuery.use(delegator).from("Visitor").where("visitorId", visitorId).queryOne();
-                                    if (checkVisitor == null) {
-                                        GenericValue newVisitor = delegator.create("Visitor", "visitorId", visitorId);
-                                        session.setAttribute("visitor", newVisitor);
-                                    }
+                                // SCIPIO: 2026-10: not when writing asynchronously, where the Visitor may still be queued
+                                if (VisitWriter.isAsync()) {
                                     visit.set("visitorId", visitorId);
-                                } catch (GenericEntityException e) {
-                                    Debug.logWarning("Problem checking the visitorId: " + e.toString(), module);
+                                } else {
+                                    try {
+                                        GenericValue checkVisitor = EntityQuery.use(delegator).from("Visitor").where("visitorId", visitorId).queryOne();
+                                        if (checkVisitor == null) {
+                                            GenericValue newVisitor = delegator.create("Visitor", "visitorId", visitorId);
+                                            session.setAttribute("visitor", newVisitor);
+                                        }
+                                        visit.set("visitorId", visitorId);
+                                    } catch (GenericEntityException e) {
+                                        Debug.logWarning("Problem checking the visitorId: " + e.toString(), module);
+                                    }
                                 }
                             }
 
@@ -187,7 +221,9 @@ public class VisitHandler {
                             }
 
                             try {
-                                visit = delegator.createSetNextSeqId(visit);
+                                // SCIPIO: 2026-10: the ID comes from the in-memory sequence bank and the insert may be queued
+                                //visit = delegator.createSetNextSeqId(visit);
+                                visit = createSetNextSeqId(delegator, visit);
                                 session.setAttribute("visit", visit);
                             } catch (GenericEntityException e) {
                                 Debug.logError(e, "Could not create new visit:", module);
@@ -211,9 +247,17 @@ public class VisitHandler {
         Delegator delegator = (Delegator) request.getAttribute("delegator");
         if (!EntityUtilProperties.propertyValueEqualsIgnoreCase("serverstats", "stats.persist.visitor", "false", delegator)) {
             HttpSession session = request.getSession();
+            if (isUntracked(session)) { // SCIPIO
+                return null;
+            }
 
             GenericValue visitor = (GenericValue) session.getAttribute("visitor");
             if (visitor == null) {
+                // SCIPIO: 2026-10: spider sessions get no visitor and no visit
+                if (untrackSpiders && UtilHttp.checkURLforSpiders(request)) {
+                    session.setAttribute(UNTRACKED_ATTR, Boolean.TRUE);
+                    return null;
+                }
                 // SCIPIO: 2018-12-03: This is not supported by servlet API and will not work with session facades
                 //synchronized (session) {
                 synchronized (UtilHttp.getSessionSyncObject(session)) {
@@ -247,7 +291,7 @@ public class VisitHandler {
                                 // no visitor cookie? create visitor and send back cookie too
                                 visitor = delegator.makeValue("Visitor");
                                 try {
-                                    delegator.createSetNextSeqId(visitor);
+                                    createSetNextSeqId(delegator, visitor); // SCIPIO: 2026-10: may be queued
                                 } catch (GenericEntityException e) {
                                     Debug.logError(e, "Could not create new visitor:", module);
                                     visitor = null;
@@ -258,7 +302,7 @@ public class VisitHandler {
                                     if (visitor == null) {
                                         // looks like we have an ID that doesn't exist in our database, so we'll create a new one
                                         visitor = delegator.makeValue("Visitor");
-                                        visitor = delegator.createSetNextSeqId(visitor);
+                                        visitor = createSetNextSeqId(delegator, visitor); // SCIPIO: 2026-10: may be queued
                                         if (Debug.infoOn()) {
                                             String visitorId = visitor != null ? visitor.getString("visitorId") : "empty visitor";
                                             Debug.logInfo("The visitorId [" + cookieVisitorId + "] found in cookie was invalid, creating new Visitor with ID [" + visitorId + "]", module);
@@ -293,4 +337,18 @@ public class VisitHandler {
         }
         return null;
     }
+
+    /**
+     * SCIPIO: Same as {@link Delegator#createSetNextSeqId(GenericValue)}, but the insert goes through {@link VisitWriter},
+     * so it is queued when asynchronous writing is enabled. The ID is taken from the delegator sequence bank
+     * (in memory, refilled by the entity sequence-bank-size). Added 2026-10.
+     */
+    static GenericValue createSetNextSeqId(Delegator delegator, GenericValue value) throws GenericEntityException {
+        if (!VisitWriter.isAsync()) {
+            return delegator.createSetNextSeqId(value);
+        }
+        value.setNextSeqId();
+        VisitWriter.write(value);
+        return value;
+    }
 }
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.stats;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.ofbiz.base.concurrent.ExecutionPool;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.GenericEntityException;
+import org.ofbiz.entity.GenericEntityNotFoundException;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.transaction.GenericTransactionException;
+import org.ofbiz.entity.transaction.TransactionUtil;
+
+/**
+ * SCIPIO: Batching writer for the Visit, Visitor and ServerHit records, so that requests do not wait
+ * on these inserts.
+ * <p>
+ * Values are queued in order and written by a background thread every
+ * <code>stats.persist.async.flushInterval</code> milliseconds, at most
+ * <code>stats.persist.async.batchSize</code> per transaction. New records go through {@link #write} (create-or-update)
+ * and changes to existing records through {@link #store} (update only), so that an update queued after a create
+ * (e.g. Visit after login) is applied to the same row, and a partial update never inserts a row of its own.
+ * If the queue is full the calling thread first writes the queued values, so that a value is never written
+ * ahead of one queued before it (e.g. a ServerHit before its Visit).
+ * Enabled by <code>stats.persist.async</code> in serverstats.properties.
+ * <p>
+ * At shutdown {@link VisitWriterContainer} writes the queued values and values are then written immediately,
+ * as the web server stops after it. Values queued but not yet written when the server stops abruptly are lost.
+ */
+public final class VisitWriter {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final boolean async = UtilProperties.getPropertyAsBoolean("serverstats", "stats.persist.async", true);
+    private static final int batchSize = Math.max(1, UtilProperties.getPropertyAsInteger("serverstats", "stats.persist.async.batchSize", 200));
+    private static final long flushInterval = Math.max(10, UtilProperties.getPropertyAsLong("serverstats", "stats.persist.async.flushInterval", 1000));
+    private static final int queueSize = Math.max(1, UtilProperties.getPropertyAsInteger("serverstats", "stats.persist.async.queueSize", 10000));
+
+    private static final ThreadGroup VISIT_WRITER_THREAD_GROUP = new ThreadGroup("VisitWriter");
+
+    private static final VisitWriter INSTANCE = async ? new VisitWriter() : null;
+
+    private final BlockingQueue<Write> queue = new ArrayBlockingQueue<>(queueSize);
+    private final ScheduledExecutorService executor;
+    /** Read-locked to queue a value, write-locked to stop, so no value is queued after the last flush. */
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private boolean stopped = false; // guarded by stateLock
+
+    private VisitWriter() {
+        this.executor = ExecutionPool.getScheduledExecutor(VISIT_WRITER_THREAD_GROUP, "visit-writer", 1, 0, false);
+        this.executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Returns true if Visit, Visitor and ServerHit records are written asynchronously. */
+    public static boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Queues the value to be created, or updated if its row exists. A copy is queued, so the caller may keep
+     * modifying the value. If asynchronous writing is disabled or stopped, writes it immediately.
+     */
+    public static void write(GenericValue value) throws GenericEntityException {
+        if (INSTANCE == null || !INSTANCE.enqueue(new Write((GenericValue) value.clone(), false))) {
+            value.getDelegator().createOrStore(value);
+        }
+    }
+
+    /**
+     * Queues an update of the fields set in the value, to a row created before it (possibly still queued).
+     * Unlike {@link #write}, does not insert a row if none exists, so the value may hold only some of the fields.
+     * A copy is queued; if asynchronous writing is disabled or stopped, stores it immediately.
+     */
+    public static void store(GenericValue value) throws GenericEntityException {
+        if (INSTANCE == null || !INSTANCE.enqueue(new Write((GenericValue) value.clone(), true))) {
+            value.getDelegator().store(value);
+        }
+    }
+
+    /** Writes all queued values now, in the calling thread. */
+    public static void flushAll() {
+        if (INSTANCE != null) {
+            INSTANCE.flush();
+        }
+    }
+
+    /**
+     * Writes all queued values and stops the background thread; values are then written immediately.
+     * Called by {@link VisitWriterContainer#stop()}.
+     */
+    public static void shutdown() {
+        if (INSTANCE != null) {
+            INSTANCE.stop();
+        }
+    }
+
+    /** Returns the number of values waiting to be written. */
+    public static int getQueuedCount() {
+        return (INSTANCE != null) ? INSTANCE.queue.size() : 0;
+    }
+
+    /**
+     * Queues the value, first writing the queued values in this thread while the queue is full.
+     * Returns false if stopped.
+     */
+    private boolean enqueue(Write write) {
+        stateLock.readLock().lock();
+        try {
+            if (stopped) {
+                return false;
+            }
+            while (!queue.offer(write)) {
+                flush();
+            }
+            return true;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private void stop() {
+        stateLock.writeLock().lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            executor.shutdown();
+            // still under the write lock, so immediate writes cannot overtake the queued values
+            flush();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        Debug.logInfo("Visit writer stopped; visit records are now written immediately", module);
+    }
+
+    private synchronized void flush() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Write> batch) {
+        // values of one delegator are written in one transaction; queue order is kept within each delegator
+        Map<Delegator, List<Write>> byDelegator = new LinkedHashMap<>();
+        for (Write write : batch) {
+            byDelegator.computeIfAbsent(write.value.getDelegator(), k -> new ArrayList<>()).add(write);
+        }
+        for (List<Write> writes : byDelegator.values()) {
+            boolean beganTransaction = false;
+            try {
+                beganTransaction = TransactionUtil.begin();
+                for (Write write : writes) {
+                    write.apply();
+                }
+                TransactionUtil.commit(beganTransaction);
+            } catch (Exception e) {
+                try {
+                    TransactionUtil.rollback(beganTransaction, "Could not write batch of visit records", e);
+                } catch (GenericTransactionException e2) {
+                    Debug.logError(e2, "Could not roll back batch of visit records", module);
+                }
+                Debug.logWarning("Could not write batch of " + writes.size()
+                        + " visit records, writing them one by one: " + e.toString(), module);
+                for (Write write : writes) {
+                    try {
+                        write.apply();
+                    } catch (GenericEntityNotFoundException e2) {
+                        Debug.logWarning("Could not update " + write.value.getEntityName() + " " + write.value.getPkShortValueString()
+                                + ": no such record", module);
+                    } catch (Exception e2) {
+                        Debug.logError("Could not write " + write.value.getEntityName() + " " + write.value.getPkShortValueString()
+                                + ": " + e2.toString(), module);
+                    }
+                }
+            }
+        }
+    }
+
+    /** A queued value and whether it updates an existing row only. */
+    private static final class Write {
+        final GenericValue value;
+        final boolean update;
+
+        Write(GenericValue value, boolean update) {
+            this.value = value;
+            this.update = update;
+        }
+
+        void apply() throws GenericEntityException {
+            if (update) {
+                value.getDelegator().store(value);
+            } else {
+                value.getDelegator().createOrStore(value);
+            }
+        }
+    }
+}
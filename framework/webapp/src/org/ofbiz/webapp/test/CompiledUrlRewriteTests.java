@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.DelegatorFactory;
+import org.ofbiz.webapp.ExtWebappInfo;
+import org.ofbiz.webapp.FullWebappInfo;
+
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.ScipioUrlRewriter;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriteConf;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.compiled.CompiledUrlRewriter;
+import com.ilscipio.scipio.ce.webapp.filter.urlrewrite.local.LocalUrlRewriter;
+
+public class CompiledUrlRewriteTests extends GenericTestCaseBase {
+
+    public CompiledUrlRewriteTests(String name) {
+        super(name);
+    }
+
+    private static void assertPrefix(String regex, String expectedPrefix, String... matchingUrls) {
+        String prefix = CompiledUrlRewriteConf.OutboundRule.getLiteralPrefix(regex);
+        assertEquals("prefix of " + regex, expectedPrefix, prefix);
+        Pattern pattern = Pattern.compile(regex);
+        for (String url : matchingUrls) {
+            assertTrue(regex + " matches " + url, pattern.matcher(url).find());
+            assertTrue(url + " starts with prefix of " + regex, url.startsWith(prefix));
+        }
+    }
+
+    public void testLiteralPrefix() {
+        assertPrefix("^/control/(.*)$", "/control/", "/control/main");
+        assertPrefix("^/shop/products?/", "/shop/product", "/shop/product/x", "/shop/products/x");
+        assertPrefix("^/a-b_c/x\\.html", "/a-b_c/x", "/a-b_c/x.html");
+        assertPrefix("/control/(.*)$", "", "/shop/control/main");
+        assertPrefix("^(?i)/control/", "", "/CONTROL/");
+    }
+
+    public void testLiteralPrefixAlternation() {
+        assertPrefix("^/a|/b", "", "/a", "/x/b");
+        assertPrefix("^/a/(x)|^/b/", "", "/a/x", "/b/");
+        assertPrefix("^/(a|b)/x", "/", "/a/x", "/b/x");
+        assertPrefix("^/a[|]b", "/a", "/a|b");
+        assertPrefix("^/a\\|b", "/a", "/a|b");
+        assertPrefix("^/a\\Q|\\E", "/a", "/a|");
+        assertPrefix("^/a[]|]b", "/a", "/a|b", "/a]b");
+    }
+
+    /** Links of the shop webapp, for the rules of the shop urlrewrite.xml and the test rules. */
+    private static final String[] SHOP_URLS = {
+            "/shop/control/main",
+            "/shop/control/main?a=1&b=2",
+            "/shop/control/main#top",
+            "/shop/control/main;jsessionid=ABC?x=1",
+            "/shop/control/product/~product_id=X",
+            "/shop/control/legacy/product?x=1",
+            "/shop/control/OLD/cart",
+            "/shop/control/alias1",
+            "/shop/control/other/alias2",
+            "/shop/control/Upper/x",
+            "/shop/control/UPPER/x",
+            "/shop/images/logo.png",
+            "/shop/images/a.b.JPG",
+            "/shop/images/logo.gif",
+            "https://localhost:8443/shop/control/main",
+            "http://localhost:8080/shop/control/legacy/x",
+            "/shop",
+            "/shop/"
+    };
+
+    /** Links of another webapp, rewritten through its own urlrewrite.xml by the inter-webapp rule. */
+    private static final String[] WEBTOOLS_URLS = {
+            "/webtools/control/main",
+            "/webtools/control/legacy/x?y=1",
+            "https://localhost:8443/webtools/control/EntitySQLProcessor"
+    };
+
+    /**
+     * Checks that the compiled rewriter gives the same URLs as the emulated urlrewritefilter rewriter for the
+     * outbound-rules at the location, for links to the shop webapp and to webtools.
+     */
+    private static void assertEquivalent(String urlConfPath) throws Exception {
+        Delegator delegator = DelegatorFactory.getDelegator("default");
+        FullWebappInfo shopInfo = FullWebappInfo.fromWebapp(ExtWebappInfo.fromContextPath("/shop"), delegator, null);
+        FullWebappInfo webtoolsInfo = FullWebappInfo.fromWebapp(ExtWebappInfo.fromContextPath("/webtools"), delegator, null);
+        Map<String, Object> context = new HashMap<>();
+        context.put("delegator", delegator);
+        context.put("locale", Locale.ENGLISH);
+
+        ScipioUrlRewriter compiled = new CompiledUrlRewriter.CompiledFactory().loadForContext(shopInfo, urlConfPath, context);
+        assertTrue(urlConfPath + " is compiled", compiled instanceof CompiledUrlRewriter);
+        ScipioUrlRewriter emulated = new LocalUrlRewriter.LocalFactory().loadForContext(shopInfo, urlConfPath, context);
+
+        for (String url : SHOP_URLS) {
+            assertEquals(urlConfPath + ": " + url, emulated.processOutboundUrl(url, shopInfo, context),
+                    compiled.processOutboundUrl(url, shopInfo, context));
+        }
+        for (String url : WEBTOOLS_URLS) {
+            assertEquals(urlConfPath + ": " + url + " (webtools)", emulated.processOutboundUrl(url, webtoolsInfo, context),
+                    compiled.processOutboundUrl(url, webtoolsInfo, context));
+        }
+    }
+
+    public void testShippedRulesEquivalence() throws Exception {
+        assertEquivalent("component://shop/webapp/shop/WEB-INF/urlrewrite.xml");
+    }
+
+    public void testRuleFeaturesEquivalence() throws Exception {
+        // optional /control/main rules, alternation, literal prefixes, case sensitivity and back-references
+        assertEquivalent("component://webapp/testdef/data/UrlRewriteEquivalenceTest.xml");
+    }
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.webapp.control.ControlServlet;
+
+/**
+ * Tests the error page handling of {@link ControlServlet}.
+ */
+public class ControlServletTests extends GenericTestCaseBase {
+
+    public ControlServletTests(String name) {
+        super(name);
+    }
+
+    public void testErrorPage() throws Exception {
+        HttpTestFixtures.TestRequest request = new HttpTestFixtures.TestRequest();
+        HttpTestFixtures.TestResponse response = new HttpTestFixtures.TestResponse();
+        request.attributes.put("_ERROR_MESSAGE_", "failed");
+        new TestControlServlet().renderErrorPage(request.request, response.response, "/error/error.jsp");
+        assertEquals("forwarded", UtilMisc.toList("/error/error.jsp"), request.forwards);
+        assertEquals("error occurred", Boolean.TRUE, request.attributes.get("_ERROR_OCCURRED_"));
+    }
+
+    public void testErrorAfterCommit() throws Exception {
+        HttpTestFixtures.TestRequest request = new HttpTestFixtures.TestRequest();
+        HttpTestFixtures.TestResponse response = new HttpTestFixtures.TestResponse();
+        PrintWriter writer = response.response.getWriter();
+        writer.print("<html><head>");
+        writer.flush();
+        request.attributes.put("_ERROR_MESSAGE_", "failed");
+        new TestControlServlet().renderErrorPage(request.request, response.response, "/error/error.jsp");
+        assertTrue("not forwarded", request.forwards.isEmpty());
+        assertNull("error page not started", request.attributes.get("_ERROR_OCCURRED_"));
+        assertEquals("status", HttpServletResponse.SC_OK, response.status);
+        assertEquals("output cut short", "<html><head>", response.getOutput());
+    }
+
+    /** Makes {@link ControlServlet#renderErrorPage} visible to the tests. */
+    private static class TestControlServlet extends ControlServlet {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void renderErrorPage(HttpServletRequest request, HttpServletResponse response, String errorPage) throws IOException {
+            super.renderErrorPage(request, response, errorPage);
+        }
+    }
+}
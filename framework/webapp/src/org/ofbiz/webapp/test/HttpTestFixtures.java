@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ReadListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+/**
+ * SCIPIO: Minimal in-memory servlet request, response and session for the webapp tests, as {@link Proxy} instances of
+ * the servlet interfaces. Methods not handled return null, false or 0.
+ * <p>
+ * Added 2026-10.
+ */
+public final class HttpTestFixtures {
+
+    private HttpTestFixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(HttpTestFixtures.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /** One browser: a container session, created on demand and replaced when invalidated. */
+    public static final class TestClient {
+        private TestSession session;
+
+        /** Returns a new GET request of this client. */
+        public TestRequest newRequest() {
+            return new TestRequest(this);
+        }
+
+        /** Returns the current session, or null if none or invalidated. */
+        public TestSession getSession() {
+            return (session != null && !session.invalid) ? session : null;
+        }
+
+        HttpSession getSession(boolean create) {
+            if ((session == null || session.invalid) && create) {
+                session = new TestSession();
+            }
+            return (session != null && !session.invalid) ? session.session : null;
+        }
+    }
+
+    /** A container session; invalidating it unbinds its {@link HttpSessionBindingListener} attributes. */
+    public static final class TestSession {
+        public final Map<String, Object> attributes = new HashMap<>();
+        private boolean invalid = false;
+        public final HttpSession session = newProxy(HttpSession.class, (proxy, method, args) -> {
+            if (invalid) {
+                throw new IllegalStateException("Session already invalidated");
+            }
+            switch (method.getName()) {
+            case "getAttribute": return attributes.get(args[0]);
+            case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+            case "removeAttribute": unbind((HttpSession) proxy, (String) args[0], attributes.remove(args[0])); return null;
+            case "getAttributeNames": return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+            case "invalidate":
+                for (String name : attributes.keySet().toArray(new String[0])) {
+                    unbind((HttpSession) proxy, name, attributes.remove(name));
+                }
+                invalid = true;
+                return null;
+            case "hashCode": return System.identityHashCode(proxy);
+            case "equals": return proxy == args[0];
+            default: return defaultValue(method);
+            }
+        });
+
+        public boolean isInvalid() {
+            return invalid;
+        }
+
+        private static void unbind(HttpSession session, String name, Object value) {
+            if (value instanceof HttpSessionBindingListener) {
+                ((HttpSessionBindingListener) value).valueUnbound(new HttpSessionBindingEvent(session, name, value));
+            }
+        }
+    }
+
+    /**
+     * A request with attributes, headers, parameters, a query string and a body; without a {@link TestClient} it has
+     * no session. The parameters are not parsed from the query string or body. Forwards through its request
+     * dispatchers are recorded.
+     */
+    public static final class TestRequest {
+        public final Map<String, Object> attributes = new HashMap<>();
+        public final Map<String, String> headers = new HashMap<>();
+        public final Map<String, String[]> parameters = new LinkedHashMap<>();
+        public String method = "GET";
+        public String contextPath = "/test";
+        public boolean secure = false;
+        public String queryString;
+        public byte[] body = new byte[0];
+        public final List<String> forwards = new ArrayList<>();
+        private final TestClient client;
+        public final HttpServletRequest request;
+
+        public TestRequest() {
+            this(null);
+        }
+
+        TestRequest(TestClient client) {
+            this.client = client;
+            this.request = newProxy(HttpServletRequest.class, this::invoke);
+        }
+
+        private Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+            case "getMethod": return this.method;
+            case "getContextPath": return contextPath;
+            case "isSecure": return secure;
+            case "getHeader": return headers.get(args[0]);
+            case "getQueryString": return queryString;
+            case "getInputStream": return newInputStream();
+            case "getParameter":
+                String[] values = parameters.get(args[0]);
+                return (values != null && values.length > 0) ? values[0] : null;
+            case "getParameterValues": return parameters.get(args[0]);
+            case "getParameterMap": return Collections.unmodifiableMap(parameters);
+            case "getAttribute": return attributes.get(args[0]);
+            case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+            case "removeAttribute": attributes.remove(args[0]); return null;
+            case "getAttributeNames": return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+            case "getSession":
+                return (client != null) ? client.getSession((args == null) || (Boolean) args[0]) : null;
+            case "getRequestDispatcher":
+                String path = (String) args[0];
+                return newProxy(RequestDispatcher.class, (dispatcherProxy, dispatcherMethod, dispatcherArgs) -> {
+                    if ("forward".equals(dispatcherMethod.getName())) {
+                        forwards.add(path);
+                    }
+                    return defaultValue(dispatcherMethod);
+                });
+            default: return defaultValue(method);
+            }
+        }
+
+        private ServletInputStream newInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                }
+            };
+        }
+    }
+
+    /**
+     * A response buffering its body. It is committed by {@link HttpServletResponse#flushBuffer()} or a flush of its
+     * writer or output stream; each such flush is counted.
+     */
+    public static final class TestResponse {
+        public final Map<String, List<String>> headers = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        public int status = HttpServletResponse.SC_OK;
+        public String contentType;
+        private boolean committed = false;
+        private int flushCount = 0;
+        private PrintWriter writer;
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void flush() {
+                flushed();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        public final HttpServletResponse response = newProxy(HttpServletResponse.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "setHeader": headers.put((String) args[0], new ArrayList<>(Collections.singletonList((String) args[1]))); return null;
+            case "addHeader": headers.computeIfAbsent((String) args[0], k -> new ArrayList<>()).add((String) args[1]); return null;
+            case "containsHeader": return headers.containsKey(args[0]);
+            case "getHeaderNames": return new ArrayList<>(headers.keySet());
+            case "getHeaders": return headers.getOrDefault(args[0], Collections.emptyList());
+            case "getHeader": return getHeader((String) args[0]);
+            case "getStatus": return status;
+            case "setStatus": status = (Integer) args[0]; return null;
+            case "sendError":
+                if (committed) {
+                    throw new IllegalStateException("Response already committed");
+                }
+                status = (Integer) args[0];
+                committed = true;
+                return null;
+            case "getContentType": return contentType;
+            case "setContentType": contentType = (String) args[0]; return null;
+            case "getCharacterEncoding": return "UTF-8";
+            case "getOutputStream": return outputStream;
+            case "getWriter":
+                if (writer == null) {
+                    writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                }
+                return writer;
+            case "flushBuffer":
+                if (writer != null) {
+                    writer.flush();
+                } else {
+                    flushed();
+                }
+                return null;
+            case "isCommitted": return committed;
+            case "reset":
+            case "resetBuffer":
+                if (committed) {
+                    throw new IllegalStateException("Response already committed");
+                }
+                body.reset();
+                return null;
+            default: return defaultValue(method);
+            }
+        });
+
+        private void flushed() {
+            committed = true;
+            flushCount++;
+        }
+
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return (values != null && !values.isEmpty()) ? values.get(0) : null;
+        }
+
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        /** Returns the number of flushes of the response. */
+        public int getFlushCount() {
+            return flushCount;
+        }
+
+        /** Returns the output written and flushed so far, without flushing the writer. */
+        public String getFlushedOutput() {
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        /** Returns the output, flushing the writer first (without committing the response). */
+        public String getOutput() {
+            if (writer != null) {
+                boolean wasCommitted = committed;
+                int flushes = flushCount;
+                writer.flush();
+                committed = wasCommitted;
+                flushCount = flushes;
+            }
+            return getFlushedOutput();
+        }
+    }
+}
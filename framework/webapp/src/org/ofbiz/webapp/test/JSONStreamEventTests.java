@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.service.ModelService;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.webapp.control.ConfigXMLReader;
+import org.ofbiz.webapp.event.JSONStreamEventHandler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JSONStreamEventTests extends OFBizTestCase {
+
+    /** Echoes message and returns rowCount rows, failing after failAfter (see services_test_se.xml). */
+    private static final String SERVICE_NAME = "testServiceJsonStream";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public JSONStreamEventTests(String name) {
+        super(name);
+    }
+
+    public void testCompleteStream() throws Exception {
+        TestHandler handler = new TestHandler();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = handler.createGenerator(out)) {
+            generator.writeStartArray();
+            assertTrue("success", handler.writeResult(generator, UtilMisc.toMap(ModelService.RESPONSE_MESSAGE, ModelService.RESPOND_SUCCESS,
+                    "rows", Arrays.asList("a", "b").iterator())));
+            assertFalse("error", handler.writeResult(generator, UtilMisc.toMap(ModelService.RESPONSE_MESSAGE, ModelService.RESPOND_ERROR)));
+            generator.writeEndArray();
+        }
+        JsonNode records = mapper.readTree(out.toByteArray());
+        assertEquals("records", 2, records.size());
+        assertEquals("streamed iterator", "b", records.get(0).get("rows").get(1).asText());
+        assertEquals("error record", ModelService.RESPOND_ERROR, records.get(1).get(ModelService.RESPONSE_MESSAGE).asText());
+    }
+
+    public void testMidStreamFailure() throws Exception {
+        TestHandler handler = new TestHandler();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Iterator<String> failing = new Iterator<String>() {
+            private int count = 0;
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+            @Override
+            public String next() {
+                if (count++ > 0) {
+                    throw new IllegalStateException("database went away");
+                }
+                return "first";
+            }
+        };
+        try (JsonGenerator generator = handler.createGenerator(out)) {
+            generator.writeStartArray();
+            handler.writeResult(generator, UtilMisc.toMap(ModelService.RESPONSE_MESSAGE, ModelService.RESPOND_SUCCESS));
+            handler.writeResult(generator, UtilMisc.toMap("rows", failing));
+            fail("iterator failure not thrown");
+        } catch (IllegalStateException e) {
+            // expected; the generator was closed
+        }
+        String output = out.toString("UTF-8");
+        assertTrue("records before the failure written: " + output, output.startsWith("[{"));
+        try {
+            mapper.readTree(out.toByteArray());
+            fail("truncated stream parsed as complete JSON: " + output);
+        } catch (JsonProcessingException e) {
+            // expected
+        }
+    }
+
+    private static final class TestHandler extends JSONStreamEventHandler {
+        @Override
+        protected JsonGenerator createGenerator(OutputStream out) throws IOException {
+            return super.createGenerator(out);
+        }
+
+        @Override
+        protected boolean writeResult(JsonGenerator generator, Map<String, Object> result) throws IOException {
+            return super.writeResult(generator, result);
+        }
+    }
+
+    public void testInvokeObject() throws Exception {
+        TestExchange exchange = new TestExchange("{\"message\": \"hello\", \"rowCount\": 3}");
+        assertEquals("success", exchange.invoke());
+        JsonNode result = mapper.readTree(exchange.response.getOutput());
+        assertEquals("echo", "hello", result.get("echo").asText());
+        assertEquals("streamed iterator", "[0,1,2]", result.get("rows").toString());
+        assertEquals(ModelService.RESPOND_SUCCESS, result.get(ModelService.RESPONSE_MESSAGE).asText());
+    }
+
+    public void testInvokeUrlParameters() throws Exception {
+        TestExchange exchange = new TestExchange("{\"rowCount\": 1}");
+        exchange.request.queryString = "message=fromUrl";
+        exchange.request.parameters.put("message", new String[] { "fromUrl" });
+        assertEquals("success", exchange.invoke());
+        assertEquals("echo", "fromUrl", mapper.readTree(exchange.response.getOutput()).get("echo").asText());
+    }
+
+    public void testInvokeRecords() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 150; i++) {
+            body.append((i > 0) ? "," : "").append("{\"message\": \"").append((i == 3) ? "error" : "record " + i).append("\"}");
+        }
+        TestExchange exchange = new TestExchange(body.append("]").toString());
+        assertEquals("one record failed", "error", exchange.invoke());
+        assertTrue("committed midway", exchange.response.getFlushCount() >= 1);
+        JsonNode records = mapper.readTree(exchange.response.getOutput());
+        assertEquals("records", 150, records.size());
+        assertEquals("in order", "record 149", records.get(149).get("echo").asText());
+        assertEquals("error record", ModelService.RESPOND_ERROR, records.get(3).get(ModelService.RESPONSE_MESSAGE).asText());
+    }
+
+    public void testInvokeInvalidRecord() throws Exception {
+        TestExchange exchange = new TestExchange("[{\"message\": \"a\"}, 42]");
+        assertEquals("error", exchange.invoke());
+        assertEquals("status", HttpServletResponse.SC_BAD_REQUEST, exchange.response.status);
+        assertEquals("output discarded", "", exchange.response.getOutput());
+    }
+
+    public void testInvokeNonObjectBody() throws Exception {
+        TestExchange exchange = new TestExchange("\"text\"");
+        assertEquals("error", exchange.invoke());
+        assertEquals("status", HttpServletResponse.SC_BAD_REQUEST, exchange.response.status);
+    }
+
+    public void testInvokeIteratorFailureBeforeCommit() throws Exception {
+        TestExchange exchange = new TestExchange("{\"rowCount\": 5, \"failAfter\": 2}");
+        assertEquals("error", exchange.invoke());
+        assertFalse("not committed", exchange.response.isCommitted());
+        assertEquals("status", HttpServletResponse.SC_INTERNAL_SERVER_ERROR, exchange.response.status);
+        assertEquals("output discarded", "", exchange.response.getOutput());
+    }
+
+    public void testInvokeIteratorFailureAfterCommit() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            body.append("{\"message\": \"record ").append(i).append("\"},");
+        }
+        TestExchange exchange = new TestExchange(body.append("{\"rowCount\": 5, \"failAfter\": 2}]").toString());
+        // the failure must not escape the event, as the response can no longer be reset
+        assertEquals("error", exchange.invoke());
+        assertTrue("committed", exchange.response.isCommitted());
+        assertEquals("status", HttpServletResponse.SC_OK, exchange.response.status);
+        String output = exchange.response.getOutput();
+        assertTrue("records before the failure written", output.contains("\"record 119\""));
+        try {
+            mapper.readTree(output);
+            fail("truncated stream parsed as complete JSON: " + output);
+        } catch (JsonProcessingException e) {
+            // expected
+        }
+    }
+
+    /** A POST of a JSON body to the event, by a client with a session. */
+    private final class TestExchange {
+        final HttpTestFixtures.TestRequest request = new HttpTestFixtures.TestClient().newRequest();
+        final HttpTestFixtures.TestResponse response = new HttpTestFixtures.TestResponse();
+
+        TestExchange(String body) {
+            request.method = "POST";
+            request.body = body.getBytes(StandardCharsets.UTF_8);
+            request.attributes.put("dispatcher", dispatcher);
+            request.attributes.put("delegator", delegator);
+        }
+
+        String invoke() throws Exception {
+            ConfigXMLReader.Event event = new ConfigXMLReader.Event(UtilXml.readXmlDocument("<event type=\"service-json-stream\" invoke=\""
+                    + SERVICE_NAME + "\"/>").getDocumentElement());
+            return new JSONStreamEventHandler().invoke(event, null, request.request, response.response);
+        }
+    }
+}
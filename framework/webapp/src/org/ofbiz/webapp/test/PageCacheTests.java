@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.io.PrintWriter;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.webapp.control.ConfigXMLReader;
+import org.ofbiz.webapp.control.PageCache;
+
+public class PageCacheTests extends GenericTestCaseBase {
+
+    private static final String CACHE = "<cache ttl=\"60\" locale=\"false\" currency=\"false\" web-site=\"false\"/>";
+
+    public PageCacheTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        PageCache.clear();
+    }
+
+    public void testSuccessViewStored() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcSuccess", "view");
+        TestExchange first = new TestExchange();
+        assertFalse("miss", PageCache.serveRequest(first.request, first.response, requestMap));
+        PageCache.checkResponse(first.request, requestMap.requestResponseMap.get("success"));
+        render(first, "main", "<p>cached</p>");
+        assertEquals("first output", "<p>cached</p>", first.getOutput());
+
+        TestExchange second = new TestExchange();
+        assertTrue("hit", PageCache.serveRequest(second.request, second.response, requestMap));
+        assertEquals("cached output", "<p>cached</p>", second.getOutput());
+    }
+
+    public void testErrorResponseNotStored() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcError", "view");
+        TestExchange first = new TestExchange();
+        assertFalse("miss", PageCache.serveRequest(first.request, first.response, requestMap));
+        PageCache.checkResponse(first.request, requestMap.requestResponseMap.get("error"));
+        assertNull("error view not captured", PageCache.startCapture(first.request, first.response, "error", viewMap("error")));
+        assertMiss(requestMap);
+    }
+
+    public void testOverriddenViewNotStored() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcOverride", "view");
+        TestExchange first = new TestExchange();
+        assertFalse("miss", PageCache.serveRequest(first.request, first.response, requestMap));
+        PageCache.checkResponse(first.request, requestMap.requestResponseMap.get("success"));
+        assertNull("other view not captured", PageCache.startCapture(first.request, first.response, "other", viewMap("other")));
+        assertMiss(requestMap);
+    }
+
+    public void testChainedRequestNotStored() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcChain", "request");
+        TestExchange first = new TestExchange();
+        assertFalse("miss", PageCache.serveRequest(first.request, first.response, requestMap));
+        // the chained request renders the view
+        assertNull("chained view not captured", PageCache.startCapture(first.request, first.response, "main", viewMap("main")));
+        assertMiss(requestMap);
+    }
+
+    public void testNotModified() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcEtag", "view");
+        TestExchange first = new TestExchange();
+        PageCache.serveRequest(first.request, first.response, requestMap);
+        PageCache.checkResponse(first.request, requestMap.requestResponseMap.get("success"));
+        render(first, "main", "etag");
+        String etag = first.getHeader("ETag");
+        assertNotNull("etag", etag);
+
+        TestExchange second = new TestExchange();
+        second.requestHeaders.put("If-None-Match", etag);
+        assertTrue("hit", PageCache.serveRequest(second.request, second.response, requestMap));
+        assertEquals("status", HttpServletResponse.SC_NOT_MODIFIED, second.getStatus());
+        assertEquals("no body", "", second.getOutput());
+    }
+
+    public void testSessionAttributesBypass() throws Exception {
+        ConfigXMLReader.RequestMap requestMap = requestMap("pcSession", "view");
+        TestExchange first = new TestExchange();
+        PageCache.serveRequest(first.request, first.response, requestMap);
+        PageCache.checkResponse(first.request, requestMap.requestResponseMap.get("success"));
+        render(first, "main", "anonymous");
+
+        // an anonymous session without cart or search state is served from the cache
+        HttpTestFixtures.TestClient client = new HttpTestFixtures.TestClient();
+        client.newRequest().request.getSession().setAttribute("visitId", "1");
+        assertTrue("plain session hit", PageCache.serveRequest(new TestExchange(client.newRequest()).request,
+                new HttpTestFixtures.TestResponse().response, requestMap));
+
+        for (String attrName : new String[] { "userLogin", "autoUserLogin", "shoppingCart" }) {
+            HttpTestFixtures.TestClient cartClient = new HttpTestFixtures.TestClient();
+            cartClient.newRequest().request.getSession().setAttribute(attrName, "value");
+            TestExchange exchange = new TestExchange(cartClient.newRequest());
+            assertFalse(attrName + " bypasses", PageCache.serveRequest(exchange.request, exchange.response, requestMap));
+            // and its page is not stored
+            PageCache.checkResponse(exchange.request, requestMap.requestResponseMap.get("success"));
+            assertNull(attrName + " not captured", PageCache.startCapture(exchange.request, exchange.response, "main", viewMap("main")));
+        }
+    }
+
+    private static void render(TestExchange exchange, String view, String output) throws Exception {
+        PageCache.Capture capture = PageCache.startCapture(exchange.request, exchange.response, view, viewMap(view));
+        assertNotNull("captured", capture);
+        PrintWriter writer = capture.getResponse().getWriter();
+        writer.write(output);
+        capture.store(exchange.request);
+    }
+
+    private static void assertMiss(ConfigXMLReader.RequestMap requestMap) {
+        TestExchange second = new TestExchange();
+        assertFalse("not stored", PageCache.serveRequest(second.request, second.response, requestMap));
+    }
+
+    private static ConfigXMLReader.RequestMap requestMap(String uri, String successType) throws Exception {
+        return new ConfigXMLReader.RequestMap(UtilXml.readXmlDocument("<request-map uri=\"" + uri + "\">" + CACHE
+                + "<response name=\"success\" type=\"" + successType + "\" value=\"main\"/>"
+                + "<response name=\"error\" type=\"view\" value=\"error\"/></request-map>").getDocumentElement());
+    }
+
+    private static ConfigXMLReader.ViewMap viewMap(String name) throws Exception {
+        return new ConfigXMLReader.ViewMap(UtilXml.readXmlDocument("<view-map name=\"" + name + "\" type=\"screen\"/>")
+                .getDocumentElement());
+    }
+
+    /** Minimal anonymous GET request and its response. */
+    private static final class TestExchange {
+        private final HttpTestFixtures.TestRequest testRequest;
+        private final HttpTestFixtures.TestResponse testResponse = new HttpTestFixtures.TestResponse();
+        private final Map<String, String> requestHeaders;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response = testResponse.response;
+
+        TestExchange() {
+            this(new HttpTestFixtures.TestRequest());
+        }
+
+        TestExchange(HttpTestFixtures.TestRequest testRequest) {
+            this.testRequest = testRequest;
+            this.requestHeaders = testRequest.headers;
+            this.request = testRequest.request;
+        }
+
+        int getStatus() {
+            return testResponse.status;
+        }
+
+        String getHeader(String name) {
+            return testResponse.getHeader(name);
+        }
+
+        String getOutput() {
+            return testResponse.getOutput();
+        }
+    }
+}
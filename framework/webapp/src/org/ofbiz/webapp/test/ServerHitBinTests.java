@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.webapp.stats.ServerHitBin;
+import org.ofbiz.webapp.stats.ServerHitBin.History;
+
+public class ServerHitBinTests extends OFBizTestCase {
+
+    public ServerHitBinTests(String name) {
+        super(name);
+    }
+
+    private History newHistory(String id) {
+        // ENTITY bins are not persisted by default
+        return new History(id, ServerHitBin.ENTITY, delegator);
+    }
+
+    private static long binLength(History history) {
+        // getBinLength() is end - start, one less
+        return history.peek().getEndTime() - history.peek().getStartTime() + 1;
+    }
+
+    public void testRolloverUnderConcurrency() throws Exception {
+        final History history = newHistory("test.rollover.concurrent");
+        final long startTime = history.peek().getStartTime();
+        final long binLength = binLength(history);
+        final int threads = 8;
+        final int steps = Math.min(History.getHistorySize(), 40);
+        // all threads count their hit of a bin before any moves on, so they race to replace each bin
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int step = 0; step < steps; step++) {
+                        history.countHit(startTime + step * binLength, 1);
+                        barrier.await();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ServerHitBin> bins = history.getBins();
+        assertEquals("current bin and one completed bin per step", steps, bins.size());
+        for (int i = 0; i < bins.size(); i++) {
+            ServerHitBin bin = bins.get(i);
+            assertEquals("bin " + i + " start, most recent first", startTime + (steps - 1 - i) * binLength, bin.getStartTime());
+            assertEquals("bin " + i + " hits", threads, bin.getNumberHits());
+        }
+    }
+
+    public void testRingKeepsLastBins() throws Exception {
+        History history = newHistory("test.rollover.ring");
+        long startTime = history.peek().getStartTime();
+        long binLength = binLength(history);
+        int historySize = History.getHistorySize();
+        int steps = historySize + 10;
+        for (int step = 0; step < steps; step++) {
+            history.countHit(startTime + step * binLength, step);
+        }
+        List<ServerHitBin> bins = history.getBins();
+        assertEquals("current bin and a full ring", historySize + 1, bins.size());
+        for (int i = 0; i < bins.size(); i++) {
+            assertEquals("bin " + i + " start", startTime + (steps - 1 - i) * binLength, bins.get(i).getStartTime());
+        }
+    }
+
+    public void testSkipsEmptyBins() throws Exception {
+        History history = newHistory("test.rollover.gap");
+        long startTime = history.peek().getStartTime();
+        long binLength = binLength(history);
+        history.countHit(startTime, 5);
+        // the next hit comes three bins later: the bins in between had no hits and are not kept
+        ServerHitBin bin = history.countHit(startTime + 3 * binLength + 10, 5);
+        assertEquals("new bin covers the hit", startTime + 3 * binLength, bin.getStartTime());
+        List<ServerHitBin> bins = history.getBins();
+        assertEquals("current and first bin", 2, bins.size());
+        assertEquals("first bin", startTime, bins.get(1).getStartTime());
+    }
+
+    public void testDequeView() throws Exception {
+        History history = newHistory("test.rollover.deque");
+        long startTime = history.peek().getStartTime();
+        long binLength = binLength(history);
+        history.countHit(startTime, 1);
+        history.countHit(startTime + binLength, 1);
+        Deque<ServerHitBin> deque = history.toDeque();
+        assertEquals("size", 2, deque.size());
+        assertSame("most recent first", history.peek(), deque.peek());
+        assertEquals("oldest last", startTime, deque.peekLast().getStartTime());
+    }
+}
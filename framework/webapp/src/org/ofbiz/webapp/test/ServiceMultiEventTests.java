@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.util.EntityQuery;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ModelService;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.webapp.control.ConfigXMLReader;
+import org.ofbiz.webapp.event.ServiceMultiEventHandler;
+
+public class ServiceMultiEventTests extends OFBizTestCase {
+
+    /** Requires SERVICE_INVOKE_ANY (see services_test_se.xml). */
+    private static final String SERVICE_NAME = "testServiceBatchRequiredPermission";
+
+    public ServiceMultiEventTests(String name) {
+        super(name);
+    }
+
+    public void testParallelRowsAttribute() throws Exception {
+        assertEquals("parallel", 4, event("4").getParallelRows());
+        assertEquals("invalid: sequential", 1, event("four").getParallelRows());
+        assertEquals("zero: sequential", 1, event("0").getParallelRows());
+    }
+
+    public void testParallelRowsErrors() throws Exception {
+        // no userLogin: every row is denied, with the messages of the sequential loop
+        List<Object> errorMessages = new ArrayList<>();
+        List<String> successMessages = new ArrayList<>();
+        invokeRows(null, Arrays.asList(0, 2, 3), errorMessages, successMessages);
+        assertEquals("one error per row", 3, errorMessages.size());
+        for (Object errorMessage : errorMessages) {
+            assertTrue("prefix " + errorMessage, errorMessage.toString().startsWith("[pre]"));
+            assertTrue("suffix " + errorMessage, errorMessage.toString().endsWith("[post]"));
+        }
+    }
+
+    public void testParallelRowsSuccess() throws Exception {
+        GenericValue userLogin = EntityQuery.use(delegator).from("UserLogin").where("userLoginId", "system").queryOne();
+        List<Object> errorMessages = new ArrayList<>();
+        List<String> successMessages = new ArrayList<>();
+        invokeRows(userLogin, Arrays.asList(0, 2, 3), errorMessages, successMessages);
+        assertEquals("no errors " + errorMessages, 0, errorMessages.size());
+    }
+
+    private void invokeRows(GenericValue userLogin, List<Integer> rowIndexes, List<Object> errorMessages,
+            List<String> successMessages) throws Exception {
+        List<Map<String, Object>> contexts = new ArrayList<>();
+        for (Integer i : rowIndexes) {
+            Map<String, Object> context = UtilMisc.toMap("message", "row " + i);
+            if (userLogin != null) {
+                context.put("userLogin", userLogin);
+            }
+            contexts.add(context);
+        }
+        HttpServletRequest request = new HttpTestFixtures.TestRequest().request;
+        new TestHandler().invokeParallelRows(dispatcher, dispatcher.getDispatchContext().getModelService(SERVICE_NAME),
+                SERVICE_NAME, 2, rowIndexes, contexts, event("2"), null, request, null, "[pre]", "[post]",
+                errorMessages, successMessages);
+    }
+
+    private static ConfigXMLReader.Event event(String parallelRows) throws Exception {
+        return new ConfigXMLReader.Event(UtilXml.readXmlDocument("<event type=\"service-multi\" invoke=\"" + SERVICE_NAME
+                + "\" parallel-rows=\"" + parallelRows + "\"/>").getDocumentElement());
+    }
+
+    private static final class TestHandler extends ServiceMultiEventHandler {
+        @Override
+        protected void invokeParallelRows(LocalDispatcher dispatcher, ModelService modelService, String serviceName,
+                int parallelRows, List<Integer> rowIndexes, List<Map<String, Object>> serviceContexts, ConfigXMLReader.Event event,
+                ConfigXMLReader.RequestMap requestMap, HttpServletRequest request, HttpServletResponse response,
+                String messagePrefixStr, String messageSuffixStr, List<Object> errorMessages, List<String> successMessages) {
+            super.invokeParallelRows(dispatcher, modelService, serviceName, parallelRows, rowIndexes, serviceContexts, event,
+                    requestMap, request, response, messagePrefixStr, messageSuffixStr, errorMessages, successMessages);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.servlet.http.HttpSession;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.webapp.session.MemorySessionStateStore;
+import org.ofbiz.webapp.session.SessionState;
+
+public class SessionStateTests extends GenericTestCaseBase {
+
+    private static final Set<String> ATTRIBUTES = Collections.singleton("shoppingCart");
+
+    public SessionStateTests(String name) {
+        super(name);
+    }
+
+    public void testWriteBack() throws Exception {
+        MemorySessionStateStore store = new MemorySessionStateStore();
+        HttpTestFixtures.TestClient client = new HttpTestFixtures.TestClient();
+
+        SessionState.RequestWrapper first = SessionState.wrapRequest(client.newRequest().request, store, ATTRIBUTES);
+        first.getSession().setAttribute("shoppingCart", "cart1");
+        first.getSession().setAttribute("other", "value");
+        assertTrue("placeholder in container session", client.getSession().attributes.get("shoppingCart") instanceof SessionState.Ref);
+        assertEquals("not externalized", "value", client.getSession().attributes.get("other"));
+        first.release();
+        String stateId = getStateId(client);
+        assertNotNull("written back", store.load(stateId, "shoppingCart"));
+
+        SessionState.RequestWrapper second = SessionState.wrapRequest(client.newRequest().request, store, ATTRIBUTES);
+        assertEquals("read back", "cart1", second.getSession().getAttribute("shoppingCart"));
+        second.getSession().removeAttribute("shoppingCart");
+        second.release();
+        assertNull("removed", store.load(stateId, "shoppingCart"));
+    }
+
+    public void testInvalidateThenRelease() throws Exception {
+        MemorySessionStateStore store = new MemorySessionStateStore();
+        HttpTestFixtures.TestClient client = new HttpTestFixtures.TestClient();
+
+        SessionState.RequestWrapper first = SessionState.wrapRequest(client.newRequest().request, store, ATTRIBUTES);
+        first.getSession().setAttribute("shoppingCart", "cart1");
+        first.release();
+        String oldStateId = getStateId(client);
+
+        // logout: the cart is changed, then the session is replaced
+        SessionState.RequestWrapper second = SessionState.wrapRequest(client.newRequest().request, store, ATTRIBUTES);
+        HttpSession session = second.getSession();
+        assertEquals("read", "cart1", session.getAttribute("shoppingCart"));
+        session.setAttribute("shoppingCart", "cart2");
+        session.invalidate();
+        assertNull("new session", second.getSession(true).getAttribute("shoppingCart"));
+        second.release();
+
+        assertNull("state of invalidated session not written back", store.load(oldStateId, "shoppingCart"));
+        assertNull("no state for new session", getStateId(client));
+    }
+
+    private static String getStateId(HttpTestFixtures.TestClient client) {
+        HttpTestFixtures.TestSession session = client.getSession();
+        Object stateId = (session != null) ? session.attributes.get(SessionState.STATE_ID_ATTR) : null;
+        return (stateId != null) ? ((SessionState.StateId) stateId).getId() : null;
+    }
+}
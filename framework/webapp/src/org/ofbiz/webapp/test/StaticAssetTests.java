@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.webapp.WebAppUtil;
+import org.ofbiz.webapp.content.StaticAssetFilter;
+import org.ofbiz.webapp.content.StaticAssets;
+
+public class StaticAssetTests extends GenericTestCaseBase {
+
+    private static final String CONTEXT_PATH = "/base-theme";
+
+    public StaticAssetTests(String name) {
+        super(name);
+    }
+
+    /** Creates a file in the base-theme webapp and returns its path relative to the webapp. */
+    private static Path createAssetFile(String name, String content) throws Exception {
+        Path root = Paths.get(WebAppUtil.getWebappInfoFromPath(null, CONTEXT_PATH + "/" + name, true).getLocation());
+        Path file = root.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder(s.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    public void testVersionedUri() throws Exception {
+        if (!StaticAssets.isEnabled()) {
+            return;
+        }
+        String name = "static-asset-test-" + System.nanoTime() + ".css";
+        String path = CONTEXT_PATH + "/" + name;
+        Path file = createAssetFile(name, "body { color: red; }");
+        try {
+            String uri = StaticAssets.getVersionedUri(path);
+            String hash = StaticAssets.getAsset(path).getHash();
+            assertEquals("versioned uri", path + "?" + StaticAssets.VERSION_PARAM + "=" + hash, uri);
+            assertEquals("stable", uri, StaticAssets.getVersionedUri(path));
+            assertEquals("query string kept", path + "?x=1", StaticAssets.getVersionedUri(path + "?x=1"));
+            assertEquals("missing file", CONTEXT_PATH + "/missing-" + name, StaticAssets.getVersionedUri(CONTEXT_PATH + "/missing-" + name));
+            assertEquals("other webapp", "/control/main.css", StaticAssets.getVersionedUri("/control/main.css"));
+            assertEquals("not an asset extension", CONTEXT_PATH + "/index.html", StaticAssets.getVersionedUri(CONTEXT_PATH + "/index.html"));
+            assertEquals("WEB-INF", CONTEXT_PATH + "/WEB-INF/web.css", StaticAssets.getVersionedUri(CONTEXT_PATH + "/WEB-INF/web.css"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void testHashChangesOnModification() throws Exception {
+        if (!StaticAssets.isEnabled()) {
+            return;
+        }
+        String name = "static-asset-test-" + System.nanoTime() + ".css";
+        String path = CONTEXT_PATH + "/" + name;
+        Path file = createAssetFile(name, "body { color: red; }");
+        try {
+            String hash = StaticAssets.getAsset(path).getHash();
+            Files.write(file, "body { color: blue; margin: 0; }".getBytes(StandardCharsets.UTF_8));
+            // coarse file system timestamps: make sure the modification time moves
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            String newHash = StaticAssets.getAsset(path).getHash();
+            assertFalse("hash changed", hash.equals(newHash));
+            assertEquals("link changed", path + "?" + StaticAssets.VERSION_PARAM + "=" + newHash, StaticAssets.getVersionedUri(path));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void testPrecompressed() throws Exception {
+        if (!StaticAssets.isEnabled()) {
+            return;
+        }
+        String name = "static-asset-test-" + System.nanoTime() + ".css";
+        String path = CONTEXT_PATH + "/" + name;
+        String content = repeat(".test-rule { color: red; }\n", 200);
+        Path file = createAssetFile(name, content);
+        try {
+            StaticAssets.Asset asset = StaticAssets.getAsset(path);
+            assertNotNull("gzip copy", asset.getGzipFile());
+            assertTrue("gzip copy smaller", Files.size(asset.getGzipFile()) < content.length());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void testAcceptsGzip() {
+        for (String value : UtilMisc.toList("gzip", "gzip, deflate, br", "deflate, GZIP", "gzip;q=0.5", "gzip; q=1.0",
+                "x-gzip", "*", "br, *;q=0.1", "gzip;q=0.001", "identity;q=0, gzip")) {
+            assertTrue("accepts " + value, StaticAssetFilter.acceptsGzip(value));
+        }
+        for (String value : UtilMisc.toList("", "deflate, br", "gzip;q=0", "gzip; q=0.0", "gzip;q=0, *", "*;q=0",
+                "br, *;q=0", "gzip;q=x")) {
+            assertFalse("refuses " + value, StaticAssetFilter.acceptsGzip(value));
+        }
+        assertFalse("no header", StaticAssetFilter.acceptsGzip(null));
+    }
+}
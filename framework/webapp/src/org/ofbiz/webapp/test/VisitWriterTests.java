@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webapp.test;
+
+import java.sql.Timestamp;
+
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.util.EntityQuery;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.webapp.stats.VisitWriter;
+
+public class VisitWriterTests extends OFBizTestCase {
+
+    public VisitWriterTests(String name) {
+        super(name);
+    }
+
+    public void testWriteInQueueOrder() throws Exception {
+        String visitId = delegator.getNextSeqId("Visit");
+        // whole seconds, as some databases drop the milliseconds
+        Timestamp fromDate = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+        Timestamp thruDate = new Timestamp(fromDate.getTime() + 1000);
+        try {
+            GenericValue visit = delegator.makeValue("Visit", "visitId", visitId, "fromDate", fromDate, "webappName", "test");
+            VisitWriter.write(visit);
+            // changing the value after write does not change the queued copy
+            visit.set("webappName", "changed");
+            // the hit references the visit (SERVER_HIT_VISIT), so it must be written after it
+            VisitWriter.write(delegator.makeValue("ServerHit", "visitId", visitId, "contentId", "test.main",
+                    "hitStartDateTime", fromDate, "hitTypeId", "REQUEST"));
+            // partial update queued after the create, as at session end
+            VisitWriter.store(delegator.makeValue("Visit", "visitId", visitId, "thruDate", thruDate));
+            VisitWriter.flushAll();
+            assertEquals("queue empty", 0, VisitWriter.getQueuedCount());
+
+            GenericValue stored = EntityQuery.use(delegator).from("Visit").where("visitId", visitId).queryOne();
+            assertNotNull("visit written", stored);
+            assertEquals("queued copy", "test", stored.getString("webappName"));
+            assertEquals("fromDate kept by partial update", fromDate, stored.getTimestamp("fromDate"));
+            assertEquals("thruDate updated", thruDate, stored.getTimestamp("thruDate"));
+            assertEquals("hit written", 1L, EntityQuery.use(delegator).from("ServerHit").where("visitId", visitId).queryCount());
+        } finally {
+            delegator.removeByAnd("ServerHit", "visitId", visitId);
+            delegator.removeByAnd("Visit", "visitId", visitId);
+        }
+    }
+
+    public void testStoreDoesNotInsert() throws Exception {
+        String visitId = delegator.getNextSeqId("Visit");
+        try {
+            // a partial update whose create never happened (e.g. it failed) must not leave a bare row
+            VisitWriter.store(delegator.makeValue("Visit", "visitId", visitId, "thruDate", new Timestamp(System.currentTimeMillis())));
+            VisitWriter.flushAll();
+            assertNull("no row inserted", EntityQuery.use(delegator).from("Visit").where("visitId", visitId).queryOne());
+        } finally {
+            delegator.removeByAnd("Visit", "visitId", visitId);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import javax.servlet.ServletRequest;
 
 import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.entity.Delegator;
 import org.ofbiz.entity.GenericEntityException;
 import org.ofbiz.entity.GenericValue;
@@ -54,7 +55,9 @@ public class WebSiteWorker {
             return null;
         }
 
-        return findWebSite((Delegator) request.getAttribute("delegator"), webSiteId, true);
+        // SCIPIO: 2026-10: memoized for the request (RequestMemo)
+        return RequestMemo.get(request, "WebSiteWorker.getWebSite", webSiteId,
+                () -> findWebSite((Delegator) request.getAttribute("delegator"), webSiteId, true));
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.ilscipio.scipio.webtools;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.ofbiz.base.metrics.LatencyHistogram;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.StringUtil;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.security.Security;
+import org.ofbiz.service.GenericServiceException;
+import org.ofbiz.service.LocalDispatcher;
+import org.ofbiz.service.ServiceStats;
+import org.ofbiz.service.ServiceUtil;
+
+/**
+ * Servlet exposing the per-service statistics ({@link ServiceStats}) in the Prometheus text exposition format,
+ * for scraping by Prometheus-compatible monitoring.
+ * <p>
+ * Requires a user with the OFBTOOLS_VIEW permission, logged in to webtools (session) or given by HTTP basic
+ * authentication, as used by scrapers; a request without either is answered 401 with a basic authentication challenge.
+ * As an extra restriction, it can only be accessed from the addresses listed in
+ * <code>serviceMetrics.allowedAddresses</code> (webtools.properties), which defaults to localhost only.
+ */
+@SuppressWarnings("serial")
+public class ServiceMetricsServlet extends HttpServlet {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final double[] QUANTILES = new double[] { 0.5, 0.95, 0.99 };
+
+    private Set<String> allowedAddresses;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        allowedAddresses = UtilMisc.unmodifiableHashSetCopy(StringUtil.split(
+                UtilProperties.getPropertyValue("webtools", "serviceMetrics.allowedAddresses", "127.0.0.1,0:0:0:0:0:0:0:1"), ","));
+    }
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!allowedAddresses.contains("*") && !allowedAddresses.contains(request.getRemoteAddr())) {
+            Debug.logWarning("Service metrics request from address [" + request.getRemoteAddr() + "] not allowed", module);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        GenericValue userLogin = getUserLogin(request);
+        if (userLogin == null) {
+            response.setHeader("WWW-Authenticate", "Basic realm=\"service metrics\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        Security security = (Security) request.getAttribute("security");
+        if (security == null || !security.hasEntityPermission("OFBTOOLS", "_VIEW", userLogin)) {
+            Debug.logWarning("Service metrics request by user [" + userLogin.getString("userLoginId") + "] not permitted", module);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        Writer writer = response.getWriter();
+        writeMetrics(writer);
+        writer.flush();
+    }
+
+    /**
+     * Returns the user logged in to the session, else the one of the HTTP basic authentication header if its password
+     * is valid, else null.
+     */
+    protected GenericValue getUserLogin(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        GenericValue userLogin = (session != null) ? (GenericValue) session.getAttribute("userLogin") : null;
+        if (userLogin != null) {
+            return userLogin;
+        }
+        String authorization = request.getHeader("Authorization");
+        LocalDispatcher dispatcher = (LocalDispatcher) request.getAttribute("dispatcher");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Basic ", 0, 6) || dispatcher == null) {
+            return null;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = credentials.indexOf(':');
+        if (colon <= 0) {
+            return null;
+        }
+        try {
+            Map<String, Object> result = dispatcher.runSync("userLogin", UtilMisc.toMap("login.username", credentials.substring(0, colon),
+                    "login.password", credentials.substring(colon + 1), "locale", Locale.getDefault()));
+            return ServiceUtil.isSuccess(result) ? (GenericValue) result.get("userLogin") : null;
+        } catch (GenericServiceException e) {
+            Debug.logError(e, "Could not check service metrics login", module);
+            return null;
+        }
+    }
+
+    protected void writeMetrics(Writer writer) throws IOException {
+        writer.write("# HELP scipio_service_duration_seconds Synchronous service execution time.\n");
+        writer.write("# TYPE scipio_service_duration_seconds summary\n");
+        double[] percentiles = new double[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            percentiles[i] = QUANTILES[i] * 100;
+        }
+        for (ServiceStats stats : ServiceStats.getAll()) {
+            String label = "service=\"" + escapeLabelValue(stats.getServiceName()) + "\"";
+            LatencyHistogram latency = stats.getLatency();
+            long[] values = latency.getValuesAtPercentiles(percentiles);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                writer.write("scipio_service_duration_seconds{" + label + ",quantile=\"" + QUANTILES[i] + "\"} " + toSeconds(values[i]) + "\n");
+            }
+            writer.write("scipio_service_duration_seconds_sum{" + label + "} " + toSeconds(latency.getTotal()) + "\n");
+            writer.write("scipio_service_duration_seconds_count{" + label + "} " + latency.getCount() + "\n");
+        }
+        writeCounter(writer, "scipio_service_errors_total", "Service calls that returned an error.", "counter", StatsValue.ERRORS);
+        writeCounter(writer, "scipio_service_failures_total", "Service calls that returned a failure.", "counter", StatsValue.FAILURES);
+        writeCounter(writer, "scipio_service_exceptions_total", "Service calls that threw an exception.", "counter", StatsValue.EXCEPTIONS);
+        writeCounter(writer, "scipio_service_nested_calls_total", "Service calls made from within another service.", "counter", StatsValue.NESTED);
+        writeCounter(writer, "scipio_service_in_flight", "Service calls currently running.", "gauge", StatsValue.IN_FLIGHT);
+        writeCounter(writer, "scipio_service_max_depth", "Deepest service call depth at which the service was called.", "gauge", StatsValue.MAX_DEPTH);
+    }
+
+    private enum StatsValue {
+        ERRORS, FAILURES, EXCEPTIONS, NESTED, IN_FLIGHT, MAX_DEPTH;
+
+        long get(ServiceStats stats) {
+            switch (this) {
+            case ERRORS: return stats.getErrorCount();
+            case FAILURES: return stats.getFailureCount();
+            case EXCEPTIONS: return stats.getExceptionCount();
+            case NESTED: return stats.getNestedCount();
+            case IN_FLIGHT: return stats.getInFlight();
+            default: return stats.getMaxDepth();
+            }
+        }
+    }
+
+    private static void writeCounter(Writer writer, String name, String help, String type, StatsValue value) throws IOException {
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " " + type + "\n");
+        for (ServiceStats stats : ServiceStats.getAll()) {
+            writer.write(name + "{service=\"" + escapeLabelValue(stats.getServiceName()) + "\"} " + value.get(stats) + "\n");
+        }
+    }
+
+    private static String toSeconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1000000.0);
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.webtools;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ofbiz.base.lang.JSON;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.UtilHttp;
+import org.ofbiz.base.util.UtilIO;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.util.EntityUtilProperties;
+import org.ofbiz.security.Security;
+import org.ofbiz.webapp.stats.ServerHitBin;
+
+/**
+ * SCIPIO: Events for the ServerHitBin request, event and view statistics.
+ * <p>
+ * Added 2026-10.
+ */
+public final class ServerHitStatsEvents {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private ServerHitStatsEvents() {}
+
+    /** An HTTP WebEvent handler that writes the server hit statistics as JSON.
+     * <p>
+     * Without parameters, writes the since-started stats of all types by type name; with the <code>type</code>
+     * and <code>statsId</code> parameters (as used by StatBinsHistory), writes the binned history of that id.
+     * Times are in milliseconds, see {@link ServerHitBin#toMap()}.
+     * @param request The HTTP request object for the current JSP or Servlet request.
+     * @param response The HTTP response object for the current JSP or Servlet request.
+     * @return "success" once the response is written, "error" otherwise
+     */
+    public static String exportStatsJson(HttpServletRequest request, HttpServletResponse response) {
+        Security security = (Security) request.getAttribute("security");
+        if (!security.hasEntityPermission("WEBTOOLS", "_VIEW", request)) {
+            request.setAttribute("_ERROR_MESSAGE_", UtilProperties.getMessage("WebtoolsUiLabels", "WebtoolsPermissionError", UtilHttp.getLocale(request)));
+            return "error";
+        }
+
+        Object stats;
+        String statsId = request.getParameter("statsId");
+        String typeStr = request.getParameter("type");
+        if (statsId != null && typeStr != null) {
+            int type;
+            try {
+                type = Integer.parseInt(typeStr);
+            } catch (NumberFormatException e) {
+                type = -1;
+            }
+            if (type < ServerHitBin.REQUEST || type > ServerHitBin.SERVICE) {
+                request.setAttribute("_ERROR_MESSAGE_", "Invalid stats type: " + typeStr);
+                return "error";
+            }
+            stats = UtilMisc.toMap("statsId", statsId, "bins", ServerHitBin.getHistoryAsMap(type, statsId));
+        } else {
+            stats = ServerHitBin.getStatsAsMap();
+        }
+
+        try {
+            String jsonStr = JSON.from(stats).toString();
+            if ("GET".equalsIgnoreCase(request.getMethod())) {
+                // same as CommonEvents json responses (OFBIZ-5409)
+                Delegator delegator = (Delegator) request.getAttribute("delegator");
+                jsonStr = EntityUtilProperties.getPropertyValue("general", "http.json.xssi.prefix", delegator) + jsonStr;
+            }
+            response.setContentType("application/json");
+            response.setContentLength(jsonStr.getBytes(UtilIO.getUtf8()).length);
+            Writer out = response.getWriter();
+            out.write(jsonStr);
+            out.flush();
+        } catch (IOException e) {
+            Debug.logError(e, "Could not write server hit stats", module);
+            request.setAttribute("_ERROR_MESSAGE_", e.getMessage());
+            return "error";
+        }
+        return "success";
+    }
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.ofbiz.base.component.ComponentConfig;
+import org.ofbiz.base.concurrent.ExecutionPool;
+import org.ofbiz.base.container.Container;
+import org.ofbiz.base.container.ContainerException;
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.GroovyUtil;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.template.FreeMarkerWorker;
+import org.ofbiz.widget.model.HtmlWidget;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * SCIPIO: Warms up the template and script caches at startup: parses all FTL templates and compiles all Groovy
+ * scripts of the enabled components in parallel, so the first requests of each page do not pay for it.
+ * <p>
+ * Templates referenced by the html-template and html-template-decorator elements of the screen files go to the cache
+ * used by screen html-template (see {@link HtmlWidget#getTemplate(String)}), other templates to the general
+ * {@link FreeMarkerWorker#getTemplate(String)} cache, and scripts to the GroovyUtil location cache. The warm-up runs in the background, since the web server starts before this
+ * container; when done, {@link #isDone()} returns true and the <code>widget.warmup.readyFile</code> is created, which
+ * a load balancer health check or readiness probe can wait for. Errors are logged and listed with the result of each
+ * file in the optional <code>widget.warmup.manifestFile</code>.
+ * <p>
+ * Configured by <code>widget.warmup.*</code> in widget.properties; disabled by default.
+ * <p>
+ * Added 2026-10.
+ */
+public class TemplateWarmupContainer implements Container {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final ThreadGroup WARMUP_THREAD_GROUP = new ThreadGroup("TemplateWarmup");
+
+    private static volatile boolean done = false;
+
+    private String name;
+    private boolean enabled;
+    private int threadCount;
+    private List<String> excludes;
+    private String manifestFile;
+    private String readyFile;
+    private volatile boolean stopped = false;
+
+    @Override
+    public void init(String[] args, String name, String configFile) throws ContainerException {
+        this.name = name;
+        this.enabled = UtilProperties.getPropertyAsBoolean("widget", "widget.warmup.enable", false);
+        int threadCount = UtilProperties.getPropertyAsInteger("widget", "widget.warmup.threads", 0);
+        this.threadCount = (threadCount > 0) ? threadCount : Runtime.getRuntime().availableProcessors();
+        List<String> excludes = new ArrayList<>();
+        for (String exclude : UtilProperties.getPropertyValue("widget", "widget.warmup.exclude", "").split(",")) {
+            exclude = exclude.trim();
+            if (!exclude.isEmpty()) {
+                excludes.add(exclude);
+            }
+        }
+        this.excludes = Collections.unmodifiableList(excludes);
+        this.manifestFile = UtilProperties.getPropertyValue("widget", "widget.warmup.manifestFile");
+        this.readyFile = UtilProperties.getPropertyValue("widget", "widget.warmup.readyFile");
+    }
+
+    @Override
+    public boolean start() throws ContainerException {
+        if (UtilValidate.isNotEmpty(readyFile)) {
+            try {
+                Files.deleteIfExists(getHomePath(readyFile));
+            } catch (IOException e) {
+                throw new ContainerException("Unable to delete template warm-up ready file [" + readyFile + "]", e);
+            }
+        }
+        if (!enabled) {
+            done = true;
+            return true;
+        }
+        Thread thread = new Thread(WARMUP_THREAD_GROUP, this::warmup, "TemplateWarmup");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    @Override
+    public void stop() throws ContainerException {
+        stopped = true; // queued compiles are skipped
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true once the warm-up is over, or if disabled.
+     */
+    public static boolean isDone() {
+        return done;
+    }
+
+    protected void warmup() {
+        long startTime = System.currentTimeMillis();
+        List<String> locations = findLocations();
+        Set<String> screenTemplates = findScreenTemplates();
+        Debug.logInfo("Template warm-up: compiling " + locations.size() + " templates and scripts (" + screenTemplates.size()
+                + " screen templates) using " + threadCount + " threads", module);
+        AtomicInteger errorCount = new AtomicInteger();
+        List<Future<String>> futures = new ArrayList<>(locations.size());
+        ExecutorService executor = ExecutionPool.getScheduledExecutor(WARMUP_THREAD_GROUP, "template-warmup", threadCount, 0, true);
+        try {
+            for (String location : locations) {
+                futures.add(executor.submit(() -> compile(location, screenTemplates, errorCount)));
+            }
+            List<String> results = ExecutionPool.getAllFutures(futures);
+            if (stopped) {
+                return;
+            }
+            Debug.logInfo("Template warm-up: compiled " + (locations.size() - errorCount.get()) + " templates and scripts ("
+                    + errorCount.get() + " errors) in " + (System.currentTimeMillis() - startTime) + "ms", module);
+            if (UtilValidate.isNotEmpty(manifestFile)) {
+                writeManifest(results);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        done = true;
+        if (UtilValidate.isNotEmpty(readyFile)) {
+            try {
+                Files.write(getHomePath(readyFile), Collections.singletonList(Long.toString(System.currentTimeMillis())), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                Debug.logError(e, "Template warm-up: unable to write ready file [" + readyFile + "]", module);
+            }
+        }
+    }
+
+    /**
+     * Compiles the template or script into the cache it is used from; returns its manifest line.
+     */
+    protected String compile(String location, Set<String> screenTemplates, AtomicInteger errorCount) {
+        if (stopped) {
+            return "SKIPPED " + location;
+        }
+        long startTime = System.nanoTime();
+        try {
+            if (screenTemplates.contains(location)) {
+                HtmlWidget.getTemplate(location);
+            } else if (location.endsWith(".ftl")) {
+                FreeMarkerWorker.getTemplate(location);
+            } else {
+                GroovyUtil.getScriptClassFromLocation(location);
+            }
+            return "OK " + ((System.nanoTime() - startTime) / 1000000) + "ms " + location;
+        } catch (Throwable t) {
+            // Not fatal: the error shows again when the template or script is used
+            errorCount.incrementAndGet();
+            Debug.logWarning("Template warm-up: unable to compile [" + location + "]: " + t.toString(), module);
+            return "ERROR " + location + " " + t.toString().replace('\n', ' ');
+        }
+    }
+
+    /**
+     * Returns the component:// locations of the FTL and Groovy files of the enabled components, except excluded paths.
+     */
+    protected List<String> findLocations() {
+        List<String> locations = new ArrayList<>();
+        for (ComponentConfig cc : ComponentConfig.getAllComponents()) {
+            if (!cc.enabled()) {
+                continue;
+            }
+            Path rootPath = Paths.get(cc.getRootLocation());
+            if (!Files.isDirectory(rootPath)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(rootPath)) {
+                paths.filter(path -> {
+                    String fileName = path.getFileName().toString();
+                    return (fileName.endsWith(".ftl") || fileName.endsWith(".groovy")) && Files.isRegularFile(path);
+                }).forEach(path -> {
+                    String relPath = rootPath.relativize(path).toString().replace(File.separatorChar, '/');
+                    if (!isExcluded("/" + relPath)) {
+                        locations.add("component://" + cc.getComponentName() + "/" + relPath);
+                    }
+                });
+            } catch (IOException e) {
+                Debug.logError(e, "Template warm-up: unable to list files of component [" + cc.getComponentName() + "]", module);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Returns the template locations of the html-template and html-template-decorator elements of the screen files of
+     * the enabled components, except excluded paths; locations with expressions are skipped.
+     */
+    protected Set<String> findScreenTemplates() {
+        Set<String> locations = new HashSet<>();
+        for (ComponentConfig cc : ComponentConfig.getAllComponents()) {
+            if (!cc.enabled()) {
+                continue;
+            }
+            Path rootPath = Paths.get(cc.getRootLocation());
+            if (!Files.isDirectory(rootPath)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(rootPath)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".xml") && Files.isRegularFile(path)
+                        && !isExcluded("/" + rootPath.relativize(path).toString().replace(File.separatorChar, '/')))
+                        .forEach(path -> addScreenTemplates(path, locations));
+            } catch (IOException e) {
+                Debug.logError(e, "Template warm-up: unable to list files of component [" + cc.getComponentName() + "]", module);
+            }
+        }
+        return locations;
+    }
+
+    private static void addScreenTemplates(Path path, Set<String> locations) {
+        try {
+            String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            if (!content.contains("<screens") || !content.contains("html-template")) {
+                return;
+            }
+            Document document = UtilXml.readXmlDocument(content, false);
+            for (String tagName : new String[] { "html-template", "html-template-decorator" }) {
+                NodeList elements = document.getElementsByTagName(tagName);
+                for (int i = 0; i < elements.getLength(); i++) {
+                    String location = ((Element) elements.item(i)).getAttribute("location");
+                    if (location.endsWith(".ftl") && !location.contains("${")) {
+                        locations.add(location);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Debug.logWarning("Template warm-up: unable to read screen file [" + path + "]: " + e.toString(), module);
+        }
+    }
+
+    protected boolean isExcluded(String relPath) {
+        for (String exclude : excludes) {
+            if (relPath.contains(exclude)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void writeManifest(List<String> results) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(getHomePath(manifestFile), StandardCharsets.UTF_8))) {
+            for (String result : results) {
+                writer.println(result);
+            }
+        } catch (IOException e) {
+            Debug.logError(e, "Template warm-up: unable to write manifest file [" + manifestFile + "]", module);
+        }
+    }
+
+    private static Path getHomePath(String fileName) {
+        return Paths.get(System.getProperty("ofbiz.home"), fileName);
+    }
+}
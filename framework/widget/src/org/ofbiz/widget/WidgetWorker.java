@@ -169,7 +169,7 @@ public final class WidgetWorker {
                 // SCIPIO: simplified
                 UtilCodec.SimpleEncoder simpleEncoder = WidgetWorker.getEarlyEncoder(context);
                 if (parameterValue != null) { // simpleEncoder != null &&
-                    externalWriter.append(simpleEncoder.encode(URLEncoder.encode(parameterValue, Charset.forName("UTF-8").displayName())));
+                    simpleEncoder.encodeTo(externalWriter, URLEncoder.encode(parameterValue, Charset.forName("UTF-8").displayName())); // SCIPIO: 2026-10: straight to writer
                 //} else {
                 //    // SCIPIO: even if HTML encoding were disabled, the link param should have been URL-encoded; they're two different layers
                 //    //externalWriter.append(parameterValue);
@@ -89,6 +89,7 @@ import org.ofbiz.widget.model.ModelScreenWidget.Content;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorScreen;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorSection;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorSectionInclude;
+import org.ofbiz.widget.model.ModelScreenWidget.Flush;
 import org.ofbiz.widget.model.ModelScreenWidget.Form;
 import org.ofbiz.widget.model.ModelScreenWidget.Grid;
 import org.ofbiz.widget.model.ModelScreenWidget.HorizontalSeparator;
@@ -216,6 +217,10 @@ public final class ArtifactInfoGatherer implements ModelWidgetVisitor, ModelActi
     public void visit(HorizontalSeparator horizontalSeparator) throws Exception {
     }
 
+    @Override
+    public void visit(Flush flush) throws Exception { // SCIPIO
+    }
+
     @Override
     public void visit(HtmlTemplate htmlTemplate) throws Exception {
     }
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.cache;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ofbiz.base.util.Debug;
+import org.ofbiz.base.util.GeneralException;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.FragmentStore;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.base.util.collections.FlexibleMapAccessor;
+import org.ofbiz.entity.Delegator;
+import org.ofbiz.entity.GenericEntity;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.cache.EntityCacheVersions;
+import org.ofbiz.widget.model.ModelScreenWidget;
+import org.ofbiz.widget.renderer.ScreenStringRenderer;
+import org.ofbiz.widget.renderer.WidgetRenderTargetExpr;
+import org.w3c.dom.Element;
+
+/**
+ * SCIPIO: Cache of the rendered output of screen widgets (section, include-screen, platform-specific) that have a
+ * <code>cache</code> element, in the <code>widget.fragment.cache</code> cache (cache.properties).
+ * <p>
+ * The key is made of the widget, the renderer, the delegator, the web site, the locale and the user (unless
+ * <code>per-user="false"</code>), plus the values of the context fields listed in <code>key</code>; nothing else of
+ * the context is looked at. Output is fresh for <code>ttl</code> seconds and as long as no entity of
+ * <code>entities</code> is cleared from the entity cache (see {@link EntityCacheVersions}). Within
+ * <code>stale-ttl</code> seconds after the ttl, the old output keeps being served to other requests while one request
+ * renders it again; once an entity changed, it is never served again.
+ * <p>
+ * On hits, nothing of the widget runs, actions included: cached widgets must not set context fields used outside
+ * them. Nothing is cached during targeted rendering, and outputs larger than
+ * <code>widget.fragment.cache.maxEntrySize</code> (widget.properties) are not stored.
+ * <p>
+ * If the <code>widget.fragment.store</code> {@link FragmentStore} is enabled (cache.properties), outputs are kept
+ * there, off-heap, under a key unique to the entry, and only the entry data in the UtilCache; an output evicted from
+ * the store is rendered again. Outputs are removed from the store with their entries, however these go (see
+ * {@link FragmentStore#removeWithCacheEntries}).
+ * <p>
+ * Added 2026-10.
+ */
+public final class FragmentCache {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    private static final boolean ENABLED = UtilProperties.getPropertyAsBoolean("widget", "widget.fragment.cache.enable", true);
+    private static final int MAX_ENTRY_SIZE = UtilProperties.getPropertyAsInteger("widget", "widget.fragment.cache.maxEntrySize", 262144);
+
+    private static final UtilCache<String, Entry> fragmentCache = UtilCache.createUtilCache("widget.fragment.cache");
+    private static final FragmentStore fragmentStore = FragmentStore.getStore("widget.fragment.store");
+    private static final AtomicLong storeSequence = new AtomicLong();
+
+    static {
+        if (fragmentStore != null) {
+            fragmentStore.removeWithCacheEntries(fragmentCache, entry -> entry.storeKey);
+        }
+    }
+
+    private FragmentCache() {
+    }
+
+    /**
+     * Renders the widget through its cached output if fresh, otherwise with the given renderer, storing the output.
+     *
+     * @param variant extra key part for widgets whose rendering depends on more than the context fields (may be null)
+     */
+    public static void render(ModelScreenWidget widget, Config config, String variant, Appendable writer, Map<String, Object> context,
+            ScreenStringRenderer screenStringRenderer, FragmentRenderer renderer) throws GeneralException, IOException {
+        if (!ENABLED || WidgetRenderTargetExpr.getRenderTargetState(context).isEnabled()) {
+            renderer.render(writer, context, screenStringRenderer);
+            return;
+        }
+        String key = makeKey(widget, config, variant, context, screenStringRenderer);
+        long version = getEntityVersion(config, context);
+        long now = System.currentTimeMillis();
+        Entry entry = fragmentCache.get(key);
+        if (entry != null) {
+            if (now < entry.expires && entry.version == version) {
+                if (entry.appendTo(writer)) {
+                    return;
+                }
+            } else if (entry.version == version && now < entry.expires + config.staleTtlMillis && !entry.refreshing.compareAndSet(false, true)) {
+                // expired, and another request is rendering it again; outputs of changed entities are never served
+                if (entry.appendTo(writer)) {
+                    return;
+                }
+            }
+        }
+        StringWriter sw = new StringWriter();
+        try {
+            renderer.render(sw, context, screenStringRenderer);
+        } finally {
+            if (entry != null) {
+                entry.refreshing.set(false);
+            }
+        }
+        String output = sw.toString();
+        if (output.length() <= MAX_ENTRY_SIZE) {
+            // Output kept off-heap if the fragment store is enabled and has room; the store key is unique to the entry,
+            // so that a stale entry still being served never reads the output of a newer one
+            String storeKey = (fragmentStore != null) ? key + '#' + storeSequence.incrementAndGet() : null;
+            Entry newEntry = (storeKey != null && fragmentStore.put(storeKey, output)) ? new Entry(null, storeKey, now + config.ttlMillis, version)
+                    : new Entry(output, null, now + config.ttlMillis, version);
+            fragmentCache.put(key, newEntry, config.ttlMillis + config.staleTtlMillis);
+        } else if (Debug.verboseOn()) {
+            Debug.logVerbose("Not caching output of " + widget.getWidgetType() + " [" + key + "]: " + output.length() + " characters", module);
+        }
+        writer.append(output);
+    }
+
+    /**
+     * Removes all cached outputs.
+     */
+    public static void clear() {
+        fragmentCache.clear();
+        if (fragmentStore != null) {
+            fragmentStore.clear();
+        }
+    }
+
+    private static String makeKey(ModelScreenWidget widget, Config config, String variant, Map<String, Object> context,
+            ScreenStringRenderer screenStringRenderer) {
+        StringBuilder key = new StringBuilder(128);
+        key.append(widget.getModelScreen().getSourceLocation()).append('#').append(widget.getModelScreen().getName())
+                .append('#').append(widget.getWidgetType()).append('@').append(widget.getStartLine()).append(':')
+                .append(widget.getStartColumn());
+        if (variant != null) {
+            key.append('|').append(variant);
+        }
+        key.append('|').append(screenStringRenderer.getRendererName());
+        Delegator delegator = (Delegator) context.get("delegator");
+        if (delegator != null) {
+            key.append('|').append(delegator.getDelegatorName());
+        }
+        key.append("|w=").append(context.get("webSiteId"));
+        if (config.locale) {
+            Locale locale = (Locale) context.get("locale");
+            key.append("|l=").append(locale);
+        }
+        if (config.perUser) {
+            GenericValue userLogin = (GenericValue) context.get("userLogin");
+            key.append("|u=").append((userLogin != null) ? userLogin.getString("userLoginId") : "");
+        }
+        for (FlexibleMapAccessor<Object> field : config.keyFields) {
+            key.append('|').append(field.getOriginalName()).append('=');
+            Object value = field.get(context);
+            if (value instanceof GenericEntity) {
+                key.append(((GenericEntity) value).getPrimaryKey());
+            } else {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    private static long getEntityVersion(Config config, Map<String, Object> context) {
+        if (config.entities.isEmpty()) {
+            return 0;
+        }
+        Delegator delegator = (Delegator) context.get("delegator");
+        return (delegator != null) ? EntityCacheVersions.getInstance(delegator.getDelegatorName()).getVersion(config.entities) : 0;
+    }
+
+    /**
+     * Renders the widget without the cache.
+     */
+    @FunctionalInterface
+    public interface FragmentRenderer {
+        void render(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException;
+    }
+
+    private static final class Entry extends GenericWidgetOutput {
+        private final String storeKey;
+        private final long expires;
+        private final long version;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        /** The output is null if held by the fragment store, under storeKey. */
+        Entry(String output, String storeKey, long expires, long version) {
+            super(output);
+            this.storeKey = storeKey;
+            this.expires = expires;
+            this.version = version;
+        }
+
+        /** Appends the output; returns false if it was evicted from the fragment store. */
+        boolean appendTo(Appendable writer) throws IOException {
+            if (storeKey == null) {
+                writer.append(output);
+                return true;
+            }
+            return fragmentStore.appendTo(storeKey, writer);
+        }
+    }
+
+    /**
+     * The <code>cache</code> element of a widget.
+     */
+    public static final class Config {
+        private final List<FlexibleMapAccessor<Object>> keyFields;
+        private final long ttlMillis;
+        private final long staleTtlMillis;
+        private final List<String> entities;
+        private final boolean locale;
+        private final boolean perUser;
+
+        public Config(Element cacheElement) {
+            List<FlexibleMapAccessor<Object>> keyFields = new ArrayList<>();
+            for (String name : splitList(cacheElement.getAttribute("key"))) {
+                keyFields.add(FlexibleMapAccessor.getInstance(name));
+            }
+            this.keyFields = Collections.unmodifiableList(keyFields);
+            this.ttlMillis = parseSeconds(cacheElement.getAttribute("ttl"), 300) * 1000;
+            this.staleTtlMillis = parseSeconds(cacheElement.getAttribute("stale-ttl"), 0) * 1000;
+            this.entities = Collections.unmodifiableList(splitList(cacheElement.getAttribute("entities")));
+            this.locale = !"false".equals(cacheElement.getAttribute("locale"));
+            this.perUser = !"false".equals(cacheElement.getAttribute("per-user"));
+        }
+
+        /** Returns the config of the <code>cache</code> child element, or null if none. */
+        public static Config fromParentElement(Element parentElement) {
+            Element cacheElement = UtilXml.firstChildElement(parentElement, "cache");
+            return (cacheElement != null) ? new Config(cacheElement) : null;
+        }
+
+        private static long parseSeconds(String value, long defaultValue) {
+            if (UtilValidate.isEmpty(value)) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                Debug.logError("Invalid widget cache time [" + value + "]; using " + defaultValue, module);
+                return defaultValue;
+            }
+        }
+
+        private static List<String> splitList(String value) {
+            List<String> list = new ArrayList<>();
+            if (value != null) {
+                for (String item : value.split(",")) {
+                    item = item.trim();
+                    if (!item.isEmpty()) {
+                        list.add(item);
+                    }
+                }
+            }
+            return list;
+        }
+
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        public long getStaleTtlMillis() {
+            return staleTtlMillis;
+        }
+
+        public List<String> getEntities() {
+            return entities;
+        }
+    }
+}
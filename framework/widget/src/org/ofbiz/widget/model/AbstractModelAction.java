@@ -27,7 +27,17 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpSession;
@@ -39,11 +49,14 @@ import org.ofbiz.base.util.ScriptUtil;
 import org.ofbiz.base.util.Scriptlet;
 import org.ofbiz.base.util.StringUtil;
 import org.ofbiz.base.util.UtilGenerics;
+import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilProperties;
 import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.UtilXml;
 import org.ofbiz.base.util.UtilXml.ElementHelper;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.base.util.collections.FlexibleMapAccessor;
+import org.ofbiz.base.util.collections.MapStack;
 import org.ofbiz.base.util.collections.ResourceBundleMapWrapper;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
 import org.ofbiz.entity.Delegator;
@@ -53,6 +66,7 @@ import org.ofbiz.entity.finder.ByAndFinder;
 import org.ofbiz.entity.finder.ByConditionFinder;
 import org.ofbiz.entity.finder.EntityFinderUtil;
 import org.ofbiz.entity.finder.PrimaryKeyFinder;
+import org.ofbiz.entity.transaction.TransactionUtil;
 import org.ofbiz.entity.util.EntityUtilProperties;
 import org.ofbiz.minilang.MiniLangException;
 import org.ofbiz.minilang.MiniLangUtil;
@@ -123,6 +137,8 @@ public abstract class AbstractModelAction implements Serializable, ModelAction {
             return new ConditionToField(modelWidget, actionElement);
         } else if ("if".equals(nodeName)) { // SCIPIO: new
             return new MasterIf(modelWidget, actionElement);
+        } else if ("parallel".equals(nodeName)) { // SCIPIO: 2026-10: new
+            return new Parallel(modelWidget, actionElement);
         } else if (IncludeActions.isIncludeActions(actionElement)) { // SCIPIO: new
             return IncludeActions.newInstance(modelWidget, actionElement);
         } else {
@@ -847,7 +863,11 @@ public abstract class AbstractModelAction implements Serializable, ModelAction {
                 if (this.fieldMap != null) {
                     EntityFinderUtil.expandFieldMapToContext(this.fieldMap, context, serviceContext);
                 }
-                Map<String, Object> result = WidgetWorker.getDispatcher(context).runSync(serviceNameExpanded, serviceContext);
+                // SCIPIO: 2026-10: the service may change the data memoized lookups come from (RequestMemo)
+                LocalDispatcher dispatcher = WidgetWorker.getDispatcher(context);
+                Map<String, Object> finalServiceContext = serviceContext;
+                Map<String, Object> result = RequestMemo.callSuspended(RequestMemo.from(context),
+                        () -> dispatcher.runSync(serviceNameExpanded, finalServiceContext));
                 ModelActionUtil.contextPutQueryStringOrAllResult(context, result, this.resultMapNameAcsr);
             } catch (GenericServiceException e) {
                 String errMsg = "Error calling service with name " + serviceNameExpanded + ": " + e.toString();
@@ -1878,4 +1898,172 @@ public abstract class AbstractModelAction implements Serializable, ModelAction {
         }
     }
 
+    /**
+     * SCIPIO: Models the &lt;parallel&gt; element: runs independent entity lookups concurrently, on a dedicated bounded
+     * pool and the current thread, and waits for all of them before the next action.
+     * <p>
+     * Each action runs in its own context layer over the current context, which is only read while they run; once all
+     * are done, the fields they set are copied into the current context in declaration order. Only read-only entity
+     * lookups are allowed (entity-one, entity-and, entity-condition, get-related, get-related-one), and they must not
+     * depend on each other. They see the request memo of the current thread ({@link RequestMemo}).
+     * <p>
+     * The pool has <code>widget.actions.parallel.threads</code> threads (widget.properties) and no queue: when all are
+     * busy, an action runs on the current thread instead of waiting, and a block run from a pool thread runs sequentially.
+     * <p>
+     * The worker threads cannot join the transaction of the current thread, so when one is in place the actions run
+     * sequentially, and a warning is logged once per block. Screens using this element must therefore be declared with
+     * <code>use-transaction="false"</code> (the default is true), and not be included from a screen that has a
+     * transaction. They also run sequentially when <code>widget.actions.parallel.enable=false</code> in widget.properties.
+     * <p>
+     * Added 2026-10.
+     */
+    public static class Parallel extends AbstractModelAction {
+        public static final String TAG_NAME = "parallel";
+        private static final boolean ENABLED = UtilProperties.getPropertyAsBoolean("widget", "widget.actions.parallel.enable", true);
+        private static final int THREADS = UtilProperties.getPropertyAsInteger("widget", "widget.actions.parallel.threads", 8);
+        private static final Set<String> ACTION_NAMES = UtilMisc.toSet("entity-one", "entity-and", "entity-condition",
+                "get-related", "get-related-one");
+        private static final ThreadPoolExecutor EXECUTOR = newExecutor();
+
+        private final List<ModelAction> actions;
+        private volatile boolean transactionWarned = false;
+
+        public Parallel(ModelWidget modelWidget, Element parallelElement) {
+            super(modelWidget, parallelElement);
+            List<? extends Element> actionElementList = UtilXml.childElementList(parallelElement);
+            List<ModelAction> actions = new ArrayList<>(actionElementList.size());
+            for (Element actionElement : actionElementList) {
+                if (!ACTION_NAMES.contains(UtilXml.getNodeNameIgnorePrefix(actionElement))) {
+                    throw new IllegalArgumentException("Action element not supported within parallel element: " + actionElement.getNodeName()
+                            + " (allowed: " + ACTION_NAMES + ")");
+                }
+                actions.add(newInstance(modelWidget, actionElement));
+            }
+            this.actions = Collections.unmodifiableList(actions);
+        }
+
+        /**
+         * Makes a block of the given actions, which are not checked against the allowed lookups: the caller is
+         * responsible for them being independent and read-only.
+         */
+        public Parallel(List<? extends ModelAction> actions) {
+            super();
+            this.actions = Collections.unmodifiableList(new ArrayList<>(actions));
+        }
+
+        private static ThreadPoolExecutor newExecutor() {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                    runnable -> new WorkerThread(runnable, "Scipio-screen-parallel-" + threadCount.incrementAndGet()));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        private static final class WorkerThread extends Thread {
+            WorkerThread(Runnable runnable, String name) {
+                super(runnable, name);
+                setDaemon(true);
+            }
+        }
+
+        @Override
+        public void accept(ModelActionVisitor visitor) throws Exception {
+            for (ModelAction action : actions) {
+                action.accept(visitor);
+            }
+        }
+
+        @Override
+        public void runAction(Map<String, Object> context) throws GeneralException {
+            if (!ENABLED || actions.size() <= 1 || Thread.currentThread() instanceof WorkerThread) {
+                runSubActionsEx(actions, context);
+                return;
+            }
+            if (TransactionUtil.isTransactionInPlace()) {
+                if (!transactionWarned) {
+                    transactionWarned = true;
+                    Debug.logWarning("Running parallel actions sequentially, as a transaction is in place; declare the screen"
+                            + " with use-transaction=\"false\" to run them in parallel" + getLogDirectiveLocationString(), module);
+                }
+                runSubActionsEx(actions, context);
+                return;
+            }
+            MapStack<String> baseContext = (context instanceof MapStack<?>) ? UtilGenerics.<MapStack<String>>cast(context) : MapStack.create(context);
+            List<MapStack<String>> actionContexts = new ArrayList<>(actions.size());
+            for (int i = 0; i < actions.size(); i++) {
+                actionContexts.add(baseContext.standAloneChildStack());
+            }
+            RequestMemo memo = RequestMemo.current();
+            List<Future<GeneralException>> futures = new ArrayList<>(actions.size() - 1);
+            for (int i = 1; i < actions.size(); i++) {
+                ModelAction action = actions.get(i);
+                Map<String, Object> actionContext = actionContexts.get(i);
+                Callable<GeneralException> task = () -> RequestMemo.callWith(memo, () -> runIsolated(action, actionContext));
+                try {
+                    futures.add(EXECUTOR.submit(task));
+                } catch (RejectedExecutionException e) {
+                    // all pool threads busy: run it here rather than wait for one
+                    FutureTask<GeneralException> future = new FutureTask<>(task);
+                    future.run();
+                    futures.add(future);
+                }
+            }
+            Throwable error;
+            try {
+                error = runIsolated(actions.get(0), actionContexts.get(0));
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            // wait for all, even after an error or interrupt, so none still reads the context
+            boolean interrupted = false;
+            for (Future<GeneralException> future : futures) {
+                while (true) {
+                    try {
+                        GeneralException actionError = future.get();
+                        if (error == null) {
+                            error = actionError;
+                        }
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        if (error == null) {
+                            error = (e.getCause() != null) ? e.getCause() : e;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                throw new GeneralException("Interrupted while running parallel actions" + getLogDirectiveLocationString());
+            }
+            if (error instanceof GeneralException) {
+                throw (GeneralException) error;
+            } else if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error != null) {
+                throw new GeneralException("Error running parallel actions" + getLogDirectiveLocationString(), error);
+            }
+            for (MapStack<String> actionContext : actionContexts) {
+                context.putAll(actionContext.pop());
+            }
+        }
+
+        private static GeneralException runIsolated(ModelAction action, Map<String, Object> actionContext) {
+            if (Debug.verboseOn()) {
+                Debug.logVerbose("Running parallel action " + action.getClass().getName(), module);
+            }
+            try {
+                action.runAction(actionContext);
+                return null;
+            } catch (GeneralException e) {
+                return e;
+            }
+        }
+
+        public List<ModelAction> getActions() {
+            return actions;
+        }
+    }
 }
@@ -131,12 +131,7 @@ public class HtmlWidget extends ModelScreenWidget {
                     writer.append(HtmlWidgetRenderer.formatBoundaryComment("Begin", "Template", location));
                 }
 
-                Template template = null;
-                if (location.endsWith(".fo.ftl")) { // FOP can't render correctly escaped characters
-                    template = FreeMarkerWorker.getTemplate(location);
-                } else {
-                    template = FreeMarkerWorker.getTemplate(location, specialTemplateCache, specialConfig);
-                }
+                Template template = getTemplate(location); // SCIPIO: 2026-10: factored out
                 FreeMarkerWorker.renderTemplate(template, context, writer);
 
                 if (insertWidgetBoundaryComments) {
@@ -152,6 +147,18 @@ public class HtmlWidget extends ModelScreenWidget {
         }
     }
 
+    /**
+     * SCIPIO: Returns the parsed template at the location, from the cache of html-template templates; used by screen
+     * templates and the startup warm-up (TemplateWarmupContainer). Added 2026-10.
+     */
+    public static Template getTemplate(String location) throws TemplateException, IOException {
+        if (location.endsWith(".fo.ftl")) { // FOP can't render correctly escaped characters
+            return FreeMarkerWorker.getTemplate(location);
+        } else {
+            return FreeMarkerWorker.getTemplate(location, specialTemplateCache, specialConfig);
+        }
+    }
+
     /**
      * SCIPIO: Renders an inlined template of given type.
      */
@@ -30,10 +30,12 @@ import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilGenerics;
 import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.base.util.collections.FlexibleMapAccessor;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
 import org.ofbiz.entity.finder.EntityFinderUtil;
 import org.ofbiz.service.GenericServiceException;
+import org.ofbiz.service.LocalDispatcher;
 import org.ofbiz.service.ModelService;
 import org.ofbiz.widget.WidgetWorker;
 import org.w3c.dom.Element;
@@ -203,12 +205,16 @@ public abstract class ModelFormAction implements Serializable {
                 if (this.fieldMap != null) {
                     EntityFinderUtil.expandFieldMapToContext(this.fieldMap, context, serviceContext);
                 }
-                Map<String, Object> result = null;
-                if (this.ignoreError) {
-                    result = WidgetWorker.getDispatcher(context).runSync(serviceNameExpanded, serviceContext, -1, true);
-                } else {
-                    result = WidgetWorker.getDispatcher(context).runSync(serviceNameExpanded, serviceContext);
-                }
+                // SCIPIO: 2026-10: the service may change the data memoized lookups come from (RequestMemo)
+                LocalDispatcher dispatcher = WidgetWorker.getDispatcher(context);
+                Map<String, Object> finalServiceContext = serviceContext;
+                Map<String, Object> result = RequestMemo.callSuspended(RequestMemo.from(context), () -> {
+                    if (this.ignoreError) {
+                        return dispatcher.runSync(serviceNameExpanded, finalServiceContext, -1, true);
+                    } else {
+                        return dispatcher.runSync(serviceNameExpanded, finalServiceContext);
+                    }
+                });
                 ModelActionUtil.contextPutQueryStringOrAllResult(context, result, this.resultMapNameAcsr);
                 String listName = resultMapListNameExdr.expandString(context);
                 Object listObj = result.get(listName);
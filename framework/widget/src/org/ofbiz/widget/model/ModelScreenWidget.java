@@ -46,6 +46,7 @@ import org.ofbiz.entity.util.EntityQuery;
 import org.ofbiz.webapp.renderer.RenderContextFetcher;
 import org.ofbiz.widget.WidgetFactory;
 import org.ofbiz.widget.WidgetWorker;
+import org.ofbiz.widget.cache.FragmentCache;
 import org.ofbiz.widget.model.CommonWidgetModels.AutoEntityParameters;
 import org.ofbiz.widget.model.CommonWidgetModels.AutoServiceParameters;
 import org.ofbiz.widget.model.CommonWidgetModels.Image;
@@ -59,6 +60,7 @@ import org.ofbiz.widget.renderer.FormStringRenderer;
 import org.ofbiz.widget.renderer.MenuStringRenderer;
 import org.ofbiz.widget.renderer.WidgetRenderOptions;
 import org.ofbiz.widget.renderer.ScreenRenderer;
+import org.ofbiz.widget.renderer.ScreenStreaming;
 import org.ofbiz.widget.renderer.ScreenStringRenderer;
 import org.ofbiz.widget.renderer.TreeStringRenderer;
 import org.ofbiz.widget.renderer.WidgetRenderTargetExpr;
@@ -445,6 +447,7 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
         private final boolean isMainSection;
         private final FlexibleStringExpander shareScopeExdr; // SCIPIO
         private final boolean actionsOnly; // SCIPIO: extra flag hint
+        private final FragmentCache.Config cache; // SCIPIO: 2026-10: output cache
 
         public Section(ModelScreen modelScreen, Element sectionElement) {
             this(modelScreen, sectionElement, false);
@@ -515,6 +518,8 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
             }
             this.isMainSection = isMainSection;
             this.shareScopeExdr = FlexibleStringExpander.getInstance(sectionElement.getAttribute("share-scope"));
+            // SCIPIO: 2026-10: cache element (section tag only)
+            this.cache = TAG_NAME.equals(tagName) ? FragmentCache.Config.fromParentElement(sectionElement) : null;
 
             // SCIPIO: Warn about this case, which should basically be considered an error.
             // 2018-10-17: Because too much code used this pattern, now only print as warning if this is the main section;
@@ -557,6 +562,14 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
 
         @Override
         public void renderWidgetStringCore(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException { // SCIPIO: renamed to *Core
+            if (cache != null) { // SCIPIO: 2026-10: output cache
+                FragmentCache.render(this, cache, null, writer, context, screenStringRenderer, this::renderSection);
+            } else {
+                renderSection(writer, context, screenStringRenderer);
+            }
+        }
+
+        private void renderSection(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException {
             // SCIPIO: share-scope
             boolean protectScope = !shareScope(context);
             if (protectScope) {
@@ -1059,6 +1072,33 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
         }
     }
 
+    /**
+     * SCIPIO: Flush point of streaming renders: sends the output rendered so far to the client, if the view streams
+     * (see {@link ScreenStreaming}); does nothing otherwise. Added 2026-10.
+     */
+    public static final class Flush extends ModelScreenWidget {
+        public static final String TAG_NAME = "flush";
+
+        public Flush(ModelScreen modelScreen, Element flushElement) {
+            super(modelScreen, flushElement);
+        }
+
+        @Override
+        public void renderWidgetStringCore(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException {
+            ScreenStreaming.flush(writer, context);
+        }
+
+        @Override
+        public void accept(ModelWidgetVisitor visitor) throws Exception {
+            visitor.visit(this);
+        }
+
+        @Override
+        public String getWidgetType() {
+            return TAG_NAME;
+        }
+    }
+
     public static final class HorizontalSeparator extends ModelScreenWidget implements FlexibleIdAttrWidget { // SCIPIO: interfaces
         public static final String TAG_NAME = "horizontal-separator";
         private final FlexibleStringExpander idExdr;
@@ -1123,6 +1163,7 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
         private final FlexibleStringExpander locationExdr;
         private final FlexibleStringExpander shareScopeExdr;
         private final List<ModelAction> actions; // SCIPIO: 2017-05-01: new post-context-stack-push actions
+        private final FragmentCache.Config cache; // SCIPIO: 2026-10: output cache
 
         public IncludeScreen(ModelScreen modelScreen, Element includeScreenElement) {
             super(modelScreen, includeScreenElement);
@@ -1130,10 +1171,20 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
             this.locationExdr = FlexibleStringExpander.getInstance(includeScreenElement.getAttribute("location"));
             this.shareScopeExdr = FlexibleStringExpander.getInstance(includeScreenElement.getAttribute("share-scope"));
             this.actions = readActions(modelScreen, includeScreenElement, "actions"); // SCIPIO
+            this.cache = FragmentCache.Config.fromParentElement(includeScreenElement); // SCIPIO
         }
 
         @Override
         public void renderWidgetStringCore(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException { // SCIPIO: renamed to *Core
+            if (cache != null) { // SCIPIO: 2026-10: output cache, keyed by the included screen too
+                String variant = this.getLocation(context) + "#" + this.getName(context);
+                FragmentCache.render(this, cache, variant, writer, context, screenStringRenderer, this::renderInclude);
+            } else {
+                renderInclude(writer, context, screenStringRenderer);
+            }
+        }
+
+        private void renderInclude(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException {
             // if we are not sharing the scope, protect it using the MapStack
             boolean protectScope = !shareScope(context);
             if (protectScope) {
@@ -1918,6 +1969,7 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
     public static final class PlatformSpecific extends ModelScreenWidget {
         public static final String TAG_NAME = "platform-specific";
         private final Map<String, ModelScreenWidget> subWidgets;
+        private final FragmentCache.Config cache; // SCIPIO: 2026-10: output cache
 
         public PlatformSpecific(ModelScreen modelScreen, Element platformSpecificElement) {
             super(modelScreen, platformSpecificElement);
@@ -1939,16 +1991,27 @@ public abstract class ModelScreenWidget extends ModelWidget implements ContainsE
                         subWidgets.put("xls", new HtmlWidget(modelScreen, childElement));
                     } else if ("email".equals(childElement.getNodeName())) { // SCIPIO: new email element for e-mail templates
                         subWidgets.put("email", new HtmlWidget(modelScreen, childElement));
+                    } else if ("cache".equals(childElement.getNodeName())) { // SCIPIO: 2026-10: read below
+                        continue;
                     } else {
                         throw new IllegalArgumentException("Tag not supported under the platform-specific tag with name: " + childElement.getNodeName());
                     }
                 }
             }
             this.subWidgets = Collections.unmodifiableMap(subWidgets);
+            this.cache = FragmentCache.Config.fromParentElement(platformSpecificElement); // SCIPIO
         }
 
         @Override
         public void renderWidgetStringCore(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException { // SCIPIO: renamed to *Core
+            if (cache != null) { // SCIPIO: 2026-10: output cache
+                FragmentCache.render(this, cache, null, writer, context, screenStringRenderer, this::renderPlatformWidget);
+            } else {
+                renderPlatformWidget(writer, context, screenStringRenderer);
+            }
+        }
+
+        private void renderPlatformWidget(Appendable writer, Map<String, Object> context, ScreenStringRenderer screenStringRenderer) throws GeneralException, IOException {
             ModelScreenWidget subWidget = null;
             subWidget = subWidgets.get(screenStringRenderer.getRendererName());
             if (subWidget == null) {
@@ -31,6 +31,7 @@ import org.ofbiz.base.util.UtilFormatOut;
 import org.ofbiz.base.util.UtilGenerics;
 import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.base.util.collections.FlexibleMapAccessor;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
 import org.ofbiz.entity.finder.ByAndFinder;
@@ -42,6 +43,7 @@ import org.ofbiz.minilang.SimpleMethod;
 import org.ofbiz.minilang.method.MethodContext;
 import org.ofbiz.service.DispatchContext;
 import org.ofbiz.service.GenericServiceException;
+import org.ofbiz.service.LocalDispatcher;
 import org.ofbiz.service.ModelService;
 import org.ofbiz.widget.WidgetWorker;
 import org.ofbiz.widget.model.ModelTree.ModelNode;
@@ -411,7 +413,11 @@ public abstract class ModelTreeAction extends AbstractModelAction {
                 if (this.fieldMap != null) {
                     EntityFinderUtil.expandFieldMapToContext(this.fieldMap, context, serviceContext);
                 }
-                Map<String, Object> result = WidgetWorker.getDispatcher(context).runSync(serviceNameExpanded, serviceContext);
+                // SCIPIO: 2026-10: the service may change the data memoized lookups come from (RequestMemo)
+                LocalDispatcher dispatcher = WidgetWorker.getDispatcher(context);
+                Map<String, Object> finalServiceContext = serviceContext;
+                Map<String, Object> result = RequestMemo.callSuspended(RequestMemo.from(context),
+                        () -> dispatcher.runSync(serviceNameExpanded, finalServiceContext));
                 ModelActionUtil.contextPutQueryStringOrAllResult(context, result, this.resultMapNameAcsr);
                 String resultMapListName = resultMapListNameExdr.expandString(context);
                 String resultMapValueName = resultMapValueNameExdr.expandString(context);
@@ -62,6 +62,11 @@ public interface ModelWidgetVisitor {
 
     void visit(ModelScreenWidget.HorizontalSeparator horizontalSeparator) throws Exception;
 
+    /**
+     * SCIPIO: Visit the flush point. Added 2026-10.
+     */
+    void visit(ModelScreenWidget.Flush flush) throws Exception;
+
     void visit(ModelScreenWidget.ScreenImage image) throws Exception;
 
     void visit(ModelScreenWidget.IncludeScreen includeScreen) throws Exception;
@@ -32,6 +32,7 @@ import org.ofbiz.widget.model.ModelScreenWidget.Content;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorScreen;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorSection;
 import org.ofbiz.widget.model.ModelScreenWidget.DecoratorSectionInclude;
+import org.ofbiz.widget.model.ModelScreenWidget.Flush;
 import org.ofbiz.widget.model.ModelScreenWidget.Form;
 import org.ofbiz.widget.model.ModelScreenWidget.Grid;
 import org.ofbiz.widget.model.ModelScreenWidget.HorizontalSeparator;
@@ -153,6 +154,13 @@ public class XmlWidgetVisitor extends XmlAbstractWidgetVisitor implements ModelW
         writer.append("/>");
     }
 
+    @Override
+    public void visit(Flush flush) throws Exception { // SCIPIO
+        writer.append("<flush");
+        visitModelWidget(flush);
+        writer.append("/>");
+    }
+
     @Override
     public void visit(HorizontalSeparator horizontalSeparator) throws Exception {
         writer.append("<horizontal-separator");
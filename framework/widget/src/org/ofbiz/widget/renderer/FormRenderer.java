@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,6 +37,7 @@ import java.util.TreeSet;
 import org.ofbiz.base.util.Debug;
 import org.ofbiz.base.util.UtilGenerics;
 import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilProperties;
 import org.ofbiz.base.util.UtilValidate;
 import org.ofbiz.base.util.collections.MapStack;
 import org.ofbiz.base.util.string.FlexibleStringExpander;
@@ -71,6 +73,8 @@ public class FormRenderer {
 
     private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
 
+    private static final boolean ITEM_ROW_TEMPLATE = UtilProperties.getPropertyAsBoolean("widget", "widget.form.list.rowTemplate.enable", true); // SCIPIO
+
     public static String getCurrentContainerId(ModelForm modelForm, Map<String, Object> context) {
         Locale locale = UtilMisc.ensureLocale(context.get("locale"));
         String retVal = FlexibleStringExpander.expandString(modelForm.getContainerId(), context, locale);
@@ -111,11 +115,23 @@ public class FormRenderer {
     private final ModelForm modelForm;
     private final FormStringRenderer formStringRenderer;
     private String focusFieldName;
+    private final boolean itemRowTemplate; // SCIPIO
 
     public FormRenderer(ModelForm modelForm, FormStringRenderer formStringRenderer) {
+        this(modelForm, formStringRenderer, ITEM_ROW_TEMPLATE);
+    }
+
+    /**
+     * SCIPIO: Makes a renderer that makes the field lists of list and multi form rows once per render if itemRowTemplate,
+     * or for each row otherwise, instead of as set by <code>widget.form.list.rowTemplate.enable</code> in widget.properties.
+     * <p>
+     * Added 2026-10.
+     */
+    public FormRenderer(ModelForm modelForm, FormStringRenderer formStringRenderer, boolean itemRowTemplate) {
         this.modelForm = modelForm;
         this.formStringRenderer = formStringRenderer;
         this.focusFieldName = modelForm.getFocusFieldName();
+        this.itemRowTemplate = itemRowTemplate;
     }
 
     private Collection<List<ModelFormField>> getFieldListsByPosition(List<ModelFormField> modelFormFieldList) {
@@ -992,6 +1008,9 @@ public class FormRenderer {
 
             listFormHandler.notifyHasList(); // SCIPIO
 
+            // SCIPIO: 2026-10: field lists that do not depend on the row, made once for all rows
+            ItemRowTemplate rowTemplate = (itemRowTemplate && isListOrMultiForm) ? makeItemRowTemplate() : null;
+
             // render item rows
             int itemIndex = -1;
             Object item = null;
@@ -1044,6 +1063,29 @@ public class FormRenderer {
                      Debug.logVerbose("In form got another row, context is: " + localContext, module);
                 }
 
+                if (rowTemplate != null) { // SCIPIO: only the hidden fields, submit fields and field use-when depend on the row
+                    for (ItemRowTemplate.Position rowPosition : rowTemplate.positions) {
+                        // renderItemRow adds the row submit field to the end and main lists, so these are copies
+                        List<ModelFormField> fieldsEnd = new ArrayList<>(rowPosition.fieldsEnd);
+                        List<ModelFormField> fields = new ArrayList<>(rowPosition.fields);
+                        for (ModelFormField submitField : rowTemplate.submitFields) {
+                            if (submitField.shouldUse(context)) {
+                                fieldsEnd.add(submitField);
+                                fields.add(submitField);
+                            }
+                        }
+                        List<ModelFormField> hiddenIgnoredFieldList = getHiddenIgnoredFields(localContext, null,
+                                rowPosition.hiddenIgnoredFields, rowPosition.position);
+                        if (rowPosition.fieldsBegin.size() > 0 || rowPosition.formFields.size() > 0 || fieldsEnd.size() > 0) {
+                            numOfColumns = listFormHandler.getNumOfColumns();
+                            this.renderItemRow(writer, localContext, formStringRenderer, formPerItem, hiddenIgnoredFieldList,
+                                    rowPosition.fieldsBegin, rowPosition.formFields, fieldsEnd, fields, rowPosition.position,
+                                    numOfColumns, isListOrMultiForm);
+                        }
+                    }
+                    continue;
+                }
+
                 // Check to see if there is a field, same name and same use-when (could come from extended form)
                 List<ModelFormField> tempFieldList = new LinkedList<>();
                 tempFieldList.addAll(modelForm.getFieldList());
@@ -1220,6 +1262,125 @@ public class FormRenderer {
         }
     }
 
+    /**
+     * SCIPIO: Makes the field lists of the item rows of a list or multi form, as {@link #renderItemRows} makes them for
+     * each row, or returns null if they depend on the row: when a field with use-when has the same name as a later
+     * field (only one of them is kept per row). The use-when of the row submit fields is left to each row.
+     * <p>
+     * Added 2026-10.
+     */
+    private ItemRowTemplate makeItemRowTemplate() {
+        List<ModelFormField> fieldList = modelForm.getFieldList();
+        Set<String> laterFieldNames = new HashSet<>();
+        for (int i = fieldList.size() - 1; i >= 0; i--) {
+            ModelFormField modelFormField = fieldList.get(i);
+            if (!modelFormField.isUseWhenEmpty() && laterFieldNames.contains(modelFormField.getName())) {
+                return null;
+            }
+            laterFieldNames.add(modelFormField.getName());
+        }
+
+        List<ModelFormField> submitFields = new ArrayList<>();
+        if (!modelForm.getUseMasterSubmitField()) {
+            for (ModelFormField submitField : modelForm.getMultiSubmitFields()) {
+                if (submitField != null) {
+                    submitFields.add(submitField);
+                }
+            }
+        }
+
+        List<ItemRowTemplate.Position> positions = new ArrayList<>();
+        for (List<ModelFormField> fieldListByPosition : getFieldListsByPosition(fieldList)) {
+            List<ModelFormField> fieldsBegin = new ArrayList<>();
+            List<ModelFormField> formFields = new ArrayList<>();
+            List<ModelFormField> fieldsEnd = new ArrayList<>();
+            int currentPosition = 1;
+            Iterator<ModelFormField> displayHyperlinkFieldIter = fieldListByPosition.iterator();
+            while (displayHyperlinkFieldIter.hasNext()) {
+                ModelFormField modelFormField = displayHyperlinkFieldIter.next();
+                int fieldType = modelFormField.getFieldInfo().getFieldType();
+                if (fieldType == FieldInfo.HIDDEN || fieldType == FieldInfo.IGNORED) {
+                    continue;
+                }
+                if (fieldType != FieldInfo.DISPLAY && fieldType != FieldInfo.DISPLAY_ENTITY && fieldType != FieldInfo.HYPERLINK) {
+                    break;
+                }
+                fieldsBegin.add(modelFormField);
+                currentPosition = modelFormField.getPosition();
+            }
+            for (ModelFormField modelFormField : fieldListByPosition) {
+                int fieldType = modelFormField.getFieldInfo().getFieldType();
+                if (fieldType == FieldInfo.HIDDEN || fieldType == FieldInfo.IGNORED || fieldType == FieldInfo.DISPLAY
+                        || fieldType == FieldInfo.DISPLAY_ENTITY || fieldType == FieldInfo.HYPERLINK || fieldType == FieldInfo.SUBMIT) {
+                    continue;
+                }
+                formFields.add(modelFormField);
+                currentPosition = modelFormField.getPosition();
+            }
+            while (displayHyperlinkFieldIter.hasNext()) {
+                ModelFormField modelFormField = displayHyperlinkFieldIter.next();
+                int fieldType = modelFormField.getFieldInfo().getFieldType();
+                if (fieldType != FieldInfo.DISPLAY && fieldType != FieldInfo.DISPLAY_ENTITY && fieldType != FieldInfo.HYPERLINK
+                        && fieldType != FieldInfo.SUBMIT) {
+                    continue;
+                }
+                fieldsEnd.add(modelFormField);
+                currentPosition = modelFormField.getPosition();
+            }
+            List<ModelFormField> fields = new ArrayList<>(fieldListByPosition);
+            if (fieldsBegin.isEmpty() && formFields.isEmpty() && fieldsEnd.isEmpty() && submitFields.isEmpty()) {
+                continue;
+            }
+            List<ModelFormField> hiddenIgnoredFields = new ArrayList<>();
+            for (ModelFormField modelFormField : fieldList) {
+                int fieldType = modelFormField.getFieldInfo().getFieldType();
+                if (modelFormField.getPosition() == currentPosition && (fieldType == FieldInfo.HIDDEN || fieldType == FieldInfo.IGNORED
+                        || fieldType == FieldInfo.DISPLAY || fieldType == FieldInfo.DISPLAY_ENTITY || fieldType == FieldInfo.HYPERLINK)) {
+                    hiddenIgnoredFields.add(modelFormField);
+                }
+            }
+            positions.add(new ItemRowTemplate.Position(fields, fieldsBegin, formFields, fieldsEnd, hiddenIgnoredFields, currentPosition));
+        }
+        return new ItemRowTemplate(positions, submitFields);
+    }
+
+    /**
+     * SCIPIO: The field lists of the item rows of a list or multi form that are the same for every row: per position,
+     * the fields of the leading display/hyperlink cells, the form field cells, the trailing cells and the candidate
+     * hidden fields (whose use-when is still evaluated per row); and the candidate row submit fields, added to the
+     * trailing cells of each position when their use-when passes for the row.
+     * <p>
+     * Added 2026-10.
+     */
+    private static final class ItemRowTemplate {
+        private final List<Position> positions;
+        private final List<ModelFormField> submitFields;
+
+        ItemRowTemplate(List<Position> positions, List<ModelFormField> submitFields) {
+            this.positions = positions;
+            this.submitFields = submitFields;
+        }
+
+        private static final class Position {
+            private final List<ModelFormField> fields;
+            private final List<ModelFormField> fieldsBegin;
+            private final List<ModelFormField> formFields;
+            private final List<ModelFormField> fieldsEnd;
+            private final List<ModelFormField> hiddenIgnoredFields;
+            private final int position;
+
+            Position(List<ModelFormField> fields, List<ModelFormField> fieldsBegin, List<ModelFormField> formFields,
+                    List<ModelFormField> fieldsEnd, List<ModelFormField> hiddenIgnoredFields, int position) {
+                this.fields = fields;
+                this.fieldsBegin = fieldsBegin;
+                this.formFields = formFields;
+                this.fieldsEnd = fieldsEnd;
+                this.hiddenIgnoredFields = hiddenIgnoredFields;
+                this.position = position;
+            }
+        }
+    }
+
     /**
      * SCIPIO: Helper object to handle renderer the table wrappers, headers, etc.
      */
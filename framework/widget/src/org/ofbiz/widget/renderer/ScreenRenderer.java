@@ -48,6 +48,7 @@ import org.ofbiz.base.util.UtilHttp;
 import org.ofbiz.base.util.UtilMisc;
 import org.ofbiz.base.util.UtilProperties;
 import org.ofbiz.base.util.UtilValidate;
+import org.ofbiz.base.util.cache.RequestMemo;
 import org.ofbiz.base.util.collections.MapStack;
 import org.ofbiz.base.util.template.FreeMarkerWorker;
 import org.ofbiz.entity.Delegator;
@@ -495,6 +496,7 @@ public class ScreenRenderer implements RenderContextFetcher, RendererInfo { // S
         context.put("session", session);
         context.put("application", servletContext);
         context.put("webappName", session.getAttribute("_WEBAPP_NAME_"));
+        context.put("requestMemo", RequestMemo.from(request)); // SCIPIO: 2026-10: memo of lookups for the request (may be null)
 
         if (servletContext != null) {
             String rootDir = (String) context.get("rootDir");
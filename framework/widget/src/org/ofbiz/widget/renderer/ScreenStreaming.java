@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.renderer;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import javax.servlet.ServletRequest;
+
+import org.ofbiz.base.util.Debug;
+
+/**
+ * SCIPIO: Streaming render of screen views: the output rendered so far is sent to the client at each flush point of the
+ * screens (<code>flush</code> screen widget, or {@link #flush(Appendable, Map)}), instead of only when the response
+ * buffer is full or the page is done, so the browser gets the document head and page header while the rest renders.
+ * <p>
+ * Enabled per view handler by <code>[name].streaming=true</code> in widget.properties (e.g. <code>screen.streaming</code>);
+ * never during targeted rendering or view-as-json renders. A flush point only takes effect where widgets write to the
+ * view writer itself, not within output that is captured to be used later (screenlets, fragment cache, FTL captures).
+ * <p>
+ * Once flushed, the response is committed: its status and headers can no longer change, and a later error can no longer
+ * be rendered as the error page (the page is cut short instead; see ControlServlet). Flush points should come after any
+ * action that may redirect, set the status or headers, or create the session.
+ * <p>
+ * Added 2026-10.
+ */
+public final class ScreenStreaming {
+
+    private static final Debug.OfbizLogger module = Debug.getOfbizLogger(java.lang.invoke.MethodHandles.lookup().lookupClass());
+
+    /** Context field and request attribute of the streaming state of the render. */
+    public static final String FIELD_NAME = "_scpScreenStreaming";
+
+    private final Writer writer;
+    private int flushCount;
+
+    private ScreenStreaming(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Enables streaming for the render of the view to the given writer, which must be the one passed to the screen renderer.
+     */
+    public static ScreenStreaming start(Writer writer, Map<String, Object> context, ServletRequest request) {
+        ScreenStreaming streaming = new ScreenStreaming(writer);
+        context.put(FIELD_NAME, streaming);
+        request.setAttribute(FIELD_NAME, streaming);
+        return streaming;
+    }
+
+    /**
+     * Sends the output written so far to the client, if streaming is enabled and the writer is the view writer;
+     * returns true if flushed.
+     */
+    public static boolean flush(Appendable writer, Map<String, Object> context) throws IOException {
+        ScreenStreaming streaming = (ScreenStreaming) context.get(FIELD_NAME);
+        if (streaming == null || writer != streaming.writer) {
+            if (streaming != null && Debug.verboseOn()) {
+                Debug.logVerbose("Screen flush point skipped: output is not going straight to the response", module);
+            }
+            return false;
+        }
+        ((Flushable) writer).flush();
+        streaming.flushCount++;
+        return true;
+    }
+
+    /**
+     * Returns the streaming state of the render of the request, or null if not streaming.
+     */
+    public static ScreenStreaming from(ServletRequest request) {
+        return (ScreenStreaming) request.getAttribute(FIELD_NAME);
+    }
+
+    /**
+     * Returns true if output was already sent to the client at a flush point.
+     */
+    public boolean isFlushed() {
+        return flushCount > 0;
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+}
@@ -178,6 +178,10 @@ public final class MacroFormRenderer implements FormStringRenderer {
     private void executeMacro(Appendable writer, String macro) throws IOException { // SCIPIO: modified for exception
         try {
             Environment environment = getEnvironment(writer);
+            // SCIPIO: 2026-10: run simple calls directly instead of parsing a new template each time
+            if (MacroInvocation.execute(environment, macro)) {
+                return;
+            }
             Reader templateReader = new StringReader(macro);
             Template template = new Template(new UID().toString(), templateReader, FreeMarkerWorker.getDefaultOfbizConfig());
             templateReader.close();
@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.renderer.macro;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.base.util.template.FreeMarkerWorker;
+
+import freemarker.core.Environment;
+import freemarker.template.ObjectWrapper;
+import freemarker.template.SimpleHash;
+import freemarker.template.SimpleNumber;
+import freemarker.template.SimpleScalar;
+import freemarker.template.SimpleSequence;
+import freemarker.template.Template;
+import freemarker.template.TemplateBooleanModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+
+/**
+ * SCIPIO: Runs the widget renderer macro calls without parsing a new template for each call.
+ * <p>
+ * The Macro*Renderer classes express each call as an FTL invocation, such as
+ * <code>&lt;@renderField name=r"x" required=true /&gt;</code>, which used to be parsed into a throwaway template every
+ * time. Here the argument values are passed to the macro in a hash instead, through a call template of the form
+ * <code>&lt;@renderField name=args.name required=args.required /&gt;</code> that is parsed once per macro and argument
+ * names and cached (<code>widget.macro.call</code>). Macros are resolved in the macro library environment exactly as
+ * by the parsed invocation.
+ * <p>
+ * Invocation strings are scanned for literal argument values (strings, numbers, booleans, hash and sequence literals of
+ * those); any other argument expression is kept as is in the call template. When an invocation is not a single
+ * self-closing macro call with named arguments, {@link #execute(Environment, String)} returns false and the caller
+ * parses it as before. Disabled by <code>widget.macro.directCall=false</code> in widget.properties.
+ * <p>
+ * Added 2026-10.
+ */
+public final class MacroInvocation {
+
+    private static final boolean ENABLED = UtilProperties.getPropertyAsBoolean("widget", "widget.macro.directCall", true);
+
+    /** The global variable holding the argument values during a call; removed after the outermost call. */
+    static final String ARGS_VAR = "_scpMacroCallArgs";
+
+    private static final UtilCache<String, Template> callTemplateCache = UtilCache.createUtilCache("widget.macro.call");
+
+    private MacroInvocation() {
+    }
+
+    /**
+     * Runs the macro invocation (FTL source) in the environment if it is a single call with named arguments; returns
+     * false, without running anything, otherwise.
+     */
+    public static boolean execute(Environment environment, String invocation) throws TemplateException, IOException {
+        if (!ENABLED) {
+            return false;
+        }
+        ObjectWrapper wrapper = environment.getObjectWrapper();
+        SimpleHash args = newHash(wrapper);
+        String callSource = new Parser(invocation, wrapper).parseCall(args);
+        if (callSource == null) {
+            return false;
+        }
+        run(environment, callSource, args);
+        return true;
+    }
+
+    /**
+     * Runs the macro with the given arguments if they are all plain values (String, Boolean, Number); returns false,
+     * without running anything, otherwise, as other values are FTL expressions for the invocation string.
+     */
+    public static boolean execute(Environment environment, String macroName, Map<String, Object> parameters) throws TemplateException, IOException {
+        if (!ENABLED) {
+            return false;
+        }
+        SimpleHash args = newHash(environment.getObjectWrapper());
+        StringBuilder callSource = new StringBuilder("<@").append(macroName);
+        if (parameters != null) {
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                TemplateModel model = toModel(parameter.getValue());
+                if (model == null) {
+                    return false;
+                }
+                String name = parameter.getKey();
+                args.put(name, model);
+                callSource.append(' ').append(name).append('=').append(ARGS_VAR).append('.').append(name);
+            }
+        }
+        callSource.append(" />");
+        run(environment, callSource.toString(), args);
+        return true;
+    }
+
+    /**
+     * Makes an empty hash keeping insertion order, as FTL hash literals do.
+     */
+    private static SimpleHash newHash(ObjectWrapper wrapper) {
+        return new SimpleHash(new LinkedHashMap<String, Object>(), wrapper);
+    }
+
+    private static TemplateModel toModel(Object value) {
+        if (value instanceof String) {
+            return new SimpleScalar((String) value);
+        } else if (value instanceof Boolean) {
+            return ((Boolean) value) ? TemplateBooleanModel.TRUE : TemplateBooleanModel.FALSE;
+        } else if (value instanceof Number) {
+            return new SimpleNumber((Number) value);
+        }
+        return null;
+    }
+
+    private static void run(Environment environment, String callSource, SimpleHash args) throws TemplateException, IOException {
+        Template template = callTemplateCache.get(callSource);
+        if (template == null) {
+            template = new Template("widget-macro-call", new StringReader(callSource), FreeMarkerWorker.getDefaultOfbizConfig());
+            template = callTemplateCache.putIfAbsentAndGet(callSource, template);
+        }
+        // the arguments are evaluated when the macro is called, so nested calls may reuse the variable
+        TemplateModel prevArgs = environment.getGlobalVariable(ARGS_VAR);
+        environment.setGlobalVariable(ARGS_VAR, args);
+        try {
+            FreeMarkerWorker.includeTemplate(template, environment);
+        } finally {
+            if (prevArgs != null) {
+                environment.setGlobalVariable(ARGS_VAR, prevArgs);
+            } else {
+                environment.getGlobalNamespace().remove(ARGS_VAR);
+            }
+        }
+    }
+
+    /**
+     * Splits an invocation into the call template source and the literal argument values.
+     */
+    private static final class Parser {
+        private final String src;
+        private final ObjectWrapper wrapper;
+        private int pos;
+
+        Parser(String src, ObjectWrapper wrapper) {
+            this.src = src;
+            this.wrapper = wrapper;
+        }
+
+        /**
+         * Returns the call template source, with the literal values put in args, or null if not a simple call.
+         */
+        String parseCall(SimpleHash args) {
+            skipSpace();
+            if (!src.startsWith("<@", pos)) {
+                return null;
+            }
+            pos += 2;
+            int nameStart = pos;
+            while (pos < src.length() && (isNameChar(src.charAt(pos)) || src.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos == nameStart) {
+                return null;
+            }
+            StringBuilder callSource = new StringBuilder(src.length()).append(src, 0, pos);
+            while (true) {
+                skipSpace();
+                if (src.startsWith("/>", pos)) {
+                    pos += 2;
+                    skipSpace();
+                    return (pos == src.length()) ? callSource.append(" />").toString() : null;
+                }
+                int argNameStart = pos;
+                while (pos < src.length() && isNameChar(src.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == argNameStart || Character.isDigit(src.charAt(argNameStart))) {
+                    return null;
+                }
+                String argName = src.substring(argNameStart, pos);
+                skipSpace();
+                if (pos >= src.length() || src.charAt(pos) != '=') {
+                    return null;
+                }
+                pos++;
+                skipSpace();
+                int valueStart = pos;
+                TemplateModel value = parseLiteral();
+                if (value != null && isArgEnd()) {
+                    args.put(argName, value);
+                    callSource.append(' ').append(argName).append('=').append(ARGS_VAR).append('.').append(argName);
+                } else {
+                    pos = valueStart;
+                    if (!skipExpression() || pos == valueStart) {
+                        return null;
+                    }
+                    callSource.append(' ').append(argName).append('=').append(src, valueStart, pos);
+                }
+            }
+        }
+
+        private TemplateModel parseLiteral() {
+            if (pos >= src.length()) {
+                return null;
+            }
+            char c = src.charAt(pos);
+            if (c == '"' || c == '\'') {
+                String value = parseString();
+                return (value != null) ? new SimpleScalar(value) : null;
+            } else if (c == 'r' && pos + 1 < src.length() && (src.charAt(pos + 1) == '"' || src.charAt(pos + 1) == '\'')) {
+                char quote = src.charAt(pos + 1);
+                int end = src.indexOf(quote, pos + 2);
+                if (end < 0) {
+                    return null;
+                }
+                String value = src.substring(pos + 2, end);
+                pos = end + 1;
+                return new SimpleScalar(value);
+            } else if (c == '{') {
+                return parseHash();
+            } else if (c == '[') {
+                return parseSequence();
+            } else if (src.startsWith("true", pos) && isValueEnd(pos + 4)) {
+                pos += 4;
+                return TemplateBooleanModel.TRUE;
+            } else if (src.startsWith("false", pos) && isValueEnd(pos + 5)) {
+                pos += 5;
+                return TemplateBooleanModel.FALSE;
+            } else if (c == '-' || Character.isDigit(c)) {
+                return parseNumber();
+            }
+            return null;
+        }
+
+        /**
+         * Parses a regular string literal; null if it has interpolations or escapes this does not know.
+         */
+        private String parseString() {
+            char quote = src.charAt(pos);
+            StringBuilder sb = new StringBuilder();
+            int i = pos + 1;
+            while (i < src.length()) {
+                char c = src.charAt(i);
+                if (c == quote) {
+                    pos = i + 1;
+                    return sb.toString();
+                } else if ((c == '$' || c == '#') && i + 1 < src.length() && src.charAt(i + 1) == '{') {
+                    return null;
+                } else if (c == '\\') {
+                    if (++i >= src.length()) {
+                        return null;
+                    }
+                    char e = src.charAt(i);
+                    switch (e) {
+                    case '"': case '\'': case '\\': case '{': case '=': sb.append(e); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'l': sb.append('<'); break;
+                    case 'g': sb.append('>'); break;
+                    case 'a': sb.append('&'); break;
+                    case 'x':
+                        int hexStart = i + 1;
+                        int hexEnd = hexStart;
+                        while (hexEnd < src.length() && hexEnd - hexStart < 4 && Character.digit(src.charAt(hexEnd), 16) >= 0) {
+                            hexEnd++;
+                        }
+                        if (hexEnd == hexStart) {
+                            return null;
+                        }
+                        sb.append((char) Integer.parseInt(src.substring(hexStart, hexEnd), 16));
+                        i = hexEnd - 1;
+                        break;
+                    default:
+                        return null;
+                    }
+                } else {
+                    sb.append(c);
+                }
+                i++;
+            }
+            return null;
+        }
+
+        private TemplateModel parseNumber() {
+            int start = pos;
+            int i = pos;
+            if (src.charAt(i) == '-') {
+                i++;
+            }
+            int digitsStart = i;
+            while (i < src.length() && Character.isDigit(src.charAt(i))) {
+                i++;
+            }
+            if (i == digitsStart) {
+                return null;
+            }
+            if (i + 1 < src.length() && src.charAt(i) == '.' && Character.isDigit(src.charAt(i + 1))) {
+                i++;
+                while (i < src.length() && Character.isDigit(src.charAt(i))) {
+                    i++;
+                }
+            }
+            if (!isValueEnd(i)) {
+                return null;
+            }
+            pos = i;
+            return new SimpleNumber(new BigDecimal(src.substring(start, i)));
+        }
+
+        private TemplateModel parseHash() {
+            SimpleHash hash = newHash(wrapper);
+            pos++;
+            skipSpace();
+            if (pos < src.length() && src.charAt(pos) == '}') {
+                pos++;
+                return hash;
+            }
+            while (true) {
+                TemplateModel key = parseLiteral();
+                if (!(key instanceof SimpleScalar)) {
+                    return null;
+                }
+                skipSpace();
+                if (pos >= src.length() || src.charAt(pos) != ':') {
+                    return null;
+                }
+                pos++;
+                skipSpace();
+                TemplateModel value = parseLiteral();
+                if (value == null) {
+                    return null;
+                }
+                hash.put(((SimpleScalar) key).getAsString(), value);
+                skipSpace();
+                if (pos >= src.length()) {
+                    return null;
+                }
+                char c = src.charAt(pos++);
+                if (c == '}') {
+                    return hash;
+                } else if (c != ',') {
+                    return null;
+                }
+                skipSpace();
+            }
+        }
+
+        private TemplateModel parseSequence() {
+            SimpleSequence seq = new SimpleSequence(wrapper);
+            pos++;
+            skipSpace();
+            if (pos < src.length() && src.charAt(pos) == ']') {
+                pos++;
+                return seq;
+            }
+            while (true) {
+                TemplateModel value = parseLiteral();
+                if (value == null) {
+                    return null;
+                }
+                seq.add(value);
+                skipSpace();
+                if (pos >= src.length()) {
+                    return null;
+                }
+                char c = src.charAt(pos++);
+                if (c == ']') {
+                    return seq;
+                } else if (c != ',') {
+                    return null;
+                }
+                skipSpace();
+            }
+        }
+
+        /**
+         * Skips an argument expression kept as is: up to the next space or tag end outside brackets and strings.
+         */
+        private boolean skipExpression() {
+            int depth = 0;
+            while (pos < src.length()) {
+                char c = src.charAt(pos);
+                if (c == '"' || c == '\'') {
+                    boolean raw = pos > 0 && src.charAt(pos - 1) == 'r';
+                    int i = pos + 1;
+                    while (i < src.length() && src.charAt(i) != c) {
+                        i += (!raw && src.charAt(i) == '\\') ? 2 : 1;
+                    }
+                    if (i >= src.length()) {
+                        return false;
+                    }
+                    pos = i + 1;
+                    continue;
+                } else if (c == '(' || c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ')' || c == ']' || c == '}') {
+                    if (--depth < 0) {
+                        return false;
+                    }
+                } else if (depth == 0 && (Character.isWhitespace(c) || c == '>' || src.startsWith("/>", pos))) {
+                    break;
+                }
+                pos++;
+            }
+            return depth == 0;
+        }
+
+        private boolean isArgEnd() {
+            return pos >= src.length() || Character.isWhitespace(src.charAt(pos)) || src.startsWith("/>", pos);
+        }
+
+        private boolean isValueEnd(int i) {
+            if (i >= src.length()) {
+                return true;
+            }
+            char c = src.charAt(i);
+            return Character.isWhitespace(c) || c == '/' || c == ',' || c == '}' || c == ']' || c == ':';
+        }
+
+        private void skipSpace() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+        }
+    }
+}
@@ -164,6 +164,10 @@ public class MacroMenuRenderer implements MenuStringRenderer {
 
     private void executeMacro(Appendable writer, String macro) throws IOException, TemplateException {
         Environment environment = getEnvironment(writer);
+        // SCIPIO: 2026-10: run simple calls directly instead of parsing a new template each time
+        if (MacroInvocation.execute(environment, macro)) {
+            return;
+        }
         Reader templateReader = new StringReader(macro);
         macroCount++;
         String templateName = toString().concat("_") + macroCount;
@@ -178,6 +182,10 @@ public class MacroMenuRenderer implements MenuStringRenderer {
      * NOTE: To prevent auto-enclosing String in quotes, pass a StringBuilder or other non-String wrapper instead.
      */
     private void executeMacroReal(Appendable writer, String macroName, Map<String, Object> macroParameters) throws IOException, TemplateException {
+        // SCIPIO: 2026-10: pass plain parameter values to the macro directly, without building and parsing FTL
+        if (MacroInvocation.execute(getEnvironment(writer), macroName, macroParameters)) {
+            return;
+        }
         StringBuilder sb = new StringBuilder("<@");
         sb.append(macroName);
         if (macroParameters != null) {
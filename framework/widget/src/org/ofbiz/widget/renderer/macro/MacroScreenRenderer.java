@@ -154,6 +154,10 @@ public class MacroScreenRenderer implements ScreenStringRenderer {
 
         try {
             Environment environment = getEnvironment(writer);
+            // SCIPIO: 2026-10: run simple calls directly instead of parsing a new template each time
+            if (MacroInvocation.execute(environment, macro)) {
+                return;
+            }
             Reader templateReader = new StringReader(macro);
             // FIXME: I am using a Date as an hack to provide a unique name for the template...
             Template template = new Template((new java.util.Date()).toString(), templateReader, FreeMarkerWorker.getDefaultOfbizConfig());
@@ -196,6 +200,16 @@ public class MacroScreenRenderer implements ScreenStringRenderer {
     private void executeMacro(Appendable writer, String macroName, Map<String, Object> parameters) throws IOException {
         if (!shouldOutput(writer)) return; // SCIPIO: 2017-05-04: new, here as a failsafe (NOTE: not most efficient location for check)
 
+        // SCIPIO: 2026-10: pass plain parameter values to the macro directly, without building and parsing FTL
+        try {
+            if (MacroInvocation.execute(getEnvironment(writer), macroName, parameters)) {
+                return;
+            }
+        } catch (TemplateException | IOException e) {
+            Debug.logError(e, "Error rendering screen macro [" + macroName + "] thru ftl", module);
+            handleError(writer, e);
+            return;
+        }
         StringBuilder sb = new StringBuilder("<@");
         sb.append(macroName);
         if (parameters != null) {
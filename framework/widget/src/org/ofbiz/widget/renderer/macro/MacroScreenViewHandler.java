@@ -42,6 +42,7 @@ import org.ofbiz.webapp.view.ViewHandlerExt;
 import org.ofbiz.widget.renderer.FormStringRenderer;
 import org.ofbiz.widget.renderer.MenuStringRenderer;
 import org.ofbiz.widget.renderer.ScreenRenderer;
+import org.ofbiz.widget.renderer.ScreenStreaming;
 import org.ofbiz.widget.renderer.ScreenStringRenderer;
 import org.ofbiz.widget.renderer.TreeStringRenderer;
 import org.ofbiz.widget.renderer.VisualThemeWorker;
@@ -129,6 +130,14 @@ public class MacroScreenViewHandler extends AbstractViewHandler implements ViewH
 
     // SCIPIO: 2017-05-01: factored out Writer for reuse
     public void render(String name, String page, String info, String contentType, String encoding, HttpServletRequest request, HttpServletResponse response, Writer writer) throws ViewHandlerException {
+        render(name, page, info, contentType, encoding, request, response, writer, false);
+    }
+
+    /**
+     * SCIPIO: Renders to the writer; if allowStreaming, the writer must be the response writer (see {@link ScreenStreaming}).
+     */
+    protected void render(String name, String page, String info, String contentType, String encoding, HttpServletRequest request, HttpServletResponse response, Writer writer,
+            boolean allowStreaming) throws ViewHandlerException {
         try {
             Delegator delegator = (Delegator) request.getAttribute("delegator");
             // compress output if configured to do so
@@ -153,6 +162,12 @@ public class MacroScreenViewHandler extends AbstractViewHandler implements ViewH
             // SCIPIO: 2017-05-09: targeted rendering prep. NOTE: populateContextForRequest call set up the RenderTargetState object.
             writer = WidgetRenderTargetExpr.getRenderTargetState(context).prepareWriter(writer, context);
 
+            // SCIPIO: 2026-10: streaming render (flush points)
+            if (allowStreaming && !WidgetRenderTargetExpr.getRenderTargetState(context).isEnabled()
+                    && "true".equals(EntityUtilProperties.getPropertyValue("widget", getName() + ".streaming", delegator))) {
+                ScreenStreaming.start(writer, context, request);
+            }
+
             ScreenStringRenderer screenStringRenderer = loadRenderers(request, response, context, writer);
             ScreenRenderer screens = ScreenRenderer.makeWithEnvAwareFetching(writer, context, screenStringRenderer);
             context.put("screens", screens);
@@ -185,7 +200,7 @@ public class MacroScreenViewHandler extends AbstractViewHandler implements ViewH
     public void render(String name, String page, String info, String contentType, String encoding,
             HttpServletRequest request, HttpServletResponse response) throws ViewHandlerException {
         try {
-            this.render(name, page, info, contentType, encoding, request, response, response.getWriter());
+            this.render(name, page, info, contentType, encoding, request, response, response.getWriter(), true); // SCIPIO: 2026-10: allowStreaming
         } catch (IOException e) {
             throw new ViewHandlerException("Error in the response writer/output stream: " + e.toString(), e);
         }
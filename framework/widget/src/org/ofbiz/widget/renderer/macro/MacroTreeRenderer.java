@@ -108,6 +108,10 @@ public class MacroTreeRenderer implements TreeStringRenderer {
     private void executeMacro(Appendable writer, String macro) throws IOException {
         try {
             Environment environment = getEnvironment(writer);
+            // SCIPIO: 2026-10: run simple calls directly instead of parsing a new template each time
+            if (MacroInvocation.execute(environment, macro)) {
+                return;
+            }
             Reader templateReader = new StringReader(macro);
             // FIXME: I am using a Date as an hack to provide a unique name for the template...
             Template template = new Template((new java.util.Date()).toString(), templateReader,
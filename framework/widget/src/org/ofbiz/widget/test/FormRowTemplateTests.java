@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.collections.MapStack;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.widget.model.FieldInfo;
+import org.ofbiz.widget.model.ModelForm;
+import org.ofbiz.widget.model.ModelFormField;
+import org.ofbiz.widget.model.ModelGrid;
+import org.ofbiz.widget.renderer.FormRenderer;
+import org.ofbiz.widget.renderer.FormStringRenderer;
+
+/**
+ * Tests that list forms render the same with the field lists of their rows made once per render
+ * (<code>widget.form.list.rowTemplate.enable</code>) as made for each row, with a renderer recording its calls.
+ */
+public class FormRowTemplateTests extends OFBizTestCase {
+
+    private static final String FORM_XML = "<forms><form name=\"Rows\" type=\"list\" list-name=\"rows\">"
+            + "<row-actions><set field=\"state.showSubmit\" from-field=\"showSubmit\" type=\"Boolean\"/></row-actions>"
+            + "<field name=\"rowId\" use-when=\"showQuantity\"><hidden/></field>"
+            + "<field name=\"name\"><display/></field>"
+            + "<field name=\"quantity\" use-when=\"showQuantity\"><text/></field>"
+            + "<field name=\"comments\"><text/></field>"
+            + "<field name=\"edit\"><hyperlink target=\"edit\" description=\"Edit\"/></field>"
+            + "<field name=\"note\" position=\"2\"><display/></field>"
+            + "<field name=\"update\" use-when=\"state.showSubmit\"><submit/></field>"
+            + "</form></forms>";
+
+    public FormRowTemplateTests(String name) {
+        super(name);
+    }
+
+    public void testSameOutput() throws Exception {
+        ModelForm modelForm = new ModelGrid(UtilXml.firstChildElement(UtilXml.readXmlDocument(FORM_XML, false).getDocumentElement(), "form"),
+                "component://widget/widget/FormRowTemplateTests.xml", delegator.getModelReader(), dispatcher.getDispatchContext());
+        List<String> perRow = render(modelForm, false);
+        List<String> template = render(modelForm, true);
+        assertEquals("same renderer calls", perRow, template);
+        // the row submit field ends the row of each position
+        assertEquals("submit fields of the rows where their use-when passes", 4, count(template, "renderSubmitField:update"));
+        assertEquals("use-when fields of the rows where it passes", 2, count(template, "renderTextField:quantity"));
+        assertEquals("hidden fields of the rows where their use-when passes", 2, count(template, "renderHiddenField:rowId"));
+        assertEquals("second position rows", 3, count(template, "renderDisplayField:note"));
+    }
+
+    private List<String> render(ModelForm modelForm, boolean itemRowTemplate) throws Exception {
+        List<String> calls = new ArrayList<>();
+        FormStringRenderer renderer = (FormStringRenderer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { FormStringRenderer.class }, (proxy, method, args) -> {
+                    String call = method.getName();
+                    for (Object arg : (args != null) ? args : new Object[0]) {
+                        if (arg instanceof ModelFormField) {
+                            call += ":" + ((ModelFormField) arg).getName();
+                        } else if (arg instanceof FieldInfo) {
+                            call += ":" + ((FieldInfo) arg).getModelFormField().getName();
+                        }
+                    }
+                    calls.add(call);
+                    if (method.getReturnType() == boolean.class) {
+                        return Boolean.FALSE;
+                    } else if (method.getReturnType() == String.class) {
+                        return "test";
+                    }
+                    return null;
+                });
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(UtilMisc.toMap("rowId", "1", "name", "A", "showQuantity", true, "showSubmit", true, "note", "a"));
+        rows.add(UtilMisc.toMap("rowId", "2", "name", "B", "showQuantity", false, "showSubmit", false, "note", "b"));
+        rows.add(UtilMisc.toMap("rowId", "3", "name", "C", "showQuantity", true, "showSubmit", true, "note", "c"));
+        Map<String, Object> context = MapStack.create();
+        context.put("delegator", delegator);
+        context.put("dispatcher", dispatcher);
+        context.put("locale", Locale.ENGLISH);
+        context.put("rows", rows);
+        context.put("state", new HashMap<String, Object>());
+        new FormRenderer(modelForm, renderer, itemRowTemplate).render(new StringBuilder(), context);
+        return calls;
+    }
+
+    private static int count(List<String> calls, String call) {
+        int count = 0;
+        for (String curCall : calls) {
+            if (curCall.equals(call)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.collections.MapStack;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.widget.cache.FragmentCache;
+import org.ofbiz.widget.model.ModelScreen;
+import org.ofbiz.widget.model.ModelScreenWidget;
+import org.ofbiz.widget.model.ScreenFactory;
+import org.ofbiz.widget.renderer.ScreenStringRenderer;
+
+/**
+ * Tests the <code>cache</code> element of screen sections ({@link FragmentCache}), with a renderer writing the text
+ * of labels and counting them.
+ */
+public class FragmentCacheTests extends OFBizTestCase {
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private final ScreenStringRenderer renderer = (ScreenStringRenderer) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { ScreenStringRenderer.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "getRendererName": return "test";
+                case "renderLabel":
+                    renders.incrementAndGet();
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> context = (Map<String, Object>) args[1];
+                    Runnable hook = (Runnable) context.get("hook");
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    ((Appendable) args[0]).append(((ModelScreenWidget.Label) args[2]).getText(context));
+                    return null;
+                default: return (method.getReturnType() == boolean.class) ? Boolean.FALSE : null;
+                }
+            });
+
+    public FragmentCacheTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        FragmentCache.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FragmentCache.clear();
+        super.tearDown();
+    }
+
+    public void testKeyVariants() throws Exception {
+        ModelScreenWidget.Section section = section("keyVariants", "key=\"productId\"");
+        assertEquals("rendered", "a", render(section, "A", "a", Locale.ENGLISH, "user1"));
+        assertEquals("cached", "a", render(section, "A", "other", Locale.ENGLISH, "user1"));
+        assertEquals("renders", 1, renders.get());
+        assertEquals("key field", "b", render(section, "B", "b", Locale.ENGLISH, "user1"));
+        assertEquals("locale", "fr", render(section, "A", "fr", Locale.FRENCH, "user1"));
+        assertEquals("user", "user2", render(section, "A", "user2", Locale.ENGLISH, "user2"));
+        assertEquals("anonymous", "anonymous", render(section, "A", "anonymous", Locale.ENGLISH, null));
+        assertEquals("all variants cached", "a", render(section, "A", "other", Locale.ENGLISH, "user1"));
+        assertEquals("renders", 5, renders.get());
+
+        ModelScreenWidget.Section shared = section("keyShared", "locale=\"false\" per-user=\"false\"");
+        assertEquals("rendered", "a", render(shared, "A", "a", Locale.ENGLISH, "user1"));
+        assertEquals("other locale and user", "a", render(shared, "B", "b", Locale.FRENCH, "user2"));
+    }
+
+    public void testExpiry() throws Exception {
+        ModelScreenWidget.Section section = section("expiry", "ttl=\"1\"");
+        assertEquals("rendered", "a", render(section, "A", "a", Locale.ENGLISH, null));
+        assertEquals("cached", "a", render(section, "A", "b", Locale.ENGLISH, null));
+        Thread.sleep(1100);
+        assertEquals("expired", "c", render(section, "A", "c", Locale.ENGLISH, null));
+        assertEquals("cached again", "c", render(section, "A", "d", Locale.ENGLISH, null));
+    }
+
+    public void testStaleServedWhileRefreshing() throws Exception {
+        ModelScreenWidget.Section section = section("stale", "ttl=\"1\" stale-ttl=\"60\"");
+        assertEquals("rendered", "a", render(section, "A", "a", Locale.ENGLISH, null));
+        Thread.sleep(1100);
+        assertEquals("stale output while refreshing", "a", renderWhileRefreshing(section, "b", "c"));
+        assertEquals("refreshed", "b", render(section, "A", "d", Locale.ENGLISH, null));
+    }
+
+    public void testVersionInvalidation() throws Exception {
+        ModelScreenWidget.Section section = section("version", "entities=\"TestingType\"");
+        assertEquals("rendered", "a", render(section, "A", "a", Locale.ENGLISH, null));
+        assertEquals("cached", "a", render(section, "A", "b", Locale.ENGLISH, null));
+        delegator.clearCacheLine("TestingType");
+        assertEquals("entity changed", "c", render(section, "A", "c", Locale.ENGLISH, null));
+        assertEquals("cached again", "c", render(section, "A", "d", Locale.ENGLISH, null));
+    }
+
+    public void testVersionInvalidationWhileRefreshing() throws Exception {
+        ModelScreenWidget.Section section = section("versionStale", "entities=\"TestingType\" stale-ttl=\"60\"");
+        assertEquals("rendered", "a", render(section, "A", "a", Locale.ENGLISH, null));
+        delegator.clearCacheLine("TestingType");
+        assertEquals("output of changed entities not served", "c", renderWhileRefreshing(section, "b", "c"));
+    }
+
+    /**
+     * Renders text while another thread is rendering refreshText, returning the output of this thread.
+     */
+    private String renderWhileRefreshing(ModelScreenWidget.Section section, String refreshText, String text) throws Exception {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> refresh = executor.submit(() -> {
+                Map<String, Object> context = context("A", refreshText, Locale.ENGLISH, null);
+                context.put("hook", (Runnable) () -> {
+                    refreshing.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return render(section, context);
+            });
+            assertTrue("refresh started", refreshing.await(10, TimeUnit.SECONDS));
+            String output = render(section, "A", text, Locale.ENGLISH, null);
+            release.countDown();
+            assertEquals("refresh output", refreshText, refresh.get(10, TimeUnit.SECONDS));
+            return output;
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private ModelScreenWidget.Section section(String screenName, String cacheAttributes) throws Exception {
+        String xml = "<screens><screen name=\"" + screenName + "\"><section><cache " + cacheAttributes + "/>"
+                + "<widgets><label text=\"${text}\"/></widgets></section></screen></screens>";
+        ModelScreen screen = ScreenFactory.readScreenDocument(UtilXml.readXmlDocument(xml, false), "component://widget/widget/FragmentCacheTests.xml")
+                .getScreen(screenName);
+        return screen.getSection();
+    }
+
+    private Map<String, Object> context(String productId, String text, Locale locale, String userLoginId) {
+        Map<String, Object> context = MapStack.create();
+        context.put("delegator", delegator);
+        context.put("productId", productId);
+        context.put("text", text);
+        context.put("locale", locale);
+        if (userLoginId != null) {
+            context.put("userLogin", delegator.makeValue("UserLogin", "userLoginId", userLoginId));
+        }
+        return context;
+    }
+
+    private String render(ModelScreenWidget.Section section, String productId, String text, Locale locale, String userLoginId) throws Exception {
+        return render(section, context(productId, text, locale, userLoginId));
+    }
+
+    private String render(ModelScreenWidget.Section section, Map<String, Object> context) throws Exception {
+        StringBuilder writer = new StringBuilder();
+        section.renderWidgetString(writer, context, renderer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.base.util.template.FreeMarkerWorker;
+import org.ofbiz.widget.renderer.macro.MacroInvocation;
+
+import freemarker.core.Environment;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+/**
+ * Checks that {@link MacroInvocation} produces the same output as parsing the invocation.
+ */
+public class MacroInvocationTests extends GenericTestCaseBase {
+
+    /** show prints its arguments with their types, recursively. */
+    private static final String LIB = "<#macro show a=\"\" b=\"\" c=\"\" d=\"\">[<@dump a/>|<@dump b/>|<@dump c/>|<@dump d/>]</#macro>\n"
+            + "<#macro dump v><#if v?is_boolean>B${v?c}<#elseif v?is_number>N${v?c}<#elseif v?is_string>S${v}"
+            + "<#elseif v?is_sequence>[<#list v as x><@dump x/>,</#list>]"
+            + "<#elseif v?is_hash_ex>{<#list v?keys as k>${k}:<@dump v[k]/>,</#list>}<#else>?</#if></#macro>\n";
+
+    private Configuration config;
+    private StringWriter out;
+    private Environment env;
+
+    public MacroInvocationTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        config = FreeMarkerWorker.getDefaultOfbizConfig();
+        out = new StringWriter();
+        Template lib = new Template("macroInvocationTestLib", new StringReader(LIB), config);
+        env = lib.createProcessingEnvironment(UtilMisc.toMap("x", "val"), out);
+        env.process();
+    }
+
+    public void testEscapes() throws Exception {
+        assertSameOutput("<@show a=\"q\\\"\\\\ \\n\\t \\x41 \\l\\g\\a \\{\" b='it\\'s \"x\"' c=r\"raw\\n${x}\" d=\"\" />");
+    }
+
+    public void testNestedLiterals() throws Exception {
+        assertSameOutput("<@show a={\"k\":[1, \"two\", {\"z\":true}], \"e\":[]} b=[{}, [false]] c={'q' : 'v'} />");
+    }
+
+    public void testBooleansAndNumbers() throws Exception {
+        assertSameOutput("<@show a=true b=false c=-12.50 d=0 />");
+        assertSameOutput("<@show a=1.5 b=42 />");
+        assertSameOutput("<@show />");
+    }
+
+    public void testExpressionsKept() throws Exception {
+        assertSameOutput("<@show a=\"${x}\" b=x?upper_case c=(1+2) d=[x, \"y\"] />");
+        assertSameOutput("<@show a=1+2 b=truex!\"none\" c={\"k\":x} />");
+    }
+
+    public void testFallback() throws Exception {
+        for (String invocation : Arrays.asList("<@show a=1 /><@show a=2 />", "<@show 1 />", "<@show a=1>body</@show>",
+                "<#if true><@show /></#if>", "text", "<@show a=\"unterminated />")) {
+            out.getBuffer().setLength(0);
+            assertFalse("fallback: " + invocation, MacroInvocation.execute(env, invocation));
+            assertEquals("nothing run: " + invocation, "", out.toString());
+        }
+    }
+
+    public void testMapCall() throws Exception {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("a", "s\"q");
+        parameters.put("b", Boolean.TRUE);
+        parameters.put("c", 3);
+        out.getBuffer().setLength(0);
+        assertTrue("direct", MacroInvocation.execute(env, "show", parameters));
+        assertEquals("map call", parsed("<@show a=\"s\\\"q\" b=true c=3 />"), out.toString());
+
+        parameters.put("d", Arrays.asList("x"));
+        out.getBuffer().setLength(0);
+        assertFalse("FTL expression values fall back", MacroInvocation.execute(env, "show", parameters));
+        assertEquals("nothing run", "", out.toString());
+    }
+
+    public void testArgumentsVariableRemoved() throws Exception {
+        direct("<@show a=\"x\" />");
+        assertNull("variable removed", env.getGlobalVariable("_scpMacroCallArgs"));
+        assertFalse("not listed", env.getGlobalNamespace().containsKey("_scpMacroCallArgs"));
+    }
+
+    public void testCallTemplateShared() throws Exception {
+        // calls differing only in literal values run the same call template, parsed once
+        String invocation = "<@show a=\"name_o_0\" b={\"id\":\"field\", \"class\":\"required\", \"size\":25} c=true d=x />";
+        assertSameOutput(invocation);
+        UtilCache<String, Template> callTemplateCache = UtilCache.findCache("widget.macro.call");
+        int size = callTemplateCache.size();
+        for (int i = 1; i < 50; i++) {
+            String rowInvocation = invocation.replace("name_o_0", "name_o_" + i).replace("25", Integer.toString(i));
+            assertEquals(rowInvocation, "[Sname_o_" + i + "|{id:Sfield,class:Srequired,size:N" + i + ",}|Btrue|Sval]", direct(rowInvocation));
+        }
+        assertEquals("no template parsed per call", size, callTemplateCache.size());
+    }
+
+    private void assertSameOutput(String invocation) throws Exception {
+        String expected = parsed(invocation);
+        assertEquals(invocation, expected, direct(invocation));
+    }
+
+    private String direct(String invocation) throws Exception {
+        out.getBuffer().setLength(0);
+        assertTrue("direct call: " + invocation, MacroInvocation.execute(env, invocation));
+        return out.toString();
+    }
+
+    private String parsed(String invocation) throws Exception {
+        out.getBuffer().setLength(0);
+        FreeMarkerWorker.includeTemplate(new Template("macroInvocationTest", new StringReader(invocation), config), env);
+        return out.toString();
+    }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.ofbiz.base.util.GeneralException;
+import org.ofbiz.base.util.UtilGenerics;
+import org.ofbiz.base.util.UtilMisc;
+import org.ofbiz.base.util.UtilProperties;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.collections.MapStack;
+import org.ofbiz.entity.GenericValue;
+import org.ofbiz.entity.transaction.TransactionUtil;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.widget.model.AbstractModelAction;
+import org.ofbiz.widget.model.ModelAction;
+import org.ofbiz.widget.model.ModelActionVisitor;
+
+/**
+ * Tests the &lt;parallel&gt; screen action block ({@link AbstractModelAction.Parallel}), with entity lookups, and with
+ * actions made in code to check the threads they run on.
+ */
+public class ParallelActionTests extends OFBizTestCase {
+
+    public ParallelActionTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        delegator.createOrStore(delegator.makeValue("TestingType", "testingTypeId", "PARALLEL_A", "description", "A"));
+        delegator.createOrStore(delegator.makeValue("TestingType", "testingTypeId", "PARALLEL_B", "description", "B"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delegator.removeByAnd("TestingType", "testingTypeId", "PARALLEL_A");
+        delegator.removeByAnd("TestingType", "testingTypeId", "PARALLEL_B");
+        super.tearDown();
+    }
+
+    public void testLookups() throws Exception {
+        MapStack<String> context = MapStack.create();
+        context.put("delegator", delegator);
+        context.put("typeId", "PARALLEL_B");
+        parallel("<entity-one entity-name=\"TestingType\" value-field=\"typeA\"><field-map field-name=\"testingTypeId\" value=\"PARALLEL_A\"/></entity-one>"
+                + "<entity-and entity-name=\"TestingType\" list=\"typesB\"><field-map field-name=\"testingTypeId\" from-field=\"typeId\"/></entity-and>"
+                + "<entity-condition entity-name=\"TestingType\" list=\"types\"><condition-expr field-name=\"testingTypeId\" operator=\"like\" value=\"PARALLEL_%\"/>"
+                + "<order-by field-name=\"testingTypeId\"/></entity-condition>"
+                + "<entity-one entity-name=\"TestingType\" value-field=\"same\"><field-map field-name=\"testingTypeId\" value=\"PARALLEL_A\"/></entity-one>"
+                + "<entity-one entity-name=\"TestingType\" value-field=\"same\"><field-map field-name=\"testingTypeId\" value=\"PARALLEL_B\"/></entity-one>")
+                .runAction(context);
+        assertEquals("entity-one", "A", ((GenericValue) context.get("typeA")).getString("description"));
+        List<GenericValue> typesB = UtilGenerics.checkList(context.get("typesB"));
+        assertEquals("entity-and", "B", typesB.get(0).getString("description"));
+        List<GenericValue> types = UtilGenerics.checkList(context.get("types"));
+        assertEquals("entity-condition", 2, types.size());
+        assertEquals("declaration order", "B", ((GenericValue) context.get("same")).getString("description"));
+    }
+
+    public void testAllowedActions() throws Exception {
+        for (String action : new String[] { "<script script=\"groovy:context.put('a', 1)\"/>", "<service service-name=\"testScv\"/>",
+                "<set field=\"a\" value=\"1\"/>" }) {
+            try {
+                parallel(action + "<entity-one entity-name=\"TestingType\" value-field=\"a\"/>");
+                fail("not a read-only entity lookup: " + action);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testThreads() throws Exception {
+        Map<String, Object> context = MapStack.create();
+        new AbstractModelAction.Parallel(UtilMisc.toList(thread("thread0"), thread("thread1"))).runAction(context);
+        assertEquals("first action on the current thread", Thread.currentThread().getName(), context.get("thread0"));
+        assertTrue("second action on a pool thread", ((String) context.get("thread1")).startsWith("Scipio-screen-parallel-"));
+
+        context = MapStack.create();
+        boolean beganTransaction = TransactionUtil.begin();
+        try {
+            new AbstractModelAction.Parallel(UtilMisc.toList(thread("thread0"), thread("thread1"))).runAction(context);
+        } finally {
+            TransactionUtil.rollback(beganTransaction, "test", null);
+        }
+        assertEquals("sequential in a transaction", Thread.currentThread().getName(), context.get("thread1"));
+    }
+
+    public void testPoolThreadRunsSequentially() throws Exception {
+        AbstractModelAction.Parallel nested = new AbstractModelAction.Parallel(UtilMisc.toList(thread("nested0"), thread("nested1")));
+        Map<String, Object> context = MapStack.create();
+        new AbstractModelAction.Parallel(UtilMisc.toList(thread("thread0"), new TestAction(actionContext -> {
+            actionContext.put("thread1", Thread.currentThread().getName());
+            nested.runAction(actionContext);
+        }))).runAction(context);
+        assertTrue("on a pool thread", ((String) context.get("thread1")).startsWith("Scipio-screen-parallel-"));
+        assertEquals("nested first action", context.get("thread1"), context.get("nested0"));
+        assertEquals("nested second action on the same pool thread", context.get("thread1"), context.get("nested1"));
+    }
+
+    public void testSaturated() throws Exception {
+        int threads = UtilProperties.getPropertyAsInteger("widget", "widget.actions.parallel.threads", 8);
+        String requestThread = Thread.currentThread().getName();
+        // the pool threads wait until an action runs on the request thread
+        CountDownLatch release = new CountDownLatch(1);
+        List<ModelAction> actions = new ArrayList<>();
+        for (int i = 0; i < threads + 2; i++) {
+            String field = "thread" + i;
+            actions.add(new TestAction(context -> {
+                context.put(field, Thread.currentThread().getName());
+                if (requestThread.equals(Thread.currentThread().getName())) {
+                    release.countDown();
+                } else {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+            }));
+        }
+        Map<String, Object> context = MapStack.create();
+        long start = System.currentTimeMillis();
+        new AbstractModelAction.Parallel(actions).runAction(context);
+        assertEquals("action past the pool size on the request thread", requestThread, context.get("thread" + (threads + 1)));
+        for (int i = 1; i <= threads; i++) {
+            assertTrue("action on a pool thread", ((String) context.get("thread" + i)).startsWith("Scipio-screen-parallel-"));
+        }
+        assertTrue("did not wait for a pool thread", System.currentTimeMillis() - start < 5000);
+    }
+
+    public void testError() throws Exception {
+        Map<String, Object> context = MapStack.create();
+        try {
+            new AbstractModelAction.Parallel(UtilMisc.toList(new TestAction(actionContext -> actionContext.put("a", 1)),
+                    new TestAction(actionContext -> {
+                        throw new IllegalStateException("failed");
+                    }))).runAction(context);
+            fail("error not raised");
+        } catch (IllegalStateException e) {
+            assertFalse("results dropped", context.containsKey("a"));
+        }
+    }
+
+    public void testInterrupt() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        Map<String, Object> context = MapStack.create();
+        try {
+            new AbstractModelAction.Parallel(UtilMisc.toList(new TestAction(actionContext -> Thread.currentThread().interrupt()),
+                    new TestAction(actionContext -> {
+                        Thread.sleep(300);
+                        done.set(true);
+                    }))).runAction(context);
+            fail("interrupt not raised");
+        } catch (GeneralException e) {
+            assertTrue("waited for the other actions", done.get());
+        } finally {
+            assertTrue("interrupt status kept", Thread.interrupted());
+        }
+    }
+
+    private static AbstractModelAction.Parallel parallel(String actionsXml) throws Exception {
+        return new AbstractModelAction.Parallel(null, UtilXml.readXmlDocument("<parallel>" + actionsXml + "</parallel>", false).getDocumentElement());
+    }
+
+    private static TestAction thread(String field) {
+        return new TestAction(context -> context.put(field, Thread.currentThread().getName()));
+    }
+
+    private interface ActionBody {
+        void run(Map<String, Object> context) throws Exception;
+    }
+
+    private static final class TestAction implements ModelAction {
+        private final ActionBody body;
+
+        TestAction(ActionBody body) {
+            this.body = body;
+        }
+
+        @Override
+        public void accept(ModelActionVisitor visitor) {
+        }
+
+        @Override
+        public void runAction(Map<String, Object> context) throws GeneralException {
+            try {
+                body.run(context);
+            } catch (GeneralException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new GeneralException(e);
+            }
+        }
+    }
+}
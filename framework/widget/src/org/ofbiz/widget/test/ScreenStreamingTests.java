@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.collections.MapStack;
+import org.ofbiz.webapp.test.HttpTestFixtures;
+import org.ofbiz.widget.cache.FragmentCache;
+import org.ofbiz.widget.model.ModelScreenWidget;
+import org.ofbiz.widget.model.ScreenFactory;
+import org.ofbiz.widget.renderer.ScreenStreaming;
+import org.ofbiz.widget.renderer.ScreenStringRenderer;
+
+/**
+ * Tests the <code>flush</code> screen widget and {@link ScreenStreaming}, with a renderer writing the text of labels
+ * and recording the output already sent to the client before each label.
+ */
+public class ScreenStreamingTests extends GenericTestCaseBase {
+
+    private HttpTestFixtures.TestResponse response;
+    private final List<String> flushedBeforeLabel = new ArrayList<>();
+    private final ScreenStringRenderer renderer = (ScreenStringRenderer) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { ScreenStringRenderer.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "getRendererName": return "test";
+                case "renderLabel":
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> context = (Map<String, Object>) args[1];
+                    flushedBeforeLabel.add(response.getFlushedOutput());
+                    ((Appendable) args[0]).append(((ModelScreenWidget.Label) args[2]).getText(context));
+                    return null;
+                default: return (method.getReturnType() == boolean.class) ? Boolean.FALSE : null;
+                }
+            });
+
+    public ScreenStreamingTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        response = new HttpTestFixtures.TestResponse();
+        FragmentCache.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FragmentCache.clear();
+        super.tearDown();
+    }
+
+    public void testFlushPoint() throws Exception {
+        Writer writer = response.response.getWriter();
+        Map<String, Object> context = MapStack.create();
+        HttpTestFixtures.TestRequest request = new HttpTestFixtures.TestRequest();
+        ScreenStreaming streaming = ScreenStreaming.start(writer, context, request.request);
+        assertSame("request attribute", streaming, ScreenStreaming.from(request.request));
+
+        section("flushPoint", "").renderWidgetString(writer, context, renderer);
+        assertEquals("nothing sent before the head", "", flushedBeforeLabel.get(0));
+        assertEquals("head sent at the flush point", "<head>", flushedBeforeLabel.get(1));
+        assertEquals("flushes", 1, streaming.getFlushCount());
+        assertEquals("response flushes", 1, response.getFlushCount());
+        assertTrue("committed", response.isCommitted());
+        assertEquals("output", "<head><body>", response.getOutput());
+    }
+
+    public void testNotStreaming() throws Exception {
+        Writer writer = response.response.getWriter();
+        section("notStreaming", "").renderWidgetString(writer, MapStack.create(), renderer);
+        assertEquals("nothing sent at the flush point", "", flushedBeforeLabel.get(1));
+        assertEquals("response flushes", 0, response.getFlushCount());
+        assertFalse("not committed", response.isCommitted());
+        assertEquals("output", "<head><body>", response.getOutput());
+    }
+
+    public void testCapturedOutput() throws Exception {
+        Writer writer = response.response.getWriter();
+        Map<String, Object> context = MapStack.create();
+        ScreenStreaming streaming = ScreenStreaming.start(writer, context, new HttpTestFixtures.TestRequest().request);
+
+        // another writer, e.g. a capture to be used later
+        StringWriter capture = new StringWriter();
+        section("capturedOutput", "").renderWidgetString(capture, context, renderer);
+        assertEquals("capture", "<head><body>", capture.toString());
+
+        // the fragment cache renders to a buffer
+        section("cachedOutput", "<cache/>").renderWidgetString(writer, context, renderer);
+        assertEquals("cached output", "<head><body>", response.getOutput());
+
+        assertEquals("flushes", 0, streaming.getFlushCount());
+        assertEquals("response flushes", 0, response.getFlushCount());
+        assertFalse("not committed", response.isCommitted());
+    }
+
+    private static ModelScreenWidget.Section section(String screenName, String cacheElement) throws Exception {
+        String xml = "<screens><screen name=\"" + screenName + "\"><section>" + cacheElement
+                + "<widgets><label text=\"&lt;head&gt;\"/><flush/><label text=\"&lt;body&gt;\"/></widgets></section></screen></screens>";
+        return ScreenFactory.readScreenDocument(UtilXml.readXmlDocument(xml, false), "component://widget/widget/ScreenStreamingTests.xml")
+                .getScreen(screenName).getSection();
+    }
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.ofbiz.base.util.UtilGenerics;
+import org.ofbiz.base.util.UtilXml;
+import org.ofbiz.base.util.cache.RequestMemo;
+import org.ofbiz.base.util.collections.MapStack;
+import org.ofbiz.service.testtools.OFBizTestCase;
+import org.ofbiz.webapp.test.HttpTestFixtures;
+import org.ofbiz.widget.model.AbstractModelAction;
+
+/**
+ * Tests the &lt;service&gt; screen action ({@link AbstractModelAction.Service}) with a request memo.
+ */
+public class ServiceActionTests extends OFBizTestCase {
+
+    /** Returns the value memoized by the request memo, or the given one (see services_test_se.xml). */
+    private static final String SERVICE_NAME = "testServiceRequestMemo";
+
+    public ServiceActionTests(String name) {
+        super(name);
+    }
+
+    public void testRequestMemoSuspended() throws Exception {
+        HttpServletRequest request = new HttpTestFixtures.TestRequest().request;
+        RequestMemo memo = RequestMemo.open(request);
+        try {
+            memo.get(SERVICE_NAME, "value", () -> "memoized");
+            Map<String, Object> context = MapStack.create();
+            context.put("request", request);
+            context.put("dispatcher", dispatcher);
+            new AbstractModelAction.Service(null, UtilXml.readXmlDocument("<service service-name=\"" + SERVICE_NAME
+                    + "\" result-map=\"result\"><field-map field-name=\"value\" value=\"fresh\"/></service>", false)
+                    .getDocumentElement()).runAction(context);
+            Map<String, Object> result = UtilGenerics.checkMap(context.get("result"));
+            assertEquals("service ran without the memo", "fresh", result.get("memoValue"));
+            assertEquals("memo dropped after the service", "after", memo.get(SERVICE_NAME, "value", () -> "after"));
+        } finally {
+            memo.close(request);
+        }
+    }
+}
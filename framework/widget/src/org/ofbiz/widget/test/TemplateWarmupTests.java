@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.ofbiz.widget.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ofbiz.base.test.GenericTestCaseBase;
+import org.ofbiz.base.util.cache.UtilCache;
+import org.ofbiz.base.util.template.FreeMarkerWorker;
+import org.ofbiz.widget.TemplateWarmupContainer;
+import org.ofbiz.widget.model.HtmlWidget;
+
+/**
+ * Tests the file lists and compiles of the {@link TemplateWarmupContainer}, with its widget.properties settings.
+ */
+public class TemplateWarmupTests extends GenericTestCaseBase {
+
+    private static final String SCREEN_TEMPLATE = "component://common/webcommon/includes/htmlheader-for-ajax.ftl";
+    private static final String OTHER_TEMPLATE = "component://common/webcommon/includes/closehtmlbody.ftl";
+
+    private final TestWarmupContainer container = new TestWarmupContainer();
+
+    public TemplateWarmupTests(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        container.init(new String[0], "template-warmup-container", null);
+    }
+
+    public void testIsExcluded() throws Exception {
+        assertTrue("source", container.isExcluded("/src/org/ofbiz/widget/Test.groovy"));
+        assertTrue("test", container.isExcluded("/webapp/test/templates/test.ftl"));
+        assertTrue("test data", container.isExcluded("/testdef/data/test.ftl"));
+        assertTrue("build", container.isExcluded("/build/classes/test.ftl"));
+        assertFalse("template", container.isExcluded("/webcommon/includes/closehtmlbody.ftl"));
+        assertFalse("script", container.isExcluded("/groovyScripts/Test.groovy"));
+        assertFalse("partial match", container.isExcluded("/webapp/testing/templates/test.ftl"));
+    }
+
+    public void testFindLocations() throws Exception {
+        List<String> locations = container.findLocations();
+        assertTrue("template", locations.contains(OTHER_TEMPLATE));
+        assertTrue("script", locations.contains("component://common/webcommon/includes/scipio/lib/email/emailVariables.groovy"));
+        for (String location : locations) {
+            assertTrue("component location: " + location, location.startsWith("component://"));
+            assertTrue("template or script: " + location, location.endsWith(".ftl") || location.endsWith(".groovy"));
+            String relPath = location.substring(location.indexOf('/', "component://".length()));
+            assertFalse("not excluded: " + location, container.isExcluded(relPath));
+        }
+    }
+
+    public void testFindScreenTemplates() throws Exception {
+        Set<String> screenTemplates = container.findScreenTemplates();
+        assertTrue("html-template", screenTemplates.contains(SCREEN_TEMPLATE));
+        assertFalse("not referenced by screens", screenTemplates.contains(OTHER_TEMPLATE));
+        for (String location : screenTemplates) {
+            assertFalse("no expressions: " + location, location.contains("${"));
+        }
+    }
+
+    public void testCompile() throws Exception {
+        // creates both caches
+        HtmlWidget.getFtlConfig();
+        FreeMarkerWorker.getDefaultOfbizConfig();
+        UtilCache<String, ?> screenCache = UtilCache.findCache("widget.screen.template.ftl.general");
+        UtilCache<String, ?> generalCache = UtilCache.findCache("template.ftl.general");
+        screenCache.remove(SCREEN_TEMPLATE);
+        generalCache.remove(SCREEN_TEMPLATE);
+        screenCache.remove(OTHER_TEMPLATE);
+        generalCache.remove(OTHER_TEMPLATE);
+        AtomicInteger errorCount = new AtomicInteger();
+        Set<String> screenTemplates = Collections.singleton(SCREEN_TEMPLATE);
+
+        assertTrue("screen template", container.compile(SCREEN_TEMPLATE, screenTemplates, errorCount).startsWith("OK "));
+        assertTrue("in the html-template cache", screenCache.containsKey(SCREEN_TEMPLATE));
+        assertFalse("not in the general cache", generalCache.containsKey(SCREEN_TEMPLATE));
+
+        assertTrue("other template", container.compile(OTHER_TEMPLATE, screenTemplates, errorCount).startsWith("OK "));
+        assertTrue("in the general cache", generalCache.containsKey(OTHER_TEMPLATE));
+        assertFalse("not in the html-template cache", screenCache.containsKey(OTHER_TEMPLATE));
+        assertEquals("errors", 0, errorCount.get());
+    }
+
+    public void testCompileBadTemplate() throws Exception {
+        File file = File.createTempFile("TemplateWarmupTests", ".ftl");
+        try {
+            Files.write(file.toPath(), "<#if>unclosed".getBytes(StandardCharsets.UTF_8));
+            String location = file.toURI().toString();
+            AtomicInteger errorCount = new AtomicInteger();
+            String result = container.compile(location, Collections.<String>emptySet(), errorCount);
+            assertTrue("error line: " + result, result.startsWith("ERROR " + location + " "));
+            assertFalse("single line", result.contains("\n"));
+            assertEquals("errors", 1, errorCount.get());
+            assertFalse("not cached", UtilCache.findCache("template.ftl.general").containsKey(location));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /** Makes the file lists and compile of {@link TemplateWarmupContainer} visible to the tests. */
+    private static class TestWarmupContainer extends TemplateWarmupContainer {
+        @Override
+        protected List<String> findLocations() {
+            return super.findLocations();
+        }
+
+        @Override
+        protected Set<String> findScreenTemplates() {
+            return super.findScreenTemplates();
+        }
+
+        @Override
+        protected boolean isExcluded(String relPath) {
+            return super.isExcluded(relPath);
+        }
+
+        @Override
+        protected String compile(String location, Set<String> screenTemplates, AtomicInteger errorCount) {
+            return super.compile(location, screenTemplates, errorCount);
+        }
+    }
+}